@@ -0,0 +1,199 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+#include "flutter/shell/platform/android/android_image_texture_gl.h"
+
+#include <GLES/glext.h>
+
+#include "flutter/fml/logging.h"
+#include "flutter/fml/native_library.h"
+#include "third_party/skia/include/core/SkAlphaType.h"
+#include "third_party/skia/include/core/SkColorType.h"
+#include "third_party/skia/include/core/SkImage.h"
+#include "third_party/skia/include/gpu/GrBackendSurface.h"
+#include "third_party/skia/include/gpu/GrDirectContext.h"
+#include "third_party/skia/include/gpu/gl/GrGLTypes.h"
+
+struct AHardwareBuffer;
+
+namespace flutter {
+
+namespace {
+
+// The functions used to wrap a `HardwareBuffer` in a GL texture. They are
+// resolved at runtime because they are only available on API 26 and above,
+// while the embedder supports older versions.
+struct HardwareBufferProcs {
+  using ReleaseProc = void (*)(AHardwareBuffer*);
+  using GetNativeClientBufferProc =
+      EGLClientBuffer (*)(const AHardwareBuffer*);
+  using CreateImageProc = EGLImageKHR (*)(EGLDisplay,
+                                          EGLContext,
+                                          EGLenum,
+                                          EGLClientBuffer,
+                                          const EGLint*);
+  using DestroyImageProc = EGLBoolean (*)(EGLDisplay, EGLImageKHR);
+  using ImageTargetTextureProc = void (*)(GLenum, GLeglImageOES);
+
+  ReleaseProc release = nullptr;
+  GetNativeClientBufferProc get_native_client_buffer = nullptr;
+  CreateImageProc create_image = nullptr;
+  DestroyImageProc destroy_image = nullptr;
+  ImageTargetTextureProc image_target_texture = nullptr;
+
+  bool IsValid() const {
+    return release != nullptr && get_native_client_buffer != nullptr &&
+           create_image != nullptr && destroy_image != nullptr &&
+           image_target_texture != nullptr;
+  }
+
+  static const HardwareBufferProcs& Get() {
+    static const HardwareBufferProcs procs = Resolve();
+    return procs;
+  }
+
+ private:
+  static HardwareBufferProcs Resolve() {
+    HardwareBufferProcs procs;
+    auto libandroid = fml::NativeLibrary::Create("libandroid.so");
+    if (libandroid) {
+      procs.release =
+          libandroid->ResolveFunction<ReleaseProc>("AHardwareBuffer_release")
+              .value_or(nullptr);
+    }
+    procs.get_native_client_buffer =
+        reinterpret_cast<GetNativeClientBufferProc>(
+            eglGetProcAddress("eglGetNativeClientBufferANDROID"));
+    procs.create_image = reinterpret_cast<CreateImageProc>(
+        eglGetProcAddress("eglCreateImageKHR"));
+    procs.destroy_image = reinterpret_cast<DestroyImageProc>(
+        eglGetProcAddress("eglDestroyImageKHR"));
+    procs.image_target_texture = reinterpret_cast<ImageTargetTextureProc>(
+        eglGetProcAddress("glEGLImageTargetTexture2DOES"));
+    if (!procs.IsValid()) {
+      FML_LOG(ERROR) << "HardwareBuffer backed textures are not supported.";
+    }
+    return procs;
+  }
+};
+
+}  // namespace
+
+AndroidImageTextureGL::AndroidImageTextureGL(
+    int64_t id,
+    const fml::jni::ScopedJavaGlobalRef<jobject>& image_texture,
+    std::shared_ptr<PlatformViewAndroidJNI> jni_facade)
+    : Texture(id), jni_facade_(jni_facade), image_texture_(image_texture) {}
+
+AndroidImageTextureGL::~AndroidImageTextureGL() {
+  ReleaseImage();
+  if (state_ == AttachmentState::attached) {
+    glDeleteTextures(1, &texture_name_);
+  }
+}
+
+void AndroidImageTextureGL::OnGrContextCreated() {
+  state_ = AttachmentState::uninitialized;
+}
+
+void AndroidImageTextureGL::MarkNewFrameAvailable() {
+  new_frame_ready_ = true;
+}
+
+void AndroidImageTextureGL::Paint(SkCanvas& canvas,
+                                  const SkRect& bounds,
+                                  bool freeze,
+                                  GrDirectContext* context,
+                                  const SkSamplingOptions& sampling,
+                                  const SkPaint* paint) {
+  if (state_ == AttachmentState::detached) {
+    return;
+  }
+  if (state_ == AttachmentState::uninitialized) {
+    // Any image bound to a texture of a previous context must be rebound.
+    ReleaseImage();
+    glGenTextures(1, &texture_name_);
+    state_ = AttachmentState::attached;
+  }
+  // Without a bound image, e.g. after the GrContext was recreated, rebind the
+  // image currently shown even if no new frame is available.
+  if ((!freeze && new_frame_ready_) || egl_image_ == EGL_NO_IMAGE_KHR) {
+    if (UpdateImage()) {
+      context->resetContext(kTextureBinding_GrGLBackendState);
+    }
+    new_frame_ready_ = false;
+  }
+  if (egl_image_ == EGL_NO_IMAGE_KHR) {
+    return;
+  }
+  GrGLTextureInfo textureInfo = {GL_TEXTURE_EXTERNAL_OES, texture_name_,
+                                 GL_RGBA8_OES};
+  GrBackendTexture backendTexture(1, 1, GrMipMapped::kNo, textureInfo);
+  sk_sp<SkImage> image = SkImage::MakeFromTexture(
+      context, backendTexture, kTopLeft_GrSurfaceOrigin, kRGBA_8888_SkColorType,
+      kPremul_SkAlphaType, nullptr);
+  if (image) {
+    SkAutoCanvasRestore autoRestore(&canvas, true);
+    canvas.translate(bounds.x(), bounds.y());
+    canvas.scale(bounds.width(), bounds.height());
+    canvas.drawImage(image, 0, 0, sampling, paint);
+  }
+}
+
+bool AndroidImageTextureGL::UpdateImage() {
+  const HardwareBufferProcs& procs = HardwareBufferProcs::Get();
+  if (!procs.IsValid()) {
+    return false;
+  }
+
+  // The returned reference keeps the buffer alive even if the Java side
+  // closes its image, e.g. because the texture is released meanwhile.
+  AHardwareBuffer* buffer =
+      jni_facade_->ImageTextureAcquireLatestHardwareBuffer(
+          fml::jni::ScopedJavaLocalRef<jobject>(image_texture_));
+  if (buffer == nullptr) {
+    return false;
+  }
+
+  const EGLint attributes[] = {EGL_IMAGE_PRESERVED_KHR, EGL_TRUE, EGL_NONE};
+  EGLImageKHR egl_image = procs.create_image(
+      eglGetCurrentDisplay(), EGL_NO_CONTEXT, EGL_NATIVE_BUFFER_ANDROID,
+      procs.get_native_client_buffer(buffer), attributes);
+  if (egl_image == EGL_NO_IMAGE_KHR) {
+    FML_LOG(ERROR) << "Could not create an EGLImage from a HardwareBuffer.";
+    procs.release(buffer);
+    return false;
+  }
+
+  glBindTexture(GL_TEXTURE_EXTERNAL_OES, texture_name_);
+  procs.image_target_texture(GL_TEXTURE_EXTERNAL_OES,
+                             static_cast<GLeglImageOES>(egl_image));
+  ReleaseImage();
+  egl_image_ = egl_image;
+  hardware_buffer_ = buffer;
+  return true;
+}
+
+void AndroidImageTextureGL::ReleaseImage() {
+  if (egl_image_ == EGL_NO_IMAGE_KHR) {
+    return;
+  }
+  const HardwareBufferProcs& procs = HardwareBufferProcs::Get();
+  procs.destroy_image(eglGetCurrentDisplay(), egl_image_);
+  egl_image_ = EGL_NO_IMAGE_KHR;
+  procs.release(hardware_buffer_);
+  hardware_buffer_ = nullptr;
+}
+
+void AndroidImageTextureGL::OnGrContextDestroyed() {
+  ReleaseImage();
+  if (state_ == AttachmentState::attached) {
+    glDeleteTextures(1, &texture_name_);
+  }
+  state_ = AttachmentState::detached;
+}
+
+void AndroidImageTextureGL::OnTextureUnregistered() {}
+
+}  // namespace flutter
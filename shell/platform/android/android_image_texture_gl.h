@@ -0,0 +1,80 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+#ifndef FLUTTER_SHELL_PLATFORM_ANDROID_IMAGE_TEXTURE_GL_H_
+#define FLUTTER_SHELL_PLATFORM_ANDROID_IMAGE_TEXTURE_GL_H_
+
+#include <EGL/egl.h>
+#include <EGL/eglext.h>
+#include <GLES/gl.h>
+
+#include "flutter/common/graphics/texture.h"
+#include "flutter/shell/platform/android/platform_view_android_jni_impl.h"
+
+namespace flutter {
+
+//------------------------------------------------------------------------------
+/// An external texture whose frames are `HardwareBuffer`s produced into an
+/// `ImageReader` owned by an `ImageTextureWrapper` on the Java side.
+///
+/// Unlike `AndroidExternalTextureGL`, no `SurfaceTexture` is attached to or
+/// detached from the raster thread's GL context. Each new frame's buffer is
+/// wrapped in an `EGLImage` and bound to an external texture directly, which
+/// avoids the copy and the lock taken by `SurfaceTexture.updateTexImage`.
+///
+class AndroidImageTextureGL : public flutter::Texture {
+ public:
+  AndroidImageTextureGL(
+      int64_t id,
+      const fml::jni::ScopedJavaGlobalRef<jobject>& image_texture,
+      std::shared_ptr<PlatformViewAndroidJNI> jni_facade);
+
+  ~AndroidImageTextureGL() override;
+
+  void Paint(SkCanvas& canvas,
+             const SkRect& bounds,
+             bool freeze,
+             GrDirectContext* context,
+             const SkSamplingOptions& sampling,
+             const SkPaint* paint) override;
+
+  void OnGrContextCreated() override;
+
+  void OnGrContextDestroyed() override;
+
+  void MarkNewFrameAvailable() override;
+
+  void OnTextureUnregistered() override;
+
+ private:
+  // Binds the most recent buffer of the image texture to `texture_name_`.
+  // Returns whether the GL texture binding was changed.
+  bool UpdateImage();
+
+  void ReleaseImage();
+
+  enum class AttachmentState { uninitialized, attached, detached };
+
+  std::shared_ptr<PlatformViewAndroidJNI> jni_facade_;
+
+  fml::jni::ScopedJavaGlobalRef<jobject> image_texture_;
+
+  AttachmentState state_ = AttachmentState::uninitialized;
+
+  bool new_frame_ready_ = false;
+
+  GLuint texture_name_ = 0;
+
+  EGLImageKHR egl_image_ = EGL_NO_IMAGE_KHR;
+
+  // The reference to the buffer bound through `egl_image_`, which is only
+  // released once the image is destroyed.
+  AHardwareBuffer* hardware_buffer_ = nullptr;
+
+  FML_DISALLOW_COPY_AND_ASSIGN(AndroidImageTextureGL);
+};
+
+}  // namespace flutter
+
+#endif  // FLUTTER_SHELL_PLATFORM_ANDROID_IMAGE_TEXTURE_GL_H_
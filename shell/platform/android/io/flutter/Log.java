@@ -30,6 +30,16 @@ public class Log {
     Log.logLevel = logLevel;
   }
 
+  /**
+   * Returns whether messages of the given level are logged.
+   *
+   * <p>Call sites that build their message, e.g. by concatenation, on a hot path should check this
+   * first, since the message is built even if it's filtered out.
+   */
+  public static boolean isLoggable(int level) {
+    return level >= android.util.Log.WARN || (BuildConfig.DEBUG && logLevel <= level);
+  }
+
   public static void println(@NonNull int level, @NonNull String tag, @NonNull String message) {
     if (BuildConfig.DEBUG && logLevel <= level) {
       android.util.Log.println(level, tag, message);
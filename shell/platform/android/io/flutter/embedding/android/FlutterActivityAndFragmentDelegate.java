@@ -829,7 +829,9 @@ import java.util.List;
    * <p>A {@code Fragment} host must have its containing {@code Activity} forward this call so that
    * the {@code Fragment} can then invoke this method.
    *
-   * <p>This method sends a "memory pressure warning" message to Flutter over the "system channel".
+   * <p>This method sends a "memory pressure warning" message to Flutter over the "system channel",
+   * and releases the memory that the {@link io.flutter.plugin.platform.PlatformViewsController}
+   * holds for later frames.
    */
   void onTrimMemory(int level) {
     ensureAlive();
@@ -844,6 +846,7 @@ import java.util.List;
         flutterEngine.getDartExecutor().notifyLowMemoryWarning();
         flutterEngine.getSystemChannel().sendMemoryPressureWarning();
       }
+      flutterEngine.getPlatformViewsController().onTrimMemory(level);
     }
   }
 
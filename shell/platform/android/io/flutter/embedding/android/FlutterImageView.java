@@ -13,7 +13,6 @@ import android.graphics.ColorSpace;
 import android.graphics.PixelFormat;
 import android.hardware.HardwareBuffer;
 import android.media.Image;
-import android.media.Image.Plane;
 import android.media.ImageReader;
 import android.util.AttributeSet;
 import android.view.Surface;
@@ -24,7 +23,6 @@ import androidx.annotation.VisibleForTesting;
 import io.flutter.Log;
 import io.flutter.embedding.engine.renderer.FlutterRenderer;
 import io.flutter.embedding.engine.renderer.RenderSurface;
-import java.nio.ByteBuffer;
 import java.util.Locale;
 
 /**
@@ -38,15 +36,33 @@ import java.util.Locale;
  * <p>This {@code View} takes an {@link android.media.ImageReader} that provides the Flutter UI in
  * an {@link android.media.Image} and renders it to the {@link android.graphics.Canvas} in {@code
  * onDraw}.
+ *
+ * <p>Before Android Q, the pixels of each image are copied into a bitmap. The first copies are
+ * timed, and if they take too large a part of the frame budget of the UI thread, the copies of
+ * later images are done on a background thread instead. The Flutter UI may then be displayed
+ * slightly after the platform views of the same frame.
  */
 @TargetApi(19)
 public class FlutterImageView extends View implements RenderSurface {
   private static final String TAG = "FlutterImageView";
 
+  // The number of copies timed before deciding whether to copy on a background thread.
+  private static final int COPY_BENCHMARK_FRAME_COUNT = 10;
+  // A quarter of the budget of a 60Hz frame.
+  private static final long MAX_UI_THREAD_COPY_NANOS = 4_000_000;
+
   @NonNull private ImageReader imageReader;
   @Nullable private Image currentImage;
   @Nullable private Bitmap currentBitmap;
   @Nullable private FlutterRenderer flutterRenderer;
+  // Whether `currentBitmap` doesn't show `currentImage` yet.
+  private boolean isCurrentBitmapStale;
+
+  // Before Android Q, the copier of the images if they are copied on a background thread.
+  @Nullable private ImageBitmapCopier bitmapCopier;
+  // -1 until the first copy, which also allocates the bitmap and isn't timed.
+  private int timedCopyCount = -1;
+  private long timedCopyNanos;
 
   public ImageReader getImageReader() {
     return imageReader;
@@ -71,7 +87,7 @@ public class FlutterImageView extends View implements RenderSurface {
    * the Flutter UI.
    */
   public FlutterImageView(@NonNull Context context, int width, int height, SurfaceKind kind) {
-    this(context, createImageReader(width, height), kind);
+    this(context, createImageReader(width, height, kind), kind);
   }
 
   public FlutterImageView(@NonNull Context context) {
@@ -99,10 +115,23 @@ public class FlutterImageView extends View implements RenderSurface {
     Log.w(TAG, String.format(Locale.US, format, args));
   }
 
+  /**
+   * Creates an image reader suitable for a {@code FlutterImageView} of the given size and kind.
+   *
+   * <p>Overlay readers only hold two images on API 29 and above, where the current image is wrapped
+   * rather than copied, since overlays are acquired at most once per frame. Other readers hold a
+   * third image, so that the engine can render a frame while one image is drawn and the next one
+   * is queued.
+   *
+   * <p>The images are always RGBA_8888, since the engine renders to the surface with an RGBA_8888
+   * EGL config, and overlays are transparent.
+   */
+  @VisibleForTesting
   @TargetApi(19)
   @SuppressLint("WrongConstant") // RGBA_8888 is a valid constant.
   @NonNull
-  private static ImageReader createImageReader(int width, int height) {
+  /*package*/ static ImageReader createImageReader(
+      int width, int height, @NonNull SurfaceKind kind) {
     if (width <= 0) {
       logW("ImageReader width must be greater than 0, but given width=%d, set width=1", width);
       width = 1;
@@ -116,7 +145,7 @@ public class FlutterImageView extends View implements RenderSurface {
           width,
           height,
           PixelFormat.RGBA_8888,
-          3,
+          kind == SurfaceKind.overlay ? 2 : 3,
           HardwareBuffer.USAGE_GPU_SAMPLED_IMAGE | HardwareBuffer.USAGE_GPU_COLOR_OUTPUT);
     } else {
       return ImageReader.newInstance(width, height, PixelFormat.RGBA_8888, 3);
@@ -168,6 +197,9 @@ public class FlutterImageView extends View implements RenderSurface {
     acquireLatestImage();
     // Clear drawings.
     currentBitmap = null;
+    if (bitmapCopier != null) {
+      bitmapCopier.clear();
+    }
 
     // Close and clear the current image if any.
     closeCurrentImage();
@@ -194,17 +226,44 @@ public class FlutterImageView extends View implements RenderSurface {
     // or some special Android devices so the calls to `invalidate()` queued up
     // until the device produces a new frame.
     // 3. While the engine will also stop producing frames, there is a race condition.
-    final Image newImage = imageReader.acquireLatestImage();
-    if (newImage != null) {
+    final Image newImage = acquireLatestImageFromReader();
+    if (newImage != null && bitmapCopier != null) {
+      // The view is invalidated once the pixels are copied.
+      bitmapCopier.submit(newImage);
+    } else if (newImage != null) {
       // Only close current image after acquiring valid new image
       closeCurrentImage();
       currentImage = newImage;
+      isCurrentBitmapStale = true;
       invalidate();
     }
     return newImage != null;
   }
 
-  /** Creates a new image reader with the provided size. */
+  // Acquires the latest queued image, if any.
+  @TargetApi(19)
+  @Nullable
+  private Image acquireLatestImageFromReader() {
+    if (kind != SurfaceKind.overlay || imageReader.getMaxImages() > 2) {
+      return imageReader.acquireLatestImage();
+    }
+    // `ImageReader#acquireLatestImage()` holds two images while it skips the older ones, which
+    // together with the current image exceeds the images of an overlay reader. Since the current
+    // image is replaced anyway, close it first.
+    Image latestImage = imageReader.acquireNextImage();
+    if (latestImage == null) {
+      return null;
+    }
+    closeCurrentImage();
+    Image nextImage;
+    while ((nextImage = imageReader.acquireNextImage()) != null) {
+      latestImage.close();
+      latestImage = nextImage;
+    }
+    return latestImage;
+  }
+
+  /** Replaces the image reader if it doesn't have the provided size. */
   public void resizeIfNeeded(int width, int height) {
     if (flutterRenderer == null) {
       return;
@@ -215,10 +274,11 @@ public class FlutterImageView extends View implements RenderSurface {
 
     // Close resources.
     closeCurrentImage();
-    // Close the current image reader, then create a new one with the new size.
-    // Image readers cannot be resized once created.
+    // Close the current image reader, then create a new one with the new size. Image readers
+    // cannot be resized once created. The previous reader isn't kept for a later resize back to
+    // its size, since that would hold a second full size set of buffers.
     closeImageReader();
-    imageReader = createImageReader(width, height);
+    imageReader = createImageReader(width, height, kind);
   }
 
   /**
@@ -228,14 +288,25 @@ public class FlutterImageView extends View implements RenderSurface {
    * IllegalStateException}.
    */
   public void closeImageReader() {
+    if (bitmapCopier != null) {
+      // Wait for the copy in progress, which reads the buffer of an image of this reader.
+      bitmapCopier.clear();
+    }
     imageReader.close();
   }
 
   @Override
   protected void onDraw(Canvas canvas) {
     super.onDraw(canvas);
-    if (currentImage != null) {
+    if (bitmapCopier != null) {
+      final Bitmap copiedBitmap = bitmapCopier.acquireLatestBitmap();
+      if (copiedBitmap != null) {
+        currentBitmap = copiedBitmap;
+      }
+    } else if (currentImage != null && isCurrentBitmapStale) {
+      // Only update the bitmap once per image, since the view may be redrawn without a new image.
       updateCurrentBitmap();
+      isCurrentBitmapStale = false;
     }
     if (currentBitmap != null) {
       canvas.drawBitmap(currentBitmap, 0, 0, null);
@@ -257,26 +328,55 @@ public class FlutterImageView extends View implements RenderSurface {
       currentBitmap = Bitmap.wrapHardwareBuffer(buffer, ColorSpace.get(ColorSpace.Named.SRGB));
       buffer.close();
     } else {
-      final Plane[] imagePlanes = currentImage.getPlanes();
-      if (imagePlanes.length != 1) {
+      final long startNanos = System.nanoTime();
+      final Bitmap bitmap = ImageBitmapCopier.copyToBitmap(currentImage, currentBitmap);
+      if (bitmap == null) {
         return;
       }
+      currentBitmap = bitmap;
+      timeCopy(System.nanoTime() - startNanos);
+    }
+  }
 
-      final Plane imagePlane = imagePlanes[0];
-      final int desiredWidth = imagePlane.getRowStride() / imagePlane.getPixelStride();
-      final int desiredHeight = currentImage.getHeight();
-
-      if (currentBitmap == null
-          || currentBitmap.getWidth() != desiredWidth
-          || currentBitmap.getHeight() != desiredHeight) {
-        currentBitmap =
-            Bitmap.createBitmap(
-                desiredWidth, desiredHeight, android.graphics.Bitmap.Config.ARGB_8888);
-      }
-      ByteBuffer buffer = imagePlane.getBuffer();
-      buffer.rewind();
-      currentBitmap.copyPixelsFromBuffer(buffer);
+  // Switches to copying on a background thread if copying on the UI thread is too slow.
+  private void timeCopy(long copyNanos) {
+    if (timedCopyCount >= COPY_BENCHMARK_FRAME_COUNT || timedCopyCount++ < 0) {
+      return;
+    }
+    timedCopyNanos += copyNanos;
+    if (timedCopyCount < COPY_BENCHMARK_FRAME_COUNT) {
+      return;
     }
+    final long averageCopyNanos = timedCopyNanos / COPY_BENCHMARK_FRAME_COUNT;
+    if (averageCopyNanos > MAX_UI_THREAD_COPY_NANOS) {
+      Log.i(
+          TAG,
+          String.format(
+              Locale.US,
+              "Copying a frame takes %.1fms on average, copying on a background thread instead.",
+              averageCopyNanos / 1e6));
+      useBackgroundCopy();
+    }
+  }
+
+  @VisibleForTesting
+  void useBackgroundCopy() {
+    useBackgroundCopy(
+        new ImageBitmapCopier(
+            new ImageBitmapCopier.Listener() {
+              @Override
+              public void onBitmapReady() {
+                invalidate();
+              }
+            }));
+  }
+
+  @VisibleForTesting
+  void useBackgroundCopy(@NonNull ImageBitmapCopier copier) {
+    bitmapCopier = copier;
+    // The image was already copied into `currentBitmap`, and the copier needs its slot in the
+    // image reader.
+    closeCurrentImage();
   }
 
   @Override
@@ -58,6 +58,7 @@ import io.flutter.embedding.engine.renderer.FlutterRenderer.DisplayFeatureState;
 import io.flutter.embedding.engine.renderer.FlutterRenderer.DisplayFeatureType;
 import io.flutter.embedding.engine.renderer.FlutterUiDisplayListener;
 import io.flutter.embedding.engine.renderer.RenderSurface;
+import io.flutter.embedding.engine.systemchannels.KeyboardChannel;
 import io.flutter.embedding.engine.systemchannels.SettingsChannel;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.editing.SpellCheckPlugin;
@@ -772,30 +773,32 @@ public class FlutterView extends FrameLayout
       viewportMetrics.viewInsetLeft = 0;
     }
 
-    Log.v(
-        TAG,
-        "Updating window insets (onApplyWindowInsets()):\n"
-            + "Status bar insets: Top: "
-            + viewportMetrics.viewPaddingTop
-            + ", Left: "
-            + viewportMetrics.viewPaddingLeft
-            + ", Right: "
-            + viewportMetrics.viewPaddingRight
-            + "\n"
-            + "Keyboard insets: Bottom: "
-            + viewportMetrics.viewInsetBottom
-            + ", Left: "
-            + viewportMetrics.viewInsetLeft
-            + ", Right: "
-            + viewportMetrics.viewInsetRight
-            + "System Gesture Insets - Left: "
-            + viewportMetrics.systemGestureInsetLeft
-            + ", Top: "
-            + viewportMetrics.systemGestureInsetTop
-            + ", Right: "
-            + viewportMetrics.systemGestureInsetRight
-            + ", Bottom: "
-            + viewportMetrics.viewInsetBottom);
+    if (Log.isLoggable(Log.VERBOSE)) {
+      Log.v(
+          TAG,
+          "Updating window insets (onApplyWindowInsets()):\n"
+              + "Status bar insets: Top: "
+              + viewportMetrics.viewPaddingTop
+              + ", Left: "
+              + viewportMetrics.viewPaddingLeft
+              + ", Right: "
+              + viewportMetrics.viewPaddingRight
+              + "\n"
+              + "Keyboard insets: Bottom: "
+              + viewportMetrics.viewInsetBottom
+              + ", Left: "
+              + viewportMetrics.viewInsetLeft
+              + ", Right: "
+              + viewportMetrics.viewInsetRight
+              + "System Gesture Insets - Left: "
+              + viewportMetrics.systemGestureInsetLeft
+              + ", Top: "
+              + viewportMetrics.systemGestureInsetTop
+              + ", Right: "
+              + viewportMetrics.systemGestureInsetRight
+              + ", Bottom: "
+              + viewportMetrics.viewInsetBottom);
+    }
 
     sendViewportMetricsToFlutter();
     return newInsets;
@@ -824,22 +827,24 @@ public class FlutterView extends FrameLayout
       viewportMetrics.viewInsetBottom = insets.bottom;
       viewportMetrics.viewInsetLeft = 0;
 
-      Log.v(
-          TAG,
-          "Updating window insets (fitSystemWindows()):\n"
-              + "Status bar insets: Top: "
-              + viewportMetrics.viewPaddingTop
-              + ", Left: "
-              + viewportMetrics.viewPaddingLeft
-              + ", Right: "
-              + viewportMetrics.viewPaddingRight
-              + "\n"
-              + "Keyboard insets: Bottom: "
-              + viewportMetrics.viewInsetBottom
-              + ", Left: "
-              + viewportMetrics.viewInsetLeft
-              + ", Right: "
-              + viewportMetrics.viewInsetRight);
+      if (Log.isLoggable(Log.VERBOSE)) {
+        Log.v(
+            TAG,
+            "Updating window insets (fitSystemWindows()):\n"
+                + "Status bar insets: Top: "
+                + viewportMetrics.viewPaddingTop
+                + ", Left: "
+                + viewportMetrics.viewPaddingLeft
+                + ", Right: "
+                + viewportMetrics.viewPaddingRight
+                + "\n"
+                + "Keyboard insets: Bottom: "
+                + viewportMetrics.viewInsetBottom
+                + ", Left: "
+                + viewportMetrics.viewInsetLeft
+                + ", Right: "
+                + viewportMetrics.viewInsetRight);
+      }
 
       sendViewportMetricsToFlutter();
       return true;
@@ -1087,6 +1092,11 @@ public class FlutterView extends FrameLayout
     return flutterEngine.getDartExecutor();
   }
 
+  @Override
+  public KeyboardChannel getKeyboardChannel() {
+    return flutterEngine.getKeyboardChannel();
+  }
+
   @Override
   public boolean onTextInputKeyEvent(@NonNull KeyEvent keyEvent) {
     return textInputPlugin.handleKeyEvent(keyEvent);
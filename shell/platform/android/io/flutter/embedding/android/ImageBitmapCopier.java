@@ -0,0 +1,233 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.media.Image;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * Copies the pixels of the images of a {@link FlutterImageView} into bitmaps on a background
+ * thread, for devices where the image buffers can't be wrapped in a bitmap.
+ *
+ * <p>Images are submitted on the UI thread. The copier takes ownership of them, copies the most
+ * recent one into a spare bitmap, and notifies its listener on the UI thread once the bitmap is
+ * ready. Images submitted while a copy is in progress replace each other, so only the latest one
+ * is copied. At most three bitmaps are allocated: the one being drawn, the one ready to be drawn,
+ * and the one being filled.
+ */
+@TargetApi(19)
+final class ImageBitmapCopier {
+  /** Notified on the UI thread when a new bitmap is ready. */
+  interface Listener {
+    void onBitmapReady();
+  }
+
+  @Nullable private static Handler sharedCopyHandler;
+
+  @NonNull private final Handler copyHandler;
+  @NonNull private final Handler mainHandler;
+  @NonNull private final Listener listener;
+
+  private final Object lock = new Object();
+  // Guarded by `lock`.
+  @Nullable private Image pendingImage;
+  @Nullable private Bitmap readyBitmap;
+  private final ArrayList<Bitmap> spareBitmaps = new ArrayList<>();
+  // Whether `copyLatestImages` is posted or running.
+  private boolean copying;
+  // Whether an image is being copied.
+  private boolean copyInProgress;
+  private long droppedImageCount;
+  // Incremented by `clear`, so that the copies started before aren't published.
+  private int generation;
+
+  // Only accessed on the UI thread.
+  @Nullable private Bitmap frontBitmap;
+
+  private final Runnable copyLatestImages =
+      new Runnable() {
+        @Override
+        public void run() {
+          while (true) {
+            final Image image;
+            final int imageGeneration;
+            Bitmap bitmap = null;
+            synchronized (lock) {
+              image = pendingImage;
+              pendingImage = null;
+              if (image == null) {
+                copying = false;
+                return;
+              }
+              copyInProgress = true;
+              imageGeneration = generation;
+              if (!spareBitmaps.isEmpty()) {
+                bitmap = spareBitmaps.remove(spareBitmaps.size() - 1);
+              }
+            }
+            try {
+              bitmap = copyToBitmap(image, bitmap);
+            } finally {
+              image.close();
+              synchronized (lock) {
+                copyInProgress = false;
+                lock.notifyAll();
+              }
+            }
+            if (bitmap == null) {
+              continue;
+            }
+            synchronized (lock) {
+              if (imageGeneration != generation) {
+                continue;
+              }
+              if (readyBitmap != null) {
+                spareBitmaps.add(readyBitmap);
+              }
+              readyBitmap = bitmap;
+            }
+            mainHandler.post(notifyListener);
+          }
+        }
+      };
+
+  private final Runnable notifyListener =
+      new Runnable() {
+        @Override
+        public void run() {
+          listener.onBitmapReady();
+        }
+      };
+
+  ImageBitmapCopier(@NonNull Listener listener) {
+    this(getSharedCopyHandler(), new Handler(Looper.getMainLooper()), listener);
+  }
+
+  @VisibleForTesting
+  ImageBitmapCopier(
+      @NonNull Handler copyHandler, @NonNull Handler mainHandler, @NonNull Listener listener) {
+    this.copyHandler = copyHandler;
+    this.mainHandler = mainHandler;
+    this.listener = listener;
+  }
+
+  /** Queues the copy of {@code image}, which is closed by the copier. */
+  void submit(@NonNull Image image) {
+    synchronized (lock) {
+      if (pendingImage != null) {
+        pendingImage.close();
+        droppedImageCount++;
+      }
+      pendingImage = image;
+      if (!copying) {
+        copying = true;
+        copyHandler.post(copyLatestImages);
+      }
+    }
+  }
+
+  /**
+   * Returns the most recently copied bitmap, which stays valid until the next call.
+   *
+   * <p>Must be called on the UI thread.
+   */
+  @Nullable
+  Bitmap acquireLatestBitmap() {
+    synchronized (lock) {
+      if (readyBitmap != null) {
+        if (frontBitmap != null) {
+          spareBitmaps.add(frontBitmap);
+        }
+        frontBitmap = readyBitmap;
+        readyBitmap = null;
+      }
+    }
+    return frontBitmap;
+  }
+
+  /** Returns the number of submitted images that were replaced before being copied. */
+  long droppedImageCount() {
+    synchronized (lock) {
+      return droppedImageCount;
+    }
+  }
+
+  /**
+   * Drops the queued image and the copied bitmaps, and waits for the copy in progress, if any.
+   *
+   * <p>Afterwards, the image reader that produced the submitted images can be closed.
+   */
+  void clear() {
+    synchronized (lock) {
+      generation++;
+      if (pendingImage != null) {
+        pendingImage.close();
+        pendingImage = null;
+      }
+      boolean interrupted = false;
+      while (copyInProgress) {
+        try {
+          lock.wait();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+      readyBitmap = null;
+      spareBitmaps.clear();
+    }
+    frontBitmap = null;
+    mainHandler.removeCallbacks(notifyListener);
+  }
+
+  /**
+   * Copies the pixels of the single plane of {@code image} into {@code bitmap}, or into a new
+   * bitmap if it doesn't have the right size.
+   *
+   * @return The bitmap, or null if the image doesn't have a single plane.
+   */
+  @Nullable
+  static Bitmap copyToBitmap(@NonNull Image image, @Nullable Bitmap bitmap) {
+    final Image.Plane[] imagePlanes = image.getPlanes();
+    if (imagePlanes.length != 1) {
+      return null;
+    }
+
+    final Image.Plane imagePlane = imagePlanes[0];
+    final int desiredWidth = imagePlane.getRowStride() / imagePlane.getPixelStride();
+    final int desiredHeight = image.getHeight();
+
+    if (bitmap == null
+        || bitmap.getWidth() != desiredWidth
+        || bitmap.getHeight() != desiredHeight) {
+      bitmap = Bitmap.createBitmap(desiredWidth, desiredHeight, Bitmap.Config.ARGB_8888);
+    }
+    final ByteBuffer buffer = imagePlane.getBuffer();
+    buffer.rewind();
+    bitmap.copyPixelsFromBuffer(buffer);
+    return bitmap;
+  }
+
+  @NonNull
+  private static synchronized Handler getSharedCopyHandler() {
+    if (sharedCopyHandler == null) {
+      final HandlerThread thread = new HandlerThread("FlutterImageCopier");
+      thread.start();
+      sharedCopyHandler = new Handler(thread.getLooper());
+    }
+    return sharedCopyHandler;
+  }
+}
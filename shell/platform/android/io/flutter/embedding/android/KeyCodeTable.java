@@ -0,0 +1,52 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import androidx.annotation.NonNull;
+import java.util.Map;
+
+/**
+ * An array-indexed lookup table from Android key codes or scan codes to Flutter keys.
+ *
+ * <p>The tables are built once from the generated {@link KeyboardMap}, whose codes are small and
+ * dense, so that {@link KeyEmbedderResponder} can resolve every event with an array read instead of
+ * a {@code HashMap<Long, Long>} lookup that boxes its key.
+ */
+final class KeyCodeTable {
+  /** The value returned by {@link #get(int)} for unmapped codes. No valid Flutter key is 0. */
+  static final long NOT_FOUND = 0L;
+
+  /**
+   * Maps Android scan codes to Flutter physical keys. See {@link KeyboardMap#scanCodeToPhysical}.
+   */
+  static final KeyCodeTable scanCodeToPhysical = new KeyCodeTable(KeyboardMap.scanCodeToPhysical);
+
+  /** Maps Android key codes to Flutter logical keys. See {@link KeyboardMap#keyCodeToLogical}. */
+  static final KeyCodeTable keyCodeToLogical = new KeyCodeTable(KeyboardMap.keyCodeToLogical);
+
+  @NonNull private final long[] table;
+
+  KeyCodeTable(@NonNull Map<Long, Long> mapping) {
+    long maxCode = -1;
+    for (final Long code : mapping.keySet()) {
+      if (code < 0 || code > Integer.MAX_VALUE - 1) {
+        throw new IllegalArgumentException("Key code out of range: " + code);
+      }
+      maxCode = Math.max(maxCode, code);
+    }
+    table = new long[(int) (maxCode + 1)];
+    for (final Map.Entry<Long, Long> entry : mapping.entrySet()) {
+      table[entry.getKey().intValue()] = entry.getValue();
+    }
+  }
+
+  /** Returns the Flutter key mapped to {@code code}, or {@link #NOT_FOUND} if there is none. */
+  long get(int code) {
+    if (code < 0 || code >= table.length) {
+      return NOT_FOUND;
+    }
+    return table[code];
+  }
+}
@@ -114,6 +114,19 @@ public class KeyData {
    * @return the marshalled bytes.
    */
   ByteBuffer toBytes() {
+    return toBytes(null);
+  }
+
+  /**
+   * Marshal the key data into {@code reusableBuffer} if it is large enough, or into a new byte
+   * buffer otherwise.
+   *
+   * <p>For the binary format, see {@code lib/ui/window/key_data_packet.h}.
+   *
+   * @return the marshalled bytes, positioned at the end of the packet.
+   */
+  @NonNull
+  ByteBuffer toBytes(@Nullable ByteBuffer reusableBuffer) {
     byte[] charBytes;
     try {
       charBytes = character == null ? null : character.getBytes("UTF-8");
@@ -121,8 +134,15 @@ public class KeyData {
       throw new AssertionError("UTF-8 not supported");
     }
     final int charSize = charBytes == null ? 0 : charBytes.length;
-    final ByteBuffer packet =
-        ByteBuffer.allocateDirect((1 + FIELD_COUNT) * BYTES_PER_FIELD + charSize);
+    final int packetSize = (1 + FIELD_COUNT) * BYTES_PER_FIELD + charSize;
+    final ByteBuffer packet;
+    if (reusableBuffer != null && reusableBuffer.capacity() >= packetSize) {
+      packet = reusableBuffer;
+      packet.clear();
+      packet.limit(packetSize);
+    } else {
+      packet = ByteBuffer.allocateDirect(packetSize);
+    }
     packet.order(ByteOrder.LITTLE_ENDIAN);
 
     packet.putLong(charSize);
@@ -137,4 +157,25 @@ public class KeyData {
 
     return packet;
   }
+
+  /**
+   * Marshals {@link KeyData} into a single reused direct buffer.
+   *
+   * <p>A {@link Serializer} must only be used with a messenger that copies the message before
+   * {@link io.flutter.plugin.common.BinaryMessenger#send} returns, since the returned buffer is
+   * overwritten by the next call to {@link #serialize(KeyData)}.
+   */
+  static class Serializer {
+    // Large enough for the fixed fields and a character of up to 8 UTF-8 bytes, which covers
+    // almost every key event. Longer characters grow the buffer.
+    private static final int INITIAL_CAPACITY = (1 + FIELD_COUNT) * BYTES_PER_FIELD + 8;
+
+    @NonNull private ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+
+    @NonNull
+    ByteBuffer serialize(@NonNull KeyData data) {
+      buffer = data.toBytes(buffer);
+      return buffer;
+    }
+  }
 }
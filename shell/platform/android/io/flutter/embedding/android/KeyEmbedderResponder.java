@@ -9,8 +9,9 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.flutter.embedding.android.KeyboardMap.PressingGoal;
 import io.flutter.embedding.android.KeyboardMap.TogglingGoal;
+import io.flutter.embedding.engine.dart.DartExecutor;
 import io.flutter.plugin.common.BinaryMessenger;
-import java.util.HashMap;
+import java.nio.ByteBuffer;
 
 /**
  * A {@link KeyboardManager.Responder} of {@link KeyboardManager} that handles events by sending
@@ -39,13 +40,26 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
   // On `handleEvent`, Flutter events are marshalled into byte buffers in the format specified by
   // `KeyData.toBytes`.
   @NonNull private final BinaryMessenger messenger;
+  // Reuses a single direct buffer for every marshalled event, or null if the messenger might
+  // retain the buffer after `send` returns.
+  //
+  // The `DartExecutor` forwards messages to `FlutterJNI`, which copies the message bytes before
+  // `send` returns, so its buffers can be safely reused.
+  @Nullable private final KeyData.Serializer serializer;
   // The keys being pressed currently, mapped from physical keys to logical keys.
-  @NonNull private final HashMap<Long, Long> pressingRecords = new HashMap<>();
-  // Map from logical key to toggling goals.
+  @NonNull private final LongLongMap pressingRecords = new LongLongMap();
+  // The toggling goals, looked up by logical key with a linear scan since there are only a few.
   //
   // Besides immutable configuration, the toggling goals are also used to store the current enabling
   // states in their `enabled` field.
-  @NonNull private final HashMap<Long, TogglingGoal> togglingGoals = new HashMap<>();
+  @NonNull private final TogglingGoal[] togglingGoals = KeyboardMap.getTogglingGoals();
+  // Scratch storage for `synchronizePressingKey`, sized for the largest pressing goal, so that
+  // synchronization does not allocate per event.
+  //
+  // `preEventStatesKnown[i]` is false while the pre-event state of key `i` is still undetermined.
+  @NonNull private final boolean[] nowStates;
+  @NonNull private final boolean[] preEventStates;
+  @NonNull private final boolean[] preEventStatesKnown;
 
   @NonNull
   private final KeyboardManager.CharacterCombiner characterCombiner =
@@ -53,9 +67,24 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
 
   public KeyEmbedderResponder(BinaryMessenger messenger) {
     this.messenger = messenger;
-    for (final TogglingGoal goal : KeyboardMap.getTogglingGoals()) {
-      togglingGoals.put(goal.logicalKey, goal);
+    this.serializer = messenger instanceof DartExecutor ? new KeyData.Serializer() : null;
+    int maxGoalKeys = 0;
+    for (final PressingGoal goal : KeyboardMap.pressingGoals) {
+      maxGoalKeys = Math.max(maxGoalKeys, goal.keys.length);
     }
+    nowStates = new boolean[maxGoalKeys];
+    preEventStates = new boolean[maxGoalKeys];
+    preEventStatesKnown = new boolean[maxGoalKeys];
+  }
+
+  @Nullable
+  private TogglingGoal getTogglingGoal(long logicalKey) {
+    for (final TogglingGoal goal : togglingGoals) {
+      if (goal.logicalKey == logicalKey) {
+        return goal;
+      }
+    }
+    return null;
   }
 
   private static long keyOfPlane(long key, long plane) {
@@ -66,27 +95,27 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
   // Get the physical key for this event.
   //
   // The returned value is never null.
-  private Long getPhysicalKey(@NonNull KeyEvent event) {
-    final long scancode = event.getScanCode();
+  private long getPhysicalKey(@NonNull KeyEvent event) {
+    final int scancode = event.getScanCode();
     // Scancode 0 can occur during emulation using `adb shell input keyevent`. Synthesize a physical
     // key from the key code so that keys can be told apart.
     if (scancode == 0) {
       // The key code can't also be 0, since those events have been filtered.
       return keyOfPlane(event.getKeyCode(), KeyboardMap.kLogicalPlane);
     }
-    final Long byMapping = KeyboardMap.scanCodeToPhysical.get(scancode);
-    if (byMapping != null) {
+    final long byMapping = KeyCodeTable.scanCodeToPhysical.get(scancode);
+    if (byMapping != KeyCodeTable.NOT_FOUND) {
       return byMapping;
     }
-    return keyOfPlane(event.getScanCode(), KeyboardMap.kAndroidPlane);
+    return keyOfPlane(scancode, KeyboardMap.kAndroidPlane);
   }
 
   // Get the logical key for this event.
   //
   // The returned value is never null.
-  private Long getLogicalKey(@NonNull KeyEvent event) {
-    final Long byMapping = KeyboardMap.keyCodeToLogical.get((long) event.getKeyCode());
-    if (byMapping != null) {
+  private long getLogicalKey(@NonNull KeyEvent event) {
+    final long byMapping = KeyCodeTable.keyCodeToLogical.get(event.getKeyCode());
+    if (byMapping != KeyCodeTable.NOT_FOUND) {
       return byMapping;
     }
     return keyOfPlane(event.getKeyCode(), KeyboardMap.kAndroidPlane);
@@ -94,20 +123,20 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
 
   // Update `pressingRecords`.
   //
-  // If the key indicated by `physicalKey` is currently not pressed, then `logicalKey` must not be
-  // null and this key will be marked pressed.
+  // If `isDown` is true, the key indicated by `physicalKey` must be currently not pressed, and will
+  // be marked pressed with `logicalKey`.
   //
-  // If the key indicated by `physicalKey` is currently pressed, then `logicalKey` must be null
-  // and this key will be marked released.
-  void updatePressingState(@NonNull Long physicalKey, @Nullable Long logicalKey) {
-    if (logicalKey != null) {
-      final Long previousValue = pressingRecords.put(physicalKey, logicalKey);
-      if (previousValue != null) {
+  // If `isDown` is false, the key indicated by `physicalKey` must be currently pressed, and will be
+  // marked released. `logicalKey` is ignored.
+  void updatePressingState(long physicalKey, boolean isDown, long logicalKey) {
+    if (isDown) {
+      final boolean existed = pressingRecords.put(physicalKey, logicalKey);
+      if (existed) {
         throw new AssertionError("The key was not empty");
       }
     } else {
-      final Long previousValue = pressingRecords.remove(physicalKey);
-      if (previousValue == null) {
+      final boolean existed = pressingRecords.remove(physicalKey);
+      if (!existed) {
         throw new AssertionError("The key was empty");
       }
     }
@@ -135,17 +164,16 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
     // The goal of the synchronization algorithm is to derive a pre-event state that can satisfy the
     // true state (`truePressed`) after the event, and that requires as few synthesized events based
     // on the current state (`nowStates`) as possible.
-    final boolean[] nowStates = new boolean[goal.keys.length];
-    final Boolean[] preEventStates = new Boolean[goal.keys.length];
     boolean postEventAnyPressed = false;
     // 1. Find the current states of all keys.
     // 2. Derive the pre-event state of the event key (if applicable.)
     for (int keyIdx = 0; keyIdx < goal.keys.length; keyIdx += 1) {
       nowStates[keyIdx] = pressingRecords.containsKey(goal.keys[keyIdx].physicalKey);
+      preEventStatesKnown[keyIdx] = false;
       if (goal.keys[keyIdx].logicalKey == eventLogicalKey) {
         switch (getEventType(event)) {
           case kDown:
-            preEventStates[keyIdx] = false;
+            setPreEventState(keyIdx, false);
             postEventAnyPressed = true;
             if (!truePressed) {
               throw new AssertionError(
@@ -158,7 +186,7 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
             // Incoming event is an up. Although the previous state should be pressed, don't
             // synthesize a down event even if it's not. The later code will handle such cases by
             // skipping abrupt up events. Obviously don't synthesize up events either.
-            preEventStates[keyIdx] = nowStates[keyIdx];
+            setPreEventState(keyIdx, nowStates[keyIdx]);
             break;
           case kRepeat:
             // Incoming event is repeat. The previous state can be either pressed or released. Don't
@@ -170,7 +198,7 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
                       "Unexpected metaState 0 for key 0x%x during an ACTION_down repeat event.",
                       eventLogicalKey));
             }
-            preEventStates[keyIdx] = nowStates[keyIdx];
+            setPreEventState(keyIdx, nowStates[keyIdx]);
             postEventAnyPressed = true;
             break;
         }
@@ -183,25 +211,25 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
     if (truePressed) {
       // It is required that at least one key is pressed.
       for (int keyIdx = 0; keyIdx < goal.keys.length; keyIdx += 1) {
-        if (preEventStates[keyIdx] != null) {
+        if (preEventStatesKnown[keyIdx]) {
           continue;
         }
         if (postEventAnyPressed) {
-          preEventStates[keyIdx] = nowStates[keyIdx];
+          setPreEventState(keyIdx, nowStates[keyIdx]);
         } else {
-          preEventStates[keyIdx] = true;
+          setPreEventState(keyIdx, true);
           postEventAnyPressed = true;
         }
       }
       if (!postEventAnyPressed) {
-        preEventStates[0] = true;
+        setPreEventState(0, true);
       }
     } else {
       for (int keyIdx = 0; keyIdx < goal.keys.length; keyIdx += 1) {
-        if (preEventStates[keyIdx] != null) {
+        if (preEventStatesKnown[keyIdx]) {
           continue;
         }
-        preEventStates[keyIdx] = false;
+        setPreEventState(keyIdx, false);
       }
     }
 
@@ -215,6 +243,11 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
     }
   }
 
+  private void setPreEventState(int keyIdx, boolean pressed) {
+    preEventStates[keyIdx] = pressed;
+    preEventStatesKnown[keyIdx] = true;
+  }
+
   // Synchronize for a toggling modifier (such as CapsLock).
   //
   // A toggling modifier is defined by a `TogglingGoal`, which consists of a mask to get the true
@@ -257,14 +290,14 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
     if (event.getScanCode() == 0 && event.getKeyCode() == 0) {
       return false;
     }
-    final Long physicalKey = getPhysicalKey(event);
-    final Long logicalKey = getLogicalKey(event);
+    final long physicalKey = getPhysicalKey(event);
+    final long logicalKey = getLogicalKey(event);
 
     for (final PressingGoal goal : KeyboardMap.pressingGoals) {
       synchronizePressingKey(goal, (event.getMetaState() & goal.mask) != 0, logicalKey, event);
     }
 
-    for (final TogglingGoal goal : togglingGoals.values()) {
+    for (final TogglingGoal goal : togglingGoals) {
       synchronizeTogglingKey(goal, (event.getMetaState() & goal.mask) != 0, logicalKey, event);
     }
 
@@ -282,9 +315,9 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
 
     KeyData.Type type;
     String character = null;
-    final Long lastLogicalRecord = pressingRecords.get(physicalKey);
+    final boolean wasPressed = pressingRecords.containsKey(physicalKey);
     if (isDownEvent) {
-      if (lastLogicalRecord == null) {
+      if (!wasPressed) {
         type = KeyData.Type.kDown;
       } else {
         // A key has been pressed that has the exact physical key as a currently
@@ -292,6 +325,7 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
         if (event.getRepeatCount() > 0) {
           type = KeyData.Type.kRepeat;
         } else {
+          final long lastLogicalRecord = pressingRecords.get(physicalKey, 0L);
           synthesizeEvent(false, lastLogicalRecord, physicalKey, event.getEventTime());
           type = KeyData.Type.kDown;
         }
@@ -302,7 +336,7 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
         character = "" + complexChar;
       }
     } else { // isDownEvent is false
-      if (lastLogicalRecord == null) {
+      if (!wasPressed) {
         // Ignore abrupt up events.
         return false;
       } else {
@@ -311,10 +345,10 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
     }
 
     if (type != KeyData.Type.kRepeat) {
-      updatePressingState(physicalKey, isDownEvent ? logicalKey : null);
+      updatePressingState(physicalKey, isDownEvent, logicalKey);
     }
     if (type == KeyData.Type.kDown) {
-      final TogglingGoal maybeTogglingGoal = togglingGoals.get(logicalKey);
+      final TogglingGoal maybeTogglingGoal = getTogglingGoal(logicalKey);
       if (maybeTogglingGoal != null) {
         maybeTogglingGoal.enabled = !maybeTogglingGoal.enabled;
       }
@@ -332,7 +366,7 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
     return true;
   }
 
-  private void synthesizeEvent(boolean isDown, Long logicalKey, Long physicalKey, long timestamp) {
+  private void synthesizeEvent(boolean isDown, long logicalKey, long physicalKey, long timestamp) {
     final KeyData output = new KeyData();
     output.timestamp = timestamp;
     output.type = isDown ? KeyData.Type.kDown : KeyData.Type.kUp;
@@ -341,7 +375,7 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
     output.character = null;
     output.synthesized = true;
     if (physicalKey != 0 && logicalKey != 0) {
-      updatePressingState(physicalKey, isDown ? logicalKey : null);
+      updatePressingState(physicalKey, isDown, logicalKey);
     }
     sendKeyEvent(output, null);
   }
@@ -359,7 +393,8 @@ public class KeyEmbedderResponder implements KeyboardManager.Responder {
               onKeyEventHandledCallback.onKeyEventHandled(handled);
             };
 
-    messenger.send(KeyData.CHANNEL, data.toBytes(), handleMessageReply);
+    final ByteBuffer packet = serializer == null ? data.toBytes() : serializer.serialize(data);
+    messenger.send(KeyData.CHANNEL, packet, handleMessageReply);
   }
 
   /**
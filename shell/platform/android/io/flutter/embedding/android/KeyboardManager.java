@@ -7,8 +7,10 @@ package io.flutter.embedding.android;
 import android.view.KeyCharacterMap;
 import android.view.KeyEvent;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.Log;
 import io.flutter.embedding.engine.systemchannels.KeyEventChannel;
+import io.flutter.embedding.engine.systemchannels.KeyboardChannel;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.editing.InputConnectionAdaptor;
 import io.flutter.plugin.editing.TextInputPlugin;
@@ -39,6 +41,14 @@ import java.util.HashSet;
  *       {@link KeyboardManager} will remember this event and skip the identical event at the next
  *       encounter.
  * </ul>
+ *
+ * <p>By default every event is sent both as binary {@link KeyData} through {@link
+ * KeyEmbedderResponder} and as JSON through the legacy {@link KeyChannelResponder}. A framework
+ * that no longer listens to the legacy {@code flutter/keyevent} channel can disable it by sending
+ * {@code setLegacyKeyEventsEnabled} with {@code false} on the {@code flutter/keyboard} channel,
+ * after which each event is only dispatched once. The {@link KeyboardChannel} that receives the
+ * message belongs to the {@link io.flutter.embedding.engine.FlutterEngine}, so the setting applies
+ * to every view of the engine.
  */
 public class KeyboardManager implements InputConnectionAdaptor.KeyboardDelegate {
   private static final String TAG = "KeyboardManager";
@@ -114,11 +124,25 @@ public class KeyboardManager implements InputConnectionAdaptor.KeyboardDelegate
    */
   public KeyboardManager(@NonNull ViewDelegate viewDelegate) {
     this.viewDelegate = viewDelegate;
+    final KeyEmbedderResponder embedderResponder =
+        new KeyEmbedderResponder(viewDelegate.getBinaryMessenger());
     this.responders =
         new Responder[] {
-          new KeyEmbedderResponder(viewDelegate.getBinaryMessenger()),
+          embedderResponder,
           new KeyChannelResponder(new KeyEventChannel(viewDelegate.getBinaryMessenger())),
         };
+    this.keyDataOnlyResponders = new Responder[] {embedderResponder};
+    this.keyboardChannel = viewDelegate.getKeyboardChannel();
+  }
+
+  /**
+   * Whether key events are also sent through the legacy {@code flutter/keyevent} channel.
+   *
+   * <p>When disabled, events are only sent as binary {@link KeyData}, which halves the number of
+   * platform messages per key event and skips JSON encoding entirely.
+   */
+  public boolean isLegacyKeyEventsEnabled() {
+    return keyboardChannel == null || keyboardChannel.isLegacyKeyEventsEnabled();
   }
 
   /**
@@ -161,6 +185,15 @@ public class KeyboardManager implements InputConnectionAdaptor.KeyboardDelegate
     /** Returns a {@link BinaryMessenger} to send platform messages with. */
     public BinaryMessenger getBinaryMessenger();
 
+    /**
+     * Returns the {@link KeyboardChannel} of the engine that the view renders, or null if there is
+     * none, in which case key events are always sent through the legacy channel as well.
+     */
+    @Nullable
+    default KeyboardChannel getKeyboardChannel() {
+      return null;
+    }
+
     /**
      * Send a {@link KeyEvent} that is not handled by the keyboard responders to the text input
      * system.
@@ -194,12 +227,13 @@ public class KeyboardManager implements InputConnectionAdaptor.KeyboardDelegate
       }
     }
 
-    PerEventCallbackBuilder(@NonNull KeyEvent keyEvent) {
+    PerEventCallbackBuilder(@NonNull KeyEvent keyEvent, int responderCount) {
       this.keyEvent = keyEvent;
+      this.unrepliedCount = responderCount;
     }
 
     final KeyEvent keyEvent;
-    int unrepliedCount = responders.length;
+    int unrepliedCount;
     boolean isEventHandled = false;
 
     public Responder.OnKeyEventHandledCallback buildCallback() {
@@ -208,6 +242,9 @@ public class KeyboardManager implements InputConnectionAdaptor.KeyboardDelegate
   }
 
   protected final Responder[] responders;
+  // The responders that receive events when the legacy channel is disabled.
+  private final Responder[] keyDataOnlyResponders;
+  @Nullable private final KeyboardChannel keyboardChannel;
   private final HashSet<KeyEvent> redispatchedEvents = new HashSet<>();
   private final ViewDelegate viewDelegate;
 
@@ -218,9 +255,12 @@ public class KeyboardManager implements InputConnectionAdaptor.KeyboardDelegate
       return false;
     }
 
-    if (responders.length > 0) {
-      final PerEventCallbackBuilder callbackBuilder = new PerEventCallbackBuilder(keyEvent);
-      for (final Responder primaryResponder : responders) {
+    final Responder[] currentResponders =
+        isLegacyKeyEventsEnabled() ? responders : keyDataOnlyResponders;
+    if (currentResponders.length > 0) {
+      final PerEventCallbackBuilder callbackBuilder =
+          new PerEventCallbackBuilder(keyEvent, currentResponders.length);
+      for (final Responder primaryResponder : currentResponders) {
         primaryResponder.handleEvent(keyEvent, callbackBuilder.buildCallback());
       }
     } else {
@@ -0,0 +1,172 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from {@code long} keys to {@code long} values.
+ *
+ * <p>Unlike {@code HashMap<Long, Long>}, lookups and updates do not box their arguments, and no
+ * entry objects are allocated, so the map can be updated on every key event without generating
+ * garbage. The backing arrays only grow when the number of entries exceeds three quarters of the
+ * capacity.
+ *
+ * <p>This class is not thread safe.
+ */
+final class LongLongMap {
+  // Marks an unused slot. Entries with this key are stored separately in `zeroKeyValue`.
+  private static final long EMPTY_KEY = 0L;
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private long[] keys;
+  private long[] values;
+  private int size;
+  private boolean hasZeroKey;
+  private long zeroKeyValue;
+
+  LongLongMap() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty map that can hold {@code expectedSize} entries without resizing.
+   *
+   * @param expectedSize the number of entries expected to be stored at once.
+   */
+  LongLongMap(int expectedSize) {
+    int capacity = DEFAULT_CAPACITY;
+    while (capacity * 3 / 4 < expectedSize) {
+      capacity <<= 1;
+    }
+    keys = new long[capacity];
+    values = new long[capacity];
+  }
+
+  /** The number of entries in this map. */
+  int size() {
+    return size + (hasZeroKey ? 1 : 0);
+  }
+
+  boolean isEmpty() {
+    return size() == 0;
+  }
+
+  boolean containsKey(long key) {
+    if (key == EMPTY_KEY) {
+      return hasZeroKey;
+    }
+    return keys[indexOf(key)] == key;
+  }
+
+  /**
+   * Returns the value mapped to {@code key}, or {@code defaultValue} if the key is not in this map.
+   */
+  long get(long key, long defaultValue) {
+    if (key == EMPTY_KEY) {
+      return hasZeroKey ? zeroKeyValue : defaultValue;
+    }
+    final int index = indexOf(key);
+    return keys[index] == key ? values[index] : defaultValue;
+  }
+
+  /**
+   * Maps {@code key} to {@code value}.
+   *
+   * @return whether {@code key} was already in this map, in which case its value is replaced.
+   */
+  boolean put(long key, long value) {
+    if (key == EMPTY_KEY) {
+      final boolean existed = hasZeroKey;
+      hasZeroKey = true;
+      zeroKeyValue = value;
+      return existed;
+    }
+    int index = indexOf(key);
+    if (keys[index] == key) {
+      values[index] = value;
+      return true;
+    }
+    keys[index] = key;
+    values[index] = value;
+    size += 1;
+    if (size > keys.length * 3 / 4) {
+      rehash(keys.length << 1);
+    }
+    return false;
+  }
+
+  /**
+   * Removes the entry for {@code key}.
+   *
+   * @return whether {@code key} was in this map.
+   */
+  boolean remove(long key) {
+    if (key == EMPTY_KEY) {
+      final boolean existed = hasZeroKey;
+      hasZeroKey = false;
+      return existed;
+    }
+    int index = indexOf(key);
+    if (keys[index] != key) {
+      return false;
+    }
+    keys[index] = EMPTY_KEY;
+    size -= 1;
+    // Shift back the following entries of the probe sequence so that lookups never stop at the
+    // freed slot before reaching them.
+    final int mask = keys.length - 1;
+    int next = (index + 1) & mask;
+    while (keys[next] != EMPTY_KEY) {
+      final int home = hash(keys[next]) & mask;
+      // Move the entry if its home slot is not cyclically within (index, next].
+      if (((next - home) & mask) >= ((next - index) & mask)) {
+        keys[index] = keys[next];
+        values[index] = values[next];
+        keys[next] = EMPTY_KEY;
+        index = next;
+      }
+      next = (next + 1) & mask;
+    }
+    return true;
+  }
+
+  void clear() {
+    Arrays.fill(keys, EMPTY_KEY);
+    size = 0;
+    hasZeroKey = false;
+  }
+
+  // Returns the slot that holds `key`, or the empty slot where `key` would be inserted.
+  private int indexOf(long key) {
+    final int mask = keys.length - 1;
+    int index = hash(key) & mask;
+    while (keys[index] != EMPTY_KEY && keys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  private void rehash(int newCapacity) {
+    final long[] oldKeys = keys;
+    final long[] oldValues = values;
+    keys = new long[newCapacity];
+    values = new long[newCapacity];
+    for (int i = 0; i < oldKeys.length; i += 1) {
+      if (oldKeys[i] != EMPTY_KEY) {
+        final int index = indexOf(oldKeys[i]);
+        keys[index] = oldKeys[i];
+        values[index] = oldValues[i];
+      }
+    }
+  }
+
+  private static int hash(long key) {
+    // Mix the bits so that keys in the same plane, which only differ in their low bits, spread
+    // evenly over the table.
+    long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+}
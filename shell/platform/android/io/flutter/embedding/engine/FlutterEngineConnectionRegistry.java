@@ -11,12 +11,17 @@ import android.content.ContentProvider;
 import android.content.Context;
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
 import androidx.lifecycle.Lifecycle;
+import io.flutter.FlutterInjector;
 import io.flutter.Log;
 import io.flutter.embedding.android.ExclusiveAppComponent;
 import io.flutter.embedding.engine.loader.FlutterLoader;
+import io.flutter.embedding.engine.plugins.DeferrableFlutterPlugin;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.embedding.engine.plugins.PluginRegistry;
 import io.flutter.embedding.engine.plugins.activity.ActivityAware;
@@ -32,11 +37,15 @@ import io.flutter.embedding.engine.plugins.lifecycle.HiddenLifecycleReference;
 import io.flutter.embedding.engine.plugins.service.ServiceAware;
 import io.flutter.embedding.engine.plugins.service.ServiceControlSurface;
 import io.flutter.embedding.engine.plugins.service.ServicePluginBinding;
+import io.flutter.embedding.engine.renderer.FlutterUiDisplayListener;
 import io.flutter.util.TraceSection;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is owned by the {@link io.flutter.embedding.engine.FlutterEngine} and its role is to
@@ -53,10 +62,40 @@ import java.util.Set;
         ContentProviderControlSurface {
   private static final String TAG = "FlutterEngineCxnRegstry";
 
+  // Plugins that take longer than a frame to attach are logged.
+  private static final long SLOW_PLUGIN_ATTACH_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+  // The longest that a deferred plugin waits for the first frame.
+  private static final long MAX_PLUGIN_DEFERRAL_MILLIS = 5000;
+
   // PluginRegistry
   @NonNull
   private final Map<Class<? extends FlutterPlugin>, FlutterPlugin> plugins = new HashMap<>();
 
+  @NonNull
+  private final Map<Class<? extends FlutterPlugin>, Long> pluginAttachTimesNanos =
+      new LinkedHashMap<>();
+
+  // Plugins whose first onAttachedToActivity() is already counted in pluginAttachTimesNanos.
+  @NonNull
+  private final Set<Class<? extends FlutterPlugin>> pluginsWithActivityAttachTime =
+      new HashSet<>();
+
+  // DeferrableFlutterPlugin
+  // Plugins that wait for the first frame, or for their main thread message after it.
+  @NonNull
+  private final Map<Class<? extends FlutterPlugin>, DeferrableFlutterPlugin> deferredPlugins =
+      new LinkedHashMap<>();
+
+  // Plugins whose onAttachedToEngine() runs on a background thread.
+  @NonNull
+  private final Map<Class<? extends FlutterPlugin>, DeferrableFlutterPlugin>
+      pluginsAttachingInBackground = new HashMap<>();
+
+  private boolean isDeferringPlugins = true;
+  @Nullable private FlutterUiDisplayListener firstFrameListener;
+  @NonNull private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  @NonNull private final Runnable attachDeferredPluginsRunnable = this::attachDeferredPlugins;
+
   // Standard FlutterPlugin
   @NonNull private final FlutterEngine flutterEngine;
   @NonNull private final FlutterPlugin.FlutterPluginBinding pluginBinding;
@@ -117,15 +156,18 @@ import java.util.Set;
     // detachment.
     detachFromAppComponent();
 
+    // Stop waiting for the first frame to attach deferred plugins.
+    stopDeferringPlugins();
+
     // Remove all registered plugins.
     removeAll();
   }
 
   @Override
   public void add(@NonNull FlutterPlugin plugin) {
-    TraceSection.begin("FlutterEngineConnectionRegistry#add " + plugin.getClass().getSimpleName());
+    TraceSection.begin("FlutterEngineConnectionRegistry#add ", plugin.getClass().getSimpleName());
     try {
-      if (has(plugin.getClass())) {
+      if (has(plugin.getClass()) || isWaitingToAttach(plugin.getClass())) {
         Log.w(
             TAG,
             "Attempted to register plugin ("
@@ -137,61 +179,77 @@ import java.util.Set;
         return;
       }
 
-      Log.v(TAG, "Adding plugin: " + plugin);
+      if (plugin instanceof DeferrableFlutterPlugin && isDeferringPlugins) {
+        deferPlugin((DeferrableFlutterPlugin) plugin);
+        return;
+      }
+
+      if (Log.isLoggable(Log.VERBOSE)) {
+        Log.v(TAG, "Adding plugin: " + plugin);
+      }
+      final long startNanos = System.nanoTime();
       // Add the plugin to our generic set of plugins and notify the plugin
       // that is has been attached to an engine.
       plugins.put(plugin.getClass(), plugin);
       plugin.onAttachedToEngine(pluginBinding);
 
-      // For ActivityAware plugins, add the plugin to our set of ActivityAware
-      // plugins, and if this engine is currently attached to an Activity,
-      // notify the ActivityAware plugin that it is now attached to an Activity.
-      if (plugin instanceof ActivityAware) {
-        ActivityAware activityAware = (ActivityAware) plugin;
-        activityAwarePlugins.put(plugin.getClass(), activityAware);
+      attachToAppComponent(plugin);
+      recordAttachTime(plugin.getClass(), System.nanoTime() - startNanos);
+    } finally {
+      TraceSection.end();
+    }
+  }
 
-        if (isAttachedToActivity()) {
-          activityAware.onAttachedToActivity(activityPluginBinding);
-        }
+  // Notifies the plugin of the app component this engine is attached to, if the plugin is aware of
+  // it.
+  private void attachToAppComponent(@NonNull FlutterPlugin plugin) {
+    // For ActivityAware plugins, add the plugin to our set of ActivityAware
+    // plugins, and if this engine is currently attached to an Activity,
+    // notify the ActivityAware plugin that it is now attached to an Activity.
+    if (plugin instanceof ActivityAware) {
+      ActivityAware activityAware = (ActivityAware) plugin;
+      activityAwarePlugins.put(plugin.getClass(), activityAware);
+
+      if (isAttachedToActivity()) {
+        activityAware.onAttachedToActivity(activityPluginBinding);
+        pluginsWithActivityAttachTime.add(plugin.getClass());
       }
+    }
 
-      // For ServiceAware plugins, add the plugin to our set of ServiceAware
-      // plugins, and if this engine is currently attached to a Service,
-      // notify the ServiceAware plugin that it is now attached to a Service.
-      if (plugin instanceof ServiceAware) {
-        ServiceAware serviceAware = (ServiceAware) plugin;
-        serviceAwarePlugins.put(plugin.getClass(), serviceAware);
+    // For ServiceAware plugins, add the plugin to our set of ServiceAware
+    // plugins, and if this engine is currently attached to a Service,
+    // notify the ServiceAware plugin that it is now attached to a Service.
+    if (plugin instanceof ServiceAware) {
+      ServiceAware serviceAware = (ServiceAware) plugin;
+      serviceAwarePlugins.put(plugin.getClass(), serviceAware);
 
-        if (isAttachedToService()) {
-          serviceAware.onAttachedToService(servicePluginBinding);
-        }
+      if (isAttachedToService()) {
+        serviceAware.onAttachedToService(servicePluginBinding);
       }
+    }
 
-      // For BroadcastReceiverAware plugins, add the plugin to our set of BroadcastReceiverAware
-      // plugins, and if this engine is currently attached to a BroadcastReceiver,
-      // notify the BroadcastReceiverAware plugin that it is now attached to a BroadcastReceiver.
-      if (plugin instanceof BroadcastReceiverAware) {
-        BroadcastReceiverAware broadcastReceiverAware = (BroadcastReceiverAware) plugin;
-        broadcastReceiverAwarePlugins.put(plugin.getClass(), broadcastReceiverAware);
+    // For BroadcastReceiverAware plugins, add the plugin to our set of BroadcastReceiverAware
+    // plugins, and if this engine is currently attached to a BroadcastReceiver,
+    // notify the BroadcastReceiverAware plugin that it is now attached to a BroadcastReceiver.
+    if (plugin instanceof BroadcastReceiverAware) {
+      BroadcastReceiverAware broadcastReceiverAware = (BroadcastReceiverAware) plugin;
+      broadcastReceiverAwarePlugins.put(plugin.getClass(), broadcastReceiverAware);
 
-        if (isAttachedToBroadcastReceiver()) {
-          broadcastReceiverAware.onAttachedToBroadcastReceiver(broadcastReceiverPluginBinding);
-        }
+      if (isAttachedToBroadcastReceiver()) {
+        broadcastReceiverAware.onAttachedToBroadcastReceiver(broadcastReceiverPluginBinding);
       }
+    }
 
-      // For ContentProviderAware plugins, add the plugin to our set of ContentProviderAware
-      // plugins, and if this engine is currently attached to a ContentProvider,
-      // notify the ContentProviderAware plugin that it is now attached to a ContentProvider.
-      if (plugin instanceof ContentProviderAware) {
-        ContentProviderAware contentProviderAware = (ContentProviderAware) plugin;
-        contentProviderAwarePlugins.put(plugin.getClass(), contentProviderAware);
+    // For ContentProviderAware plugins, add the plugin to our set of ContentProviderAware
+    // plugins, and if this engine is currently attached to a ContentProvider,
+    // notify the ContentProviderAware plugin that it is now attached to a ContentProvider.
+    if (plugin instanceof ContentProviderAware) {
+      ContentProviderAware contentProviderAware = (ContentProviderAware) plugin;
+      contentProviderAwarePlugins.put(plugin.getClass(), contentProviderAware);
 
-        if (isAttachedToContentProvider()) {
-          contentProviderAware.onAttachedToContentProvider(contentProviderPluginBinding);
-        }
+      if (isAttachedToContentProvider()) {
+        contentProviderAware.onAttachedToContentProvider(contentProviderPluginBinding);
       }
-    } finally {
-      TraceSection.end();
     }
   }
 
@@ -202,6 +260,142 @@ import java.util.Set;
     }
   }
 
+  // ----- Start DeferrableFlutterPlugin -----
+  private boolean isWaitingToAttach(@NonNull Class<? extends FlutterPlugin> pluginClass) {
+    return deferredPlugins.containsKey(pluginClass)
+        || pluginsAttachingInBackground.containsKey(pluginClass);
+  }
+
+  private void deferPlugin(@NonNull DeferrableFlutterPlugin plugin) {
+    if (Log.isLoggable(Log.VERBOSE)) {
+      Log.v(TAG, "Deferring plugin until the first frame: " + plugin);
+    }
+    deferredPlugins.put(plugin.getClass(), plugin);
+    if (firstFrameListener != null) {
+      return;
+    }
+
+    firstFrameListener =
+        new FlutterUiDisplayListener() {
+          @Override
+          public void onFlutterUiDisplayed() {
+            attachDeferredPlugins();
+          }
+
+          @Override
+          public void onFlutterUiNoLongerDisplayed() {}
+        };
+    // An engine that never displays a frame does not wait for it indefinitely.
+    mainHandler.postDelayed(attachDeferredPluginsRunnable, MAX_PLUGIN_DEFERRAL_MILLIS);
+    // Invokes the listener right away if the engine is already displaying a frame.
+    flutterEngine.getRenderer().addIsDisplayingFlutterUiListener(firstFrameListener);
+  }
+
+  private void stopDeferringPlugins() {
+    isDeferringPlugins = false;
+    mainHandler.removeCallbacks(attachDeferredPluginsRunnable);
+    if (firstFrameListener != null) {
+      flutterEngine.getRenderer().removeIsDisplayingFlutterUiListener(firstFrameListener);
+      firstFrameListener = null;
+    }
+  }
+
+  /**
+   * Attaches the plugins that were deferred until the first frame, each in its own main thread
+   * message, or on a background thread if the plugin allows it.
+   */
+  private void attachDeferredPlugins() {
+    if (!isDeferringPlugins) {
+      return;
+    }
+    stopDeferringPlugins();
+
+    for (final DeferrableFlutterPlugin plugin : new ArrayList<>(deferredPlugins.values())) {
+      if (plugin.canAttachToEngineOnBackgroundThread()) {
+        deferredPlugins.remove(plugin.getClass());
+        pluginsAttachingInBackground.put(plugin.getClass(), plugin);
+        FlutterInjector.instance()
+            .executorService()
+            .execute(() -> attachToEngineInBackground(plugin));
+      } else {
+        mainHandler.post(
+            () -> {
+              // The plugin may have been removed since it was deferred.
+              if (deferredPlugins.get(plugin.getClass()) == plugin) {
+                deferredPlugins.remove(plugin.getClass());
+                add(plugin);
+              }
+            });
+      }
+    }
+  }
+
+  private void attachToEngineInBackground(@NonNull DeferrableFlutterPlugin plugin) {
+    TraceSection.begin(
+        "FlutterEngineConnectionRegistry#attachToEngineInBackground ",
+        plugin.getClass().getSimpleName());
+    final long attachToEngineNanos;
+    try {
+      final long startNanos = System.nanoTime();
+      plugin.onAttachedToEngine(pluginBinding);
+      attachToEngineNanos = System.nanoTime() - startNanos;
+    } catch (RuntimeException e) {
+      Log.e(TAG, "Failed to attach plugin " + plugin + " in the background.", e);
+      mainHandler.post(() -> abandonAttachingInBackground(plugin));
+      return;
+    } finally {
+      TraceSection.end();
+    }
+    mainHandler.post(() -> finishAttachingInBackground(plugin, attachToEngineNanos));
+  }
+
+  // Forgets a plugin whose onAttachedToEngine() threw, so that it can be added again.
+  private void abandonAttachingInBackground(@NonNull DeferrableFlutterPlugin plugin) {
+    if (pluginsAttachingInBackground.get(plugin.getClass()) == plugin) {
+      pluginsAttachingInBackground.remove(plugin.getClass());
+    }
+  }
+
+  private void finishAttachingInBackground(
+      @NonNull DeferrableFlutterPlugin plugin, long attachToEngineNanos) {
+    if (pluginsAttachingInBackground.get(plugin.getClass()) != plugin) {
+      // The plugin was removed, or the engine destroyed, while the plugin was attaching.
+      plugin.onDetachedFromEngine(pluginBinding);
+      return;
+    }
+    pluginsAttachingInBackground.remove(plugin.getClass());
+
+    if (Log.isLoggable(Log.VERBOSE)) {
+      Log.v(TAG, "Adding plugin attached in the background: " + plugin);
+    }
+    final long startNanos = System.nanoTime();
+    plugins.put(plugin.getClass(), plugin);
+    attachToAppComponent(plugin);
+    recordAttachTime(plugin.getClass(), attachToEngineNanos + System.nanoTime() - startNanos);
+  }
+  // ----- End DeferrableFlutterPlugin -----
+
+  private void recordAttachTime(@NonNull Class<? extends FlutterPlugin> pluginClass, long nanos) {
+    final Long previousNanos = pluginAttachTimesNanos.get(pluginClass);
+    pluginAttachTimesNanos.put(pluginClass, previousNanos == null ? nanos : previousNanos + nanos);
+    if (nanos > SLOW_PLUGIN_ATTACH_NANOS) {
+      Log.w(
+          TAG,
+          "Attaching plugin "
+              + pluginClass.getName()
+              + " took "
+              + TimeUnit.NANOSECONDS.toMillis(nanos)
+              + "ms.");
+    }
+  }
+
+  @Override
+  @UiThread
+  @NonNull
+  public Map<Class<? extends FlutterPlugin>, Long> getPluginAttachTimesNanos() {
+    return new LinkedHashMap<>(pluginAttachTimesNanos);
+  }
+
   @Override
   public boolean has(@NonNull Class<? extends FlutterPlugin> pluginClass) {
     return plugins.containsKey(pluginClass);
@@ -216,10 +410,13 @@ import java.util.Set;
   public void remove(@NonNull Class<? extends FlutterPlugin> pluginClass) {
     FlutterPlugin plugin = plugins.get(pluginClass);
     if (plugin == null) {
+      // A plugin that is waiting to be attached is not attached anymore.
+      deferredPlugins.remove(pluginClass);
+      pluginsAttachingInBackground.remove(pluginClass);
       return;
     }
 
-    TraceSection.begin("FlutterEngineConnectionRegistry#remove " + pluginClass.getSimpleName());
+    TraceSection.begin("FlutterEngineConnectionRegistry#remove ", pluginClass.getSimpleName());
     try {
       // For ActivityAware plugins, notify the plugin that it is detached from
       // an Activity if an Activity is currently attached to this engine. Then
@@ -287,6 +484,8 @@ import java.util.Set;
     // the keys.
     remove(new HashSet<>(plugins.keySet()));
     plugins.clear();
+    deferredPlugins.clear();
+    pluginsAttachingInBackground.clear();
   }
 
   private void detachFromAppComponent() {
@@ -344,11 +543,18 @@ import java.util.Set;
         .attach(activity, flutterEngine.getRenderer(), flutterEngine.getDartExecutor());
 
     // Notify all ActivityAware plugins that they are now attached to a new Activity.
-    for (ActivityAware activityAware : activityAwarePlugins.values()) {
+    for (Map.Entry<Class<? extends FlutterPlugin>, ActivityAware> entry :
+        activityAwarePlugins.entrySet()) {
+      final ActivityAware activityAware = entry.getValue();
       if (isWaitingForActivityReattachment) {
         activityAware.onReattachedToActivityForConfigChanges(activityPluginBinding);
       } else {
+        final long startNanos = System.nanoTime();
         activityAware.onAttachedToActivity(activityPluginBinding);
+        // Only the first Activity that a plugin attaches to counts towards its attach time.
+        if (pluginsWithActivityAttachTime.add(entry.getKey())) {
+          recordAttachTime(entry.getKey(), System.nanoTime() - startNanos);
+        }
       }
     }
     isWaitingForActivityReattachment = false;
@@ -517,6 +723,9 @@ import java.util.Set;
       @NonNull Service service, @Nullable Lifecycle lifecycle, boolean isForeground) {
     TraceSection.begin("FlutterEngineConnectionRegistry#attachToService");
     try {
+      // Engines attached to a Service may never display a frame.
+      attachDeferredPlugins();
+
       // If we were already attached to an Android component, detach from it.
       detachFromAppComponent();
 
@@ -588,6 +797,9 @@ import java.util.Set;
       @NonNull BroadcastReceiver broadcastReceiver, @NonNull Lifecycle lifecycle) {
     TraceSection.begin("FlutterEngineConnectionRegistry#attachToBroadcastReceiver");
     try {
+      // Engines attached to a BroadcastReceiver may never display a frame.
+      attachDeferredPlugins();
+
       // If we were already attached to an Android component, detach from it.
       detachFromAppComponent();
 
@@ -641,6 +853,9 @@ import java.util.Set;
 
     TraceSection.begin("FlutterEngineConnectionRegistry#attachToContentProvider");
     try {
+      // Engines attached to a ContentProvider may never display a frame.
+      attachDeferredPlugins();
+
       // If we were already attached to an Android component, detach from it.
       detachFromAppComponent();
 
@@ -26,6 +26,7 @@ import io.flutter.embedding.engine.dart.PlatformMessageHandler;
 import io.flutter.embedding.engine.deferredcomponents.DeferredComponentManager;
 import io.flutter.embedding.engine.mutatorsstack.FlutterMutatorsStack;
 import io.flutter.embedding.engine.renderer.FlutterUiDisplayListener;
+import io.flutter.embedding.engine.renderer.ImageTextureWrapper;
 import io.flutter.embedding.engine.renderer.SurfaceTextureWrapper;
 import io.flutter.plugin.common.StandardMessageCodec;
 import io.flutter.plugin.localization.LocalizationPlugin;
@@ -867,6 +868,26 @@ public class FlutterJNI {
       long textureId,
       @NonNull WeakReference<SurfaceTextureWrapper> textureWrapper);
 
+  /**
+   * Gives control of the images of an {@link android.media.ImageReader} to Flutter so that Flutter
+   * can display them within Flutter's UI.
+   */
+  @UiThread
+  public void registerImageTexture(
+      long textureId, @NonNull ImageTextureWrapper imageTextureWrapper) {
+    ensureRunningOnMainThread();
+    ensureAttachedToNative();
+    nativeRegisterImageTexture(
+        nativeShellHolderId,
+        textureId,
+        new WeakReference<ImageTextureWrapper>(imageTextureWrapper));
+  }
+
+  private native void nativeRegisterImageTexture(
+      long nativeShellHolderId,
+      long textureId,
+      @NonNull WeakReference<ImageTextureWrapper> imageTextureWrapper);
+
   /**
    * Call this method to inform Flutter that a texture previously registered with {@link
    * #registerTexture(long, SurfaceTextureWrapper)} has a new frame available.
@@ -885,7 +906,7 @@ public class FlutterJNI {
 
   /**
    * Unregisters a texture that was registered with {@link #registerTexture(long,
-   * SurfaceTextureWrapper)}.
+   * SurfaceTextureWrapper)} or {@link #registerImageTexture(long, ImageTextureWrapper)}.
    */
   @UiThread
   public void unregisterTexture(long textureId) {
@@ -277,6 +277,17 @@ public class DartExecutor implements BinaryMessenger {
     return dartMessenger.getPendingChannelResponseCount();
   }
 
+  /**
+   * Returns the per channel metrics of the messages exchanged with Dart.
+   *
+   * <p>Metrics are only recorded after calling {@link MessengerMetrics#setEnabled(boolean)}, e.g.
+   * to find the channels whose handlers take most of the platform thread's time.
+   */
+  @NonNull
+  public MessengerMetrics getMessengerMetrics() {
+    return dartMessenger.getMetrics();
+  }
+
   /**
    * Returns an identifier for this executor's primary isolate. This identifier can be used in
    * queries to the Dart service protocol.
@@ -63,6 +63,8 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
 
   @NonNull private TaskQueueFactory taskQueueFactory;
 
+  @NonNull private final MessengerMetrics metrics = new MessengerMetrics();
+
   DartMessenger(@NonNull FlutterJNI flutterJNI, @NonNull TaskQueueFactory taskQueueFactory) {
     this.flutterJNI = flutterJNI;
     this.taskQueueFactory = taskQueueFactory;
@@ -232,7 +234,12 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
     }
     for (BufferedMessageInfo info : list) {
       dispatchMessageToQueue(
-          channel, messageHandlers.get(channel), info.message, info.replyId, info.messageData);
+          channel,
+          messageHandlers.get(channel),
+          info.message,
+          info.replyId,
+          info.messageData,
+          /*arrivalNanos=*/ 0);
     }
   }
 
@@ -252,7 +259,12 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
     for (Map.Entry<String, List<BufferedMessageInfo>> channel : pendingMessages.entrySet()) {
       for (BufferedMessageInfo info : channel.getValue()) {
         dispatchMessageToQueue(
-            channel.getKey(), null, info.message, info.replyId, info.messageData);
+            channel.getKey(),
+            null,
+            info.message,
+            info.replyId,
+            info.messageData,
+            /*arrivalNanos=*/ 0);
       }
     }
   }
@@ -260,7 +272,9 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
   @Override
   @UiThread
   public void send(@NonNull String channel, @NonNull ByteBuffer message) {
-    Log.v(TAG, "Sending message over channel '" + channel + "'");
+    if (Log.isLoggable(Log.VERBOSE)) {
+      Log.v(TAG, "Sending message over channel '" + channel + "'");
+    }
     send(channel, message, null);
   }
 
@@ -269,13 +283,29 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
       @NonNull String channel,
       @Nullable ByteBuffer message,
       @Nullable BinaryMessenger.BinaryReply callback) {
-    TraceSection.begin("DartMessenger#send on " + channel);
+    TraceSection.begin("DartMessenger#send on ", channel);
     try {
-      Log.v(TAG, "Sending message with callback over channel '" + channel + "'");
-      int replyId = nextReplyId++;
+      if (Log.isLoggable(Log.VERBOSE)) {
+        Log.v(TAG, "Sending message with callback over channel '" + channel + "'");
+      }
+      final int replyId = nextReplyId++;
+      final BinaryMessenger.DiscardableBinaryReply discardable =
+          callback instanceof BinaryMessenger.DiscardableBinaryReply
+              ? (BinaryMessenger.DiscardableBinaryReply) callback
+              : null;
+      if (metrics.isEnabled()) {
+        final MessengerMetrics.ChannelStats stats = metrics.getOrCreateChannelStats(channel);
+        stats.recordMessageToDart(message == null ? 0 : message.position());
+        if (callback != null) {
+          callback = new TimedReply(callback, stats, System.nanoTime());
+        }
+      }
       if (callback != null) {
         pendingReplies.put(replyId, callback);
       }
+      if (discardable != null) {
+        discardable.onPending(() -> pendingReplies.remove(replyId));
+      }
       if (message == null) {
         flutterJNI.dispatchEmptyPlatformMessage(channel, replyId);
       } else {
@@ -287,12 +317,15 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
   }
 
   private void invokeHandler(
-      @Nullable HandlerInfo handlerInfo, @Nullable ByteBuffer message, final int replyId) {
+      @Nullable HandlerInfo handlerInfo,
+      @Nullable ByteBuffer message,
+      final int replyId,
+      @Nullable MessengerMetrics.ChannelStats stats) {
     // Called from any thread.
     if (handlerInfo != null) {
       try {
         Log.v(TAG, "Deferring to registered handler to process message.");
-        handlerInfo.handler.onMessage(message, new Reply(flutterJNI, replyId));
+        handlerInfo.handler.onMessage(message, new Reply(flutterJNI, replyId, stats));
       } catch (Exception ex) {
         Log.e(TAG, "Uncaught exception in binary message listener", ex);
         flutterJNI.invokePlatformMessageEmptyResponseCallback(replyId);
@@ -310,19 +343,29 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
       @Nullable HandlerInfo handlerInfo,
       @Nullable ByteBuffer message,
       int replyId,
-      long messageData) {
+      long messageData,
+      long arrivalNanos) {
     final DartMessengerTaskQueue taskQueue = (handlerInfo != null) ? handlerInfo.taskQueue : null;
+    final MessengerMetrics.ChannelStats stats =
+        metrics.isEnabled() ? metrics.getOrCreateChannelStats(channel) : null;
     Runnable myRunnable =
         () -> {
-          TraceSection.begin("DartMessenger#handleMessageFromDart on " + channel);
+          TraceSection.begin("DartMessenger#handleMessageFromDart on ", channel);
+          final long startNanos = stats != null ? System.nanoTime() : 0;
+          if (stats != null && arrivalNanos != 0) {
+            stats.getQueueDelay().record(startNanos - arrivalNanos);
+          }
           try {
-            invokeHandler(handlerInfo, message, replyId);
+            invokeHandler(handlerInfo, message, replyId, stats);
             if (message != null && message.isDirect()) {
               // This ensures that if a user retains an instance to the ByteBuffer and it
               // happens to be direct they will get a deterministic error.
               message.limit(0);
             }
           } finally {
+            if (stats != null) {
+              stats.getHandlerTime().record(System.nanoTime() - startNanos);
+            }
             // This is deleting the data underneath the message object.
             flutterJNI.cleanupMessageData(messageData);
             TraceSection.end();
@@ -337,7 +380,16 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
   public void handleMessageFromDart(
       @NonNull String channel, @Nullable ByteBuffer message, int replyId, long messageData) {
     // Called from the ui thread.
-    Log.v(TAG, "Received message from Dart over channel '" + channel + "'");
+    if (Log.isLoggable(Log.VERBOSE)) {
+      Log.v(TAG, "Received message from Dart over channel '" + channel + "'");
+    }
+    long arrivalNanos = 0;
+    if (metrics.isEnabled()) {
+      arrivalNanos = System.nanoTime();
+      metrics
+          .getOrCreateChannelStats(channel)
+          .recordMessageFromDart(message == null ? 0 : message.remaining());
+    }
 
     HandlerInfo handlerInfo;
     boolean messageDeferred;
@@ -361,7 +413,7 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
       }
     }
     if (!messageDeferred) {
-      dispatchMessageToQueue(channel, handlerInfo, message, replyId, messageData);
+      dispatchMessageToQueue(channel, handlerInfo, message, replyId, messageData, arrivalNanos);
     }
   }
 
@@ -402,6 +454,12 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
     return pendingReplies.size();
   }
 
+  /** Returns the per channel metrics of the messages, which are only recorded once enabled. */
+  @NonNull
+  public MessengerMetrics getMetrics() {
+    return metrics;
+  }
+
   // Handles `Error` objects which are not supposed to be caught.
   //
   // We forward them to the thread's uncaught exception handler if there is one. If not, they
@@ -414,14 +472,42 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
     currentThread.getUncaughtExceptionHandler().uncaughtException(currentThread, err);
   }
 
+  // Records the round trip of a message sent to Dart before invoking its callback.
+  private static class TimedReply implements BinaryMessenger.BinaryReply {
+    @NonNull private final BinaryMessenger.BinaryReply callback;
+    @NonNull private final MessengerMetrics.ChannelStats stats;
+    private final long sendNanos;
+
+    TimedReply(
+        @NonNull BinaryMessenger.BinaryReply callback,
+        @NonNull MessengerMetrics.ChannelStats stats,
+        long sendNanos) {
+      this.callback = callback;
+      this.stats = stats;
+      this.sendNanos = sendNanos;
+    }
+
+    @Override
+    public void reply(@Nullable ByteBuffer reply) {
+      stats.recordReplyFromDart(
+          reply == null ? 0 : reply.remaining(), System.nanoTime() - sendNanos);
+      callback.reply(reply);
+    }
+  }
+
   static class Reply implements BinaryMessenger.BinaryReply {
     @NonNull private final FlutterJNI flutterJNI;
     private final int replyId;
+    @Nullable private final MessengerMetrics.ChannelStats stats;
     private final AtomicBoolean done = new AtomicBoolean(false);
 
-    Reply(@NonNull FlutterJNI flutterJNI, int replyId) {
+    Reply(
+        @NonNull FlutterJNI flutterJNI,
+        int replyId,
+        @Nullable MessengerMetrics.ChannelStats stats) {
       this.flutterJNI = flutterJNI;
       this.replyId = replyId;
+      this.stats = stats;
     }
 
     @Override
@@ -429,6 +515,9 @@ class DartMessenger implements BinaryMessenger, PlatformMessageHandler {
       if (done.getAndSet(true)) {
         throw new IllegalStateException("Reply already submitted");
       }
+      if (stats != null) {
+        stats.recordReplyToDart(reply == null ? 0 : reply.position());
+      }
       if (reply == null) {
         flutterJNI.invokePlatformMessageEmptyResponseCallback(replyId);
       } else {
@@ -0,0 +1,303 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.dart;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.util.TraceSection;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per channel statistics of the messages exchanged between Android and Dart.
+ *
+ * <p>For each channel, the metrics record the number of messages and bytes in each direction, the
+ * delay between the arrival of a message from Dart and the start of its handler, the execution time
+ * of the handler, and the round trip time of the messages sent to Dart with a reply callback.
+ *
+ * <p>Recording is disabled by default, in which case the messenger only reads a volatile flag per
+ * message. Counters and histograms are lock free, so they can be recorded from the task queues of
+ * the handlers and queried from any thread.
+ */
+public final class MessengerMetrics {
+  /** A histogram of durations with fixed buckets. */
+  public static final class Histogram {
+    // The inclusive upper bounds of the buckets, in microseconds. The last bucket is unbounded.
+    private static final long[] BUCKET_UPPER_BOUNDS_MICROS = {
+      50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 25_000, 50_000, 100_000, 250_000, 1_000_000
+    };
+
+    private final AtomicLongArray bucketCounts =
+        new AtomicLongArray(BUCKET_UPPER_BOUNDS_MICROS.length + 1);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+
+    void record(long nanos) {
+      final long micros = Math.max(nanos, 0) / 1000;
+      int bucket = 0;
+      while (bucket < BUCKET_UPPER_BOUNDS_MICROS.length
+          && micros > BUCKET_UPPER_BOUNDS_MICROS[bucket]) {
+        bucket++;
+      }
+      bucketCounts.incrementAndGet(bucket);
+      count.incrementAndGet();
+      totalMicros.addAndGet(micros);
+    }
+
+    /** Returns the number of recorded durations. */
+    public long getCount() {
+      return count.get();
+    }
+
+    /** Returns the mean of the recorded durations in microseconds, or 0 if there are none. */
+    public long getMeanMicros() {
+      final long count = getCount();
+      return count == 0 ? 0 : totalMicros.get() / count;
+    }
+
+    /** Returns the number of buckets, including the unbounded last bucket. */
+    public static int getBucketCount() {
+      return BUCKET_UPPER_BOUNDS_MICROS.length + 1;
+    }
+
+    /**
+     * Returns the inclusive upper bound of the bucket in microseconds, or {@code Long.MAX_VALUE}
+     * for the last bucket.
+     */
+    public static long getBucketUpperBoundMicros(int bucket) {
+      return bucket < BUCKET_UPPER_BOUNDS_MICROS.length
+          ? BUCKET_UPPER_BOUNDS_MICROS[bucket]
+          : Long.MAX_VALUE;
+    }
+
+    /** Returns the number of durations recorded in the bucket. */
+    public long getBucketValue(int bucket) {
+      return bucketCounts.get(bucket);
+    }
+
+    /**
+     * Returns the upper bound of the bucket that contains the given percentile of the recorded
+     * durations, in microseconds, or 0 if there are none.
+     *
+     * @param percentile A value between 0 and 100.
+     */
+    public long getPercentileMicros(double percentile) {
+      final long count = getCount();
+      if (count == 0) {
+        return 0;
+      }
+      final long rank = (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100);
+      long seen = 0;
+      for (int bucket = 0; bucket < getBucketCount(); bucket++) {
+        seen += bucketCounts.get(bucket);
+        if (seen >= rank) {
+          return getBucketUpperBoundMicros(bucket);
+        }
+      }
+      return Long.MAX_VALUE;
+    }
+  }
+
+  /** The statistics of a single channel. */
+  public static final class ChannelStats {
+    @NonNull private final String channel;
+    private final AtomicLong messagesFromDart = new AtomicLong();
+    private final AtomicLong messagesToDart = new AtomicLong();
+    private final AtomicLong bytesFromDart = new AtomicLong();
+    private final AtomicLong bytesToDart = new AtomicLong();
+    private final Histogram queueDelay = new Histogram();
+    private final Histogram handlerTime = new Histogram();
+    private final Histogram replyRoundTrip = new Histogram();
+
+    ChannelStats(@NonNull String channel) {
+      this.channel = channel;
+    }
+
+    @NonNull
+    public String getChannel() {
+      return channel;
+    }
+
+    /** Returns the number of messages received from Dart, excluding replies. */
+    public long getMessagesFromDart() {
+      return messagesFromDart.get();
+    }
+
+    /** Returns the number of messages sent to Dart, excluding replies. */
+    public long getMessagesToDart() {
+      return messagesToDart.get();
+    }
+
+    /** Returns the number of bytes received from Dart, including replies. */
+    public long getBytesFromDart() {
+      return bytesFromDart.get();
+    }
+
+    /** Returns the number of bytes sent to Dart, including replies. */
+    public long getBytesToDart() {
+      return bytesToDart.get();
+    }
+
+    /** Returns the delays between the arrival of messages and the start of their handler. */
+    @NonNull
+    public Histogram getQueueDelay() {
+      return queueDelay;
+    }
+
+    /** Returns the execution times of the handler. */
+    @NonNull
+    public Histogram getHandlerTime() {
+      return handlerTime;
+    }
+
+    /** Returns the times between sending messages to Dart and receiving their reply. */
+    @NonNull
+    public Histogram getReplyRoundTrip() {
+      return replyRoundTrip;
+    }
+
+    void recordMessageFromDart(int bytes) {
+      messagesFromDart.incrementAndGet();
+      bytesFromDart.addAndGet(bytes);
+    }
+
+    void recordMessageToDart(int bytes) {
+      messagesToDart.incrementAndGet();
+      bytesToDart.addAndGet(bytes);
+    }
+
+    void recordReplyFromDart(int bytes, long roundTripNanos) {
+      bytesFromDart.addAndGet(bytes);
+      replyRoundTrip.record(roundTripNanos);
+    }
+
+    void recordReplyToDart(int bytes) {
+      bytesToDart.addAndGet(bytes);
+    }
+
+    @Override
+    @NonNull
+    public String toString() {
+      return String.format(
+          Locale.US,
+          "%s: in %d msgs/%d B, out %d msgs/%d B, queue p50 %dus p99 %dus, handler p50 %dus"
+              + " p99 %dus, reply p50 %dus p99 %dus",
+          channel,
+          getMessagesFromDart(),
+          getBytesFromDart(),
+          getMessagesToDart(),
+          getBytesToDart(),
+          queueDelay.getPercentileMicros(50),
+          queueDelay.getPercentileMicros(99),
+          handlerTime.getPercentileMicros(50),
+          handlerTime.getPercentileMicros(99),
+          replyRoundTrip.getPercentileMicros(50),
+          replyRoundTrip.getPercentileMicros(99));
+    }
+  }
+
+  private final ConcurrentHashMap<String, ChannelStats> channelStats = new ConcurrentHashMap<>();
+  private volatile boolean enabled = false;
+
+  /** Sets whether messages are recorded. Statistics recorded so far are kept. */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Returns the statistics of the channel, or null if none were recorded. */
+  @Nullable
+  public ChannelStats getChannelStats(@NonNull String channel) {
+    return channelStats.get(channel);
+  }
+
+  /** Returns the statistics of all the channels, by decreasing handler time. */
+  @NonNull
+  public List<ChannelStats> getAllChannelStats() {
+    final List<ChannelStats> stats = new ArrayList<>(channelStats.values());
+    // Handlers keep updating the totals, so they are copied first. Comparing values that change
+    // during the sort can make it fail.
+    final HashMap<ChannelStats, Long> handlerTotals = new HashMap<>();
+    for (final ChannelStats channel : stats) {
+      handlerTotals.put(channel, channel.handlerTime.totalMicros.get());
+    }
+    Collections.sort(
+        stats,
+        (first, second) -> Long.compare(handlerTotals.get(second), handlerTotals.get(first)));
+    return stats;
+  }
+
+  /** Discards the recorded statistics. */
+  public void reset() {
+    channelStats.clear();
+  }
+
+  /**
+   * Writes the statistics to the trace, as a section per channel that contains an empty section
+   * per statistic, since trace section names are limited to 127 characters.
+   */
+  public void dumpToTrace() {
+    TraceSection.begin("DartMessenger metrics");
+    try {
+      for (final ChannelStats stats : getAllChannelStats()) {
+        TraceSection.begin(stats.channel);
+        traceMarker(
+            String.format(
+                Locale.US,
+                "in %d msgs/%d B, out %d msgs/%d B",
+                stats.getMessagesFromDart(),
+                stats.getBytesFromDart(),
+                stats.getMessagesToDart(),
+                stats.getBytesToDart()));
+        traceMarker(describe("queue", stats.queueDelay));
+        traceMarker(describe("handler", stats.handlerTime));
+        traceMarker(describe("reply", stats.replyRoundTrip));
+        TraceSection.end();
+      }
+    } finally {
+      TraceSection.end();
+    }
+  }
+
+  private static void traceMarker(@NonNull String name) {
+    TraceSection.begin(name);
+    TraceSection.end();
+  }
+
+  @NonNull
+  private static String describe(@NonNull String name, @NonNull Histogram histogram) {
+    return String.format(
+        Locale.US,
+        "%s n=%d mean=%dus p50=%dus p90=%dus p99=%dus",
+        name,
+        histogram.getCount(),
+        histogram.getMeanMicros(),
+        histogram.getPercentileMicros(50),
+        histogram.getPercentileMicros(90),
+        histogram.getPercentileMicros(99));
+  }
+
+  @NonNull
+  ChannelStats getOrCreateChannelStats(@NonNull String channel) {
+    ChannelStats stats = channelStats.get(channel);
+    if (stats == null) {
+      final ChannelStats newStats = new ChannelStats(channel);
+      stats = channelStats.putIfAbsent(channel, newStats);
+      if (stats == null) {
+        stats = newStats;
+      }
+    }
+    return stats;
+  }
+}
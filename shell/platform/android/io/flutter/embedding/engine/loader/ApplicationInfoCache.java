@@ -0,0 +1,194 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.loader;
+
+import android.content.Context;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.os.Bundle;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import androidx.annotation.WorkerThread;
+import io.flutter.BuildConfig;
+import io.flutter.Log;
+import io.flutter.util.PathUtils;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * The information {@link FlutterLoader} resolves from the application manifest: the {@link
+ * FlutterApplicationInfo} and the metadata that configures the shell arguments.
+ *
+ * <p>Resolving it fetches the manifest metadata from the {@link PackageManager} and parses the
+ * network security config, so it is cached in a small file that is only valid for the version
+ * code and the update time of the package that wrote it, which change whenever the manifest can.
+ * The native library directory is not cached, since it can move without either of them changing,
+ * for example when the app is moved to another storage volume.
+ */
+final class ApplicationInfoCache {
+  private static final String TAG = "ApplicationInfoCache";
+
+  @VisibleForTesting static final String CACHE_FILE_NAME = "flutter_application_info";
+  // Bump when the format of the cache file changes.
+  private static final int CACHE_FORMAT_VERSION = 2;
+
+  @NonNull final FlutterApplicationInfo flutterApplicationInfo;
+  // The size of the old generation heap, or 0 to default to half of the total memory.
+  final int oldGenHeapSizeMegaBytes;
+  final boolean enableSkParagraph;
+  final boolean enableImpeller;
+  final boolean leakVM;
+
+  @VisibleForTesting
+  ApplicationInfoCache(
+      @NonNull FlutterApplicationInfo flutterApplicationInfo,
+      int oldGenHeapSizeMegaBytes,
+      boolean enableSkParagraph,
+      boolean enableImpeller,
+      boolean leakVM) {
+    this.flutterApplicationInfo = flutterApplicationInfo;
+    this.oldGenHeapSizeMegaBytes = oldGenHeapSizeMegaBytes;
+    this.enableSkParagraph = enableSkParagraph;
+    this.enableImpeller = enableImpeller;
+    this.leakVM = leakVM;
+  }
+
+  /**
+   * Returns the information cached for the current version of the package, or resolves it from
+   * the manifest and caches it when there is none.
+   */
+  @NonNull
+  @WorkerThread
+  static ApplicationInfoCache load(@NonNull Context applicationContext) {
+    final String version = getPackageVersion(applicationContext);
+    final File cacheFile =
+        new File(PathUtils.getCacheDirectory(applicationContext), CACHE_FILE_NAME);
+    if (version != null) {
+      final ApplicationInfoCache cached =
+          read(cacheFile, version, applicationContext.getApplicationInfo().nativeLibraryDir);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    final ApplicationInfoCache resolved =
+        resolve(applicationContext, ApplicationInfoLoader.getApplicationInfo(applicationContext));
+    if (version != null) {
+      write(cacheFile, version, resolved);
+    }
+    return resolved;
+  }
+
+  @NonNull
+  @VisibleForTesting
+  static ApplicationInfoCache resolve(
+      @NonNull Context applicationContext, @NonNull ApplicationInfo applicationInfo) {
+    final Bundle metaData = applicationInfo.metaData;
+    return new ApplicationInfoCache(
+        ApplicationInfoLoader.load(applicationContext, applicationInfo),
+        metaData != null ? metaData.getInt(FlutterLoader.OLD_GEN_HEAP_SIZE_META_DATA_KEY) : 0,
+        metaData == null
+            || metaData.getBoolean(FlutterLoader.ENABLE_SKPARAGRAPH_META_DATA_KEY, true),
+        metaData != null && metaData.getBoolean(FlutterLoader.ENABLE_IMPELLER_META_DATA_KEY, false),
+        metaData == null || metaData.getBoolean(FlutterLoader.LEAK_VM_META_DATA_KEY, true));
+  }
+
+  // Returns the version code and the update time of the package, or null if they are unknown.
+  @Nullable
+  private static String getPackageVersion(@NonNull Context applicationContext) {
+    final PackageInfo packageInfo;
+    try {
+      packageInfo =
+          applicationContext
+              .getPackageManager()
+              .getPackageInfo(applicationContext.getPackageName(), 0);
+    } catch (PackageManager.NameNotFoundException e) {
+      return null;
+    }
+    if (packageInfo == null) {
+      return null;
+    }
+    return ResourceExtractor.getVersionCode(packageInfo) + "-" + packageInfo.lastUpdateTime;
+  }
+
+  // Returns the cached information, with the given native library directory, if it was written for
+  // the version, otherwise null.
+  @Nullable
+  @VisibleForTesting
+  static ApplicationInfoCache read(
+      @NonNull File cacheFile, @NonNull String version, @Nullable String nativeLibraryDir) {
+    if (!cacheFile.exists()) {
+      return null;
+    }
+    // The file is smaller than the buffer, so it is read at once.
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+      if (in.readInt() != CACHE_FORMAT_VERSION || !version.equals(in.readUTF())) {
+        if (BuildConfig.DEBUG) {
+          Log.i(TAG, "Application info cache version mismatch " + version);
+        }
+        return null;
+      }
+      final FlutterApplicationInfo flutterApplicationInfo =
+          new FlutterApplicationInfo(
+              in.readUTF(),
+              in.readUTF(),
+              in.readUTF(),
+              in.readUTF(),
+              in.readUTF(),
+              nativeLibraryDir,
+              in.readBoolean());
+      return new ApplicationInfoCache(
+          flutterApplicationInfo,
+          in.readInt(),
+          in.readBoolean(),
+          in.readBoolean(),
+          in.readBoolean());
+    } catch (IOException e) {
+      Log.w(TAG, "Failed to read the application info cache", e);
+      return null;
+    }
+  }
+
+  @VisibleForTesting
+  static void write(
+      @NonNull File cacheFile, @NonNull String version, @NonNull ApplicationInfoCache info) {
+    // Write to a temporary file and rename it, so that a reader never sees a partial file.
+    final File tempFile = new File(cacheFile.getPath() + ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+        final FlutterApplicationInfo flutterApplicationInfo = info.flutterApplicationInfo;
+        out.writeInt(CACHE_FORMAT_VERSION);
+        out.writeUTF(version);
+        out.writeUTF(flutterApplicationInfo.aotSharedLibraryName);
+        out.writeUTF(flutterApplicationInfo.vmSnapshotData);
+        out.writeUTF(flutterApplicationInfo.isolateSnapshotData);
+        out.writeUTF(flutterApplicationInfo.flutterAssetsDir);
+        out.writeUTF(flutterApplicationInfo.domainNetworkPolicy);
+        out.writeBoolean(flutterApplicationInfo.automaticallyRegisterPlugins);
+        out.writeInt(info.oldGenHeapSizeMegaBytes);
+        out.writeBoolean(info.enableSkParagraph);
+        out.writeBoolean(info.enableImpeller);
+        out.writeBoolean(info.leakVM);
+      }
+      if (!tempFile.renameTo(cacheFile)) {
+        throw new IOException("Failed to rename " + tempFile + " to " + cacheFile);
+      }
+    } catch (IOException e) {
+      // The information is resolved from the manifest again on the next launch.
+      Log.w(TAG, "Failed to write the application info cache", e);
+      tempFile.delete();
+    }
+  }
+}
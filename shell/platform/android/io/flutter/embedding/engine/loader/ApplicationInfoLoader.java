@@ -30,7 +30,7 @@ public final class ApplicationInfoLoader {
       "io.flutter." + FlutterLoader.AUTOMATICALLY_REGISTER_PLUGINS_KEY;
 
   @NonNull
-  private static ApplicationInfo getApplicationInfo(@NonNull Context applicationContext) {
+  static ApplicationInfo getApplicationInfo(@NonNull Context applicationContext) {
     try {
       return applicationContext
           .getPackageManager()
@@ -145,7 +145,12 @@ public final class ApplicationInfoLoader {
    */
   @NonNull
   public static FlutterApplicationInfo load(@NonNull Context applicationContext) {
-    ApplicationInfo appInfo = getApplicationInfo(applicationContext);
+    return load(applicationContext, getApplicationInfo(applicationContext));
+  }
+
+  @NonNull
+  static FlutterApplicationInfo load(
+      @NonNull Context applicationContext, @NonNull ApplicationInfo appInfo) {
     return new FlutterApplicationInfo(
         getString(appInfo.metaData, PUBLIC_AOT_SHARED_LIBRARY_NAME),
         getString(appInfo.metaData, PUBLIC_VM_SNAPSHOT_DATA_KEY),
@@ -6,12 +6,10 @@ package io.flutter.embedding.engine.loader;
 
 import android.app.ActivityManager;
 import android.content.Context;
-import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.content.res.AssetManager;
 import android.hardware.display.DisplayManager;
 import android.os.Build;
-import android.os.Bundle;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.SystemClock;
@@ -29,18 +27,20 @@ import io.flutter.view.VsyncWaiter;
 import java.io.File;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 /** Finds Flutter resources in an application APK and also loads Flutter's native library. */
 public class FlutterLoader {
   private static final String TAG = "FlutterLoader";
 
-  private static final String OLD_GEN_HEAP_SIZE_META_DATA_KEY =
+  static final String OLD_GEN_HEAP_SIZE_META_DATA_KEY =
       "io.flutter.embedding.android.OldGenHeapSize";
-  private static final String ENABLE_SKPARAGRAPH_META_DATA_KEY =
+  static final String ENABLE_SKPARAGRAPH_META_DATA_KEY =
       "io.flutter.embedding.android.EnableSkParagraph";
-  private static final String ENABLE_IMPELLER_META_DATA_KEY =
+  static final String ENABLE_IMPELLER_META_DATA_KEY =
       "io.flutter.embedding.android.EnableImpeller";
 
   /**
@@ -54,7 +54,7 @@ public class FlutterLoader {
    * <p>TODO(eggfly): Should it be set to false by default?
    * https://github.com/flutter/flutter/issues/96843
    */
-  private static final String LEAK_VM_META_DATA_KEY = "io.flutter.embedding.android.LeakVM";
+  static final String LEAK_VM_META_DATA_KEY = "io.flutter.embedding.android.LeakVM";
 
   // Must match values in flutter::switches
   static final String AOT_SHARED_LIBRARY_NAME = "aot-shared-library-name";
@@ -105,7 +105,7 @@ public class FlutterLoader {
   private boolean initialized = false;
   @Nullable private Settings settings;
   private long initStartTimestampMillis;
-  private FlutterApplicationInfo flutterApplicationInfo;
+  @Nullable private FutureTask<ApplicationInfoCache> applicationInfoTask;
   private FlutterJNI flutterJNI;
   private ExecutorService executorService;
 
@@ -160,7 +160,18 @@ public class FlutterLoader {
       this.settings = settings;
 
       initStartTimestampMillis = SystemClock.uptimeMillis();
-      flutterApplicationInfo = ApplicationInfoLoader.load(appContext);
+      // The application info is read from its cache, or resolved from the manifest, by the init
+      // task to keep the disk and package manager access off the main thread.
+      applicationInfoTask =
+          new FutureTask<>(
+              () -> {
+                TraceSection.begin("FlutterLoader#loadApplicationInfo");
+                try {
+                  return ApplicationInfoCache.load(appContext);
+                } finally {
+                  TraceSection.end();
+                }
+              });
 
       VsyncWaiter waiter;
       if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1 /* 17 */) {
@@ -183,6 +194,7 @@ public class FlutterLoader {
             public InitResult call() {
               TraceSection.begin("FlutterLoader initTask");
               try {
+                applicationInfoTask.run();
                 ResourceExtractor resourceExtractor = initResources(appContext);
 
                 flutterJNI.loadLibrary();
@@ -236,6 +248,8 @@ public class FlutterLoader {
     TraceSection.begin("FlutterLoader#ensureInitializationComplete");
     try {
       InitResult result = initResultFuture.get();
+      ApplicationInfoCache applicationInfo = getApplicationInfo();
+      FlutterApplicationInfo flutterApplicationInfo = applicationInfo.flutterApplicationInfo;
 
       List<String> shellArgs = new ArrayList<>();
       shellArgs.add("--icu-symbol-prefix=_binary_icudtl_dat");
@@ -289,14 +303,7 @@ public class FlutterLoader {
         shellArgs.add("--log-tag=" + settings.getLogTag());
       }
 
-      ApplicationInfo applicationInfo =
-          applicationContext
-              .getPackageManager()
-              .getApplicationInfo(
-                  applicationContext.getPackageName(), PackageManager.GET_META_DATA);
-      Bundle metaData = applicationInfo.metaData;
-      int oldGenHeapSizeMegaBytes =
-          metaData != null ? metaData.getInt(OLD_GEN_HEAP_SIZE_META_DATA_KEY) : 0;
+      int oldGenHeapSizeMegaBytes = applicationInfo.oldGenHeapSizeMegaBytes;
       if (oldGenHeapSizeMegaBytes == 0) {
         // default to half of total memory.
         ActivityManager activityManager =
@@ -317,15 +324,13 @@ public class FlutterLoader {
 
       shellArgs.add("--prefetched-default-font-manager");
 
-      boolean enableSkParagraph =
-          metaData == null || metaData.getBoolean(ENABLE_SKPARAGRAPH_META_DATA_KEY, true);
-      shellArgs.add("--enable-skparagraph=" + enableSkParagraph);
+      shellArgs.add("--enable-skparagraph=" + applicationInfo.enableSkParagraph);
 
-      if (metaData != null && metaData.getBoolean(ENABLE_IMPELLER_META_DATA_KEY, false)) {
+      if (applicationInfo.enableImpeller) {
         shellArgs.add("--enable-impeller");
       }
 
-      final String leakVM = isLeakVM(metaData) ? "true" : "false";
+      final String leakVM = applicationInfo.leakVM ? "true" : "false";
       shellArgs.add("--leak-vm=" + leakVM);
 
       long initTimeMillis = SystemClock.uptimeMillis() - initStartTimestampMillis;
@@ -347,12 +352,19 @@ public class FlutterLoader {
     }
   }
 
-  private static boolean isLeakVM(@Nullable Bundle metaData) {
-    final boolean leakVMDefaultValue = true;
-    if (metaData == null) {
-      return leakVMDefaultValue;
+  /**
+   * Returns the information resolved from the application manifest, waiting for the init task to
+   * resolve it, or resolving it on this thread if the init task has not started yet.
+   */
+  @NonNull
+  private ApplicationInfoCache getApplicationInfo() {
+    // Running the task has no effect once it has started.
+    applicationInfoTask.run();
+    try {
+      return applicationInfoTask.get();
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException(e);
     }
-    return metaData.getBoolean(LEAK_VM_META_DATA_KEY, leakVMDefaultValue);
   }
 
   /**
@@ -412,6 +424,8 @@ public class FlutterLoader {
 
       // In debug/JIT mode these assets will be written to disk and then
       // mapped into memory so they can be provided to the Dart VM.
+      final FlutterApplicationInfo flutterApplicationInfo =
+          getApplicationInfo().flutterApplicationInfo;
       resourceExtractor
           .addResource(fullAssetPathFrom(flutterApplicationInfo.vmSnapshotData))
           .addResource(fullAssetPathFrom(flutterApplicationInfo.isolateSnapshotData))
@@ -424,7 +438,7 @@ public class FlutterLoader {
 
   @NonNull
   public String findAppBundlePath() {
-    return flutterApplicationInfo.flutterAssetsDir;
+    return getApplicationInfo().flutterApplicationInfo.flutterAssetsDir;
   }
 
   /**
@@ -456,12 +470,14 @@ public class FlutterLoader {
   /** Returns the configuration on whether flutter engine should automatically register plugins. */
   @NonNull
   public boolean automaticallyRegisterPlugins() {
-    return flutterApplicationInfo.automaticallyRegisterPlugins;
+    return getApplicationInfo().flutterApplicationInfo.automaticallyRegisterPlugins;
   }
 
   @NonNull
   private String fullAssetPathFrom(@NonNull String filePath) {
-    return flutterApplicationInfo.flutterAssetsDir + File.separator + filePath;
+    return getApplicationInfo().flutterApplicationInfo.flutterAssetsDir
+        + File.separator
+        + filePath;
   }
 
   public static class Settings {
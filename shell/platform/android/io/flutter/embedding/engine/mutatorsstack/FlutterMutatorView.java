@@ -3,12 +3,15 @@ package io.flutter.embedding.engine.mutatorsstack;
 import static android.view.View.OnFocusChangeListener;
 
 import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.graphics.Path;
+import android.os.Build;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewGroup;
 import android.view.ViewTreeObserver;
 import android.widget.FrameLayout;
 import androidx.annotation.NonNull;
@@ -16,6 +19,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import io.flutter.embedding.android.AndroidTouchProcessor;
 import io.flutter.util.ViewUtils;
+import java.util.ArrayList;
 
 /**
  * A view that applies the {@link io.flutter.embedding.engine.mutatorsstack.FlutterMutatorsStack} to
@@ -29,6 +33,21 @@ public class FlutterMutatorView extends FrameLayout {
   private int prevLeft;
   private int prevTop;
 
+  // The clipping paths of `mutatorsStack`, offset by the frame of this view.
+  //
+  // Where Path#op is available, they are intersected into a single path. The paths are reused
+  // until the mutators or the frame change.
+  private final ArrayList<Path> clipPaths = new ArrayList<>();
+  private int clipPathCount;
+  private boolean clipPathsValid;
+
+  // The final matrix of `mutatorsStack`, adjusted for the screen density and the frame of this
+  // view.
+  private final Matrix platformViewMatrix = new Matrix();
+  private boolean platformViewMatrixValid;
+
+  @Nullable private Path scratchPath;
+
   private final AndroidTouchProcessor androidTouchProcessor;
 
   /**
@@ -92,13 +111,33 @@ public class FlutterMutatorView extends FrameLayout {
    */
   public void readyToDisplay(
       @NonNull FlutterMutatorsStack mutatorsStack, int left, int top, int width, int height) {
-    this.mutatorsStack = mutatorsStack;
+    final boolean mutatorsChanged =
+        this.mutatorsStack == null || !this.mutatorsStack.hasSameMutators(mutatorsStack);
+    if (mutatorsChanged) {
+      // Otherwise, keep the stack of the previous frame, whose final matrix and clipping paths
+      // were already built.
+      this.mutatorsStack = mutatorsStack;
+    }
+    if (mutatorsChanged || left != this.left || top != this.top) {
+      clipPathsValid = false;
+      platformViewMatrixValid = false;
+      invalidate();
+    }
     this.left = left;
     this.top = top;
-    FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(width, height);
-    layoutParams.leftMargin = left;
-    layoutParams.topMargin = top;
-    setLayoutParams(layoutParams);
+
+    // Avoid a layout pass if the frame didn't change.
+    final ViewGroup.LayoutParams currentLayoutParams = getLayoutParams();
+    if (!(currentLayoutParams instanceof FrameLayout.LayoutParams)
+        || currentLayoutParams.width != width
+        || currentLayoutParams.height != height
+        || ((FrameLayout.LayoutParams) currentLayoutParams).leftMargin != left
+        || ((FrameLayout.LayoutParams) currentLayoutParams).topMargin != top) {
+      FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(width, height);
+      layoutParams.leftMargin = left;
+      layoutParams.topMargin = top;
+      setLayoutParams(layoutParams);
+    }
     setWillNotDraw(false);
   }
 
@@ -106,6 +145,20 @@ public class FlutterMutatorView extends FrameLayout {
   public void draw(Canvas canvas) {
     // Apply all clippings on the parent canvas.
     canvas.save();
+    updateClipPathsIfNeeded();
+    for (int i = 0; i < clipPathCount; i++) {
+      canvas.clipPath(clipPaths.get(i));
+    }
+    super.draw(canvas);
+    canvas.restore();
+  }
+
+  private void updateClipPathsIfNeeded() {
+    if (clipPathsValid) {
+      return;
+    }
+    clipPathsValid = true;
+    clipPathCount = 0;
     for (Path path : mutatorsStack.getFinalClippingPaths()) {
       // Reverse the current offset.
       //
@@ -113,12 +166,28 @@ public class FlutterMutatorView extends FrameLayout {
       // We need to apply all the mutators to the view, which includes the mutation that leads to
       // the final offset. We should reverse this final offset, both as a translate mutation and to
       // all the clipping paths
-      Path pathCopy = new Path(path);
-      pathCopy.offset(-left, -top);
-      canvas.clipPath(pathCopy);
+      if (clipPathCount == 1
+          && Build.VERSION.SDK_INT >= 19
+          && intersectClipPath(clipPaths.get(0), path)) {
+        continue;
+      }
+      if (clipPathCount == clipPaths.size()) {
+        clipPaths.add(new Path());
+      }
+      final Path clipPath = clipPaths.get(clipPathCount++);
+      clipPath.set(path);
+      clipPath.offset(-left, -top);
     }
-    super.draw(canvas);
-    canvas.restore();
+  }
+
+  @TargetApi(19)
+  private boolean intersectClipPath(@NonNull Path clipPath, @NonNull Path path) {
+    if (scratchPath == null) {
+      scratchPath = new Path();
+    }
+    scratchPath.set(path);
+    scratchPath.offset(-left, -top);
+    return clipPath.op(scratchPath, Path.Op.INTERSECT);
   }
 
   @Override
@@ -132,7 +201,12 @@ public class FlutterMutatorView extends FrameLayout {
   }
 
   private Matrix getPlatformViewMatrix() {
-    Matrix finalMatrix = new Matrix(mutatorsStack.getFinalMatrix());
+    if (platformViewMatrixValid) {
+      return platformViewMatrix;
+    }
+    platformViewMatrixValid = true;
+    final Matrix finalMatrix = platformViewMatrix;
+    finalMatrix.set(mutatorsStack.getFinalMatrix());
 
     // Reverse scale based on screen scale.
     //
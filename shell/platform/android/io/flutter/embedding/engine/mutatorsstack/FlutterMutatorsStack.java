@@ -12,6 +12,7 @@ import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -130,17 +131,28 @@ public class FlutterMutatorsStack {
     }
   }
 
-  private @NonNull List<FlutterMutator> mutators;
+  // The number of arguments that follow the type of each kind of mutator in `operations`.
+  private static final int TRANSFORM_ARGUMENT_COUNT = 9;
+  private static final int CLIP_RECT_ARGUMENT_COUNT = 4;
+  private static final int CLIP_RRECT_ARGUMENT_COUNT = 4 + 8;
+  private static final FlutterMutatorType[] MUTATOR_TYPES = FlutterMutatorType.values();
 
-  private List<Path> finalClippingPaths;
-  private Matrix finalMatrix;
+  // The pushed mutators, each encoded as the ordinal of its type followed by its arguments.
+  //
+  // The mutators, the final matrix and the final clipping paths are only built from these once
+  // they are requested, since the stack of a platform view rarely changes between frames and
+  // FlutterMutatorView keeps using the stack of the previous frame if it has the same mutators.
+  private float[] operations = new float[32];
+  private int operationsLength;
+  // The number of leading values of `operations` that the fields below reflect.
+  private int appliedLength;
+
+  @Nullable private List<FlutterMutator> mutators;
+  @Nullable private List<Path> finalClippingPaths;
+  @Nullable private Matrix finalMatrix;
 
   /** Initialize the mutator stack. */
-  public FlutterMutatorsStack() {
-    this.mutators = new ArrayList<FlutterMutator>();
-    finalMatrix = new Matrix();
-    finalClippingPaths = new ArrayList<Path>();
-  }
+  public FlutterMutatorsStack() {}
 
   /**
    * Push a transform {@link FlutterMutatorsStack.FlutterMutator} to the stack.
@@ -149,22 +161,15 @@ public class FlutterMutatorsStack {
    *     android.graphics.Matrix} is constructed.
    */
   public void pushTransform(float[] values) {
-    Matrix matrix = new Matrix();
-    matrix.setValues(values);
-    FlutterMutator mutator = new FlutterMutator(matrix);
-    mutators.add(mutator);
-    finalMatrix.preConcat(mutator.getMatrix());
+    appendOperation(FlutterMutatorType.TRANSFORM, TRANSFORM_ARGUMENT_COUNT);
+    System.arraycopy(values, 0, operations, operationsLength, TRANSFORM_ARGUMENT_COUNT);
+    operationsLength += TRANSFORM_ARGUMENT_COUNT;
   }
 
   /** Push a clipRect {@link FlutterMutatorsStack.FlutterMutator} to the stack. */
   public void pushClipRect(int left, int top, int right, int bottom) {
-    Rect rect = new Rect(left, top, right, bottom);
-    FlutterMutator mutator = new FlutterMutator(rect);
-    mutators.add(mutator);
-    Path path = new Path();
-    path.addRect(new RectF(rect), Path.Direction.CCW);
-    path.transform(finalMatrix);
-    finalClippingPaths.add(path);
+    appendOperation(FlutterMutatorType.CLIP_RECT, CLIP_RECT_ARGUMENT_COUNT);
+    appendRect(left, top, right, bottom);
   }
 
   /**
@@ -178,19 +183,17 @@ public class FlutterMutatorsStack {
    *     corner.
    */
   public void pushClipRRect(int left, int top, int right, int bottom, float[] radiis) {
-    Rect rect = new Rect(left, top, right, bottom);
-    FlutterMutator mutator = new FlutterMutator(rect, radiis);
-    mutators.add(mutator);
-    Path path = new Path();
-    path.addRoundRect(new RectF(rect), radiis, Path.Direction.CCW);
-    path.transform(finalMatrix);
-    finalClippingPaths.add(path);
+    appendOperation(FlutterMutatorType.CLIP_RRECT, CLIP_RRECT_ARGUMENT_COUNT);
+    appendRect(left, top, right, bottom);
+    System.arraycopy(radiis, 0, operations, operationsLength, 8);
+    operationsLength += 8;
   }
 
   /**
    * Get a list of all the raw mutators. The 0 index of the returned list is the top of the stack.
    */
   public List<FlutterMutator> getMutators() {
+    applyOperations();
     return mutators;
   }
 
@@ -204,6 +207,7 @@ public class FlutterMutatorsStack {
    * <p>Clipping this list to the parent canvas of a view results the final clipping path.
    */
   public List<Path> getFinalClippingPaths() {
+    applyOperations();
     return finalClippingPaths;
   }
 
@@ -212,6 +216,97 @@ public class FlutterMutatorsStack {
    * transformation of the view.
    */
   public Matrix getFinalMatrix() {
+    applyOperations();
     return finalMatrix;
   }
+
+  /** Returns true if {@code other} contains the same mutators, in the same order. */
+  boolean hasSameMutators(@NonNull FlutterMutatorsStack other) {
+    if (other == this) {
+      return true;
+    }
+    if (other.operationsLength != operationsLength) {
+      return false;
+    }
+    for (int i = 0; i < operationsLength; i++) {
+      if (Float.floatToIntBits(operations[i]) != Float.floatToIntBits(other.operations[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void appendOperation(@NonNull FlutterMutatorType type, int argumentCount) {
+    final int requiredLength = operationsLength + 1 + argumentCount;
+    if (requiredLength > operations.length) {
+      operations = Arrays.copyOf(operations, Math.max(requiredLength, operations.length * 2));
+    }
+    operations[operationsLength++] = type.ordinal();
+  }
+
+  // The rects are in physical pixels, which floats represent exactly.
+  private void appendRect(int left, int top, int right, int bottom) {
+    operations[operationsLength++] = left;
+    operations[operationsLength++] = top;
+    operations[operationsLength++] = right;
+    operations[operationsLength++] = bottom;
+  }
+
+  private void applyOperations() {
+    if (mutators == null) {
+      mutators = new ArrayList<FlutterMutator>();
+      finalMatrix = new Matrix();
+      finalClippingPaths = new ArrayList<Path>();
+    }
+    int i = appliedLength;
+    while (i < operationsLength) {
+      final FlutterMutatorType type = MUTATOR_TYPES[(int) operations[i++]];
+      switch (type) {
+        case TRANSFORM:
+          {
+            final Matrix matrix = new Matrix();
+            matrix.setValues(Arrays.copyOfRange(operations, i, i + TRANSFORM_ARGUMENT_COUNT));
+            i += TRANSFORM_ARGUMENT_COUNT;
+            mutators.add(new FlutterMutator(matrix));
+            finalMatrix.preConcat(matrix);
+            break;
+          }
+        case CLIP_RECT:
+          {
+            final Rect rect = readRect(i);
+            i += CLIP_RECT_ARGUMENT_COUNT;
+            mutators.add(new FlutterMutator(rect));
+            final Path path = new Path();
+            path.addRect(new RectF(rect), Path.Direction.CCW);
+            path.transform(finalMatrix);
+            finalClippingPaths.add(path);
+            break;
+          }
+        case CLIP_RRECT:
+          {
+            final Rect rect = readRect(i);
+            final float[] radiis = Arrays.copyOfRange(operations, i + 4, i + 4 + 8);
+            i += CLIP_RRECT_ARGUMENT_COUNT;
+            mutators.add(new FlutterMutator(rect, radiis));
+            final Path path = new Path();
+            path.addRoundRect(new RectF(rect), radiis, Path.Direction.CCW);
+            path.transform(finalMatrix);
+            finalClippingPaths.add(path);
+            break;
+          }
+        default:
+          throw new IllegalStateException("Unexpected mutator type: " + type);
+      }
+    }
+    appliedLength = operationsLength;
+  }
+
+  @NonNull
+  private Rect readRect(int index) {
+    return new Rect(
+        (int) operations[index],
+        (int) operations[index + 1],
+        (int) operations[index + 2],
+        (int) operations[index + 3]);
+  }
 }
@@ -0,0 +1,37 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.plugins;
+
+/**
+ * A {@link FlutterPlugin} that the {@link io.flutter.embedding.engine.FlutterEngine} does not need
+ * before it renders its first frame.
+ *
+ * <p>When a {@code DeferrableFlutterPlugin} is added to a {@link PluginRegistry} before the {@link
+ * io.flutter.embedding.engine.FlutterEngine} displays its first frame, it is attached after that
+ * frame instead of during the call to {@link PluginRegistry#add(FlutterPlugin)}, so that apps with
+ * many plugins do not pay for all of them before the first frame. Each deferred plugin is attached
+ * in its own main thread message, so that the plugins do not hold up input and frames between them.
+ * If the {@link io.flutter.embedding.engine.FlutterEngine} does not display a frame, for example
+ * because it runs in the background, the plugin is attached when the engine is attached to a {@code
+ * Service}, {@code BroadcastReceiver}, or {@code ContentProvider}, or after a few seconds at the
+ * latest.
+ *
+ * <p>Until it is attached, {@link PluginRegistry#has(Class)} returns false for the plugin, and
+ * messages that Dart code sends to its channels are not handled. Only implement this interface if
+ * the Dart side of the plugin is not used during the startup of an app.
+ */
+public interface DeferrableFlutterPlugin extends FlutterPlugin {
+  /**
+   * Returns true if {@link #onAttachedToEngine(FlutterPluginBinding)} can be invoked on a
+   * background thread when the plugin is attached after the first frame.
+   *
+   * <p>The other callbacks of the plugin, including the {@link
+   * io.flutter.embedding.engine.plugins.activity.ActivityAware} callbacks, are always invoked on
+   * the main thread, after {@link #onAttachedToEngine(FlutterPluginBinding)} has returned.
+   */
+  default boolean canAttachToEngineOnBackgroundThread() {
+    return false;
+  }
+}
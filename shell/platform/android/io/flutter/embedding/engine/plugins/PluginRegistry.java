@@ -6,6 +6,9 @@ package io.flutter.embedding.engine.plugins;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.UiThread;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 
 public interface PluginRegistry {
@@ -28,6 +31,23 @@ public interface PluginRegistry {
    */
   boolean has(@NonNull Class<? extends FlutterPlugin> pluginClass);
 
+  /**
+   * Returns the time, in nanoseconds, that each plugin spent in its callbacks for attaching to the
+   * {@link io.flutter.embedding.engine.FlutterEngine} associated with this {@code PluginRegistry}
+   * and to its {@code Activity}, in the order that the plugins were attached.
+   *
+   * <p>Only the first {@code Activity} that a plugin attaches to is counted; later attachments,
+   * including reattachments after configuration changes, are not. This helps to find the plugins
+   * that slow down the startup of an app.
+   *
+   * <p>Must be called on the main thread.
+   */
+  @UiThread
+  @NonNull
+  default Map<Class<? extends FlutterPlugin>, Long> getPluginAttachTimesNanos() {
+    return Collections.emptyMap();
+  }
+
   /**
    * Returns the instance of a plugin that is currently attached to the {@link
    * io.flutter.embedding.engine.FlutterEngine} associated with this {@code PluginRegistry}, which
@@ -61,6 +61,12 @@ public class GeneratedPluginRegister {
    * explicitly may be useful in fine tuning the application launch latency characteristics for your
    * application.
    *
+   * <p>Plugins that implement {@link
+   * io.flutter.embedding.engine.plugins.DeferrableFlutterPlugin} are attached after the first
+   * frame, possibly on a background thread, rather than by this method. The time each plugin takes
+   * to attach is available from {@link
+   * io.flutter.embedding.engine.plugins.PluginRegistry#getPluginAttachTimesNanos()}.
+   *
    * <p>It's also possible to not use GeneratedPluginRegistrant and this method at all in order to
    * fine tune not only when plugins are registered but which plugins are registered when.
    * Inspecting the content of the GeneratedPluginRegistrant class will reveal that it's just going
@@ -4,9 +4,13 @@
 
 package io.flutter.embedding.engine.renderer;
 
+import android.annotation.TargetApi;
 import android.graphics.Bitmap;
+import android.graphics.ImageFormat;
 import android.graphics.Rect;
 import android.graphics.SurfaceTexture;
+import android.hardware.HardwareBuffer;
+import android.media.ImageReader;
 import android.os.Build;
 import android.os.Handler;
 import android.view.Surface;
@@ -41,6 +45,8 @@ public class FlutterRenderer implements TextureRegistry {
   @Nullable private Surface surface;
   private boolean isDisplayingFlutterUi = false;
   private Handler handler = new Handler();
+  @NonNull private final TextureFrameScheduler textureFrameScheduler;
+  @NonNull private final TextureInventory textureInventory;
 
   @NonNull
   private final FlutterUiDisplayListener flutterUiDisplayListener =
@@ -59,6 +65,8 @@ public class FlutterRenderer implements TextureRegistry {
   public FlutterRenderer(@NonNull FlutterJNI flutterJNI) {
     this.flutterJNI = flutterJNI;
     this.flutterJNI.addIsDisplayingFlutterUiListener(flutterUiDisplayListener);
+    this.textureFrameScheduler = new TextureFrameScheduler(flutterJNI, handler);
+    this.textureInventory = new TextureInventory(handler);
   }
 
   /**
@@ -117,22 +125,14 @@ public class FlutterRenderer implements TextureRegistry {
 
   final class SurfaceTextureRegistryEntry implements TextureRegistry.SurfaceTextureEntry {
     private final long id;
-    @NonNull private final SurfaceTextureWrapper textureWrapper;
-    private boolean released;
-    @Nullable private OnFrameConsumedListener listener;
-    private final Runnable onFrameConsumed =
-        new Runnable() {
-          @Override
-          public void run() {
-            if (listener != null) {
-              listener.onFrameConsumed();
-            }
-          }
-        };
+    @NonNull private final SurfaceTextureResources resources;
+    @NonNull private final TextureInventory.Record record;
 
     SurfaceTextureRegistryEntry(long id, @NonNull SurfaceTexture surfaceTexture) {
       this.id = id;
-      this.textureWrapper = new SurfaceTextureWrapper(surfaceTexture, onFrameConsumed);
+      this.resources =
+          new SurfaceTextureResources(
+              id, surfaceTexture, flutterJNI, textureFrameScheduler.register(id));
 
       if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
         // The callback relies on being executed on the UI thread (unsynchronised read of
@@ -140,39 +140,32 @@ public class FlutterRenderer implements TextureRegistry {
         // and also the engine code check for platform thread in
         // Shell::OnPlatformViewMarkTextureFrameAvailable),
         // so we explicitly pass a Handler for the current thread.
-        this.surfaceTexture().setOnFrameAvailableListener(onFrameListener, new Handler());
+        this.surfaceTexture().setOnFrameAvailableListener(resources, new Handler());
       } else {
         // Android documentation states that the listener can be called on an arbitrary thread.
         // But in practice, versions of Android that predate the newer API will call the listener
         // on the thread where the SurfaceTexture was constructed.
-        this.surfaceTexture().setOnFrameAvailableListener(onFrameListener);
+        this.surfaceTexture().setOnFrameAvailableListener(resources);
       }
-    }
 
-    private SurfaceTexture.OnFrameAvailableListener onFrameListener =
-        new SurfaceTexture.OnFrameAvailableListener() {
-          @Override
-          public void onFrameAvailable(@NonNull SurfaceTexture texture) {
-            if (released || !flutterJNI.isAttached()) {
-              // Even though we make sure to unregister the callback before releasing, as of
-              // Android O, SurfaceTexture has a data race when accessing the callback, so the
-              // callback may still be called by a stale reference after released==true and
-              // mNativeView==null.
-              return;
-            }
-            markTextureFrameAvailable(id);
-          }
-        };
+      // The size of a SurfaceTexture's buffers is chosen by its producer, so it is not estimated.
+      this.record = textureInventory.track(this, id, /*estimatedBytes=*/ 0, resources);
+    }
 
     @NonNull
     public SurfaceTextureWrapper textureWrapper() {
-      return textureWrapper;
+      return resources.textureWrapper;
+    }
+
+    @NonNull
+    TextureInventory.Record record() {
+      return record;
     }
 
     @Override
     @NonNull
     public SurfaceTexture surfaceTexture() {
-      return textureWrapper.surfaceTexture();
+      return resources.textureWrapper.surfaceTexture();
     }
 
     @Override
@@ -182,52 +175,254 @@ public class FlutterRenderer implements TextureRegistry {
 
     @Override
     public void release() {
-      if (released) {
+      if (textureInventory.isReleased(record)) {
         return;
       }
       Log.v(TAG, "Releasing a SurfaceTexture (" + id + ").");
-      textureWrapper.release();
-      unregisterTexture(id);
-      released = true;
+      textureInventory.release(record);
     }
 
     @Override
-    protected void finalize() throws Throwable {
-      try {
-        if (released) {
-          return;
-        }
+    public void setOnFrameConsumedListener(@Nullable OnFrameConsumedListener listener) {
+      resources.listener = listener;
+    }
 
-        handler.post(new SurfaceTextureFinalizerRunnable(id, flutterJNI));
-      } finally {
-        super.finalize();
-      }
+    @Override
+    public void setMaxFrameRate(float framesPerSecond) {
+      resources.frameState.setMaxFrameRate(framesPerSecond);
     }
 
     @Override
-    public void setOnFrameConsumedListener(@Nullable OnFrameConsumedListener listener) {
-      this.listener = listener;
+    public void setCoalesceToVsync(boolean coalesceToVsync) {
+      resources.frameState.setCoalesceToVsync(coalesceToVsync);
+    }
+
+    @Override
+    public void setPauseWhenOffscreen(boolean pauseWhenOffscreen) {
+      resources.frameState.setPauseWhenOffscreen(pauseWhenOffscreen);
+    }
+
+    @Override
+    public long suppressedFrameCount() {
+      return resources.frameState.suppressedFrameCount();
     }
   }
 
-  static final class SurfaceTextureFinalizerRunnable implements Runnable {
+  /**
+   * The SurfaceTexture and callbacks of a {@link SurfaceTextureRegistryEntry}, which are released
+   * through the {@link TextureInventory} even if the entry is garbage collected.
+   */
+  static final class SurfaceTextureResources
+      implements TextureInventory.Resources, SurfaceTexture.OnFrameAvailableListener, Runnable {
     private final long id;
-    private final FlutterJNI flutterJNI;
+    @NonNull private final SurfaceTextureWrapper textureWrapper;
+    @NonNull private final FlutterJNI flutterJNI;
+    @NonNull private final TextureFrameScheduler.TextureState frameState;
+    // Must not reference the entry, or the entry would never be reclaimed.
+    @Nullable private OnFrameConsumedListener listener;
+    private boolean released;
 
-    SurfaceTextureFinalizerRunnable(long id, @NonNull FlutterJNI flutterJNI) {
+    SurfaceTextureResources(
+        long id,
+        @NonNull SurfaceTexture surfaceTexture,
+        @NonNull FlutterJNI flutterJNI,
+        @NonNull TextureFrameScheduler.TextureState frameState) {
       this.id = id;
+      this.textureWrapper = new SurfaceTextureWrapper(surfaceTexture, this);
       this.flutterJNI = flutterJNI;
+      this.frameState = frameState;
     }
 
+    // Invoked when the engine consumed the most recent frame.
     @Override
     public void run() {
-      if (!flutterJNI.isAttached()) {
+      if (listener != null) {
+        listener.onFrameConsumed();
+      }
+    }
+
+    @Override
+    public void onFrameAvailable(@NonNull SurfaceTexture texture) {
+      if (released || !flutterJNI.isAttached()) {
+        // Even though we make sure to unregister the callback before releasing, as of
+        // Android O, SurfaceTexture has a data race when accessing the callback, so the
+        // callback may still be called by a stale reference after released==true and
+        // mNativeView==null.
+        return;
+      }
+      frameState.scheduler().onFrameAvailable(frameState);
+    }
+
+    @Override
+    public void release(boolean reclaimed) {
+      released = true;
+      frameState.scheduler().unregister(frameState);
+      textureWrapper.release();
+      if (reclaimed && !flutterJNI.isAttached()) {
         return;
       }
-      Log.v(TAG, "Releasing a SurfaceTexture (" + id + ").");
       flutterJNI.unregisterTexture(id);
     }
   }
+
+  /**
+   * Creates and returns a new texture backed by an {@link ImageReader} whose {@link
+   * HardwareBuffer}s are sampled by the engine directly, or null if the device runs an API level
+   * below 29.
+   *
+   * @throws IllegalArgumentException if {@code maxImages} is less than 3.
+   */
+  @Override
+  @Nullable
+  public ImageTextureEntry createImageTexture(int width, int height, int maxImages) {
+    if (!supportsImageTextures()) {
+      Log.w(TAG, "Image textures require API 29 or above.");
+      return null;
+    }
+    if (maxImages < 3) {
+      throw new IllegalArgumentException("Image textures require at least 3 images.");
+    }
+    Log.v(TAG, "Creating an ImageReader texture.");
+    final ImageReader imageReader =
+        ImageReader.newInstance(
+            width, height, ImageFormat.PRIVATE, maxImages, HardwareBuffer.USAGE_GPU_SAMPLED_IMAGE);
+    final ImageTextureRegistryEntry entry =
+        new ImageTextureRegistryEntry(nextTextureId.getAndIncrement(), width, height, imageReader);
+    Log.v(TAG, "New ImageReader texture ID: " + entry.id());
+    flutterJNI.registerImageTexture(entry.id(), entry.textureWrapper());
+    return entry;
+  }
+
+  @Override
+  public boolean supportsImageTextures() {
+    return Build.VERSION.SDK_INT >= 29;
+  }
+
+  @TargetApi(29)
+  final class ImageTextureRegistryEntry implements TextureRegistry.ImageTextureEntry {
+    private final long id;
+    @NonNull private final ImageTextureResources resources;
+    @NonNull private final TextureInventory.Record record;
+
+    ImageTextureRegistryEntry(long id, int width, int height, @NonNull ImageReader imageReader) {
+      this.id = id;
+      this.resources = new ImageTextureResources(id, imageReader, flutterJNI);
+      // As with SurfaceTexture, the engine must be notified of new frames on the platform thread.
+      imageReader.setOnImageAvailableListener(resources, new Handler());
+      // The buffer format is chosen by the producer; most formats use up to 4 bytes per pixel.
+      final long estimatedBytes = 4L * width * height * imageReader.getMaxImages();
+      this.record = textureInventory.track(this, id, estimatedBytes, resources);
+    }
+
+    @NonNull
+    public ImageTextureWrapper textureWrapper() {
+      return resources.textureWrapper;
+    }
+
+    @Override
+    @NonNull
+    public Surface getSurface() {
+      return resources.textureWrapper.imageReader().getSurface();
+    }
+
+    @Override
+    public long id() {
+      return id;
+    }
+
+    @Override
+    public int maxImages() {
+      return resources.textureWrapper.imageReader().getMaxImages();
+    }
+
+    @Override
+    public long presentedFrameCount() {
+      return resources.textureWrapper.presentedFrameCount();
+    }
+
+    @Override
+    public long droppedFrameCount() {
+      return resources.textureWrapper.droppedFrameCount();
+    }
+
+    @Override
+    public long averageLatencyNanos() {
+      return resources.textureWrapper.averageLatencyNanos();
+    }
+
+    @Override
+    public void release() {
+      if (textureInventory.isReleased(record)) {
+        return;
+      }
+      Log.v(TAG, "Releasing an ImageReader texture (" + id + ").");
+      textureInventory.release(record);
+    }
+  }
+
+  /**
+   * The ImageReader and callbacks of an {@link ImageTextureRegistryEntry}, which are released
+   * through the {@link TextureInventory} even if the entry is garbage collected.
+   */
+  @TargetApi(29)
+  static final class ImageTextureResources
+      implements TextureInventory.Resources, ImageReader.OnImageAvailableListener {
+    private final long id;
+    @NonNull private final ImageTextureWrapper textureWrapper;
+    @NonNull private final FlutterJNI flutterJNI;
+    private boolean released;
+
+    ImageTextureResources(
+        long id, @NonNull ImageReader imageReader, @NonNull FlutterJNI flutterJNI) {
+      this.id = id;
+      this.textureWrapper = new ImageTextureWrapper(imageReader);
+      this.flutterJNI = flutterJNI;
+    }
+
+    @Override
+    public void onImageAvailable(@NonNull ImageReader reader) {
+      // Always acquire the image, even if it will not be shown, so that the producer never
+      // stalls waiting for a free buffer.
+      if (textureWrapper.acquireNextImage() && !released && flutterJNI.isAttached()) {
+        flutterJNI.markTextureFrameAvailable(id);
+      }
+    }
+
+    @Override
+    public void release(boolean reclaimed) {
+      released = true;
+      textureWrapper.imageReader().setOnImageAvailableListener(null, null);
+      // Unregister the texture before its images are closed, so that the engine stops acquiring
+      // them. The buffer the engine already acquired stays valid until it drops its reference.
+      if (!reclaimed || flutterJNI.isAttached()) {
+        flutterJNI.unregisterTexture(id);
+      }
+      textureWrapper.release();
+    }
+  }
+
+  /** Returns the number of textures of this renderer that have not been released yet. */
+  public int getLiveTextureCount() {
+    return textureInventory.liveTextureCount();
+  }
+
+  /**
+   * Returns an estimate of the memory held by the buffers of the textures of this renderer that
+   * have not been released yet. SurfaceTextures are not included, as the size of their buffers is
+   * chosen by their producer.
+   */
+  public long getLiveTextureBytes() {
+    return textureInventory.liveTextureBytes();
+  }
+
+  /**
+   * Sets whether textures created from now on record the stack trace of their creation, which is
+   * logged if the texture is garbage collected without being released. Enabled by default in
+   * debug builds.
+   */
+  public void setTextureLeakTrackingEnabled(boolean enabled) {
+    textureInventory.setLeakTrackingEnabled(enabled);
+  }
   // ------ END TextureRegistry IMPLEMENTATION ----
 
   /**
@@ -258,6 +453,7 @@ public class FlutterRenderer implements TextureRegistry {
     this.surface = surface;
 
     flutterJNI.onSurfaceCreated(surface);
+    textureFrameScheduler.setOffscreen(false);
   }
 
   /**
@@ -294,6 +490,7 @@ public class FlutterRenderer implements TextureRegistry {
    */
   public void stopRenderingToSurface() {
     flutterJNI.onSurfaceDestroyed();
+    textureFrameScheduler.setOffscreen(true);
 
     surface = null;
 
@@ -322,6 +519,46 @@ public class FlutterRenderer implements TextureRegistry {
     if (!viewportMetrics.validate()) {
       return;
     }
+    if (Log.isLoggable(Log.VERBOSE)) {
+      logViewportMetrics(viewportMetrics);
+    }
+
+    int[] displayFeaturesBounds = new int[viewportMetrics.displayFeatures.size() * 4];
+    int[] displayFeaturesType = new int[viewportMetrics.displayFeatures.size()];
+    int[] displayFeaturesState = new int[viewportMetrics.displayFeatures.size()];
+    for (int i = 0; i < viewportMetrics.displayFeatures.size(); i++) {
+      DisplayFeature displayFeature = viewportMetrics.displayFeatures.get(i);
+      displayFeaturesBounds[4 * i] = displayFeature.bounds.left;
+      displayFeaturesBounds[4 * i + 1] = displayFeature.bounds.top;
+      displayFeaturesBounds[4 * i + 2] = displayFeature.bounds.right;
+      displayFeaturesBounds[4 * i + 3] = displayFeature.bounds.bottom;
+      displayFeaturesType[i] = displayFeature.type.encodedValue;
+      displayFeaturesState[i] = displayFeature.state.encodedValue;
+    }
+
+    flutterJNI.setViewportMetrics(
+        viewportMetrics.devicePixelRatio,
+        viewportMetrics.width,
+        viewportMetrics.height,
+        viewportMetrics.viewPaddingTop,
+        viewportMetrics.viewPaddingRight,
+        viewportMetrics.viewPaddingBottom,
+        viewportMetrics.viewPaddingLeft,
+        viewportMetrics.viewInsetTop,
+        viewportMetrics.viewInsetRight,
+        viewportMetrics.viewInsetBottom,
+        viewportMetrics.viewInsetLeft,
+        viewportMetrics.systemGestureInsetTop,
+        viewportMetrics.systemGestureInsetRight,
+        viewportMetrics.systemGestureInsetBottom,
+        viewportMetrics.systemGestureInsetLeft,
+        viewportMetrics.physicalTouchSlop,
+        displayFeaturesBounds,
+        displayFeaturesType,
+        displayFeaturesState);
+  }
+
+  private static void logViewportMetrics(@NonNull ViewportMetrics viewportMetrics) {
     Log.v(
         TAG,
         "Setting viewport metrics\n"
@@ -359,40 +596,6 @@ public class FlutterRenderer implements TextureRegistry {
             + "\n"
             + "Display Features: "
             + viewportMetrics.displayFeatures.size());
-
-    int[] displayFeaturesBounds = new int[viewportMetrics.displayFeatures.size() * 4];
-    int[] displayFeaturesType = new int[viewportMetrics.displayFeatures.size()];
-    int[] displayFeaturesState = new int[viewportMetrics.displayFeatures.size()];
-    for (int i = 0; i < viewportMetrics.displayFeatures.size(); i++) {
-      DisplayFeature displayFeature = viewportMetrics.displayFeatures.get(i);
-      displayFeaturesBounds[4 * i] = displayFeature.bounds.left;
-      displayFeaturesBounds[4 * i + 1] = displayFeature.bounds.top;
-      displayFeaturesBounds[4 * i + 2] = displayFeature.bounds.right;
-      displayFeaturesBounds[4 * i + 3] = displayFeature.bounds.bottom;
-      displayFeaturesType[i] = displayFeature.type.encodedValue;
-      displayFeaturesState[i] = displayFeature.state.encodedValue;
-    }
-
-    flutterJNI.setViewportMetrics(
-        viewportMetrics.devicePixelRatio,
-        viewportMetrics.width,
-        viewportMetrics.height,
-        viewportMetrics.viewPaddingTop,
-        viewportMetrics.viewPaddingRight,
-        viewportMetrics.viewPaddingBottom,
-        viewportMetrics.viewPaddingLeft,
-        viewportMetrics.viewInsetTop,
-        viewportMetrics.viewInsetRight,
-        viewportMetrics.viewInsetBottom,
-        viewportMetrics.viewInsetLeft,
-        viewportMetrics.systemGestureInsetTop,
-        viewportMetrics.systemGestureInsetRight,
-        viewportMetrics.systemGestureInsetBottom,
-        viewportMetrics.systemGestureInsetLeft,
-        viewportMetrics.physicalTouchSlop,
-        displayFeaturesBounds,
-        displayFeaturesType,
-        displayFeaturesState);
   }
 
   // TODO(mattcarroll): describe the native behavior that this invokes
@@ -411,16 +614,6 @@ public class FlutterRenderer implements TextureRegistry {
     flutterJNI.registerTexture(textureId, textureWrapper);
   }
 
-  // TODO(mattcarroll): describe the native behavior that this invokes
-  private void markTextureFrameAvailable(long textureId) {
-    flutterJNI.markTextureFrameAvailable(textureId);
-  }
-
-  // TODO(mattcarroll): describe the native behavior that this invokes
-  private void unregisterTexture(long textureId) {
-    flutterJNI.unregisterTexture(textureId);
-  }
-
   // TODO(mattcarroll): describe the native behavior that this invokes
   public boolean isSoftwareRenderingEnabled() {
     return flutterJNI.getIsSoftwareRenderingEnabled();
@@ -0,0 +1,186 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.annotation.TargetApi;
+import android.hardware.HardwareBuffer;
+import android.media.Image;
+import android.media.ImageReader;
+import androidx.annotation.Keep;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A wrapper for an {@link ImageReader} whose images are sampled by the engine as {@link
+ * HardwareBuffer}s.
+ *
+ * <p>Images are acquired on the platform thread when the producer queues them, and handed to the
+ * raster thread by {@link #acquireLatestHardwareBuffer()}. At most three images are held at a
+ * time: the most recent pending one, the one currently shown by the engine, and the one it showed
+ * before. A pending image that is replaced before the engine acquires it is counted as dropped.
+ *
+ * <p>The previously shown image is only closed when the engine acquires the image after the
+ * current one, since the GPU may still sample it for a frame that was submitted before the engine
+ * switched to the current image. Closing it earlier would let the producer draw into a buffer that
+ * is being displayed. The {@link ImageReader} must therefore allow at least three images to be
+ * acquired.
+ */
+@Keep
+@TargetApi(29)
+public class ImageTextureWrapper {
+  @NonNull private final ImageReader imageReader;
+  @Nullable private Image pendingImage;
+  private long pendingImageArrivalNanos;
+  @Nullable private Image currentImage;
+  @Nullable private HardwareBuffer currentBuffer;
+  @Nullable private Image previousImage;
+  @Nullable private HardwareBuffer previousBuffer;
+  private boolean released;
+
+  private long presentedFrameCount;
+  private long droppedFrameCount;
+  private long totalLatencyNanos;
+
+  public ImageTextureWrapper(@NonNull ImageReader imageReader) {
+    this.imageReader = imageReader;
+  }
+
+  @NonNull
+  public ImageReader imageReader() {
+    return imageReader;
+  }
+
+  /**
+   * Acquires the next image queued by the producer, replacing any image the engine has not sampled
+   * yet.
+   *
+   * @return true if the engine must be notified of a new frame, false if no image was acquired or
+   *     the engine was already notified of a pending frame it has not sampled yet.
+   */
+  public boolean acquireNextImage() {
+    synchronized (this) {
+      if (released) {
+        return false;
+      }
+      final boolean hadPendingImage = pendingImage != null;
+      if (hadPendingImage) {
+        // Close the stale image first, so that no more than two images are acquired at a time.
+        pendingImage.close();
+        pendingImage = null;
+        droppedFrameCount++;
+      }
+      pendingImage = imageReader.acquireNextImage();
+      if (pendingImage == null) {
+        return false;
+      }
+      pendingImageArrivalNanos = System.nanoTime();
+      return !hadPendingImage;
+    }
+  }
+
+  /**
+   * Returns the buffer of the most recent image, or of the current image if no newer image is
+   * pending.
+   *
+   * <p>The native caller holds the monitor of this wrapper while it calls this method and acquires
+   * its own reference to the returned buffer, so that {@link #release()} cannot close the buffer
+   * before the engine holds on to it.
+   */
+  // Called by native on the raster thread.
+  @SuppressWarnings("unused")
+  @Nullable
+  public HardwareBuffer acquireLatestHardwareBuffer() {
+    synchronized (this) {
+      if (released) {
+        return null;
+      }
+      if (pendingImage != null) {
+        closePreviousImage();
+        previousImage = currentImage;
+        previousBuffer = currentBuffer;
+        currentBuffer = null;
+        currentImage = pendingImage;
+        pendingImage = null;
+        presentedFrameCount++;
+        totalLatencyNanos += System.nanoTime() - pendingImageArrivalNanos;
+      }
+      if (currentImage == null) {
+        return null;
+      }
+      if (currentBuffer == null) {
+        currentBuffer = currentImage.getHardwareBuffer();
+      }
+      return currentBuffer;
+    }
+  }
+
+  /** Returns the number of images that were sampled by the engine. */
+  public long presentedFrameCount() {
+    synchronized (this) {
+      return presentedFrameCount;
+    }
+  }
+
+  /** Returns the number of images that were replaced before the engine could sample them. */
+  public long droppedFrameCount() {
+    synchronized (this) {
+      return droppedFrameCount;
+    }
+  }
+
+  /**
+   * Returns the average time between an image being queued by the producer and its sampling by the
+   * engine, or 0 if no image was sampled yet.
+   */
+  public long averageLatencyNanos() {
+    synchronized (this) {
+      return presentedFrameCount == 0 ? 0 : totalLatencyNanos / presentedFrameCount;
+    }
+  }
+
+  /**
+   * Closes the images and the {@link ImageReader}.
+   *
+   * <p>The engine keeps its own reference to the buffer it shows, so this can be called before the
+   * raster thread has processed the unregistration of the texture.
+   */
+  public void release() {
+    synchronized (this) {
+      if (released) {
+        return;
+      }
+      released = true;
+      closePreviousImage();
+      closeCurrentImage();
+      if (pendingImage != null) {
+        pendingImage.close();
+        pendingImage = null;
+      }
+      imageReader.close();
+    }
+  }
+
+  private void closePreviousImage() {
+    if (previousBuffer != null) {
+      previousBuffer.close();
+      previousBuffer = null;
+    }
+    if (previousImage != null) {
+      previousImage.close();
+      previousImage = null;
+    }
+  }
+
+  private void closeCurrentImage() {
+    if (currentBuffer != null) {
+      currentBuffer.close();
+      currentBuffer = null;
+    }
+    if (currentImage != null) {
+      currentImage.close();
+      currentImage = null;
+    }
+  }
+}
@@ -0,0 +1,178 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.os.Handler;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import androidx.annotation.NonNull;
+import io.flutter.embedding.engine.FlutterJNI;
+import java.util.ArrayList;
+
+/**
+ * Decides when the engine is notified of new frames of the textures of a {@link FlutterRenderer}.
+ *
+ * <p>Without a policy, every frame available callback is forwarded to {@link
+ * FlutterJNI#markTextureFrameAvailable(long)} immediately. A texture may instead limit its update
+ * rate, wait for the next vsync, or hold its frames while the renderer is not rendering to a
+ * surface. A notification held back by any of these is sent once, for the most recent frame, and
+ * every frame that arrives while a notification is held back is counted as suppressed.
+ *
+ * <p>All methods must be called on the platform thread.
+ */
+final class TextureFrameScheduler {
+  /** The update policy and bookkeeping of a single texture. */
+  final class TextureState {
+    final long id;
+    private long minFrameIntervalMillis;
+    private boolean coalesceToVsync;
+    private boolean pauseWhenOffscreen;
+
+    private long lastNotifiedMillis = Long.MIN_VALUE / 2;
+    // Whether a notification is held back, waiting for a deadline, a vsync or a surface.
+    private boolean pending;
+    private long suppressedFrameCount;
+    private boolean released;
+
+    private final Runnable onDeadline =
+        new Runnable() {
+          @Override
+          public void run() {
+            pending = false;
+            dispatch(TextureState.this, false);
+          }
+        };
+
+    TextureState(long id) {
+      this.id = id;
+    }
+
+    void setMaxFrameRate(float framesPerSecond) {
+      minFrameIntervalMillis = framesPerSecond > 0 ? (long) (1000 / framesPerSecond) : 0;
+    }
+
+    void setCoalesceToVsync(boolean coalesceToVsync) {
+      this.coalesceToVsync = coalesceToVsync;
+    }
+
+    void setPauseWhenOffscreen(boolean pauseWhenOffscreen) {
+      this.pauseWhenOffscreen = pauseWhenOffscreen;
+      if (!pauseWhenOffscreen && pausedTextures.remove(this)) {
+        pending = false;
+        dispatch(this, false);
+      }
+    }
+
+    long suppressedFrameCount() {
+      return suppressedFrameCount;
+    }
+
+    @NonNull
+    TextureFrameScheduler scheduler() {
+      return TextureFrameScheduler.this;
+    }
+  }
+
+  @NonNull private final FlutterJNI flutterJNI;
+  @NonNull private final Handler handler;
+  private final ArrayList<TextureState> vsyncTextures = new ArrayList<>();
+  private final ArrayList<TextureState> pausedTextures = new ArrayList<>();
+  private boolean offscreen = true;
+  private boolean vsyncScheduled;
+
+  private final Choreographer.FrameCallback onVsync =
+      new Choreographer.FrameCallback() {
+        @Override
+        public void doFrame(long frameTimeNanos) {
+          vsyncScheduled = false;
+          // Textures that become pending while dispatching wait for the next vsync.
+          final TextureState[] textures = vsyncTextures.toArray(new TextureState[0]);
+          vsyncTextures.clear();
+          for (final TextureState texture : textures) {
+            texture.pending = false;
+            dispatch(texture, true);
+          }
+        }
+      };
+
+  TextureFrameScheduler(@NonNull FlutterJNI flutterJNI, @NonNull Handler handler) {
+    this.flutterJNI = flutterJNI;
+    this.handler = handler;
+  }
+
+  @NonNull
+  TextureState register(long textureId) {
+    return new TextureState(textureId);
+  }
+
+  void unregister(@NonNull TextureState texture) {
+    texture.released = true;
+    texture.pending = false;
+    handler.removeCallbacks(texture.onDeadline);
+    vsyncTextures.remove(texture);
+    pausedTextures.remove(texture);
+  }
+
+  /** Called when the producer of {@code texture} queued a new frame. */
+  void onFrameAvailable(@NonNull TextureState texture) {
+    if (texture.released) {
+      return;
+    }
+    if (texture.pending) {
+      // The held back notification will pick up this frame.
+      texture.suppressedFrameCount++;
+      return;
+    }
+    dispatch(texture, false);
+  }
+
+  /** Sets whether the renderer is currently not rendering to a surface. */
+  void setOffscreen(boolean offscreen) {
+    if (this.offscreen == offscreen) {
+      return;
+    }
+    this.offscreen = offscreen;
+    if (offscreen || pausedTextures.isEmpty()) {
+      return;
+    }
+    final TextureState[] textures = pausedTextures.toArray(new TextureState[0]);
+    pausedTextures.clear();
+    for (final TextureState texture : textures) {
+      texture.pending = false;
+      dispatch(texture, false);
+    }
+  }
+
+  private void dispatch(@NonNull TextureState texture, boolean atVsync) {
+    if (texture.released) {
+      return;
+    }
+    if (texture.pauseWhenOffscreen && offscreen) {
+      texture.pending = true;
+      pausedTextures.add(texture);
+      return;
+    }
+    final long now = SystemClock.uptimeMillis();
+    final long earliest = texture.lastNotifiedMillis + texture.minFrameIntervalMillis;
+    if (now < earliest) {
+      texture.pending = true;
+      handler.postAtTime(texture.onDeadline, earliest);
+      return;
+    }
+    if (texture.coalesceToVsync && !atVsync) {
+      texture.pending = true;
+      vsyncTextures.add(texture);
+      if (!vsyncScheduled) {
+        vsyncScheduled = true;
+        Choreographer.getInstance().postFrameCallback(onVsync);
+      }
+      return;
+    }
+    texture.lastNotifiedMillis = now;
+    if (flutterJNI.isAttached()) {
+      flutterJNI.markTextureFrameAvailable(texture.id);
+    }
+  }
+}
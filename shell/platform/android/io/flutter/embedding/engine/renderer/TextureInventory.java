@@ -0,0 +1,187 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.os.Handler;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.BuildConfig;
+import io.flutter.Log;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.HashSet;
+
+/**
+ * The live textures of a {@link FlutterRenderer}, and the reclamation of those whose entries become
+ * unreachable without being released.
+ *
+ * <p>Each texture entry is tracked by a {@link PhantomReference}. Its {@link Resources} are kept
+ * apart from the entry, so that they can be released after the entry is garbage collected. A
+ * single daemon thread waits for collected entries and posts their reclamation to the platform
+ * thread of the renderer they belong to, which unlike {@code finalize()} neither delays the
+ * collection of every entry nor runs on the finalizer thread.
+ *
+ * <p>With leak tracking enabled, which is the default in debug builds, the stack trace of the
+ * allocation of each entry is recorded and logged if that entry is reclaimed.
+ *
+ * <p>Apart from the reclamation thread, all methods must be called on the platform thread.
+ */
+final class TextureInventory {
+  private static final String TAG = "TextureInventory";
+
+  /**
+   * The resources backing a texture entry.
+   *
+   * <p>Implementations must not reference the entry, directly or through callbacks, or the entry
+   * never becomes unreachable.
+   */
+  interface Resources {
+    /**
+     * Releases the texture.
+     *
+     * @param reclaimed true if the entry was garbage collected without being released.
+     */
+    void release(boolean reclaimed);
+  }
+
+  static final class Record extends PhantomReference<Object> {
+    final long id;
+    final long estimatedBytes;
+    @NonNull final Resources resources;
+    @NonNull private final TextureInventory inventory;
+    @Nullable private final Throwable allocationSite;
+
+    private Record(
+        @NonNull Object entry,
+        long id,
+        long estimatedBytes,
+        @NonNull Resources resources,
+        @NonNull TextureInventory inventory,
+        @Nullable Throwable allocationSite) {
+      super(entry, reclaimedEntries);
+      this.id = id;
+      this.estimatedBytes = estimatedBytes;
+      this.resources = resources;
+      this.inventory = inventory;
+      this.allocationSite = allocationSite;
+    }
+  }
+
+  private static final ReferenceQueue<Object> reclaimedEntries = new ReferenceQueue<>();
+  @Nullable private static Thread reclaimThread;
+
+  @NonNull private final Handler handler;
+  // Keeps the phantom references reachable until their texture is released.
+  private final HashSet<Record> records = new HashSet<>();
+  private long liveBytes;
+  private boolean leakTrackingEnabled = BuildConfig.DEBUG;
+
+  TextureInventory(@NonNull Handler handler) {
+    this.handler = handler;
+  }
+
+  /**
+   * Starts tracking the texture of {@code entry}.
+   *
+   * @param estimatedBytes An estimate of the memory held by the texture's buffers, or 0 if unknown.
+   */
+  @NonNull
+  Record track(@NonNull Object entry, long id, long estimatedBytes, @NonNull Resources resources) {
+    startReclaimThread();
+    final Throwable allocationSite =
+        leakTrackingEnabled ? new Throwable("Texture " + id + " was created here.") : null;
+    final Record record = new Record(entry, id, estimatedBytes, resources, this, allocationSite);
+    records.add(record);
+    liveBytes += estimatedBytes;
+    return record;
+  }
+
+  /**
+   * Releases the texture of an entry released by its owner.
+   *
+   * @return false if the texture was already released.
+   */
+  boolean release(@NonNull Record record) {
+    return remove(record, false);
+  }
+
+  boolean isReleased(@NonNull Record record) {
+    return !records.contains(record);
+  }
+
+  int liveTextureCount() {
+    return records.size();
+  }
+
+  long liveTextureBytes() {
+    return liveBytes;
+  }
+
+  /** Sets whether textures created from now on record their allocation site. */
+  void setLeakTrackingEnabled(boolean enabled) {
+    leakTrackingEnabled = enabled;
+  }
+
+  @VisibleForTesting
+  void reclaim(@NonNull Record record) {
+    if (isReleased(record)) {
+      return;
+    }
+    if (record.allocationSite != null) {
+      Log.w(
+          TAG,
+          "Texture "
+              + record.id
+              + " was garbage collected without being released. Call release() on its entry"
+              + " once it is no longer used.",
+          record.allocationSite);
+    } else {
+      Log.v(TAG, "Reclaiming texture " + record.id + ".");
+    }
+    remove(record, true);
+  }
+
+  private boolean remove(@NonNull Record record, boolean reclaimed) {
+    if (!records.remove(record)) {
+      return false;
+    }
+    record.clear();
+    liveBytes -= record.estimatedBytes;
+    record.resources.release(reclaimed);
+    return true;
+  }
+
+  private static synchronized void startReclaimThread() {
+    if (reclaimThread != null) {
+      return;
+    }
+    reclaimThread =
+        new Thread(
+            new Runnable() {
+              @Override
+              public void run() {
+                while (true) {
+                  final Record record;
+                  try {
+                    record = (Record) reclaimedEntries.remove();
+                  } catch (InterruptedException e) {
+                    continue;
+                  }
+                  record.inventory.handler.post(
+                      new Runnable() {
+                        @Override
+                        public void run() {
+                          record.inventory.reclaim(record);
+                        }
+                      });
+                }
+              }
+            },
+            "FlutterTextureReclaimer");
+    reclaimThread.setDaemon(true);
+    reclaimThread.start();
+  }
+}
@@ -0,0 +1,67 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.systemchannels;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.Log;
+import io.flutter.embedding.engine.dart.DartExecutor;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.StandardMethodCodec;
+
+/**
+ * System channel that receives the keyboard configuration of the framework.
+ *
+ * <p>The configuration applies to the whole {@link io.flutter.embedding.engine.FlutterEngine}, so
+ * every {@link io.flutter.embedding.android.KeyboardManager} of the engine reads it from here,
+ * including the ones of views that are attached after the framework sent it.
+ */
+public class KeyboardChannel {
+  private static final String TAG = "KeyboardChannel";
+
+  @NonNull public final MethodChannel channel;
+  private boolean legacyKeyEventsEnabled = true;
+
+  public KeyboardChannel(@NonNull DartExecutor dartExecutor) {
+    channel = new MethodChannel(dartExecutor, "flutter/keyboard", StandardMethodCodec.INSTANCE);
+    channel.setMethodCallHandler(parsingMethodCallHandler);
+  }
+
+  /**
+   * Whether key events are also sent through the legacy {@code flutter/keyevent} channel.
+   *
+   * <p>This is true until the framework sends {@code setLegacyKeyEventsEnabled} with {@code false}.
+   */
+  public boolean isLegacyKeyEventsEnabled() {
+    return legacyKeyEventsEnabled;
+  }
+
+  @NonNull
+  private final MethodChannel.MethodCallHandler parsingMethodCallHandler =
+      new MethodChannel.MethodCallHandler() {
+        @Override
+        public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+          final String method = call.method;
+          if (Log.isLoggable(Log.VERBOSE)) {
+            Log.v(TAG, "Received '" + method + "' message.");
+          }
+          switch (method) {
+            case "setLegacyKeyEventsEnabled":
+              legacyKeyEventsEnabled = !Boolean.FALSE.equals(call.arguments);
+              result.success(null);
+              break;
+            default:
+              result.notImplemented();
+              break;
+          }
+        }
+      };
+
+  @VisibleForTesting
+  public void synthesizeMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+    parsingMethodCallHandler.onMethodCall(call, result);
+  }
+}
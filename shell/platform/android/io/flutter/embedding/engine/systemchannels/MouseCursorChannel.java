@@ -46,7 +46,9 @@ public class MouseCursorChannel {
           }
 
           final String method = call.method;
-          Log.v(TAG, "Received '" + method + "' message.");
+          if (Log.isLoggable(Log.VERBOSE)) {
+            Log.v(TAG, "Received '" + method + "' message.");
+          }
           try {
             // More methods are expected to be added here, hence the switch.
             switch (method) {
@@ -43,7 +43,9 @@ public class PlatformChannel {
 
           String method = call.method;
           Object arguments = call.arguments;
-          Log.v(TAG, "Received '" + method + "' message.");
+          if (Log.isLoggable(Log.VERBOSE)) {
+            Log.v(TAG, "Received '" + method + "' message.");
+          }
           try {
             switch (method) {
               case "SystemSound.play":
@@ -54,7 +54,9 @@ public class PlatformViewsChannel {
             return;
           }
 
-          Log.v(TAG, "Received '" + call.method + "' message.");
+          if (Log.isLoggable(Log.VERBOSE)) {
+            Log.v(TAG, "Received '" + call.method + "' message.");
+          }
           switch (call.method) {
             case "create":
               create(call, result);
@@ -119,8 +121,19 @@ public class PlatformViewsChannel {
                       (double) createArgs.get("height"),
                       (int) createArgs.get("direction"),
                       additionalParams);
-              long textureId = handler.createForTextureLayer(request);
-              result.success(textureId);
+              handler.createForTextureLayer(
+                  request,
+                  new TextureLayerCreationCallback() {
+                    @Override
+                    public void onCreated(long textureId) {
+                      result.success(textureId);
+                    }
+
+                    @Override
+                    public void onError(@NonNull Exception exception) {
+                      result.error("error", detailedExceptionString(exception), null);
+                    }
+                  });
             }
           } catch (IllegalStateException exception) {
             result.error("error", detailedExceptionString(exception), null);
@@ -260,6 +273,15 @@ public class PlatformViewsChannel {
     this.handler = handler;
   }
 
+  /** Receives the result of creating a platform view that is displayed in a TextureLayer. */
+  public interface TextureLayerCreationCallback {
+    /** The view was created, and is rendered to the texture with the given ID. */
+    void onCreated(long textureId);
+
+    /** The view could not be created. */
+    void onError(@NonNull Exception exception);
+  }
+
   /**
    * Handler that receives platform view messages sent from Flutter to Android through a given
    * {@link PlatformViewsChannel}.
@@ -291,6 +313,23 @@ public class PlatformViewsChannel {
      */
     long createForTextureLayer(@NonNull PlatformViewCreationRequest request);
 
+    /**
+     * The Flutter application would like to display a new Android {@code View} in a TextureLayer,
+     * and accepts the texture ID once the view was created.
+     *
+     * <p>The {@code callback} must be invoked exactly once. Defaults to invoking it with the result
+     * of {@link #createForTextureLayer(PlatformViewCreationRequest)}.
+     *
+     * @param request The metadata sent from the framework.
+     * @param callback Receives the texture ID, or the error that prevented the creation of the
+     *     view.
+     */
+    default void createForTextureLayer(
+        @NonNull PlatformViewCreationRequest request,
+        @NonNull TextureLayerCreationCallback callback) {
+      callback.onCreated(createForTextureLayer(request));
+    }
+
     /** The Flutter application would like to dispose of an existing Android {@code View}. */
     void dispose(int viewId);
 
@@ -30,8 +30,9 @@ import org.json.JSONException;
  * io.flutter.plugin.editing.SpellCheckPlugin#onGetSentenceSuggestions} for details) with the text
  * that these results correspond to appended to the front as an argument. For example, the argument
  * may look like: {@code {"Hello, wrold!", "7.11.world\nword\nold"}}. The {@link
- * io.flutter.plugin.editing.SpellCheckPlugin} only handles one request to fetch spell check results
- * at a time; see {@link io.flutter.plugin.editing.SpellCheckPlugin#initiateSpellCheck} for details.
+ * io.flutter.plugin.editing.SpellCheckPlugin} only sends one request to fetch spell check results
+ * at a time and queues the most recent of the others; see {@link
+ * io.flutter.plugin.editing.SpellCheckPlugin#initiateSpellCheck} for details.
  *
  * <p>{@link io.flutter.plugin.editing.SpellCheckPlugin} implements {@link SpellCheckMethodHandler}
  * to initiate spell check. Implement {@link SpellCheckMethodHandler} to respond to spell check
@@ -56,7 +57,9 @@ public class SpellCheckChannel {
           }
           String method = call.method;
           Object args = call.arguments;
-          Log.v(TAG, "Received '" + method + "' message.");
+          if (Log.isLoggable(Log.VERBOSE)) {
+            Log.v(TAG, "Received '" + method + "' message.");
+          }
           switch (method) {
             case "SpellCheck.initiateSpellCheck":
               try {
@@ -12,6 +12,7 @@ import io.flutter.embedding.engine.dart.DartExecutor;
 import io.flutter.plugin.common.JSONMethodCodec;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.StandardMethodCodec;
 import io.flutter.plugin.editing.TextEditingDelta;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -41,14 +42,39 @@ import org.json.JSONObject;
 public class TextInputChannel {
   private static final String TAG = "TextInputChannel";
 
+  /**
+   * Number of values used to encode a single {@link TextEditingDelta} on the {@link
+   * #binaryChannel}.
+   */
+  @VisibleForTesting static final int BINARY_DELTA_FIELD_COUNT = 8;
+
   @NonNull public final MethodChannel channel;
+
+  /**
+   * Channel used to send editing state updates to Flutter with the {@link StandardMethodCodec}
+   * once the framework has opted in with {@code TextInput.setBinaryEditingUpdates}.
+   *
+   * <p>Updates sent through this channel are flat lists of primitives rather than JSON maps, which
+   * avoids building and parsing a JSON string for every keystroke.
+   */
+  @NonNull public final MethodChannel binaryChannel;
+
   @Nullable private TextInputMethodHandler textInputMethodHandler;
+  private boolean useBinaryEditingUpdates = false;
 
   @NonNull @VisibleForTesting
   final MethodChannel.MethodCallHandler parsingMethodHandler =
       new MethodChannel.MethodCallHandler() {
         @Override
         public void onMethodCall(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+          if (call.method.equals("TextInput.setBinaryEditingUpdates")) {
+            // Negotiation of the editing update encoding is channel state and does not
+            // depend on a TextInputMethodHandler being registered. Replying true tells
+            // the framework that this embedding supports the binary encoding.
+            useBinaryEditingUpdates = Boolean.TRUE.equals(call.arguments);
+            result.success(true);
+            return;
+          }
           if (textInputMethodHandler == null) {
             // If no explicit TextInputMethodHandler has been registered then we don't
             // need to forward this call to an API. Return.
@@ -57,7 +83,9 @@ public class TextInputChannel {
 
           String method = call.method;
           Object args = call.arguments;
-          Log.v(TAG, "Received '" + method + "' message.");
+          if (Log.isLoggable(Log.VERBOSE)) {
+            Log.v(TAG, "Received '" + method + "' message.");
+          }
           switch (method) {
             case "TextInput.show":
               textInputMethodHandler.show();
@@ -162,9 +190,18 @@ public class TextInputChannel {
    */
   public TextInputChannel(@NonNull DartExecutor dartExecutor) {
     this.channel = new MethodChannel(dartExecutor, "flutter/textinput", JSONMethodCodec.INSTANCE);
+    this.binaryChannel =
+        new MethodChannel(dartExecutor, "flutter/textinput/binary", StandardMethodCodec.INSTANCE);
     channel.setMethodCallHandler(parsingMethodHandler);
   }
 
+  /**
+   * Returns whether editing state updates are currently sent through the {@link #binaryChannel}.
+   */
+  public boolean isUsingBinaryEditingUpdates() {
+    return useBinaryEditingUpdates;
+  }
+
   /**
    * Instructs Flutter to reattach the last active text input client, if any.
    *
@@ -198,6 +235,25 @@ public class TextInputChannel {
     state.put("deltas", deltas);
     return state;
   }
+
+  private static ArrayList<Object> createEditingDeltaList(
+      int inputClientId, ArrayList<TextEditingDelta> batchDeltas) {
+    final ArrayList<Object> arguments =
+        new ArrayList<>(1 + batchDeltas.size() * BINARY_DELTA_FIELD_COUNT);
+    arguments.add(inputClientId);
+    for (TextEditingDelta delta : batchDeltas) {
+      arguments.add(delta.getOldText().toString());
+      arguments.add(delta.getDeltaText().toString());
+      arguments.add(delta.getDeltaStart());
+      arguments.add(delta.getDeltaEnd());
+      arguments.add(delta.getNewSelectionStart());
+      arguments.add(delta.getNewSelectionEnd());
+      arguments.add(delta.getNewComposingStart());
+      arguments.add(delta.getNewComposingEnd());
+    }
+    return arguments;
+  }
+
   /**
    * Instructs Flutter to update its text input editing state to reflect the given configuration.
    */
@@ -208,23 +264,33 @@ public class TextInputChannel {
       int selectionEnd,
       int composingStart,
       int composingEnd) {
-    Log.v(
-        TAG,
-        "Sending message to update editing state: \n"
-            + "Text: "
-            + text
-            + "\n"
-            + "Selection start: "
-            + selectionStart
-            + "\n"
-            + "Selection end: "
-            + selectionEnd
-            + "\n"
-            + "Composing start: "
-            + composingStart
-            + "\n"
-            + "Composing end: "
-            + composingEnd);
+    if (Log.isLoggable(Log.VERBOSE)) {
+      Log.v(
+          TAG,
+          "Sending message to update editing state: \n"
+              + "Text: "
+              + text
+              + "\n"
+              + "Selection start: "
+              + selectionStart
+              + "\n"
+              + "Selection end: "
+              + selectionEnd
+              + "\n"
+              + "Composing start: "
+              + composingStart
+              + "\n"
+              + "Composing end: "
+              + composingEnd);
+    }
+
+    if (useBinaryEditingUpdates) {
+      binaryChannel.invokeMethod(
+          "TextInputClient.updateEditingState",
+          Arrays.asList(
+              inputClientId, text, selectionStart, selectionEnd, composingStart, composingEnd));
+      return;
+    }
 
     final HashMap<Object, Object> state =
         createEditingStateJSON(text, selectionStart, selectionEnd, composingStart, composingEnd);
@@ -235,11 +301,20 @@ public class TextInputChannel {
   public void updateEditingStateWithDeltas(
       int inputClientId, @NonNull ArrayList<TextEditingDelta> batchDeltas) {
 
-    Log.v(
-        TAG,
-        "Sending message to update editing state with deltas: \n"
-            + "Number of deltas: "
-            + batchDeltas.size());
+    if (Log.isLoggable(Log.VERBOSE)) {
+      Log.v(
+          TAG,
+          "Sending message to update editing state with deltas: \n"
+              + "Number of deltas: "
+              + batchDeltas.size());
+    }
+
+    if (useBinaryEditingUpdates) {
+      binaryChannel.invokeMethod(
+          "TextInputClient.updateEditingStateWithDeltas",
+          createEditingDeltaList(inputClientId, batchDeltas));
+      return;
+    }
 
     final HashMap<Object, Object> state = createEditingDeltaJSON(batchDeltas);
 
@@ -249,11 +324,13 @@ public class TextInputChannel {
 
   public void updateEditingStateWithTag(
       int inputClientId, @NonNull HashMap<String, TextEditState> editStates) {
-    Log.v(
-        TAG,
-        "Sending message to update editing state for "
-            + String.valueOf(editStates.size())
-            + " field(s).");
+    if (Log.isLoggable(Log.VERBOSE)) {
+      Log.v(
+          TAG,
+          "Sending message to update editing state for "
+              + String.valueOf(editStates.size())
+              + " field(s).");
+    }
 
     final HashMap<String, HashMap<Object, Object>> json = new HashMap<>();
     for (Map.Entry<String, TextEditState> element : editStates.entrySet()) {
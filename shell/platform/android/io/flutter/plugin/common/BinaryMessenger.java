@@ -202,4 +202,23 @@ public interface BinaryMessenger {
      */
     void reply(@Nullable ByteBuffer reply);
   }
+
+  /**
+   * A {@link BinaryReply} that may be abandoned before Flutter replies, for example when the call
+   * that is waiting for it times out.
+   *
+   * <p>Messengers that keep pending replies until Flutter answers hand it a {@link Runnable} that
+   * forgets the reply, so that nothing the reply captured is retained for the life of the engine.
+   * Messengers that do not support this never call {@link #onPending(Runnable)}.
+   */
+  interface DiscardableBinaryReply extends BinaryReply {
+    /**
+     * Called when the reply is registered as pending.
+     *
+     * @param discard forgets the pending reply when run on the platform thread, after which {@link
+     *     #reply(ByteBuffer)} is never called.
+     */
+    @UiThread
+    void onPending(@NonNull Runnable discard);
+  }
 }
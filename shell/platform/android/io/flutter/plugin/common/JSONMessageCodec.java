@@ -19,6 +19,10 @@ import org.json.JSONTokener;
  *
  * <p>Supports the same Java values as {@link JSONObject#wrap(Object)}.
  *
+ * <p>Messages are written and read directly as UTF-8 bytes. The org.json encoder and tokener are
+ * only used for values and syntax that the streaming reader and writer do not reproduce exactly,
+ * so the wire format and the decoded values are the same either way.
+ *
  * <p>On the Dart side, JSON messages are handled by the JSON facilities of the <a
  * href="https://api.dartlang.org/stable/dart-convert/JSON-constant.html">dart:convert</a> package.
  */
@@ -34,6 +38,10 @@ public final class JSONMessageCodec implements MessageCodec<Object> {
     if (message == null) {
       return null;
     }
+    final JSONStreamWriter writer = new JSONStreamWriter();
+    if (writer.writeMessage(message)) {
+      return writer.toByteBuffer();
+    }
     final Object wrapped = JSONUtil.wrap(message);
     if (wrapped instanceof String) {
       return StringCodec.INSTANCE.encodeMessage(JSONObject.quote((String) wrapped));
@@ -48,6 +56,10 @@ public final class JSONMessageCodec implements MessageCodec<Object> {
     if (message == null) {
       return null;
     }
+    final Object streamed = JSONStreamReader.read(message);
+    if (streamed != JSONStreamReader.UNSUPPORTED) {
+      return streamed;
+    }
     try {
       final String json = StringCodec.INSTANCE.decodeMessage(message);
       final JSONTokener tokener = new JSONTokener(json);
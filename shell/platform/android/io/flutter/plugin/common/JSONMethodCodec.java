@@ -30,6 +30,16 @@ public final class JSONMethodCodec implements MethodCodec {
   @Override
   @NonNull
   public ByteBuffer encodeMethodCall(@NonNull MethodCall methodCall) {
+    if (methodCall.method != null) {
+      final JSONStreamWriter writer = new JSONStreamWriter();
+      writer.writeAscii("{\"method\":");
+      writer.writeString(methodCall.method);
+      writer.writeAscii(",\"args\":");
+      if (writer.writeWrappedValue(methodCall.arguments)) {
+        writer.writeByte('}');
+        return writer.toByteBuffer();
+      }
+    }
     try {
       final JSONObject map = new JSONObject();
       map.put("method", methodCall.method);
@@ -62,6 +72,12 @@ public final class JSONMethodCodec implements MethodCodec {
   @Override
   @NonNull
   public ByteBuffer encodeSuccessEnvelope(@Nullable Object result) {
+    final JSONStreamWriter writer = new JSONStreamWriter();
+    writer.writeByte('[');
+    if (writer.writeWrappedValue(result)) {
+      writer.writeByte(']');
+      return writer.toByteBuffer();
+    }
     return JSONMessageCodec.INSTANCE.encodeMessage(new JSONArray().put(JSONUtil.wrap(result)));
   }
 
@@ -69,6 +85,11 @@ public final class JSONMethodCodec implements MethodCodec {
   @NonNull
   public ByteBuffer encodeErrorEnvelope(
       @NonNull String errorCode, @Nullable String errorMessage, @Nullable Object errorDetails) {
+    final JSONStreamWriter writer = new JSONStreamWriter();
+    if (writeErrorEnvelope(writer, errorCode, errorMessage, errorDetails)) {
+      writer.writeByte(']');
+      return writer.toByteBuffer();
+    }
     return JSONMessageCodec.INSTANCE.encodeMessage(
         new JSONArray()
             .put(errorCode)
@@ -83,6 +104,13 @@ public final class JSONMethodCodec implements MethodCodec {
       @Nullable String errorMessage,
       @Nullable Object errorDetails,
       @Nullable String errorStacktrace) {
+    final JSONStreamWriter writer = new JSONStreamWriter();
+    if (writeErrorEnvelope(writer, errorCode, errorMessage, errorDetails)) {
+      writer.writeByte(',');
+      writer.writeWrappedValue(errorStacktrace);
+      writer.writeByte(']');
+      return writer.toByteBuffer();
+    }
     return JSONMessageCodec.INSTANCE.encodeMessage(
         new JSONArray()
             .put(errorCode)
@@ -116,6 +144,23 @@ public final class JSONMethodCodec implements MethodCodec {
     }
   }
 
+  /** Writes the error envelope up to its details, or returns false if org.json must encode it. */
+  private static boolean writeErrorEnvelope(
+      @NonNull JSONStreamWriter writer,
+      @Nullable String errorCode,
+      @Nullable String errorMessage,
+      @Nullable Object errorDetails) {
+    if (errorCode == null) {
+      return false;
+    }
+    writer.writeByte('[');
+    writer.writeString(errorCode);
+    writer.writeByte(',');
+    writer.writeWrappedValue(errorMessage);
+    writer.writeByte(',');
+    return writer.writeWrappedValue(errorDetails);
+  }
+
   Object unwrapNull(Object value) {
     return (value == JSONObject.NULL) ? null : value;
   }
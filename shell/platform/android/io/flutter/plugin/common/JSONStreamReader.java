@@ -0,0 +1,388 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.common;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.nio.ByteBuffer;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Reads UTF-8 JSON directly from bytes into the values {@link org.json.JSONTokener} would return.
+ *
+ * <p>Only strict JSON without trailing content is read. The lenient syntax {@code JSONTokener}
+ * accepts, malformed UTF-8 and numbers that org.json rejects are reported as {@link #UNSUPPORTED},
+ * in which case callers must fall back to {@code JSONTokener} to get its exact result or error.
+ */
+final class JSONStreamReader {
+  /** Returned when the message is not strict JSON. */
+  static final Object UNSUPPORTED = new Object();
+
+  @NonNull private final byte[] bytes;
+  private final int end;
+  private int position;
+  @NonNull private char[] chars = new char[32];
+
+  private JSONStreamReader(@NonNull byte[] bytes, int start, int end) {
+    this.bytes = bytes;
+    this.position = start;
+    this.end = end;
+  }
+
+  /**
+   * Reads the JSON value between the position and the limit of the message.
+   *
+   * <p>The position of the message is only moved to its limit when the value is read.
+   */
+  @Nullable
+  static Object read(@NonNull ByteBuffer message) {
+    final JSONStreamReader reader;
+    if (message.hasArray()) {
+      final int start = message.arrayOffset() + message.position();
+      reader = new JSONStreamReader(message.array(), start, start + message.remaining());
+    } else {
+      final byte[] bytes = new byte[message.remaining()];
+      message.duplicate().get(bytes);
+      reader = new JSONStreamReader(bytes, 0, bytes.length);
+    }
+    reader.skipWhitespace();
+    final Object value = reader.readValue();
+    if (value == UNSUPPORTED || reader.position != reader.end) {
+      return UNSUPPORTED;
+    }
+    message.position(message.limit());
+    return value;
+  }
+
+  @Nullable
+  private Object readValue() {
+    if (position == end) {
+      return UNSUPPORTED;
+    }
+    switch (bytes[position]) {
+      case '{':
+        position++;
+        return readObject();
+      case '[':
+        position++;
+        return readArray();
+      case '"':
+        position++;
+        return readString();
+      case 't':
+        return readLiteral("true", Boolean.TRUE);
+      case 'f':
+        return readLiteral("false", Boolean.FALSE);
+      case 'n':
+        return readLiteral("null", JSONObject.NULL);
+      default:
+        return readNumber();
+    }
+  }
+
+  @NonNull
+  private Object readObject() {
+    final JSONObject object = new JSONObject();
+    skipWhitespace();
+    if (position < end && bytes[position] == '}') {
+      position++;
+      return object;
+    }
+    while (true) {
+      if (position == end || bytes[position] != '"') {
+        return UNSUPPORTED;
+      }
+      position++;
+      final Object name = readString();
+      skipWhitespace();
+      if (name == UNSUPPORTED || position == end || bytes[position] != ':') {
+        return UNSUPPORTED;
+      }
+      position++;
+      skipWhitespace();
+      final Object value = readValue();
+      if (value == UNSUPPORTED) {
+        return UNSUPPORTED;
+      }
+      try {
+        object.put((String) name, value);
+      } catch (JSONException e) {
+        return UNSUPPORTED;
+      }
+      skipWhitespace();
+      if (position == end) {
+        return UNSUPPORTED;
+      }
+      final byte separator = bytes[position++];
+      if (separator == '}') {
+        return object;
+      } else if (separator != ',') {
+        return UNSUPPORTED;
+      }
+      skipWhitespace();
+    }
+  }
+
+  @NonNull
+  private Object readArray() {
+    final JSONArray array = new JSONArray();
+    skipWhitespace();
+    if (position < end && bytes[position] == ']') {
+      position++;
+      return array;
+    }
+    while (true) {
+      final Object value = readValue();
+      if (value == UNSUPPORTED) {
+        return UNSUPPORTED;
+      }
+      array.put(value);
+      skipWhitespace();
+      if (position == end) {
+        return UNSUPPORTED;
+      }
+      final byte separator = bytes[position++];
+      if (separator == ']') {
+        return array;
+      } else if (separator != ',') {
+        return UNSUPPORTED;
+      }
+      skipWhitespace();
+    }
+  }
+
+  /** Reads the rest of a string whose opening quote was consumed. */
+  @NonNull
+  private Object readString() {
+    int length = 0;
+    while (position < end) {
+      final int b = bytes[position++];
+      if (b == '"') {
+        return new String(chars, 0, length);
+      }
+      if (length + 2 > chars.length) {
+        final char[] grown = new char[chars.length * 2];
+        System.arraycopy(chars, 0, grown, 0, length);
+        chars = grown;
+      }
+      if (b >= 0 && b != '\\') {
+        chars[length++] = (char) b;
+      } else if (b == '\\') {
+        final int escaped = readEscapedChar();
+        if (escaped < 0) {
+          return UNSUPPORTED;
+        }
+        chars[length++] = (char) escaped;
+      } else {
+        final int codePoint = readMultiByteCodePoint(b & 0xFF);
+        if (codePoint < 0) {
+          return UNSUPPORTED;
+        }
+        if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+          chars[length++] = (char) codePoint;
+        } else {
+          length += Character.toChars(codePoint, chars, length);
+        }
+      }
+    }
+    return UNSUPPORTED;
+  }
+
+  /** Returns the char of the escape sequence after a backslash, or -1 if it is not strict JSON. */
+  private int readEscapedChar() {
+    if (position == end) {
+      return -1;
+    }
+    switch (bytes[position++]) {
+      case '"':
+        return '"';
+      case '\\':
+        return '\\';
+      case '/':
+        return '/';
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'u':
+        if (end - position < 4) {
+          return -1;
+        }
+        int c = 0;
+        for (int i = 0; i < 4; i++) {
+          final int digit = Character.digit(bytes[position++], 16);
+          if (digit < 0) {
+            return -1;
+          }
+          c = (c << 4) | digit;
+        }
+        return c;
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * Returns the code point of the UTF-8 sequence that starts with the given lead byte, or -1 if the
+   * sequence is malformed, in which case {@link String} would decode it with replacement chars.
+   */
+  private int readMultiByteCodePoint(int lead) {
+    final int count;
+    final int min;
+    if (lead >= 0xC2 && lead <= 0xDF) {
+      count = 1;
+      min = 0x80;
+    } else if (lead >= 0xE0 && lead <= 0xEF) {
+      count = 2;
+      min = 0x800;
+    } else if (lead >= 0xF0 && lead <= 0xF4) {
+      count = 3;
+      min = 0x10000;
+    } else {
+      return -1;
+    }
+    if (end - position < count) {
+      return -1;
+    }
+    int codePoint = lead & (0x3F >> count);
+    for (int i = 0; i < count; i++) {
+      final int b = bytes[position++];
+      if ((b & 0xC0) != 0x80) {
+        return -1;
+      }
+      codePoint = (codePoint << 6) | (b & 0x3F);
+    }
+    if (codePoint < min
+        || codePoint > Character.MAX_CODE_POINT
+        || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+      return -1;
+    }
+    return codePoint;
+  }
+
+  @NonNull
+  private Object readLiteral(@NonNull String literal, @NonNull Object value) {
+    final int length = literal.length();
+    if (end - position < length) {
+      return UNSUPPORTED;
+    }
+    for (int i = 0; i < length; i++) {
+      if (bytes[position + i] != literal.charAt(i)) {
+        return UNSUPPORTED;
+      }
+    }
+    position += length;
+    return isLiteralEnd() ? value : UNSUPPORTED;
+  }
+
+  /**
+   * Reads a number with the types {@code JSONTokener} uses: an {@link Integer} or a {@link Long}
+   * for integral numbers that fit, and a {@link Double} otherwise.
+   */
+  @NonNull
+  private Object readNumber() {
+    final int start = position;
+    if (position < end && bytes[position] == '-') {
+      position++;
+    }
+    if (position < end && bytes[position] == '0') {
+      position++;
+    } else if (skipDigits() == 0) {
+      return UNSUPPORTED;
+    }
+    boolean integral = true;
+    if (position < end && bytes[position] == '.') {
+      position++;
+      integral = false;
+      if (skipDigits() == 0) {
+        return UNSUPPORTED;
+      }
+    }
+    if (position < end && (bytes[position] == 'e' || bytes[position] == 'E')) {
+      position++;
+      if (position < end && (bytes[position] == '+' || bytes[position] == '-')) {
+        position++;
+      }
+      if (skipDigits() == 0) {
+        return UNSUPPORTED;
+      }
+    }
+    if (!isLiteralEnd()) {
+      return UNSUPPORTED;
+    }
+    final char[] literalChars = new char[position - start];
+    for (int i = 0; i < literalChars.length; i++) {
+      literalChars[i] = (char) bytes[start + i];
+    }
+    final String literal = new String(literalChars);
+    if (integral) {
+      try {
+        final long longValue = Long.parseLong(literal);
+        if (longValue <= Integer.MAX_VALUE && longValue >= Integer.MIN_VALUE) {
+          return (int) longValue;
+        }
+        return longValue;
+      } catch (NumberFormatException e) {
+        // Exponents and numbers beyond the range of longs are read as doubles.
+      }
+    }
+    final double doubleValue = Double.parseDouble(literal);
+    if (Double.isInfinite(doubleValue)) {
+      return UNSUPPORTED;
+    }
+    return doubleValue;
+  }
+
+  private int skipDigits() {
+    final int start = position;
+    while (position < end && bytes[position] >= '0' && bytes[position] <= '9') {
+      position++;
+    }
+    return position - start;
+  }
+
+  /**
+   * Whether a literal ends at the position. {@code JSONTokener} reads literals until a separator,
+   * a space or a tab, and would include the other characters in the literal.
+   */
+  private boolean isLiteralEnd() {
+    if (position == end) {
+      return true;
+    }
+    switch (bytes[position]) {
+      case ',':
+      case ']':
+      case '}':
+      case ' ':
+      case '\t':
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private void skipWhitespace() {
+    while (position < end) {
+      switch (bytes[position]) {
+        case ' ':
+        case '\t':
+        case '\n':
+        case '\r':
+          position++;
+          break;
+        default:
+          return;
+      }
+    }
+  }
+}
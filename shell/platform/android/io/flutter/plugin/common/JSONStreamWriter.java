@@ -0,0 +1,282 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.common;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Writes JSON as UTF-8 bytes without building {@link JSONObject} trees or intermediate strings.
+ *
+ * <p>The output is identical to {@code JSONUtil.wrap(value).toString()} encoded by {@link
+ * StringCodec}. Values whose org.json encoding is irregular, such as non-finite numbers, maps with
+ * non-String keys or objects that are only supported through their {@code toString()}, are not
+ * supported, in which case the write methods return false and callers must fall back to org.json.
+ */
+final class JSONStreamWriter {
+  private static final byte[] HEX_DIGITS = {
+    '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+  };
+
+  @NonNull private byte[] bytes = new byte[64];
+  private int size;
+
+  /**
+   * Writes a message the way {@link JSONMessageCodec} encodes it at the top level, where strings
+   * are quoted and other values are written with their {@code toString()}.
+   */
+  boolean writeMessage(@NonNull Object message) {
+    if (message instanceof String) {
+      writeString((String) message);
+      return true;
+    }
+    if (message == JSONObject.NULL
+        || message instanceof Boolean
+        || message instanceof Integer
+        || message instanceof Long
+        || message instanceof Short
+        || message instanceof Byte
+        || message instanceof Double
+        || message instanceof Float) {
+      writeAscii(message.toString());
+      return true;
+    }
+    if (message instanceof Character) {
+      // Written unquoted by org.json.
+      return false;
+    }
+    return writeWrappedValue(message);
+  }
+
+  /** Writes a value the way it is encoded once {@link JSONUtil#wrap(Object)} converted it. */
+  boolean writeWrappedValue(@Nullable Object value) {
+    if (value == null || value == JSONObject.NULL) {
+      writeAscii("null");
+      return true;
+    }
+    if (value instanceof JSONObject || value instanceof JSONArray) {
+      return writeJSONValue(value);
+    }
+    if (value instanceof Collection) {
+      writeByte('[');
+      boolean first = true;
+      for (final Object element : (Collection<?>) value) {
+        if (!first) {
+          writeByte(',');
+        }
+        first = false;
+        if (!writeWrappedValue(element)) {
+          return false;
+        }
+      }
+      writeByte(']');
+      return true;
+    }
+    if (value.getClass().isArray()) {
+      writeByte('[');
+      final int length = Array.getLength(value);
+      for (int i = 0; i < length; i++) {
+        if (i > 0) {
+          writeByte(',');
+        }
+        if (!writeWrappedValue(Array.get(value, i))) {
+          return false;
+        }
+      }
+      writeByte(']');
+      return true;
+    }
+    if (value instanceof Map) {
+      writeByte('{');
+      boolean first = true;
+      for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        if (!(entry.getKey() instanceof String)) {
+          return false;
+        }
+        if (!first) {
+          writeByte(',');
+        }
+        first = false;
+        writeString((String) entry.getKey());
+        writeByte(':');
+        if (!writeWrappedValue(entry.getValue())) {
+          return false;
+        }
+      }
+      writeByte('}');
+      return true;
+    }
+    if (value instanceof Boolean
+        || value instanceof Integer
+        || value instanceof Long
+        || value instanceof Short
+        || value instanceof Byte
+        || value instanceof Double
+        || value instanceof Float
+        || value instanceof Character
+        || value instanceof String) {
+      return writeJSONValue(value);
+    }
+    return false;
+  }
+
+  /** Writes a value the way {@link org.json.JSONStringer} encodes it. */
+  private boolean writeJSONValue(@Nullable Object value) {
+    if (value instanceof JSONObject) {
+      final JSONObject object = (JSONObject) value;
+      writeByte('{');
+      boolean first = true;
+      for (final Iterator<String> keys = object.keys(); keys.hasNext(); ) {
+        final String key = keys.next();
+        if (!first) {
+          writeByte(',');
+        }
+        first = false;
+        writeString(key);
+        writeByte(':');
+        if (!writeJSONValue(object.opt(key))) {
+          return false;
+        }
+      }
+      writeByte('}');
+      return true;
+    }
+    if (value instanceof JSONArray) {
+      final JSONArray array = (JSONArray) value;
+      writeByte('[');
+      for (int i = 0; i < array.length(); i++) {
+        if (i > 0) {
+          writeByte(',');
+        }
+        if (!writeJSONValue(array.opt(i))) {
+          return false;
+        }
+      }
+      writeByte(']');
+      return true;
+    }
+    if (value == null || value == JSONObject.NULL || value instanceof Boolean) {
+      writeAscii(String.valueOf(value));
+      return true;
+    }
+    if (value instanceof Number) {
+      try {
+        writeAscii(JSONObject.numberToString((Number) value));
+        return true;
+      } catch (JSONException e) {
+        // Non-finite numbers make org.json fail the whole message.
+        return false;
+      }
+    }
+    if (value instanceof String || value instanceof Character) {
+      writeString(value.toString());
+      return true;
+    }
+    return false;
+  }
+
+  /** Writes a quoted string, escaped like {@link JSONObject#quote(String)}. */
+  void writeString(@NonNull String value) {
+    writeByte('"');
+    final int length = value.length();
+    for (int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      switch (c) {
+        case '"':
+        case '\\':
+        case '/':
+          writeByte('\\');
+          writeByte(c);
+          break;
+        case '\t':
+          writeEscape('t');
+          break;
+        case '\b':
+          writeEscape('b');
+          break;
+        case '\n':
+          writeEscape('n');
+          break;
+        case '\r':
+          writeEscape('r');
+          break;
+        case '\f':
+          writeEscape('f');
+          break;
+        default:
+          if (c <= 0x1F) {
+            writeEscape('u');
+            writeByte('0');
+            writeByte('0');
+            writeByte(HEX_DIGITS[c >> 4]);
+            writeByte(HEX_DIGITS[c & 0xF]);
+          } else if (c < 0x80) {
+            writeByte(c);
+          } else if (c < 0x800) {
+            writeByte(0xC0 | (c >> 6));
+            writeByte(0x80 | (c & 0x3F));
+          } else if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+            writeByte(0xE0 | (c >> 12));
+            writeByte(0x80 | ((c >> 6) & 0x3F));
+            writeByte(0x80 | (c & 0x3F));
+          } else if (Character.isHighSurrogate(c)
+              && i + 1 < length
+              && Character.isLowSurrogate(value.charAt(i + 1))) {
+            final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+            writeByte(0xF0 | (codePoint >> 18));
+            writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+            writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+            writeByte(0x80 | (codePoint & 0x3F));
+          } else {
+            // Unpaired surrogates are replaced like String#getBytes does.
+            writeByte('?');
+          }
+      }
+    }
+    writeByte('"');
+  }
+
+  void writeAscii(@NonNull String value) {
+    final int length = value.length();
+    ensureCapacity(length);
+    for (int i = 0; i < length; i++) {
+      bytes[size++] = (byte) value.charAt(i);
+    }
+  }
+
+  void writeByte(int b) {
+    ensureCapacity(1);
+    bytes[size++] = (byte) b;
+  }
+
+  /** Returns a direct buffer with the written bytes, positioned after them. */
+  @NonNull
+  ByteBuffer toByteBuffer() {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(size);
+    buffer.put(bytes, 0, size);
+    return buffer;
+  }
+
+  private void writeEscape(char c) {
+    writeByte('\\');
+    writeByte(c);
+  }
+
+  private void ensureCapacity(int count) {
+    if (size + count > bytes.length) {
+      final byte[] grown = new byte[Math.max(bytes.length * 2, size + count)];
+      System.arraycopy(bytes, 0, grown, 0, size);
+      bytes = grown;
+    }
+  }
+}
@@ -0,0 +1,199 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.common;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.Log;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The pending result of a method invoked with {@link MethodChannel#invokeMethodAsync(String,
+ * Object, long, Executor)}.
+ *
+ * <p>The future completes with the result returned by the Flutter application. It fails with a
+ * {@link FlutterException} if the Flutter application returned an error, with an {@link
+ * UnsupportedOperationException} if the method is not implemented, and with a {@link
+ * TimeoutException} if no reply arrived within the timeout of the call.
+ *
+ * <p>Once the future times out or is cancelled, the messenger forgets the pending reply, so a reply
+ * that never arrives does not retain the future or its listeners.
+ *
+ * <p>Replies are delivered on the platform thread, so {@link #get()} must not be called there
+ * before the future is done.
+ */
+public final class MethodCallFuture implements Future<Object> {
+  private static final String TAG = "MethodCallFuture";
+
+  @NonNull private final Handler mainHandler;
+  @NonNull private final Object lock = new Object();
+  @NonNull private final Runnable timeout;
+
+  // All guarded by lock.
+  private boolean done;
+  private boolean cancelled;
+  @Nullable private Object result;
+  @Nullable private Throwable failure;
+  @Nullable private List<Runnable> listeners = new ArrayList<>();
+  @Nullable private Runnable discardPendingReply;
+
+  MethodCallFuture(@NonNull Handler mainHandler, @NonNull String method) {
+    this.mainHandler = mainHandler;
+    this.timeout =
+        () -> fail(new TimeoutException("No reply to method call " + method), /*discard=*/ true);
+  }
+
+  /**
+   * Runs the listener on the executor once the future is done, or right away if it already is.
+   *
+   * <p>Listeners also run when the future is cancelled or times out.
+   */
+  public void addListener(@NonNull Runnable listener, @NonNull Executor executor) {
+    final Runnable task = () -> executor.execute(listener);
+    synchronized (lock) {
+      if (listeners != null) {
+        listeners.add(task);
+        return;
+      }
+    }
+    task.run();
+  }
+
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    return finish(null, null, /*cancel=*/ true, /*discard=*/ true);
+  }
+
+  @Override
+  public boolean isCancelled() {
+    synchronized (lock) {
+      return cancelled;
+    }
+  }
+
+  @Override
+  public boolean isDone() {
+    synchronized (lock) {
+      return done;
+    }
+  }
+
+  @Override
+  @Nullable
+  public Object get() throws ExecutionException, InterruptedException {
+    synchronized (lock) {
+      if (!done && Looper.myLooper() == mainHandler.getLooper()) {
+        throw new IllegalStateException(
+            "Waiting for a method call result on the platform thread would never complete.");
+      }
+      while (!done) {
+        lock.wait();
+      }
+      return getDoneResult();
+    }
+  }
+
+  @Override
+  @Nullable
+  public Object get(long timeout, @NonNull TimeUnit unit)
+      throws ExecutionException, InterruptedException, TimeoutException {
+    final long deadline = System.nanoTime() + unit.toNanos(timeout);
+    synchronized (lock) {
+      while (!done) {
+        final long remainingMillis =
+            TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime() + 999_999);
+        if (remainingMillis <= 0) {
+          throw new TimeoutException();
+        }
+        lock.wait(remainingMillis);
+      }
+      return getDoneResult();
+    }
+  }
+
+  @Nullable
+  private Object getDoneResult() throws ExecutionException {
+    if (cancelled) {
+      throw new CancellationException();
+    }
+    if (failure != null) {
+      throw new ExecutionException(failure);
+    }
+    return result;
+  }
+
+  void startTimeout(long timeoutMillis) {
+    if (timeoutMillis > 0 && !isDone()) {
+      mainHandler.postDelayed(timeout, timeoutMillis);
+    }
+  }
+
+  void setDiscardPendingReply(@NonNull Runnable discard) {
+    synchronized (lock) {
+      if (!done) {
+        discardPendingReply = discard;
+        return;
+      }
+    }
+    runOnMainThread(discard);
+  }
+
+  boolean complete(@Nullable Object result) {
+    return finish(result, null, /*cancel=*/ false, /*discard=*/ false);
+  }
+
+  boolean fail(@NonNull Throwable failure, boolean discard) {
+    return finish(null, failure, /*cancel=*/ false, discard);
+  }
+
+  private boolean finish(
+      @Nullable Object result, @Nullable Throwable failure, boolean cancel, boolean discard) {
+    final List<Runnable> listeners;
+    final Runnable discardPendingReply;
+    synchronized (lock) {
+      if (done) {
+        return false;
+      }
+      this.done = true;
+      this.cancelled = cancel;
+      this.result = result;
+      this.failure = failure;
+      listeners = this.listeners;
+      this.listeners = null;
+      discardPendingReply = this.discardPendingReply;
+      this.discardPendingReply = null;
+      lock.notifyAll();
+    }
+    mainHandler.removeCallbacks(timeout);
+    if (discard && discardPendingReply != null) {
+      runOnMainThread(discardPendingReply);
+    }
+    for (final Runnable listener : listeners) {
+      try {
+        listener.run();
+      } catch (RuntimeException e) {
+        Log.e(TAG, "Failed to run method call listener", e);
+      }
+    }
+    return true;
+  }
+
+  private void runOnMainThread(@NonNull Runnable runnable) {
+    if (Looper.myLooper() == mainHandler.getLooper()) {
+      runnable.run();
+    } else {
+      mainHandler.post(runnable);
+    }
+  }
+}
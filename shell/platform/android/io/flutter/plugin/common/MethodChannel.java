@@ -4,6 +4,8 @@
 
 package io.flutter.plugin.common;
 
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.UiThread;
@@ -15,6 +17,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.ByteBuffer;
+import java.util.concurrent.Executor;
 
 /**
  * A named channel for communicating with the Flutter application using asynchronous method calls.
@@ -36,6 +39,9 @@ public class MethodChannel {
   private final String name;
   private final MethodCodec codec;
   private final BinaryMessenger.TaskQueue taskQueue;
+  @Nullable private final Executor codecExecutor;
+  // The registered handler that decodes off the platform thread, if any.
+  @Nullable private OffThreadMethodCallHandler offThreadMethodCallHandler;
 
   /**
    * Creates a new channel associated with the specified {@link BinaryMessenger} and with the
@@ -77,6 +83,36 @@ public class MethodChannel {
       @NonNull String name,
       @NonNull MethodCodec codec,
       @Nullable BinaryMessenger.TaskQueue taskQueue) {
+    this(messenger, name, codec, taskQueue, null);
+  }
+
+  /**
+   * Creates a new channel associated with the specified {@link BinaryMessenger} and with the
+   * specified name and {@link MethodCodec}, that decodes incoming method calls and encodes their
+   * results on the specified {@link Executor}.
+   *
+   * <p>Incoming method calls are decoded on the executor, in the order they arrive, before the
+   * handler is called on the platform thread. Results submitted to the {@link Result} are encoded
+   * on the executor before being sent back to Flutter, so handlers must not mutate a result once
+   * they have submitted it. The platform thread then only dispatches the calls, which keeps it
+   * responsive when the arguments or results are large.
+   *
+   * @param messenger a {@link BinaryMessenger}.
+   * @param name a channel name String.
+   * @param codec a {@link MessageCodec}.
+   * @param taskQueue a {@link BinaryMessenger.TaskQueue} that specifies what thread will execute
+   *     the handler. Specifying null means execute on the platform thread. See also {@link
+   *     BinaryMessenger#makeBackgroundTaskQueue()}.
+   * @param codecExecutor an {@link Executor} that decodes and encodes the messages of incoming
+   *     method calls, or null to do so on the thread of the handler. It is not used when a
+   *     taskQueue is specified, since the handler already runs off the platform thread.
+   */
+  public MethodChannel(
+      @NonNull BinaryMessenger messenger,
+      @NonNull String name,
+      @NonNull MethodCodec codec,
+      @Nullable BinaryMessenger.TaskQueue taskQueue,
+      @Nullable Executor codecExecutor) {
     if (BuildConfig.DEBUG) {
       if (messenger == null) {
         Log.e(TAG, "Parameter messenger must not be null.");
@@ -92,6 +128,7 @@ public class MethodChannel {
     this.name = name;
     this.codec = codec;
     this.taskQueue = taskQueue;
+    this.codecExecutor = taskQueue == null ? codecExecutor : null;
   }
 
   /**
@@ -123,6 +160,52 @@ public class MethodChannel {
         callback == null ? null : new IncomingResultHandler(callback));
   }
 
+  /**
+   * Invokes a method on this channel, and returns a future for its result.
+   *
+   * @param method the name String of the method.
+   * @param arguments the arguments for the invocation, possibly null.
+   * @return a {@link MethodCallFuture} for the result, which never times out.
+   */
+  @UiThread
+  @NonNull
+  public MethodCallFuture invokeMethodAsync(@NonNull String method, @Nullable Object arguments) {
+    return invokeMethodAsync(method, arguments, 0, null);
+  }
+
+  /**
+   * Invokes a method on this channel, and returns a future for its result.
+   *
+   * <p>When the call times out or the future is cancelled, the pending reply is discarded by
+   * messengers that support {@link BinaryMessenger.DiscardableBinaryReply}, and a late reply from
+   * Flutter is ignored.
+   *
+   * @param method the name String of the method.
+   * @param arguments the arguments for the invocation, possibly null.
+   * @param timeoutMillis the time after which the future fails with a {@link
+   *     java.util.concurrent.TimeoutException}, or 0 to wait for the reply indefinitely.
+   * @param decodeExecutor the {@link Executor} that decodes the reply, or null to decode it on the
+   *     platform thread. Decoding large results on a background executor keeps the platform thread
+   *     responsive, at the cost of a copy of the reply.
+   * @return a {@link MethodCallFuture} for the result.
+   */
+  @UiThread
+  @NonNull
+  public MethodCallFuture invokeMethodAsync(
+      @NonNull String method,
+      @Nullable Object arguments,
+      long timeoutMillis,
+      @Nullable Executor decodeExecutor) {
+    final MethodCallFuture future =
+        new MethodCallFuture(new Handler(Looper.getMainLooper()), method);
+    messenger.send(
+        name,
+        codec.encodeMethodCall(new MethodCall(method, arguments)),
+        new FutureResultHandler(future, method, decodeExecutor));
+    future.startTimeout(timeoutMillis);
+    return future;
+  }
+
   /**
    * Registers a method call handler on this channel.
    *
@@ -142,9 +225,14 @@ public class MethodChannel {
     // We call the 2 parameter variant specifically to avoid breaking changes in
     // mock verify calls.
     // See https://github.com/flutter/flutter/issues/92582.
+    offThreadMethodCallHandler = null;
     if (taskQueue != null) {
       messenger.setMessageHandler(
           name, handler == null ? null : new IncomingMethodCallHandler(handler), taskQueue);
+    } else if (codecExecutor != null) {
+      offThreadMethodCallHandler =
+          handler == null ? null : new OffThreadMethodCallHandler(handler, codecExecutor);
+      messenger.setMessageHandler(name, offThreadMethodCallHandler);
     } else {
       messenger.setMessageHandler(
           name, handler == null ? null : new IncomingMethodCallHandler(handler));
@@ -199,6 +287,9 @@ public class MethodChannel {
     /**
      * Handles a successful result.
      *
+     * <p>If the channel was created with a codec {@link Executor}, the result is encoded on that
+     * executor after this method returns, so it must not be mutated afterwards.
+     *
      * @param result The result, possibly null. The result must be an Object type supported by the
      *     codec. For instance, if you are using {@link StandardMessageCodec} (default), please see
      *     its documentation on what types are supported.
@@ -208,6 +299,9 @@ public class MethodChannel {
     /**
      * Handles an error result.
      *
+     * <p>If the channel was created with a codec {@link Executor}, the details are encoded on that
+     * executor after this method returns, so they must not be mutated afterwards.
+     *
      * @param errorCode An error code String.
      * @param errorMessage A human-readable error message String, possibly null.
      * @param errorDetails Error details, possibly null. The details must be an Object type
@@ -247,6 +341,52 @@ public class MethodChannel {
     }
   }
 
+  private final class FutureResultHandler implements BinaryMessenger.DiscardableBinaryReply {
+    private final MethodCallFuture future;
+    private final String method;
+    @Nullable private final Executor decodeExecutor;
+
+    FutureResultHandler(MethodCallFuture future, String method, @Nullable Executor decodeExecutor) {
+      this.future = future;
+      this.method = method;
+      this.decodeExecutor = decodeExecutor;
+    }
+
+    @Override
+    @UiThread
+    public void onPending(@NonNull Runnable discard) {
+      future.setDiscardPendingReply(discard);
+    }
+
+    @Override
+    @UiThread
+    public void reply(ByteBuffer reply) {
+      if (future.isDone()) {
+        return;
+      }
+      if (reply == null) {
+        future.fail(
+            new UnsupportedOperationException("Method not implemented: " + method),
+            /*discard=*/ false);
+      } else if (decodeExecutor == null) {
+        decode(reply);
+      } else {
+        // The messenger invalidates the reply once this method returns.
+        final ByteBuffer copy = copyOf(reply);
+        decodeExecutor.execute(() -> decode(copy));
+      }
+    }
+
+    private void decode(ByteBuffer reply) {
+      try {
+        future.complete(codec.decodeEnvelope(reply));
+      } catch (RuntimeException e) {
+        // Includes the FlutterException of error envelopes.
+        future.fail(e, /*discard=*/ false);
+      }
+    }
+  }
+
   private final class IncomingMethodCallHandler implements BinaryMessageHandler {
     private final MethodCallHandler handler;
 
@@ -284,11 +424,109 @@ public class MethodChannel {
                 "error", e.getMessage(), null, getStackTrace(e)));
       }
     }
+  }
+
+  @Nullable
+  private static ByteBuffer copyOf(@Nullable ByteBuffer buffer) {
+    if (buffer == null) {
+      return null;
+    }
+    final ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+    copy.put(buffer.duplicate());
+    copy.flip();
+    return copy;
+  }
+
+  private static String getStackTrace(Exception e) {
+    Writer result = new StringWriter();
+    e.printStackTrace(new PrintWriter(result));
+    return result.toString();
+  }
+
+  private final class OffThreadMethodCallHandler implements BinaryMessageHandler {
+    private final MethodCallHandler handler;
+    private final SerialExecutor decodeExecutor;
+    private final Executor encodeExecutor;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    OffThreadMethodCallHandler(MethodCallHandler handler, Executor codecExecutor) {
+      this.handler = handler;
+      this.decodeExecutor = new SerialExecutor(codecExecutor);
+      this.encodeExecutor = codecExecutor;
+    }
+
+    @Override
+    @UiThread
+    public void onMessage(ByteBuffer message, final BinaryReply reply) {
+      // The messenger invalidates the message once this method returns.
+      final ByteBuffer copy = copyOf(message);
+      decodeExecutor.execute(
+          () -> {
+            final MethodCall call;
+            try {
+              call = codec.decodeMethodCall(copy);
+            } catch (RuntimeException e) {
+              Log.e(TAG + name, "Failed to decode method call", e);
+              reply.reply(null);
+              return;
+            }
+            mainHandler.post(() -> handleMethodCall(call, reply));
+          });
+    }
+
+    @UiThread
+    private void handleMethodCall(MethodCall call, BinaryReply reply) {
+      if (offThreadMethodCallHandler != this) {
+        // The handler was replaced or deregistered while the call was decoded, so the call is
+        // handled like any call to a channel without a handler.
+        reply.reply(null);
+        return;
+      }
+      try {
+        handler.onMethodCall(
+            call,
+            new Result() {
+              @Override
+              public void success(Object result) {
+                encodeAndReply(reply, () -> codec.encodeSuccessEnvelope(result));
+              }
+
+              @Override
+              public void error(String errorCode, String errorMessage, Object errorDetails) {
+                encodeAndReply(
+                    reply, () -> codec.encodeErrorEnvelope(errorCode, errorMessage, errorDetails));
+              }
+
+              @Override
+              public void notImplemented() {
+                reply.reply(null);
+              }
+            });
+      } catch (RuntimeException e) {
+        Log.e(TAG + name, "Failed to handle method call", e);
+        reply.reply(
+            codec.encodeErrorEnvelopeWithStacktrace(
+                "error", e.getMessage(), null, getStackTrace(e)));
+      }
+    }
 
-    private String getStackTrace(Exception e) {
-      Writer result = new StringWriter();
-      e.printStackTrace(new PrintWriter(result));
-      return result.toString();
+    private void encodeAndReply(BinaryReply reply, Envelope envelope) {
+      encodeExecutor.execute(
+          () -> {
+            final ByteBuffer encoded;
+            try {
+              encoded = envelope.encode();
+            } catch (RuntimeException e) {
+              Log.e(TAG + name, "Failed to encode method call result", e);
+              reply.reply(codec.encodeErrorEnvelope("error", e.getMessage(), null));
+              return;
+            }
+            reply.reply(encoded);
+          });
     }
   }
+
+  private interface Envelope {
+    ByteBuffer encode();
+  }
 }
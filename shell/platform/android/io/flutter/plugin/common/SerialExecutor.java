@@ -0,0 +1,52 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.common;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the tasks on an {@link Executor} one at a time, in submission order, even if the executor
+ * runs tasks concurrently.
+ *
+ * <p>This is the queue of {@code DartMessenger.SerialTaskQueue}, for the channels of this package
+ * that take an {@link Executor} rather than a {@link BinaryMessenger.TaskQueue}.
+ */
+final class SerialExecutor implements Executor {
+  @NonNull private final Executor executor;
+  @NonNull private final ConcurrentLinkedQueue<Runnable> queue = new ConcurrentLinkedQueue<>();
+  @NonNull private final AtomicBoolean isRunning = new AtomicBoolean(false);
+
+  SerialExecutor(@NonNull Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public void execute(@NonNull Runnable runnable) {
+    queue.add(runnable);
+    executor.execute(this::flush);
+  }
+
+  private void flush() {
+    // Don't execute if we are already executing (enforce serial execution).
+    if (isRunning.compareAndSet(false, true)) {
+      try {
+        @Nullable Runnable runnable = queue.poll();
+        if (runnable != null) {
+          runnable.run();
+        }
+      } finally {
+        isRunning.set(false);
+        if (!queue.isEmpty()) {
+          // Schedule the next task.
+          executor.execute(this::flush);
+        }
+      }
+    }
+  }
+}
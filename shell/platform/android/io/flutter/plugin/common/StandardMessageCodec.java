@@ -14,6 +14,7 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -66,6 +67,23 @@ public class StandardMessageCodec implements MessageCodec<Object> {
   private static final String TAG = "StandardMessageCodec#";
   public static final StandardMessageCodec INSTANCE = new StandardMessageCodec();
 
+  private final boolean internStrings;
+
+  public StandardMessageCodec() {
+    this(false);
+  }
+
+  /**
+   * Creates a codec that can decode short strings through a shared cache.
+   *
+   * @param internStrings Whether short strings that were recently decoded, such as the keys of maps
+   *     that are sent repeatedly, are returned as the same instance instead of being allocated
+   *     again. This only pays off for messages that repeat the same strings.
+   */
+  public StandardMessageCodec(boolean internStrings) {
+    this.internStrings = internStrings;
+  }
+
   @Override
   @Nullable
   public ByteBuffer encodeMessage(@Nullable Object message) {
@@ -241,7 +259,12 @@ public class StandardMessageCodec implements MessageCodec<Object> {
       }
     } else if (value instanceof CharSequence) {
       stream.write(STRING);
-      writeBytes(stream, value.toString().getBytes(UTF8));
+      final String string = value.toString();
+      if (stream instanceof ExposedByteArrayOutputStream) {
+        ((ExposedByteArrayOutputStream) stream).writeUtf8(string);
+      } else {
+        writeBytes(stream, string.getBytes(UTF8));
+      }
     } else if (value instanceof byte[]) {
       stream.write(BYTE_ARRAY);
       writeBytes(stream, (byte[]) value);
@@ -376,11 +399,11 @@ public class StandardMessageCodec implements MessageCodec<Object> {
         result = buffer.getDouble();
         break;
       case STRING:
-        {
-          final byte[] bytes = readBytes(buffer);
-          result = new String(bytes, UTF8);
-          break;
-        }
+        result =
+            internStrings
+                ? Utf8.decodeInterned(buffer, readSize(buffer))
+                : Utf8.decode(buffer, readSize(buffer));
+        break;
       case BYTE_ARRAY:
         {
           result = readBytes(buffer);
@@ -456,5 +479,15 @@ public class StandardMessageCodec implements MessageCodec<Object> {
     byte[] buffer() {
       return buf;
     }
+
+    /** Writes the size and the UTF-8 bytes of the string directly into the buffer. */
+    void writeUtf8(@NonNull String value) {
+      final int length = Utf8.encodedLength(value);
+      writeSize(this, length);
+      if (count + length > buf.length) {
+        buf = Arrays.copyOf(buf, Math.max(buf.length * 2, count + length));
+      }
+      count = Utf8.encode(value, buf, count);
+    }
   }
 }
@@ -6,7 +6,6 @@ package io.flutter.plugin.common;
 
 import androidx.annotation.Nullable;
 import java.nio.ByteBuffer;
-import java.nio.charset.Charset;
 
 /**
  * A {@link MessageCodec} using UTF-8 encoded String messages.
@@ -16,7 +15,6 @@ import java.nio.charset.Charset;
  * Dart side. These parts of the Flutter SDK are evolved synchronously.
  */
 public final class StringCodec implements MessageCodec<String> {
-  private static final Charset UTF8 = Charset.forName("UTF8");
   public static final StringCodec INSTANCE = new StringCodec();
 
   private StringCodec() {}
@@ -27,11 +25,7 @@ public final class StringCodec implements MessageCodec<String> {
     if (message == null) {
       return null;
     }
-    // TODO(mravn): Avoid the extra copy below.
-    final byte[] bytes = message.getBytes(UTF8);
-    final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
-    buffer.put(bytes);
-    return buffer;
+    return Utf8.encodeToDirectBuffer(message);
   }
 
   @Override
@@ -40,18 +34,6 @@ public final class StringCodec implements MessageCodec<String> {
     if (message == null) {
       return null;
     }
-    final byte[] bytes;
-    final int offset;
-    final int length = message.remaining();
-    if (message.hasArray()) {
-      bytes = message.array();
-      offset = message.arrayOffset();
-    } else {
-      // TODO(mravn): Avoid the extra copy below.
-      bytes = new byte[length];
-      message.get(bytes);
-      offset = 0;
-    }
-    return new String(bytes, offset, length, UTF8);
+    return Utf8.decode(message, message.remaining());
   }
 }
@@ -0,0 +1,241 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.common;
+
+import androidx.annotation.NonNull;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+/**
+ * UTF-8 transcoding for the codecs that works against the destination and source buffers instead
+ * of intermediate byte arrays.
+ *
+ * <p>The bytes are identical to those of {@code String#getBytes(UTF8)}, which replaces unpaired
+ * surrogates with {@code '?'}, and decoding is done by {@link String#String(byte[], int, int,
+ * Charset)}, so malformed input is replaced the same way as before.
+ *
+ * <p>Short strings can optionally be decoded through a small cache, see {@link
+ * #decodeInterned(ByteBuffer, int)}.
+ */
+final class Utf8 {
+  private static final Charset UTF8 = Charset.forName("UTF8");
+
+  // Scratch arrays larger than this are not kept, so that a single large message does not retain
+  // its size for the life of the thread.
+  private static final int MAX_SCRATCH_SIZE = 16 * 1024;
+
+  // Short strings, such as the keys of maps, can be decoded through a small direct mapped cache, so
+  // that repeated ones are not allocated again.
+  private static final int MAX_CACHED_LENGTH = 32;
+  private static final int CACHE_SIZE = 256;
+
+  private static final ThreadLocal<byte[]> scratch =
+      new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+          return new byte[1024];
+        }
+      };
+
+  private static final ThreadLocal<CharsetEncoder> encoder =
+      new ThreadLocal<CharsetEncoder>() {
+        @Override
+        protected CharsetEncoder initialValue() {
+          // Replaces unpaired surrogates with '?', like String#getBytes.
+          return UTF8.newEncoder()
+              .onMalformedInput(CodingErrorAction.REPLACE)
+              .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+      };
+
+  // Racy by design: entries are immutable, so a thread sees either an entry or a miss.
+  private static final CachedString[] cache = new CachedString[CACHE_SIZE];
+  // The hash of the last string that missed each entry of the cache. A string is only cached the
+  // second time in a row it misses its entry, so that unique strings don't allocate a cache entry.
+  private static final int[] missedHashes = new int[CACHE_SIZE];
+
+  private static final class CachedString {
+    final byte[] bytes;
+    final String value;
+
+    CachedString(byte[] bytes, String value) {
+      this.bytes = bytes;
+      this.value = value;
+    }
+  }
+
+  private Utf8() {}
+
+  /** Returns the number of bytes of the UTF-8 encoding of the string. */
+  static int encodedLength(@NonNull String value) {
+    final int length = value.length();
+    int encodedLength = length;
+    for (int i = 0; i < length; i++) {
+      final char c = value.charAt(i);
+      if (c < 0x80) {
+        continue;
+      } else if (c < 0x800) {
+        encodedLength += 1;
+      } else if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+        encodedLength += 2;
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        // Two chars become four bytes.
+        encodedLength += 2;
+        i++;
+      }
+      // Unpaired surrogates are encoded as a single '?'.
+    }
+    return encodedLength;
+  }
+
+  /**
+   * Encodes the string into the array at the offset, which must have room for {@link
+   * #encodedLength(String)} bytes, and returns the offset after the encoded bytes.
+   */
+  static int encode(@NonNull String value, @NonNull byte[] bytes, int offset) {
+    final int length = value.length();
+    int i = 0;
+    // ASCII fast path.
+    while (i < length) {
+      final char c = value.charAt(i);
+      if (c >= 0x80) {
+        break;
+      }
+      bytes[offset++] = (byte) c;
+      i++;
+    }
+    for (; i < length; i++) {
+      final char c = value.charAt(i);
+      if (c < 0x80) {
+        bytes[offset++] = (byte) c;
+      } else if (c < 0x800) {
+        bytes[offset++] = (byte) (0xC0 | (c >> 6));
+        bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+      } else if (c < Character.MIN_SURROGATE || c > Character.MAX_SURROGATE) {
+        bytes[offset++] = (byte) (0xE0 | (c >> 12));
+        bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < length
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        bytes[offset++] = (byte) (0xF0 | (codePoint >> 18));
+        bytes[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        bytes[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        bytes[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else {
+        bytes[offset++] = '?';
+      }
+    }
+    return offset;
+  }
+
+  /** Returns a direct buffer with the UTF-8 encoding of the string, positioned after it. */
+  @NonNull
+  static ByteBuffer encodeToDirectBuffer(@NonNull String value) {
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(encodedLength(value));
+    final CharsetEncoder utf8Encoder = encoder.get();
+    utf8Encoder.reset();
+    // The buffer has room for the whole encoding, so the encoder never overflows.
+    utf8Encoder.encode(CharBuffer.wrap(value), buffer, true);
+    utf8Encoder.flush(buffer);
+    return buffer;
+  }
+
+  /**
+   * Decodes the given number of bytes from the position of the buffer, and moves its position after
+   * them.
+   *
+   * @throws BufferUnderflowException if fewer bytes remain in the buffer.
+   */
+  @NonNull
+  static String decode(@NonNull ByteBuffer buffer, int length) {
+    return decode(buffer, length, false);
+  }
+
+  /**
+   * Like {@link #decode(ByteBuffer, int)}, but returns the same instance for short strings that
+   * were recently decoded, such as the keys of maps that are sent repeatedly.
+   */
+  @NonNull
+  static String decodeInterned(@NonNull ByteBuffer buffer, int length) {
+    return decode(buffer, length, true);
+  }
+
+  @NonNull
+  private static String decode(@NonNull ByteBuffer buffer, int length, boolean intern) {
+    if (length > buffer.remaining()) {
+      throw new BufferUnderflowException();
+    }
+    final byte[] bytes;
+    final int offset;
+    if (buffer.hasArray()) {
+      bytes = buffer.array();
+      offset = buffer.arrayOffset() + buffer.position();
+      buffer.position(buffer.position() + length);
+    } else {
+      bytes = scratch(length);
+      offset = 0;
+      buffer.get(bytes, 0, length);
+    }
+    if (intern && length <= MAX_CACHED_LENGTH) {
+      return decodeCached(bytes, offset, length);
+    }
+    return new String(bytes, offset, length, UTF8);
+  }
+
+  @NonNull
+  private static String decodeCached(@NonNull byte[] bytes, int offset, int length) {
+    int hash = length;
+    for (int i = 0; i < length; i++) {
+      hash = 31 * hash + bytes[offset + i];
+    }
+    final int index = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
+    final CachedString cached = cache[index];
+    if (cached != null && regionEquals(cached.bytes, bytes, offset, length)) {
+      return cached.value;
+    }
+    final String value = new String(bytes, offset, length, UTF8);
+    if (missedHashes[index] == hash) {
+      cache[index] = new CachedString(Arrays.copyOfRange(bytes, offset, offset + length), value);
+    } else {
+      missedHashes[index] = hash;
+    }
+    return value;
+  }
+
+  private static boolean regionEquals(
+      @NonNull byte[] expected, @NonNull byte[] bytes, int offset, int length) {
+    if (expected.length != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (expected[i] != bytes[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @NonNull
+  private static byte[] scratch(int length) {
+    if (length > MAX_SCRATCH_SIZE) {
+      return new byte[length];
+    }
+    byte[] bytes = scratch.get();
+    if (bytes.length < length) {
+      bytes = new byte[Math.min(Math.max(bytes.length * 2, length), MAX_SCRATCH_SIZE)];
+      scratch.set(bytes);
+    }
+    return bytes;
+  }
+}
@@ -4,38 +4,40 @@
 
 package io.flutter.plugin.editing;
 
-import io.flutter.embedding.engine.FlutterJNI;
-
+/**
+ * Text utilities used by {@link InputConnectionAdaptor} to find grapheme cluster boundaries.
+ *
+ * <p>The Unicode property predicates are answered by {@link UnicodePropertyTable}, which is
+ * generated from the ICU data used by the engine, so that deleting or moving over emoji sequences
+ * does not call into ICU over JNI for every code point.
+ */
 class FlutterTextUtils {
   public static final int LINE_FEED = 0x0A;
   public static final int CARRIAGE_RETURN = 0x0D;
   public static final int COMBINING_ENCLOSING_KEYCAP = 0x20E3;
   public static final int CANCEL_TAG = 0xE007F;
   public static final int ZERO_WIDTH_JOINER = 0x200D;
-  private final FlutterJNI flutterJNI;
 
-  public FlutterTextUtils(FlutterJNI flutterJNI) {
-    this.flutterJNI = flutterJNI;
-  }
+  public FlutterTextUtils() {}
 
   public boolean isEmoji(int codePoint) {
-    return flutterJNI.isCodePointEmoji(codePoint);
+    return UnicodePropertyTable.hasProperty(codePoint, UnicodePropertyTable.EMOJI);
   }
 
   public boolean isEmojiModifier(int codePoint) {
-    return flutterJNI.isCodePointEmojiModifier(codePoint);
+    return UnicodePropertyTable.hasProperty(codePoint, UnicodePropertyTable.EMOJI_MODIFIER);
   }
 
   public boolean isEmojiModifierBase(int codePoint) {
-    return flutterJNI.isCodePointEmojiModifierBase(codePoint);
+    return UnicodePropertyTable.hasProperty(codePoint, UnicodePropertyTable.EMOJI_MODIFIER_BASE);
   }
 
   public boolean isVariationSelector(int codePoint) {
-    return flutterJNI.isCodePointVariantSelector(codePoint);
+    return UnicodePropertyTable.hasProperty(codePoint, UnicodePropertyTable.VARIATION_SELECTOR);
   }
 
   public boolean isRegionalIndicatorSymbol(int codePoint) {
-    return flutterJNI.isCodePointRegionalIndicator(codePoint);
+    return UnicodePropertyTable.hasProperty(codePoint, UnicodePropertyTable.REGIONAL_INDICATOR);
   }
 
   public boolean isTagSpecChar(int codePoint) {
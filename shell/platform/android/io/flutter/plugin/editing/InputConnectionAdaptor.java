@@ -25,7 +25,6 @@ import android.view.inputmethod.ExtractedTextRequest;
 import android.view.inputmethod.InputMethodManager;
 import androidx.annotation.NonNull;
 import io.flutter.Log;
-import io.flutter.embedding.engine.FlutterJNI;
 import io.flutter.embedding.engine.systemchannels.TextInputChannel;
 
 public class InputConnectionAdaptor extends BaseInputConnection
@@ -58,8 +57,7 @@ public class InputConnectionAdaptor extends BaseInputConnection
       TextInputChannel textInputChannel,
       KeyboardDelegate keyboardDelegate,
       ListenableEditingState editable,
-      EditorInfo editorInfo,
-      FlutterJNI flutterJNI) {
+      EditorInfo editorInfo) {
     super(view, true);
     mFlutterView = view;
     mClient = client;
@@ -68,7 +66,7 @@ public class InputConnectionAdaptor extends BaseInputConnection
     mEditable.addEditingStateListener(this);
     mEditorInfo = editorInfo;
     this.keyboardDelegate = keyboardDelegate;
-    this.flutterTextUtils = new FlutterTextUtils(flutterJNI);
+    this.flutterTextUtils = new FlutterTextUtils();
     // We create a dummy Layout with max width so that the selection
     // shifting acts as if all text were in one line.
     mLayout =
@@ -83,16 +81,6 @@ public class InputConnectionAdaptor extends BaseInputConnection
     mImm = (InputMethodManager) view.getContext().getSystemService(Context.INPUT_METHOD_SERVICE);
   }
 
-  public InputConnectionAdaptor(
-      View view,
-      int client,
-      TextInputChannel textInputChannel,
-      KeyboardDelegate keyboardDelegate,
-      ListenableEditingState editable,
-      EditorInfo editorInfo) {
-    this(view, client, textInputChannel, keyboardDelegate, editable, editorInfo, new FlutterJNI());
-  }
-
   private ExtractedText getExtractedText(ExtractedTextRequest request) {
     mExtractedText.startOffset = 0;
     mExtractedText.partialStartOffset = -1;
@@ -117,7 +117,10 @@ class ListenableEditingState extends SpannableStringBuilder {
       }
 
       if (!mListeners.isEmpty()) {
-        Log.v(TAG, "didFinishBatchEdit with " + String.valueOf(mListeners.size()) + " listener(s)");
+        if (Log.isLoggable(Log.VERBOSE)) {
+          Log.v(
+              TAG, "didFinishBatchEdit with " + String.valueOf(mListeners.size()) + " listener(s)");
+        }
         final boolean textChanged = !toString().equals(mTextWhenBeginBatchEdit);
         final boolean selectionChanged =
             mSelectionStartWhenBeginBatchEdit != getSelectionStart()
@@ -10,13 +10,19 @@ import android.view.textservice.SuggestionsInfo;
 import android.view.textservice.TextInfo;
 import android.view.textservice.TextServicesManager;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import io.flutter.embedding.engine.systemchannels.SpellCheckChannel;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.localization.LocalizationPlugin;
+import java.text.BreakIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * {@link SpellCheckPlugin} is the implementation of all functionality needed for spell check for
@@ -26,6 +32,12 @@ import java.util.Locale;
  * io.flutter.embedding.engine.systemchannels.SpellCheckChannel} via sending requests to the Android
  * spell checker. It also receives the spell check results from the service and sends them back to
  * the framework through the {@link io.flutter.embedding.engine.systemchannels.SpellCheckChannel}.
+ *
+ * <p>Spell checking is incremental. The text is split into sentences, and the results of each
+ * sentence are cached by locale and content, so only sentences that changed since an earlier
+ * request are sent to the Android spell checker. Requests received while another one is in flight
+ * are queued, and a newer queued request supersedes an older one, which is completed with null as
+ * the framework does for cancelled requests.
  */
 public class SpellCheckPlugin
     implements SpellCheckChannel.SpellCheckMethodHandler,
@@ -38,10 +50,86 @@ public class SpellCheckPlugin
   @VisibleForTesting MethodChannel.Result pendingResult;
   @VisibleForTesting String pendingResultText;
 
+  // The locale and sentences of the request awaiting a response from the spell checker, and the
+  // subset of those sentences that were sent to it because their results were not cached.
+  @Nullable private String pendingLocale;
+  @Nullable private ArrayList<Segment> pendingSegments;
+  @Nullable private ArrayList<Segment> submittedSegments;
+  // The results of the sentences of the pending request, from the cache or from the spell checker.
+  // The reply is built from these rather than from the cache, which may have evicted some of them.
+  @Nullable private IdentityHashMap<Segment, ArrayList<SuggestionSpan>> pendingSegmentResults;
+
+  // The most recent request received while another was pending. It is started once the pending
+  // request completes.
+  @Nullable private QueuedRequest queuedRequest;
+
+  // The number of sentences whose results are cached. It follows the text being spell checked, up
+  // to MAX_CACHE_CAPACITY sentences, so that the results of a long text are not evicted by the next
+  // request for the same text.
+  private int cacheCapacity = MAX_CACHED_SEGMENTS;
+
+  // Spell check results per sentence, keyed by locale and sentence text, in least recently used
+  // order.
+  @VisibleForTesting
+  final LinkedHashMap<String, ArrayList<SuggestionSpan>> resultCache =
+      new LinkedHashMap<String, ArrayList<SuggestionSpan>>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ArrayList<SuggestionSpan>> eldest) {
+          return size() > cacheCapacity;
+        }
+      };
+
   // The maximum number of suggestions that the Android spell check service is allowed to provide
   // per word. Same number that is used by default for Android's TextViews.
   private static final int MAX_SPELL_CHECK_SUGGESTIONS = 5;
 
+  // The number of sentences whose results are cached, unless the text has more sentences.
+  @VisibleForTesting static final int MAX_CACHED_SEGMENTS = 256;
+
+  // The number of sentences whose results are cached, however long the text is.
+  @VisibleForTesting static final int MAX_CACHE_CAPACITY = 4096;
+
+  /** A sentence of the text being spell checked, starting at {@code start}. */
+  @VisibleForTesting
+  static final class Segment {
+    final int start;
+    @NonNull final String text;
+
+    Segment(int start, @NonNull String text) {
+      this.start = start;
+      this.text = text;
+    }
+  }
+
+  /** A misspelled range, relative to the start of its {@link Segment}, and its suggestions. */
+  @VisibleForTesting
+  static final class SuggestionSpan {
+    final int start;
+    final int end;
+    @NonNull final String suggestions;
+
+    SuggestionSpan(int start, int end, @NonNull String suggestions) {
+      this.start = start;
+      this.end = end;
+      this.suggestions = suggestions;
+    }
+  }
+
+  private static final class QueuedRequest {
+    @NonNull final String locale;
+    @NonNull final String text;
+    @NonNull final MethodChannel.Result result;
+
+    QueuedRequest(
+        @NonNull String locale, @NonNull String text, @NonNull MethodChannel.Result result) {
+      this.locale = locale;
+      this.text = text;
+      this.result = result;
+    }
+  }
+
   public SpellCheckPlugin(
       @NonNull TextServicesManager textServicesManager,
       @NonNull SpellCheckChannel spellCheckChannel) {
@@ -68,14 +156,21 @@ public class SpellCheckPlugin
   }
 
   /**
-   * Initiates call to native spell checker to spell check specified text if there is no result
-   * awaiting a response.
+   * Initiates call to native spell checker to spell check specified text.
+   *
+   * <p>If a previous request is still awaiting a response, this request is queued and started once
+   * that response arrives. Only the most recent queued request is kept; a queued request that is
+   * replaced by a newer one is completed with null, which the framework treats as a cancelled
+   * request rather than a failure.
    */
   @Override
   public void initiateSpellCheck(
       @NonNull String locale, @NonNull String text, @NonNull MethodChannel.Result result) {
     if (pendingResult != null) {
-      result.error("error", "Previous spell check request still pending.", null);
+      if (queuedRequest != null) {
+        queuedRequest.result.success(null);
+      }
+      queuedRequest = new QueuedRequest(locale, text, result);
       return;
     }
 
@@ -85,11 +180,35 @@ public class SpellCheckPlugin
     performSpellCheck(locale, text);
   }
 
-  /** Calls on the Android spell check API to spell check specified text. */
+  /**
+   * Calls on the Android spell check API to spell check the sentences of the specified text whose
+   * results are not cached yet.
+   *
+   * <p>If every sentence is cached, the pending result is completed immediately.
+   */
   public void performSpellCheck(@NonNull String locale, @NonNull String text) {
-    String[] localeCodes = locale.split("-");
     Locale localeFromString = LocalizationPlugin.localeFromString(locale);
 
+    pendingLocale = locale;
+    pendingSegments = splitIntoSegments(text, localeFromString);
+    setCacheCapacity(
+        Math.min(Math.max(MAX_CACHED_SEGMENTS, pendingSegments.size()), MAX_CACHE_CAPACITY));
+    submittedSegments = new ArrayList<>();
+    pendingSegmentResults = new IdentityHashMap<>();
+    for (Segment segment : pendingSegments) {
+      ArrayList<SuggestionSpan> cachedSpans = resultCache.get(cacheKey(locale, segment.text));
+      if (cachedSpans != null) {
+        pendingSegmentResults.put(segment, cachedSpans);
+      } else {
+        submittedSegments.add(segment);
+      }
+    }
+
+    if (submittedSegments.isEmpty()) {
+      completePendingResult(false);
+      return;
+    }
+
     if (mSpellCheckerSession == null) {
       mSpellCheckerSession =
           mTextServicesManager.newSpellCheckerSession(
@@ -100,10 +219,52 @@ public class SpellCheckPlugin
               true);
     }
 
-    TextInfo[] textInfos = new TextInfo[] {new TextInfo(text)};
+    TextInfo[] textInfos = new TextInfo[submittedSegments.size()];
+    for (int i = 0; i < textInfos.length; i++) {
+      textInfos[i] = new TextInfo(submittedSegments.get(i).text);
+    }
     mSpellCheckerSession.getSentenceSuggestions(textInfos, MAX_SPELL_CHECK_SUGGESTIONS);
   }
 
+  /**
+   * Splits {@code text} into sentences, so that a change only invalidates the cached results of the
+   * sentences it touches. Each sentence keeps its trailing whitespace, so the segments cover the
+   * whole text.
+   */
+  @VisibleForTesting
+  @NonNull
+  static ArrayList<Segment> splitIntoSegments(@NonNull String text, @NonNull Locale locale) {
+    ArrayList<Segment> segments = new ArrayList<>();
+    BreakIterator sentenceIterator = BreakIterator.getSentenceInstance(locale);
+    sentenceIterator.setText(text);
+    int start = sentenceIterator.first();
+    for (int end = sentenceIterator.next();
+        end != BreakIterator.DONE;
+        start = end, end = sentenceIterator.next()) {
+      segments.add(new Segment(start, text.substring(start, end)));
+    }
+    if (segments.isEmpty()) {
+      segments.add(new Segment(0, text));
+    }
+    return segments;
+  }
+
+  // The cache only evicts an entry when another one is added, so it is trimmed right away when its
+  // capacity shrinks.
+  private void setCacheCapacity(int capacity) {
+    cacheCapacity = capacity;
+    Iterator<String> eldest = resultCache.keySet().iterator();
+    while (resultCache.size() > cacheCapacity) {
+      eldest.next();
+      eldest.remove();
+    }
+  }
+
+  @NonNull
+  private static String cacheKey(@Nullable String locale, @NonNull String segmentText) {
+    return locale + '\0' + segmentText;
+  }
+
   /**
    * Callback for Android spell check API that decomposes results and send results through the
    * {@link SpellCheckChannel}.
@@ -111,44 +272,96 @@ public class SpellCheckPlugin
    * <p>Spell check results will be encoded as a string representing the span of that result, with
    * the format "start_index.end_index.suggestion_1/nsuggestion_2/nsuggestion_3", where there may be
    * up to 5 suggestions.
+   *
+   * <p>The results of the submitted sentences are cached, and combined with the cached results of
+   * the other sentences of the text.
    */
   @Override
   public void onGetSentenceSuggestions(SentenceSuggestionsInfo[] results) {
-    if (results.length == 0) {
-      pendingResult.success(new ArrayList<>(Arrays.asList(pendingResultText, "")));
-      pendingResult = null;
-      return;
+    if (pendingSegments == null) {
+      // The request was not started through performSpellCheck, so the whole text was submitted as
+      // a single sentence.
+      pendingSegments = new ArrayList<>(Arrays.asList(new Segment(0, pendingResultText)));
+      submittedSegments = pendingSegments;
+      pendingSegmentResults = new IdentityHashMap<>();
     }
 
-    ArrayList<String> spellCheckerSuggestionSpans = new ArrayList<String>();
-    SentenceSuggestionsInfo spellCheckResults = results[0];
-
-    for (int i = 0; i < spellCheckResults.getSuggestionsCount(); i++) {
-      SuggestionsInfo suggestionsInfo = spellCheckResults.getSuggestionsInfoAt(i);
-      int suggestionsCount = suggestionsInfo.getSuggestionsCount();
-
-      if (suggestionsCount <= 0) {
+    // Results are returned in the same order as the submitted TextInfos.
+    for (int i = 0; i < submittedSegments.size() && i < results.length; i++) {
+      SentenceSuggestionsInfo spellCheckResults = results[i];
+      if (spellCheckResults == null) {
         continue;
       }
+      ArrayList<SuggestionSpan> spans = new ArrayList<>();
+      for (int j = 0; j < spellCheckResults.getSuggestionsCount(); j++) {
+        SuggestionsInfo suggestionsInfo = spellCheckResults.getSuggestionsInfoAt(j);
+        int suggestionsCount = suggestionsInfo.getSuggestionsCount();
 
-      String spellCheckerSuggestionSpan = "";
-      int start = spellCheckResults.getOffsetAt(i);
-      int end = start + spellCheckResults.getLengthAt(i) - 1;
+        if (suggestionsCount <= 0) {
+          continue;
+        }
 
-      spellCheckerSuggestionSpan += String.valueOf(start) + ".";
-      spellCheckerSuggestionSpan += String.valueOf(end) + ".";
+        int start = spellCheckResults.getOffsetAt(j);
+        int end = start + spellCheckResults.getLengthAt(j) - 1;
 
-      for (int j = 0; j < suggestionsCount; j++) {
-        spellCheckerSuggestionSpan += suggestionsInfo.getSuggestionAt(j) + "\n";
+        StringBuilder suggestions = new StringBuilder();
+        for (int k = 0; k < suggestionsCount; k++) {
+          if (k > 0) {
+            suggestions.append('\n');
+          }
+          suggestions.append(suggestionsInfo.getSuggestionAt(k));
+        }
+        spans.add(new SuggestionSpan(start, end, suggestions.toString()));
       }
+      Segment segment = submittedSegments.get(i);
+      pendingSegmentResults.put(segment, spans);
+      resultCache.put(cacheKey(pendingLocale, segment.text), spans);
+    }
+
+    completePendingResult(results.length == 0);
+  }
 
-      spellCheckerSuggestionSpans.add(
-          spellCheckerSuggestionSpan.substring(0, spellCheckerSuggestionSpan.length() - 1));
+  // Sends the results of the pending request, assembled from the results of its sentences, and
+  // starts the queued request if there is one.
+  private void completePendingResult(boolean receivedNoResults) {
+    if (pendingResult == null) {
+      return;
     }
 
-    spellCheckerSuggestionSpans.add(0, pendingResultText);
-    pendingResult.success(spellCheckerSuggestionSpans);
+    ArrayList<String> spellCheckerSuggestionSpans = new ArrayList<String>();
+    spellCheckerSuggestionSpans.add(pendingResultText);
+    for (Segment segment : pendingSegments) {
+      ArrayList<SuggestionSpan> spans = pendingSegmentResults.get(segment);
+      if (spans == null) {
+        continue;
+      }
+      for (SuggestionSpan span : spans) {
+        spellCheckerSuggestionSpans.add(
+            (segment.start + span.start)
+                + "."
+                + (segment.start + span.end)
+                + "."
+                + span.suggestions);
+      }
+    }
+    if (receivedNoResults && spellCheckerSuggestionSpans.size() == 1) {
+      spellCheckerSuggestionSpans.add("");
+    }
+
+    MethodChannel.Result result = pendingResult;
     pendingResult = null;
+    pendingResultText = null;
+    pendingLocale = null;
+    pendingSegments = null;
+    submittedSegments = null;
+    pendingSegmentResults = null;
+    result.success(spellCheckerSuggestionSpans);
+
+    if (queuedRequest != null) {
+      QueuedRequest next = queuedRequest;
+      queuedRequest = null;
+      initiateSpellCheck(next.locale, next.text, next.result);
+    }
   }
 
   @Override
@@ -5,7 +5,6 @@
 package io.flutter.plugin.editing;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.VisibleForTesting;
 import io.flutter.Log;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -60,44 +59,36 @@ public final class TextEditingDelta {
     setDeltas(oldText, "", -1, -1);
   }
 
-  @VisibleForTesting
   @NonNull
   public CharSequence getOldText() {
     return oldText;
   }
 
-  @VisibleForTesting
   @NonNull
   public CharSequence getDeltaText() {
     return deltaText;
   }
 
-  @VisibleForTesting
   public int getDeltaStart() {
     return deltaStart;
   }
 
-  @VisibleForTesting
   public int getDeltaEnd() {
     return deltaEnd;
   }
 
-  @VisibleForTesting
   public int getNewSelectionStart() {
     return newSelectionStart;
   }
 
-  @VisibleForTesting
   public int getNewSelectionEnd() {
     return newSelectionEnd;
   }
 
-  @VisibleForTesting
   public int getNewComposingStart() {
     return newComposingStart;
   }
 
-  @VisibleForTesting
   public int getNewComposingEnd() {
     return newComposingEnd;
   }
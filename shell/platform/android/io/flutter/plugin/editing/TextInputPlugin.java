@@ -549,7 +549,9 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
                 && composingStart == mLastKnownFrameworkTextEditingState.composingStart
                 && composingEnd == mLastKnownFrameworkTextEditingState.composingEnd);
     if (!skipFrameworkUpdate) {
-      Log.v(TAG, "send EditingState to flutter: " + mEditable.toString());
+      if (Log.isLoggable(Log.VERBOSE)) {
+        Log.v(TAG, "send EditingState to flutter: " + mEditable.toString());
+      }
 
       if (configuration.enableDeltaModel) {
         textInputChannel.updateEditingStateWithDeltas(inputTarget.id, batchTextEditingDeltas);
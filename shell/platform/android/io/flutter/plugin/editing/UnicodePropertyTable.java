@@ -0,0 +1,122 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.editing;
+
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A two-stage lookup table answering the Unicode property queries of {@link FlutterTextUtils}.
+ *
+ * <p>Code points are split into blocks of {@link #BLOCK_SIZE}. The first stage maps each block to
+ * the index of its property bits in the second stage, where identical blocks are shared. Almost
+ * every block has no properties at all and shares the same all-zero block, so the table stays
+ * around twenty kilobytes while answering every query with two array reads and no JNI call.
+ *
+ * <p>The table is built lazily from the generated {@link UnicodePropertyRanges} the first time a
+ * property is queried.
+ */
+final class UnicodePropertyTable {
+  static final int EMOJI = 1;
+  static final int EMOJI_MODIFIER = 1 << 1;
+  static final int EMOJI_MODIFIER_BASE = 1 << 2;
+  static final int VARIATION_SELECTOR = 1 << 3;
+  static final int REGIONAL_INDICATOR = 1 << 4;
+
+  private static final int BLOCK_SHIFT = 7;
+  private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+  private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+  private static final int CODE_POINT_COUNT = Character.MAX_CODE_POINT + 1;
+
+  private UnicodePropertyTable() {}
+
+  /** Returns whether {@code codePoint} has any of the properties in {@code propertyMask}. */
+  static boolean hasProperty(int codePoint, int propertyMask) {
+    if (codePoint < 0 || codePoint >= CODE_POINT_COUNT) {
+      return false;
+    }
+    final int blockStart = Holder.blockIndices[codePoint >>> BLOCK_SHIFT] << BLOCK_SHIFT;
+    return (Holder.blocks[blockStart + (codePoint & BLOCK_MASK)] & propertyMask) != 0;
+  }
+
+  // Initialization-on-demand holder, so that the table is only built once text editing needs it.
+  private static final class Holder {
+    // The index of the unique block in `blocks` for each block of code points.
+    static final char[] blockIndices = new char[CODE_POINT_COUNT >>> BLOCK_SHIFT];
+    static final byte[] blocks;
+
+    static {
+      final int[][] rangesByProperty = {
+        UnicodePropertyRanges.EMOJI,
+        UnicodePropertyRanges.EMOJI_MODIFIER,
+        UnicodePropertyRanges.EMOJI_MODIFIER_BASE,
+        UnicodePropertyRanges.VARIATION_SELECTOR,
+        UnicodePropertyRanges.REGIONAL_INDICATOR,
+      };
+      final int[] propertyBits = {
+        EMOJI, EMOJI_MODIFIER, EMOJI_MODIFIER_BASE, VARIATION_SELECTOR, REGIONAL_INDICATOR,
+      };
+
+      // The first unique block is the all-zero block shared by most of the code space.
+      final ArrayList<byte[]> uniqueBlocks = new ArrayList<>();
+      final byte[] emptyBlock = new byte[BLOCK_SIZE];
+      uniqueBlocks.add(emptyBlock);
+
+      // The index of the next range to examine, per property. Ranges are sorted, so they can be
+      // consumed in order as blocks are built.
+      final int[] nextRange = new int[rangesByProperty.length];
+      byte[] block = new byte[BLOCK_SIZE];
+      for (int blockIndex = 0; blockIndex < blockIndices.length; blockIndex += 1) {
+        final int blockStart = blockIndex << BLOCK_SHIFT;
+        final int blockEnd = blockStart + BLOCK_SIZE - 1;
+        boolean isEmpty = true;
+        for (int property = 0; property < rangesByProperty.length; property += 1) {
+          final int[] ranges = rangesByProperty[property];
+          int range = nextRange[property];
+          while (range < ranges.length && ranges[range] <= blockEnd) {
+            final int start = Math.max(ranges[range], blockStart);
+            final int end = Math.min(ranges[range + 1], blockEnd);
+            for (int codePoint = start; codePoint <= end; codePoint += 1) {
+              block[codePoint - blockStart] |= propertyBits[property];
+              isEmpty = false;
+            }
+            if (ranges[range + 1] > blockEnd) {
+              // The range continues into the next block.
+              break;
+            }
+            range += 2;
+          }
+          nextRange[property] = range;
+        }
+        if (isEmpty) {
+          continue;
+        }
+        final int uniqueIndex = findOrAddBlock(uniqueBlocks, block);
+        blockIndices[blockIndex] = (char) uniqueIndex;
+        if (uniqueBlocks.get(uniqueIndex) == block) {
+          block = new byte[BLOCK_SIZE];
+        } else {
+          Arrays.fill(block, (byte) 0);
+        }
+      }
+
+      blocks = new byte[uniqueBlocks.size() * BLOCK_SIZE];
+      for (int i = 0; i < uniqueBlocks.size(); i += 1) {
+        System.arraycopy(uniqueBlocks.get(i), 0, blocks, i * BLOCK_SIZE, BLOCK_SIZE);
+      }
+    }
+
+    private static int findOrAddBlock(@NonNull ArrayList<byte[]> uniqueBlocks, byte[] block) {
+      for (int i = 0; i < uniqueBlocks.size(); i += 1) {
+        if (Arrays.equals(uniqueBlocks.get(i), block)) {
+          return i;
+        }
+      }
+      uniqueBlocks.add(block);
+      return uniqueBlocks.size() - 1;
+    }
+  }
+}
@@ -0,0 +1,159 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import android.annotation.TargetApi;
+import android.media.Image;
+import android.media.ImageReader;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.embedding.android.FlutterImageView;
+import java.util.ArrayList;
+
+/**
+ * Keeps the image views of destroyed overlay surfaces, so that the overlay surfaces of later frames
+ * can reuse them and their image readers instead of allocating new buffers.
+ *
+ * <p>Overlay surfaces are as large as the Flutter view, so a platform view that enters and leaves
+ * the screen would otherwise allocate and free several full screen buffers each time. Idle views
+ * are only reused by surfaces of the same size. When the image readers of the idle views hold more
+ * than the budget, the least recently used ones are closed.
+ *
+ * <p>All methods must be called on the platform thread.
+ */
+@TargetApi(19)
+final class FlutterImageViewPool {
+  /** Creates the image views that the pool can't provide. */
+  interface Factory {
+    @NonNull
+    FlutterImageView create(int width, int height);
+  }
+
+  // Overlay surfaces are RGBA_8888.
+  private static final int BYTES_PER_PIXEL = 4;
+
+  @NonNull private final Factory factory;
+  // Idle views, from least to most recently released.
+  private final ArrayList<FlutterImageView> idleViews = new ArrayList<>();
+  private long budgetBytes;
+  private long idleBytes;
+
+  private long hitCount;
+  private long missCount;
+  private long evictionCount;
+
+  FlutterImageViewPool(@NonNull Factory factory, long budgetBytes) {
+    this.factory = factory;
+    this.budgetBytes = budgetBytes;
+  }
+
+  /** Returns an idle view of the given size, or a new one if there isn't any. */
+  @NonNull
+  FlutterImageView acquire(int width, int height) {
+    width = Math.max(width, 1);
+    height = Math.max(height, 1);
+    for (int i = idleViews.size() - 1; i >= 0; i--) {
+      final FlutterImageView view = idleViews.get(i);
+      final ImageReader reader = view.getImageReader();
+      if (reader.getWidth() == width && reader.getHeight() == height) {
+        idleViews.remove(i);
+        idleBytes -= sizeInBytes(view);
+        hitCount++;
+        return view;
+      }
+    }
+    missCount++;
+    return factory.create(width, height);
+  }
+
+  /**
+   * Returns a view that was detached from the renderer, closing the images its reader still holds.
+   *
+   * <p>The caller must not use the view afterwards, unless it acquires it again.
+   */
+  void release(@NonNull FlutterImageView view) {
+    if (idleViews.contains(view)) {
+      return;
+    }
+    if (!drain(view.getImageReader()) || sizeInBytes(view) > budgetBytes) {
+      view.closeImageReader();
+      evictionCount++;
+      return;
+    }
+    idleViews.add(view);
+    idleBytes += sizeInBytes(view);
+    trimToBudget();
+  }
+
+  /** Sets the maximum number of bytes held by idle views, closing readers above it. */
+  void setBudgetBytes(long budgetBytes) {
+    this.budgetBytes = budgetBytes;
+    trimToBudget();
+  }
+
+  /** Closes the image readers of all the idle views. */
+  void clear() {
+    for (final FlutterImageView view : idleViews) {
+      view.closeImageReader();
+    }
+    evictionCount += idleViews.size();
+    idleViews.clear();
+    idleBytes = 0;
+  }
+
+  int idleCount() {
+    return idleViews.size();
+  }
+
+  long idleBytes() {
+    return idleBytes;
+  }
+
+  long hitCount() {
+    return hitCount;
+  }
+
+  long missCount() {
+    return missCount;
+  }
+
+  long evictionCount() {
+    return evictionCount;
+  }
+
+  private void trimToBudget() {
+    while (idleBytes > budgetBytes && !idleViews.isEmpty()) {
+      final FlutterImageView view = idleViews.remove(0);
+      idleBytes -= sizeInBytes(view);
+      view.closeImageReader();
+      evictionCount++;
+    }
+  }
+
+  // Closes the images queued by the previous producer, so they aren't shown by the next user.
+  // Returns false if the reader can't be reused.
+  private static boolean drain(@NonNull ImageReader reader) {
+    try {
+      @Nullable Image image;
+      while ((image = reader.acquireNextImage()) != null) {
+        image.close();
+      }
+      return true;
+    } catch (IllegalStateException e) {
+      // The reader was closed, or its images weren't closed by the previous user.
+      return false;
+    }
+  }
+
+  private static long sizeInBytes(@NonNull FlutterImageView view) {
+    final ImageReader reader = view.getImageReader();
+    return sizeInBytes(reader.getWidth(), reader.getHeight(), reader.getMaxImages());
+  }
+
+  /** Returns the number of bytes held by an image reader of the given size. */
+  static long sizeInBytes(int width, int height, int maxImages) {
+    return (long) width * height * BYTES_PER_PIXEL * maxImages;
+  }
+}
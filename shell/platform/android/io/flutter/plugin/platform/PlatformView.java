@@ -48,6 +48,24 @@ public interface PlatformView {
   @SuppressLint("NewApi")
   default void onFlutterViewDetached() {}
 
+  /**
+   * Whether the {@link View} of this platform view can be drawn into a software {@link
+   * android.graphics.Canvas}.
+   *
+   * <p>A platform view composed by the engine in a texture layer is normally redrawn entirely
+   * whenever a part of it changes. If this returns true, only the area of the {@link View} that
+   * changed is redrawn, using a software canvas. Views that depend on hardware acceleration, such
+   * as a {@code WebView} or a view that draws hardware bitmaps, must return false.
+   *
+   * <p>For views created asynchronously, {@link
+   * PlatformViewFactory#createsViewsSupportingPartialRedraw()} is used instead.
+   */
+  // Default interface methods are supported on all min SDK versions of Android.
+  @SuppressLint("NewApi")
+  default boolean supportsPartialRedraw() {
+    return false;
+  }
+
   /**
    * Dispose this platform view.
    *
@@ -30,6 +30,44 @@ public abstract class PlatformViewFactory {
   @NonNull
   public abstract PlatformView create(@Nullable Context context, int viewId, @Nullable Object args);
 
+  /**
+   * Returns whether the views of this factory can be created asynchronously, after their args were
+   * decoded on a background thread.
+   *
+   * <p>If true, views displayed in a texture layer are created asynchronously: their texture is
+   * allocated right away, the args are decoded on a background thread, so the codec must be thread
+   * safe, and {@link #create} is called on the main thread afterwards, without blocking the main
+   * thread in between. Only the decoding moves off the main thread; {@link #create} itself still
+   * runs on it, in a later message. The framework receives the texture once the view was created, or an error
+   * if decoding the args or {@link #create} threw. Messages that need the view, such as touches,
+   * are dropped until then.
+   *
+   * <p>Defaults to false.
+   */
+  public boolean createsViewsAsynchronously() {
+    return false;
+  }
+
+  /**
+   * Returns whether the views of this factory support partial redraw, as described in {@link
+   * PlatformView#supportsPartialRedraw()}.
+   *
+   * <p>Only used for views created asynchronously, since the surface they are drawn into is
+   * created before the view exists. Defaults to false.
+   */
+  public boolean createsViewsSupportingPartialRedraw() {
+    return false;
+  }
+
+  /**
+   * Called on the main thread when it's idle after the factory is registered, so that the factory
+   * can prepare expensive resources ahead of {@link #create}, e.g. a view it hands out on the next
+   * call.
+   *
+   * @param context the context that {@link #create} is called with.
+   */
+  public void prewarm(@NonNull Context context) {}
+
   /** Returns the codec to be used for decoding the args parameter of {@link #create}. */
   @Nullable
   public final MessageCodec<Object> getCreateArgsCodec() {
@@ -4,6 +4,8 @@
 
 package io.flutter.plugin.platform;
 
+import androidx.annotation.Nullable;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -16,13 +18,33 @@ class PlatformViewRegistryImpl implements PlatformViewRegistry {
   // Maps a platform view type id to its factory.
   private final Map<String, PlatformViewFactory> viewFactories;
 
+  // Factories that weren't prewarmed yet, in registration order.
+  private final ArrayDeque<PlatformViewFactory> factoriesToPrewarm = new ArrayDeque<>();
+
+  // Invoked when a factory is registered.
+  @Nullable private Runnable onFactoryRegisteredListener;
+
   @Override
   public boolean registerViewFactory(String viewTypeId, PlatformViewFactory factory) {
     if (viewFactories.containsKey(viewTypeId)) return false;
     viewFactories.put(viewTypeId, factory);
+    factoriesToPrewarm.add(factory);
+    if (onFactoryRegisteredListener != null) {
+      onFactoryRegisteredListener.run();
+    }
     return true;
   }
 
+  void setOnFactoryRegisteredListener(@Nullable Runnable listener) {
+    onFactoryRegisteredListener = listener;
+  }
+
+  /** Returns the next factory to prewarm, or null if all the factories were prewarmed. */
+  @Nullable
+  PlatformViewFactory pollFactoryToPrewarm() {
+    return factoriesToPrewarm.poll();
+  }
+
   PlatformViewFactory getFactory(String viewTypeId) {
     return viewFactories.get(viewTypeId);
   }
@@ -11,6 +11,7 @@ import android.graphics.BlendMode;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Matrix;
+import android.graphics.PorterDuff;
 import android.graphics.Rect;
 import android.graphics.SurfaceTexture;
 import android.os.Build;
@@ -38,6 +39,10 @@ import java.util.concurrent.atomic.AtomicLong;
  *
  * <p>Since the view is in the Android view hierarchy, keyboard and accessibility interactions
  * behave normally.
+ *
+ * <p>The area invalidated by the descendants of this view is accumulated between draws. If partial
+ * redraw is enabled, only that area is redrawn into the {@link Surface} of the texture, using a
+ * software canvas. Otherwise, the whole view is redrawn using a hardware canvas.
  */
 @TargetApi(23)
 class PlatformViewWrapper extends FrameLayout {
@@ -52,6 +57,18 @@ class PlatformViewWrapper extends FrameLayout {
   private SurfaceTexture tx;
   private Surface surface;
   private AndroidTouchProcessor touchProcessor;
+  private final boolean partialRedrawEnabled;
+
+  // The area, in the coordinates of this view, invalidated since the last draw to the surface.
+  private final Rect damage = new Rect();
+  private final Rect damageScratch = new Rect();
+
+  // Redraw metrics, which tell how much partial redraw does or would save.
+  private long drawCount;
+  private long partialDrawCount;
+  private long viewPixelCount;
+  private long damagedPixelCount;
+  private long redrawnPixelCount;
 
   @Nullable @VisibleForTesting ViewTreeObserver.OnGlobalFocusChangeListener activeFocusListener;
   private final AtomicLong pendingFramesCount = new AtomicLong(0L);
@@ -80,13 +97,25 @@ class PlatformViewWrapper extends FrameLayout {
   }
 
   public PlatformViewWrapper(@NonNull Context context) {
+    this(context, false);
+  }
+
+  /**
+   * @param partialRedrawEnabled Whether only the invalidated area of this view is redrawn, using a
+   *     software canvas. This can't change once a surface was created, since a surface can't be
+   *     locked by both software and hardware canvases.
+   */
+  public PlatformViewWrapper(@NonNull Context context, boolean partialRedrawEnabled) {
     super(context);
+    this.partialRedrawEnabled = partialRedrawEnabled;
     setWillNotDraw(false);
   }
 
   public PlatformViewWrapper(
-      @NonNull Context context, @NonNull TextureRegistry.SurfaceTextureEntry textureEntry) {
-    this(context);
+      @NonNull Context context,
+      @NonNull TextureRegistry.SurfaceTextureEntry textureEntry,
+      boolean partialRedrawEnabled) {
+    this(context, partialRedrawEnabled);
     textureEntry.setOnFrameConsumedListener(listener);
     setTexture(textureEntry.surfaceTexture());
   }
@@ -135,17 +164,42 @@ class PlatformViewWrapper extends FrameLayout {
     // Fill the entire canvas with a transparent color.
     // As a result, the background color of the platform view container is displayed
     // to the user until the platform view draws its first frame.
-    final Canvas canvas = surface.lockHardwareCanvas();
+    //
+    // A surface can't be locked by both software and hardware canvases, so this uses the same
+    // kind of canvas as later draws.
+    final Canvas canvas =
+        partialRedrawEnabled ? surface.lockCanvas(null) : surface.lockHardwareCanvas();
     try {
-      if (Build.VERSION.SDK_INT >= 29) {
-        canvas.drawColor(Color.TRANSPARENT, BlendMode.CLEAR);
-      } else {
-        canvas.drawColor(Color.TRANSPARENT);
-      }
+      clearCanvas(canvas);
       onFrameProduced();
     } finally {
       surface.unlockCanvasAndPost(canvas);
     }
+    damage.set(0, 0, getWidth(), getHeight());
+  }
+
+  /** Returns the number of times this view was drawn to the surface of its texture. */
+  public long getDrawCount() {
+    return drawCount;
+  }
+
+  /** Returns the number of draws that only redrew the invalidated area of this view. */
+  public long getPartialDrawCount() {
+    return partialDrawCount;
+  }
+
+  /**
+   * Returns the fraction of the area of this view that was invalidated per draw, on average.
+   *
+   * <p>A low fraction means that partial redraw would redraw much less than the whole view.
+   */
+  public float getDamagedAreaFraction() {
+    return viewPixelCount == 0 ? 0 : (float) damagedPixelCount / viewPixelCount;
+  }
+
+  /** Returns the fraction of the area of this view that was redrawn per draw, on average. */
+  public float getRedrawnAreaFraction() {
+    return viewPixelCount == 0 ? 0 : (float) redrawnPixelCount / viewPixelCount;
   }
 
   @NonNull
@@ -216,15 +270,56 @@ class PlatformViewWrapper extends FrameLayout {
   @Override
   public void onDescendantInvalidated(@NonNull View child, @NonNull View target) {
     super.onDescendantInvalidated(child, target);
+    // The exact dirty area isn't reported with hardware acceleration, so the whole target is
+    // considered damaged.
+    if (isTransformedDescendant(target)) {
+      // offsetDescendantRectToMyCoords only applies the positions of the views, so the area of a
+      // translated, scaled or rotated view is unknown.
+      damage.set(0, 0, getWidth(), getHeight());
+    } else {
+      damageScratch.set(0, 0, target.getWidth(), target.getHeight());
+      if (target != this) {
+        offsetDescendantRectToMyCoords(target, damageScratch);
+      }
+      damage.union(damageScratch);
+    }
     invalidate();
   }
 
+  /** Whether a view between {@code descendant} and this view, inclusive, is transformed. */
+  private boolean isTransformedDescendant(@NonNull View descendant) {
+    View view = descendant;
+    while (view != this) {
+      if (!view.getMatrix().isIdentity()) {
+        return true;
+      }
+      final ViewParent parent = view.getParent();
+      if (!(parent instanceof View)) {
+        return true;
+      }
+      view = (View) parent;
+    }
+    return false;
+  }
+
   @Override
   public ViewParent invalidateChildInParent(int[] location, Rect dirty) {
+    if (location != null && dirty != null) {
+      // The dirty area is in the coordinates of the child, whose position is in `location`.
+      damageScratch.set(dirty);
+      damageScratch.offset(location[0] - getScrollX(), location[1] - getScrollY());
+      damage.union(damageScratch);
+    }
     invalidate();
     return super.invalidateChildInParent(location, dirty);
   }
 
+  @Override
+  protected void onSizeChanged(int width, int height, int oldWidth, int oldHeight) {
+    super.onSizeChanged(width, height, oldWidth, oldHeight);
+    damage.set(0, 0, width, height);
+  }
+
   @Override
   @SuppressLint("NewApi")
   public void draw(Canvas canvas) {
@@ -249,21 +344,55 @@ class PlatformViewWrapper extends FrameLayout {
       // If there are still frames that are not consumed, we will draw them next time.
       invalidate();
     } else {
+      // If the invalidation didn't come from a descendant, the whole view is redrawn.
+      final long viewPixels = (long) getWidth() * getHeight();
+      if (damage.isEmpty() || !damage.intersect(0, 0, getWidth(), getHeight())) {
+        damage.set(0, 0, getWidth(), getHeight());
+      }
+      final long damagedPixels = (long) damage.width() * damage.height();
+
       // Override the canvas that this subtree of views will use to draw.
-      final Canvas surfaceCanvas = surface.lockHardwareCanvas();
+      //
+      // A software canvas is clipped to the damaged area, and keeps the pixels of the previous
+      // frame outside of it. The surface may grow the damaged area, e.g. if the previous buffer
+      // can't be copied.
+      final Canvas surfaceCanvas =
+          partialRedrawEnabled ? surface.lockCanvas(damage) : surface.lockHardwareCanvas();
       try {
         // Clear the current pixels in the canvas.
         // This helps when a WebView renders an HTML document with transparent background.
-        if (Build.VERSION.SDK_INT >= 29) {
-          surfaceCanvas.drawColor(Color.TRANSPARENT, BlendMode.CLEAR);
-        } else {
-          surfaceCanvas.drawColor(Color.TRANSPARENT);
-        }
+        clearCanvas(surfaceCanvas);
         super.draw(surfaceCanvas);
         onFrameProduced();
       } finally {
         surface.unlockCanvasAndPost(surfaceCanvas);
       }
+
+      drawCount++;
+      viewPixelCount += viewPixels;
+      damagedPixelCount += damagedPixels;
+      if (partialRedrawEnabled) {
+        final long redrawnPixels = (long) damage.width() * damage.height();
+        if (redrawnPixels < viewPixels) {
+          partialDrawCount++;
+        }
+        redrawnPixelCount += Math.min(redrawnPixels, viewPixels);
+      } else {
+        redrawnPixelCount += viewPixels;
+      }
+      damage.setEmpty();
+    }
+  }
+
+  @SuppressLint("NewApi")
+  private void clearCanvas(@NonNull Canvas canvas) {
+    if (partialRedrawEnabled) {
+      // Only clears the clipped, damaged area.
+      canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+    } else if (Build.VERSION.SDK_INT >= 29) {
+      canvas.drawColor(Color.TRANSPARENT, BlendMode.CLEAR);
+    } else {
+      canvas.drawColor(Color.TRANSPARENT);
     }
   }
 
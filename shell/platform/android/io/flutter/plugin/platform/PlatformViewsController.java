@@ -8,9 +8,17 @@ import static android.view.MotionEvent.PointerCoords;
 import static android.view.MotionEvent.PointerProperties;
 
 import android.annotation.TargetApi;
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Resources;
+import android.media.ImageReader;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.util.SparseArray;
+import android.util.DisplayMetrics;
+import android.util.SparseBooleanArray;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
@@ -19,6 +27,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.UiThread;
 import androidx.annotation.VisibleForTesting;
+import io.flutter.FlutterInjector;
 import io.flutter.Log;
 import io.flutter.embedding.android.AndroidTouchProcessor;
 import io.flutter.embedding.android.FlutterImageView;
@@ -33,8 +42,8 @@ import io.flutter.plugin.editing.TextInputPlugin;
 import io.flutter.view.AccessibilityBridge;
 import io.flutter.view.TextureRegistry;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Manages platform views.
@@ -46,6 +55,11 @@ import java.util.List;
 public class PlatformViewsController implements PlatformViewsAccessibilityDelegate {
   private static final String TAG = "PlatformViewsController";
 
+  // The number of display sized image views that destroyed overlay surfaces can keep.
+  private static final int OVERLAY_IMAGE_VIEW_POOL_SIZE = 2;
+  // Overlay image readers hold at most three images.
+  private static final int OVERLAY_IMAGE_READER_MAX_IMAGES = 3;
+
   private final PlatformViewRegistryImpl registry;
 
   private AndroidTouchProcessor androidTouchProcessor;
@@ -89,6 +103,16 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   // Map of unique IDs to views that render overlay layers.
   private final SparseArray<FlutterImageView> overlayLayerViews;
 
+  // Views of destroyed overlay layers that are still in the view hierarchy.
+  //
+  // They were returned to `overlayImageViewPool`, so they must not be used again unless they are
+  // acquired from it for a new overlay layer.
+  private final ArrayList<FlutterImageView> retiredOverlayLayerViews = new ArrayList<>();
+
+  // The views of destroyed overlay layers, reused with their image readers by the overlay layers of
+  // later frames.
+  @Nullable private FlutterImageViewPool overlayImageViewPool;
+
   // The platform view wrappers that are appended to FlutterView.
   //
   // These platform views use a TextureLayer in the framework. This is different than
@@ -109,10 +133,24 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   private boolean synchronizeToNativeViewHierarchy = true;
 
   // Overlay layer IDs that were displayed since the start of the current frame.
-  private final HashSet<Integer> currentFrameUsedOverlayLayerIds;
+  //
+  // Sparse boolean arrays don't box the IDs, and keep their storage when cleared, so the frame
+  // bookkeeping doesn't allocate once the number of views is stable. Overlay IDs are never reused,
+  // so a bit set indexed by ID would keep growing.
+  private final SparseBooleanArray currentFrameUsedOverlayLayerIds;
 
   // Platform view IDs that were displayed since the start of the current frame.
-  private final HashSet<Integer> currentFrameUsedPlatformViewIds;
+  private final SparseBooleanArray currentFrameUsedPlatformViewIds;
+
+  // The platform view parents and overlay views in the order they were displayed since the start
+  // of the current frame, from bottom to top.
+  //
+  // `View#bringToFront` always requests a layout pass, so the views are only restacked at the end
+  // of a frame whose order differs from the one of the previous frame.
+  private ArrayList<View> currentFrameDisplayOrder = new ArrayList<>();
+
+  // The order in which the views were displayed in the previous frame.
+  private ArrayList<View> previousFrameDisplayOrder = new ArrayList<>();
 
   // Used to acquire the original motion events using the motionEventIds.
   private final MotionEventTracker motionEventTracker;
@@ -120,6 +158,34 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   // Whether software rendering is used.
   private boolean usesSoftwareRendering = false;
 
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  // Whether `prewarmFactories` is registered as an idle handler of the main thread.
+  private boolean isPrewarmScheduled = false;
+
+  // Prewarms one factory each time the main thread becomes idle, so that a factory registered
+  // while frames are produced doesn't delay them.
+  private final MessageQueue.IdleHandler prewarmFactories =
+      new MessageQueue.IdleHandler() {
+        @Override
+        public boolean queueIdle() {
+          final PlatformViewFactory factory =
+              context != null ? registry.pollFactoryToPrewarm() : null;
+          if (factory == null) {
+            isPrewarmScheduled = false;
+            return false;
+          }
+          try {
+            factory.prewarm(context);
+          } catch (RuntimeException exception) {
+            // Otherwise the message queue drops this idle handler, and the remaining factories are
+            // never prewarmed.
+            Log.e(TAG, "Failed to prewarm a platform view factory", exception);
+          }
+          return true;
+        }
+      };
+
   private final PlatformViewsChannel.PlatformViewsHandler channelHandler =
       new PlatformViewsChannel.PlatformViewsHandler() {
 
@@ -161,6 +227,32 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
         @Override
         public long createForTextureLayer(
             @NonNull PlatformViewsChannel.PlatformViewCreationRequest request) {
+          return createTextureLayerView(request, /*creationCallback=*/ null);
+        }
+
+        @TargetApi(Build.VERSION_CODES.M)
+        @Override
+        public void createForTextureLayer(
+            @NonNull PlatformViewsChannel.PlatformViewCreationRequest request,
+            @NonNull PlatformViewsChannel.TextureLayerCreationCallback callback) {
+          final PlatformViewFactory viewFactory = registry.getFactory(request.viewType);
+          if (viewFactory != null && viewFactory.createsViewsAsynchronously()) {
+            // The callback is invoked once the view was created.
+            createTextureLayerView(request, callback);
+          } else {
+            callback.onCreated(createTextureLayerView(request, /*creationCallback=*/ null));
+          }
+        }
+
+        // Creates the wrapper and the texture of a view displayed in a texture layer, and returns
+        // the texture ID.
+        //
+        // If the view is created asynchronously, `creationCallback` is invoked once it was, or
+        // when it failed.
+        @TargetApi(Build.VERSION_CODES.M)
+        private long createTextureLayerView(
+            @NonNull PlatformViewsChannel.PlatformViewCreationRequest request,
+            @Nullable PlatformViewsChannel.TextureLayerCreationCallback creationCallback) {
           final int viewId = request.viewId;
           if (viewWrappers.get(viewId) != null) {
             throw new IllegalStateException(
@@ -189,23 +281,32 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
             throw new IllegalStateException(
                 "Trying to create a platform view of unregistered type: " + request.viewType);
           }
-          Object createParams = null;
-          if (request.params != null) {
-            createParams = viewFactory.getCreateArgsCodec().decodeMessage(request.params);
+          PlatformView platformView = null;
+          if (!viewFactory.createsViewsAsynchronously()) {
+            Object createParams = null;
+            if (request.params != null) {
+              createParams = viewFactory.getCreateArgsCodec().decodeMessage(request.params);
+            }
+            platformView = viewFactory.create(context, viewId, createParams);
+            platformViews.put(viewId, platformView);
           }
 
-          final PlatformView platformView = viewFactory.create(context, viewId, createParams);
-          platformViews.put(viewId, platformView);
-
+          // The surface of the texture is created with the wrapper, before an asynchronously
+          // created view exists, so those views rely on their factory.
+          final boolean partialRedrawEnabled =
+              platformView != null
+                  ? platformView.supportsPartialRedraw()
+                  : viewFactory.createsViewsSupportingPartialRedraw();
           PlatformViewWrapper wrapperView;
+          TextureRegistry.SurfaceTextureEntry textureEntry;
           long txId;
           if (usesSoftwareRendering) {
-            wrapperView = new PlatformViewWrapper(context);
+            wrapperView = new PlatformViewWrapper(context, partialRedrawEnabled);
+            textureEntry = null;
             txId = -1;
           } else {
-            final TextureRegistry.SurfaceTextureEntry textureEntry =
-                textureRegistry.createSurfaceTexture();
-            wrapperView = new PlatformViewWrapper(context, textureEntry);
+            textureEntry = textureRegistry.createSurfaceTexture();
+            wrapperView = new PlatformViewWrapper(context, textureEntry, partialRedrawEnabled);
             txId = textureEntry.id();
           }
           wrapperView.setTouchProcessor(androidTouchProcessor);
@@ -223,17 +324,12 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           layoutParams.leftMargin = physicalLeft;
           wrapperView.setLayoutParams(layoutParams);
 
-          final View view = platformView.getView();
-          if (view == null) {
-            throw new IllegalStateException(
-                "PlatformView#getView() returned null, but an Android view reference was expected.");
-          } else if (view.getParent() != null) {
-            throw new IllegalStateException(
-                "The Android view returned from PlatformView#getView() was already added to a parent view.");
+          if (platformView != null) {
+            embedPlatformView(platformView, wrapperView, request.direction);
+          } else {
+            createPlatformViewAsync(
+                viewFactory, request, wrapperView, textureEntry, txId, creationCallback);
           }
-          view.setLayoutParams(new FrameLayout.LayoutParams(physicalWidth, physicalHeight));
-          view.setLayoutDirection(request.direction);
-          wrapperView.addView(view);
           wrapperView.setOnDescendantFocusChangeListener(
               (v, hasFocus) -> {
                 if (hasFocus) {
@@ -247,6 +343,97 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           return txId;
         }
 
+        // Decodes the creation params on a background thread, then creates the view on the main
+        // thread, unless it was disposed in the meantime.
+        //
+        // If the view can't be created, the wrapper and the texture are disposed, and the error is
+        // passed to `creationCallback`.
+        private void createPlatformViewAsync(
+            @NonNull PlatformViewFactory viewFactory,
+            @NonNull PlatformViewsChannel.PlatformViewCreationRequest request,
+            @NonNull PlatformViewWrapper wrapperView,
+            @Nullable TextureRegistry.SurfaceTextureEntry textureEntry,
+            long textureId,
+            @Nullable PlatformViewsChannel.TextureLayerCreationCallback creationCallback) {
+          final Runnable decodeParams =
+              () -> {
+                Object createParams = null;
+                RuntimeException decodeException = null;
+                try {
+                  if (request.params != null) {
+                    createParams = viewFactory.getCreateArgsCodec().decodeMessage(request.params);
+                  }
+                } catch (RuntimeException exception) {
+                  decodeException = exception;
+                }
+                final Object decodedParams = createParams;
+                final RuntimeException decodeError = decodeException;
+                mainHandler.post(
+                    () -> {
+                      final int viewId = request.viewId;
+                      if (context == null
+                          || viewWrappers.get(viewId) != wrapperView
+                          || platformViews.get(viewId) != null) {
+                        // The view was disposed, or the controller was detached. The framework
+                        // doesn't use the texture anymore, so it's not an error.
+                        if (creationCallback != null) {
+                          creationCallback.onCreated(textureId);
+                        }
+                        return;
+                      }
+                      try {
+                        if (decodeError != null) {
+                          throw decodeError;
+                        }
+                        final PlatformView platformView =
+                            viewFactory.create(context, viewId, decodedParams);
+                        platformViews.put(viewId, platformView);
+                        embedPlatformView(platformView, wrapperView, request.direction);
+                      } catch (RuntimeException exception) {
+                        Log.e(TAG, "Failed to create platform view " + viewId, exception);
+                        dispose(viewId);
+                        // The framework never received the texture, so it won't release it.
+                        if (textureEntry != null) {
+                          textureEntry.release();
+                        }
+                        if (creationCallback != null) {
+                          creationCallback.onError(exception);
+                        }
+                        return;
+                      }
+                      if (creationCallback != null) {
+                        creationCallback.onCreated(textureId);
+                      }
+                    });
+              };
+          if (request.params == null) {
+            decodeParams.run();
+          } else {
+            FlutterInjector.instance().executorService().execute(decodeParams);
+          }
+        }
+
+        // Adds the view of `platformView` to `wrapperView`, with the size of the wrapper.
+        @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
+        private void embedPlatformView(
+            @NonNull PlatformView platformView,
+            @NonNull PlatformViewWrapper wrapperView,
+            int direction) {
+          final View view = platformView.getView();
+          if (view == null) {
+            throw new IllegalStateException(
+                "PlatformView#getView() returned null, but an Android view reference was expected.");
+          } else if (view.getParent() != null) {
+            throw new IllegalStateException(
+                "The Android view returned from PlatformView#getView() was already added to a parent view.");
+          }
+          final ViewGroup.LayoutParams wrapperLayoutParams = wrapperView.getLayoutParams();
+          view.setLayoutParams(
+              new FrameLayout.LayoutParams(wrapperLayoutParams.width, wrapperLayoutParams.height));
+          view.setLayoutDirection(direction);
+          wrapperView.addView(view);
+        }
+
         @Override
         public void dispose(int viewId) {
           final PlatformView platformView = platformViews.get(viewId);
@@ -257,6 +444,19 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           // The platform view is displayed using a TextureLayer.
           final PlatformViewWrapper viewWrapper = viewWrappers.get(viewId);
           if (viewWrapper != null) {
+            if (viewWrapper.getDrawCount() > 0 && Log.isLoggable(Log.VERBOSE)) {
+              Log.v(
+                  TAG,
+                  String.format(
+                      Locale.US,
+                      "Platform view %d was drawn %d times (%d partially), damaging %.1f%% and"
+                          + " redrawing %.1f%% of its area on average.",
+                      viewId,
+                      viewWrapper.getDrawCount(),
+                      viewWrapper.getPartialDrawCount(),
+                      viewWrapper.getDamagedAreaFraction() * 100,
+                      viewWrapper.getRedrawnAreaFraction() * 100));
+            }
             viewWrapper.removeAllViews();
             viewWrapper.release();
             viewWrapper.unsetOnDescendantFocusChangeListener();
@@ -304,7 +504,9 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           final int viewId = request.viewId;
           final PlatformView platformView = platformViews.get(viewId);
           final PlatformViewWrapper view = viewWrappers.get(viewId);
-          if (platformView == null || view == null) {
+          // The platform view may still be created asynchronously, in which case it gets the size
+          // of its wrapper.
+          if (view == null) {
             Log.e(TAG, "Resizing unknown platform view with id: " + viewId);
             return null;
           }
@@ -328,7 +530,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           viewWrapperLayoutParams.height = newHeight;
           view.setLayoutParams(viewWrapperLayoutParams);
 
-          final View embeddedView = platformView.getView();
+          final View embeddedView = platformView != null ? platformView.getView() : null;
           if (embeddedView != null) {
             final ViewGroup.LayoutParams embeddedViewLayoutParams = embeddedView.getLayoutParams();
             embeddedViewLayoutParams.width = newWidth;
@@ -472,8 +674,8 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     registry = new PlatformViewRegistryImpl();
     accessibilityEventsDelegate = new AccessibilityEventsDelegate();
     overlayLayerViews = new SparseArray<>();
-    currentFrameUsedOverlayLayerIds = new HashSet<>();
-    currentFrameUsedPlatformViewIds = new HashSet<>();
+    currentFrameUsedOverlayLayerIds = new SparseBooleanArray();
+    currentFrameUsedPlatformViewIds = new SparseBooleanArray();
     viewWrappers = new SparseArray<>();
     platformViews = new SparseArray<>();
     platformViewParent = new SparseArray<>();
@@ -503,6 +705,21 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     this.textureRegistry = textureRegistry;
     platformViewsChannel = new PlatformViewsChannel(dartExecutor);
     platformViewsChannel.setPlatformViewsHandler(channelHandler);
+    registry.setOnFactoryRegisteredListener(this::schedulePrewarm);
+    schedulePrewarm();
+  }
+
+  // Prewarms the factories that weren't prewarmed yet once the main thread is idle.
+  private void schedulePrewarm() {
+    if (Looper.myLooper() != Looper.getMainLooper()) {
+      mainHandler.post(this::schedulePrewarm);
+      return;
+    }
+    if (isPrewarmScheduled || context == null) {
+      return;
+    }
+    isPrewarmScheduled = true;
+    Looper.myQueue().addIdleHandler(prewarmFactories);
   }
 
   /**
@@ -535,6 +752,12 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       platformViewsChannel.setPlatformViewsHandler(null);
     }
     destroyOverlaySurfaces();
+    clearOverlayImageViewPool();
+    registry.setOnFactoryRegisteredListener(null);
+    if (isPrewarmScheduled) {
+      Looper.myQueue().removeIdleHandler(prewarmFactories);
+      isPrewarmScheduled = false;
+    }
     platformViewsChannel = null;
     context = null;
     textureRegistry = null;
@@ -548,6 +771,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
    */
   public void attachToView(@NonNull FlutterView newFlutterView) {
     flutterView = newFlutterView;
+    flutterView.addOnLayoutChangeListener(flutterViewSizeListener);
     // Add wrapper for platform views that use GL texture.
     for (int index = 0; index < viewWrappers.size(); index++) {
       final PlatformViewWrapper view = viewWrappers.valueAt(index);
@@ -585,8 +809,12 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     }
     destroyOverlaySurfaces();
     removeOverlaySurfaces();
+    clearOverlayImageViewPool();
+    flutterView.removeOnLayoutChangeListener(flutterViewSizeListener);
     flutterView = null;
     flutterViewConvertedToImageView = false;
+    // The views are added to the next Flutter view in a different order, so restack them.
+    previousFrameDisplayOrder.clear();
 
     // Notify that the platform view have been detached from FlutterView.
     for (int index = 0; index < platformViews.size(); index++) {
@@ -722,6 +950,10 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     while (platformViews.size() > 0) {
       channelHandler.dispose(platformViews.keyAt(0));
     }
+    // Wrappers of views that are still created asynchronously.
+    while (viewWrappers.size() > 0) {
+      channelHandler.dispose(viewWrappers.keyAt(0));
+    }
   }
 
   private void initializeRootImageViewIfNeeded() {
@@ -805,16 +1037,18 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     final FlutterMutatorView parentView = platformViewParent.get(viewId);
     parentView.readyToDisplay(mutatorsStack, x, y, width, height);
     parentView.setVisibility(View.VISIBLE);
-    parentView.bringToFront();
+    currentFrameDisplayOrder.add(parentView);
 
-    final FrameLayout.LayoutParams layoutParams =
-        new FrameLayout.LayoutParams(viewWidth, viewHeight);
     final View view = platformViews.get(viewId).getView();
     if (view != null) {
-      view.setLayoutParams(layoutParams);
-      view.bringToFront();
+      final ViewGroup.LayoutParams currentLayoutParams = view.getLayoutParams();
+      if (currentLayoutParams == null
+          || currentLayoutParams.width != viewWidth
+          || currentLayoutParams.height != viewHeight) {
+        view.setLayoutParams(new FrameLayout.LayoutParams(viewWidth, viewHeight));
+      }
     }
-    currentFrameUsedPlatformViewIds.add(viewId);
+    currentFrameUsedPlatformViewIds.put(viewId, true);
   }
 
   /**
@@ -838,18 +1072,61 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       flutterView.addView(overlayView);
     }
 
-    FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams((int) width, (int) height);
-    layoutParams.leftMargin = (int) x;
-    layoutParams.topMargin = (int) y;
-    overlayView.setLayoutParams(layoutParams);
+    // Setting layout params requests a layout pass, so only do it if the overlay moved or resized.
+    final ViewGroup.LayoutParams currentLayoutParams = overlayView.getLayoutParams();
+    if (!(currentLayoutParams instanceof FrameLayout.LayoutParams)
+        || currentLayoutParams.width != width
+        || currentLayoutParams.height != height
+        || ((FrameLayout.LayoutParams) currentLayoutParams).leftMargin != x
+        || ((FrameLayout.LayoutParams) currentLayoutParams).topMargin != y) {
+      final FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(width, height);
+      layoutParams.leftMargin = x;
+      layoutParams.topMargin = y;
+      overlayView.setLayoutParams(layoutParams);
+    }
     overlayView.setVisibility(View.VISIBLE);
-    overlayView.bringToFront();
-    currentFrameUsedOverlayLayerIds.add(id);
+    currentFrameDisplayOrder.add(overlayView);
+    currentFrameUsedOverlayLayerIds.put(id, true);
   }
 
   public void onBeginFrame() {
     currentFrameUsedOverlayLayerIds.clear();
     currentFrameUsedPlatformViewIds.clear();
+    currentFrameDisplayOrder.clear();
+    removeRetiredOverlayLayerViews();
+  }
+
+  // Stacks the views displayed in the current frame in the order they were displayed, if it
+  // differs from the order of the previous frame.
+  //
+  // Views that are added to the Flutter view are added on top, but they are only added when they
+  // are displayed for the first time, or when the Flutter view is converted to an image view after
+  // a frame without platform views, so the order differs from the previous frame in both cases.
+  private void updateDisplayOrderIfNeeded() {
+    if (!isDisplayOrderUnchanged()) {
+      for (int i = 0; i < currentFrameDisplayOrder.size(); i++) {
+        currentFrameDisplayOrder.get(i).bringToFront();
+      }
+    }
+    // Swap the lists instead of copying, so that the bookkeeping doesn't allocate.
+    final ArrayList<View> displayOrder = previousFrameDisplayOrder;
+    previousFrameDisplayOrder = currentFrameDisplayOrder;
+    currentFrameDisplayOrder = displayOrder;
+    currentFrameDisplayOrder.clear();
+  }
+
+  // Compares the lists by index, since `List#equals` allocates two iterators.
+  private boolean isDisplayOrderUnchanged() {
+    final int size = currentFrameDisplayOrder.size();
+    if (size != previousFrameDisplayOrder.size()) {
+      return false;
+    }
+    for (int i = 0; i < size; i++) {
+      if (currentFrameDisplayOrder.get(i) != previousFrameDisplayOrder.get(i)) {
+        return false;
+      }
+    }
+    return true;
   }
 
   /**
@@ -858,11 +1135,13 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
    * <p>This member is not intended for public use, and is only visible for testing.
    */
   public void onEndFrame() {
+    updateDisplayOrderIfNeeded();
+
     // If there are no platform views in the current frame,
     // then revert the image view surface and use the previous surface.
     //
     // Otherwise, acquire the latest image.
-    if (flutterViewConvertedToImageView && currentFrameUsedPlatformViewIds.isEmpty()) {
+    if (flutterViewConvertedToImageView && currentFrameUsedPlatformViewIds.size() == 0) {
       flutterViewConvertedToImageView = false;
       flutterView.revertImageView(
           () -> {
@@ -890,7 +1169,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       final int overlayId = overlayLayerViews.keyAt(i);
       final FlutterImageView overlayView = overlayLayerViews.valueAt(i);
 
-      if (currentFrameUsedOverlayLayerIds.contains(overlayId)) {
+      if (currentFrameUsedOverlayLayerIds.get(overlayId)) {
         flutterView.attachOverlaySurfaceToRender(overlayView);
         final boolean didAcquireOverlaySurfaceImage = overlayView.acquireLatestImage();
         isFrameRenderedUsingImageReaders &= didAcquireOverlaySurfaceImage;
@@ -908,7 +1187,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
 
     for (int i = 0; i < platformViewParent.size(); i++) {
       final int viewId = platformViewParent.keyAt(i);
-      final View parentView = platformViewParent.get(viewId);
+      final View parentView = platformViewParent.valueAt(i);
 
       // This should only show platform views that are rendered in this frame and either:
       //  1. Surface has images available in this frame or,
@@ -919,7 +1198,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       //
       // Otherwise, hide the platform view, but don't remove it from the view hierarchy yet as
       // they are removed when the framework disposes the platform view widget.
-      if (currentFrameUsedPlatformViewIds.contains(viewId)
+      if (currentFrameUsedPlatformViewIds.get(viewId)
           && (isFrameRenderedUsingImageReaders || !synchronizeToNativeViewHierarchy)) {
         parentView.setVisibility(View.VISIBLE);
       } else {
@@ -960,12 +1239,14 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     // if the drawings they contain have a different tight bound.
     //
     // The final view size is determined when its frame is set.
-    return createOverlaySurface(
-        new FlutterImageView(
-            flutterView.getContext(),
-            flutterView.getWidth(),
-            flutterView.getHeight(),
-            FlutterImageView.SurfaceKind.overlay));
+    //
+    // The image view is reused from an overlay surface destroyed in an earlier frame, if there's
+    // one of the same size.
+    final FlutterImageView imageView =
+        getOverlayImageViewPool().acquire(flutterView.getWidth(), flutterView.getHeight());
+    // A reused view that is still in the view hierarchy stays in it.
+    retiredOverlayLayerViews.remove(imageView);
+    return createOverlaySurface(imageView);
   }
 
   /**
@@ -974,15 +1255,31 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
    * <p>This method is used only internally by {@code FlutterJNI}.
    */
   public void destroyOverlaySurfaces() {
+    if (overlayLayerViews.size() == 0) {
+      return;
+    }
     for (int viewId = 0; viewId < overlayLayerViews.size(); viewId++) {
       final FlutterImageView overlayView = overlayLayerViews.valueAt(viewId);
       overlayView.detachFromRenderer();
-      overlayView.closeImageReader();
+      // Keep the view and its image reader for the overlay surfaces of later frames, unless the
+      // Flutter view was resized since it was created.
+      final ImageReader imageReader = overlayView.getImageReader();
+      if (flutterView != null
+          && imageReader.getWidth() == flutterView.getWidth()
+          && imageReader.getHeight() == flutterView.getHeight()) {
+        getOverlayImageViewPool().release(overlayView);
+      } else {
+        overlayView.closeImageReader();
+      }
       // Don't remove overlayView from the view hierarchy since this method can
       // be called while the Android framework is iterating over the array of views.
       // See ViewGroup#dispatchDetachedFromWindow(), and
       // https://github.com/flutter/flutter/issues/97679.
+      //
+      // Instead, it's removed at the start of the next frame.
+      retiredOverlayLayerViews.add(overlayView);
     }
+    overlayLayerViews.clear();
   }
 
   private void removeOverlaySurfaces() {
@@ -994,5 +1291,67 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       flutterView.removeView(overlayLayerViews.valueAt(viewId));
     }
     overlayLayerViews.clear();
+    removeRetiredOverlayLayerViews();
+  }
+
+  private void removeRetiredOverlayLayerViews() {
+    if (flutterView == null) {
+      return;
+    }
+    for (final FlutterImageView overlayView : retiredOverlayLayerViews) {
+      flutterView.removeView(overlayView);
+    }
+    retiredOverlayLayerViews.clear();
+  }
+
+  /**
+   * Releases the memory held for the overlay surfaces of later frames when the system is low on
+   * memory or the app is in the background.
+   *
+   * @param level the level passed to {@link android.app.Activity#onTrimMemory(int)}.
+   */
+  public void onTrimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+      clearOverlayImageViewPool();
+    }
+  }
+
+  // Overlay surfaces of later frames have the new size of the Flutter view, so they can't reuse
+  // the idle image views.
+  private final View.OnLayoutChangeListener flutterViewSizeListener =
+      (view, left, top, right, bottom, oldLeft, oldTop, oldRight, oldBottom) -> {
+        if (right - left != oldRight - oldLeft || bottom - top != oldBottom - oldTop) {
+          clearOverlayImageViewPool();
+        }
+      };
+
+  @TargetApi(19)
+  @NonNull
+  private FlutterImageViewPool getOverlayImageViewPool() {
+    if (overlayImageViewPool == null) {
+      // Overlay surfaces are as large as the Flutter view, which is at most as large as the
+      // display.
+      final DisplayMetrics displayMetrics = Resources.getSystem().getDisplayMetrics();
+      overlayImageViewPool =
+          new FlutterImageViewPool(
+              (width, height) ->
+                  new FlutterImageView(
+                      flutterView.getContext(),
+                      width,
+                      height,
+                      FlutterImageView.SurfaceKind.overlay),
+              FlutterImageViewPool.sizeInBytes(
+                      displayMetrics.widthPixels,
+                      displayMetrics.heightPixels,
+                      OVERLAY_IMAGE_READER_MAX_IMAGES)
+                  * OVERLAY_IMAGE_VIEW_POOL_SIZE);
+    }
+    return overlayImageViewPool;
+  }
+
+  private void clearOverlayImageViewPool() {
+    if (overlayImageViewPool != null) {
+      overlayImageViewPool.clear();
+    }
   }
 }
@@ -5,6 +5,7 @@
 package io.flutter.view;
 
 import android.graphics.SurfaceTexture;
+import android.view.Surface;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
@@ -31,6 +32,31 @@ public interface TextureRegistry {
   @NonNull
   SurfaceTextureEntry registerSurfaceTexture(@NonNull SurfaceTexture surfaceTexture);
 
+  /**
+   * Creates and registers a texture whose frames are produced into an {@link
+   * android.media.ImageReader} and sampled by the engine as {@link
+   * android.hardware.HardwareBuffer}s, without attaching a SurfaceTexture to the engine's GL
+   * context.
+   *
+   * <p>Image textures require API 29 or above. Callers should check {@link
+   * #supportsImageTextures()} first, and fall back to {@link #createSurfaceTexture()} otherwise.
+   *
+   * @param width The width of the images produced into the texture.
+   * @param height The height of the images produced into the texture.
+   * @param maxImages The number of buffers shared by the producer and the engine, at least 3.
+   *     Larger values let the producer run further ahead of the engine at the cost of memory.
+   * @return An ImageTextureEntry, or null if this registry does not support image textures.
+   */
+  @Nullable
+  default ImageTextureEntry createImageTexture(int width, int height, int maxImages) {
+    return null;
+  }
+
+  /** @return Whether {@link #createImageTexture(int, int, int)} creates textures. */
+  default boolean supportsImageTextures() {
+    return false;
+  }
+
   /** A registry entry for a managed SurfaceTexture. */
   interface SurfaceTextureEntry {
     /** @return The managed SurfaceTexture. */
@@ -45,6 +71,61 @@ public interface TextureRegistry {
 
     /** Set a listener that will be notified when the most recent image has been consumed. */
     default void setOnFrameConsumedListener(@Nullable OnFrameConsumedListener listener) {}
+
+    /**
+     * Limits how often Flutter is notified of new frames of this texture. Frames produced faster
+     * than this rate are collapsed into the most recent one.
+     *
+     * @param framesPerSecond The maximum update rate, or 0 for no limit, which is the default.
+     */
+    default void setMaxFrameRate(float framesPerSecond) {}
+
+    /**
+     * Sets whether new frames of this texture are only forwarded to Flutter on the next vsync, so
+     * that all frames produced within a vsync interval result in a single update. Defaults to
+     * false.
+     */
+    default void setCoalesceToVsync(boolean coalesceToVsync) {}
+
+    /**
+     * Sets whether new frames of this texture are held back while Flutter is not rendering to a
+     * surface, e.g. while the app is in the background. The most recent frame is forwarded once
+     * rendering resumes. Defaults to false.
+     */
+    default void setPauseWhenOffscreen(boolean pauseWhenOffscreen) {}
+
+    /** @return The number of new frames that were collapsed into a later update. */
+    default long suppressedFrameCount() {
+      return 0;
+    }
+  }
+
+  /** A registry entry for a texture backed by an {@link android.media.ImageReader}. */
+  interface ImageTextureEntry {
+    /** @return The surface the producer draws or decodes frames into. */
+    @NonNull
+    Surface getSurface();
+
+    /** @return The identity of this texture. */
+    long id();
+
+    /** @return The number of buffers shared by the producer and the engine. */
+    int maxImages();
+
+    /** @return The number of frames that were sampled by the engine. */
+    long presentedFrameCount();
+
+    /** @return The number of frames that were replaced before the engine could sample them. */
+    long droppedFrameCount();
+
+    /**
+     * @return The average time in nanoseconds between a frame being queued by the producer and its
+     *     sampling by the engine.
+     */
+    long averageLatencyNanos();
+
+    /** Deregisters and releases this texture and its buffers. */
+    void release();
   }
 
   /** Listener invoked when the most recent image has been consumed. */
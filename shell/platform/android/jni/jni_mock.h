@@ -64,6 +64,11 @@ class JNIMock final : public PlatformViewAndroidJNI {
               (JavaLocalRef surface_texture),
               (override));
 
+  MOCK_METHOD(AHardwareBuffer*,
+              ImageTextureAcquireLatestHardwareBuffer,
+              (JavaLocalRef image_texture),
+              (override));
+
   MOCK_METHOD(void,
               FlutterViewOnDisplayPlatformView,
               (int view_id,
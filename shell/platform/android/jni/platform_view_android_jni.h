@@ -17,6 +17,8 @@
 #include "flutter/fml/platform/android/scoped_java_ref.h"
 #endif
 
+struct AHardwareBuffer;
+
 namespace flutter {
 
 #if FML_OS_ANDROID
@@ -109,6 +111,23 @@ class PlatformViewAndroidJNI {
   virtual void SurfaceTextureDetachFromGLContext(
       JavaLocalRef surface_texture) = 0;
 
+  //----------------------------------------------------------------------------
+  /// @brief      Acquires the `HardwareBuffer` of the most recent image
+  ///             produced into an image texture, or of the image currently
+  ///             shown if no newer image is available.
+  ///
+  ///             The reference to the buffer is acquired while the image
+  ///             texture is locked, so that the platform thread cannot
+  ///             close its image in between.
+  ///
+  /// @return     The buffer, or null if no image has been produced yet or the
+  ///             texture was released. The caller owns the acquired
+  ///             reference and must release it with
+  ///             `AHardwareBuffer_release`.
+  ///
+  virtual AHardwareBuffer* ImageTextureAcquireLatestHardwareBuffer(
+      JavaLocalRef image_texture) = 0;
+
   //----------------------------------------------------------------------------
   /// @brief      Positions and sizes a platform view if using hybrid
   ///             composition.
@@ -47,6 +47,9 @@ static fml::jni::ScopedJavaGlobalRef<jclass>* g_java_weak_reference_class =
 
 static fml::jni::ScopedJavaGlobalRef<jclass>* g_texture_wrapper_class = nullptr;
 
+static fml::jni::ScopedJavaGlobalRef<jclass>* g_image_texture_wrapper_class =
+    nullptr;
+
 static fml::jni::ScopedJavaGlobalRef<jclass>* g_java_long_class = nullptr;
 
 // Called By Native
@@ -100,6 +103,19 @@ static jmethodID g_get_transform_matrix_method = nullptr;
 
 static jmethodID g_detach_from_gl_context_method = nullptr;
 
+static jmethodID g_acquire_latest_hardware_buffer_method = nullptr;
+
+// `AHardwareBuffer_fromHardwareBuffer` and `AHardwareBuffer_acquire` are only
+// available on API 26 and above, while the embedder supports older versions.
+using AHardwareBufferFromHardwareBufferProc = AHardwareBuffer* (*)(JNIEnv*,
+                                                                   jobject);
+using AHardwareBufferAcquireProc = void (*)(AHardwareBuffer*);
+
+static AHardwareBufferFromHardwareBufferProc
+    g_hardware_buffer_from_hardware_buffer = nullptr;
+
+static AHardwareBufferAcquireProc g_hardware_buffer_acquire = nullptr;
+
 static jmethodID g_compute_platform_resolved_locale_method = nullptr;
 
 static jmethodID g_request_dart_deferred_library_method = nullptr;
@@ -497,6 +513,17 @@ static void RegisterTexture(JNIEnv* env,
   );
 }
 
+static void RegisterImageTexture(JNIEnv* env,
+                                 jobject jcaller,
+                                 jlong shell_holder,
+                                 jlong texture_id,
+                                 jobject image_texture) {
+  ANDROID_SHELL_HOLDER->GetPlatformView()->RegisterImageTexture(
+      static_cast<int64_t>(texture_id),                           //
+      fml::jni::ScopedJavaGlobalRef<jobject>(env, image_texture)  //
+  );
+}
+
 static void MarkTextureFrameAvailable(JNIEnv* env,
                                       jobject jcaller,
                                       jlong shell_holder,
@@ -764,6 +791,12 @@ bool RegisterApi(JNIEnv* env) {
                        "WeakReference;)V",
           .fnPtr = reinterpret_cast<void*>(&RegisterTexture),
       },
+      {
+          .name = "nativeRegisterImageTexture",
+          .signature = "(JJLjava/lang/ref/"
+                       "WeakReference;)V",
+          .fnPtr = reinterpret_cast<void*>(&RegisterImageTexture),
+      },
       {
           .name = "nativeMarkTextureFrameAvailable",
           .signature = "(JJ)V",
@@ -1107,6 +1140,38 @@ bool PlatformViewAndroid::Register(JNIEnv* env) {
     return false;
   }
 
+  g_image_texture_wrapper_class = new fml::jni::ScopedJavaGlobalRef<jclass>(
+      env, env->FindClass(
+               "io/flutter/embedding/engine/renderer/ImageTextureWrapper"));
+  if (g_image_texture_wrapper_class->is_null()) {
+    FML_LOG(ERROR) << "Could not locate ImageTextureWrapper class";
+    return false;
+  }
+
+  g_acquire_latest_hardware_buffer_method =
+      env->GetMethodID(g_image_texture_wrapper_class->obj(),
+                       "acquireLatestHardwareBuffer",
+                       "()Landroid/hardware/HardwareBuffer;");
+
+  if (g_acquire_latest_hardware_buffer_method == nullptr) {
+    FML_LOG(ERROR) << "Could not locate acquireLatestHardwareBuffer method";
+    return false;
+  }
+
+  auto libandroid = fml::NativeLibrary::Create("libandroid.so");
+  if (libandroid) {
+    g_hardware_buffer_from_hardware_buffer =
+        libandroid
+            ->ResolveFunction<AHardwareBufferFromHardwareBufferProc>(
+                "AHardwareBuffer_fromHardwareBuffer")
+            .value_or(nullptr);
+    g_hardware_buffer_acquire =
+        libandroid
+            ->ResolveFunction<AHardwareBufferAcquireProc>(
+                "AHardwareBuffer_acquire")
+            .value_or(nullptr);
+  }
+
   g_compute_platform_resolved_locale_method = env->GetMethodID(
       g_flutter_jni_class->obj(), "computePlatformResolvedLocale",
       "([Ljava/lang/String;)[Ljava/lang/String;");
@@ -1390,6 +1455,47 @@ void PlatformViewAndroidJNIImpl::SurfaceTextureDetachFromGLContext(
   FML_CHECK(fml::jni::CheckException(env));
 }
 
+AHardwareBuffer*
+PlatformViewAndroidJNIImpl::ImageTextureAcquireLatestHardwareBuffer(
+    JavaLocalRef image_texture) {
+  JNIEnv* env = fml::jni::AttachCurrentThread();
+
+  if (image_texture.is_null() ||
+      g_hardware_buffer_from_hardware_buffer == nullptr ||
+      g_hardware_buffer_acquire == nullptr) {
+    return nullptr;
+  }
+
+  fml::jni::ScopedJavaLocalRef<jobject> image_texture_local_ref(
+      env, env->CallObjectMethod(image_texture.obj(),
+                                 g_java_weak_reference_get_method));
+  if (image_texture_local_ref.is_null()) {
+    return nullptr;
+  }
+
+  // Hold the lock of the `ImageTextureWrapper` until the buffer is acquired,
+  // so that `ImageTextureWrapper.release` cannot close its image in between.
+  if (env->MonitorEnter(image_texture_local_ref.obj()) != JNI_OK) {
+    return nullptr;
+  }
+
+  JavaLocalRef hardware_buffer(
+      env, env->CallObjectMethod(image_texture_local_ref.obj(),
+                                 g_acquire_latest_hardware_buffer_method));
+
+  AHardwareBuffer* buffer = nullptr;
+  if (!env->ExceptionCheck() && !hardware_buffer.is_null()) {
+    buffer = g_hardware_buffer_from_hardware_buffer(env, hardware_buffer.obj());
+    if (buffer != nullptr) {
+      g_hardware_buffer_acquire(buffer);
+    }
+  }
+
+  env->MonitorExit(image_texture_local_ref.obj());
+  FML_CHECK(fml::jni::CheckException(env));
+  return buffer;
+}
+
 void PlatformViewAndroidJNIImpl::FlutterViewOnDisplayPlatformView(
     int view_id,
     int x,
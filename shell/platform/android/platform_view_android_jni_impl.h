@@ -52,6 +52,9 @@ class PlatformViewAndroidJNIImpl final : public PlatformViewAndroidJNI {
 
   void SurfaceTextureDetachFromGLContext(JavaLocalRef surface_texture) override;
 
+  AHardwareBuffer* ImageTextureAcquireLatestHardwareBuffer(
+      JavaLocalRef image_texture) override;
+
   void FlutterViewOnDisplayPlatformView(int view_id,
                                         int x,
                                         int y,
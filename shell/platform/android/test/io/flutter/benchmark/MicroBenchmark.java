@@ -0,0 +1,153 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * A minimal harness for the microbenchmarks of the embedding, which run as JUnit tests.
+ *
+ * <p>Each benchmark is warmed up, then measured over several fixed duration iterations. The
+ * throughput and, when the JVM can report it, the number of bytes allocated per operation are
+ * printed to the standard output of the test.
+ *
+ * <p>By default the benchmarks only run a few short iterations, so that they are exercised by
+ * every test run without slowing it down. Pass {@code --full-java-benchmarks} to {@code
+ * testing/run_tests.py}, which sets the {@code flutter.benchmark} system property to {@code full},
+ * for measurements that are stable enough to compare. Full runs also write each result as a JSON
+ * file to the directory in the {@code flutter.benchmark.results_dir} system property, which {@code
+ * run_tests.py} collects into a single file.
+ *
+ * <p>The tests run under Robolectric, which instruments Android framework classes, so the numbers
+ * are meant to compare revisions of the embedding on the same machine, not to predict device
+ * performance.
+ */
+public final class MicroBenchmark {
+  /** An operation to measure. Its result is consumed so that it cannot be optimized away. */
+  public interface Operation {
+    Object run() throws Exception;
+  }
+
+  /** The measurements of a benchmark. */
+  public static final class Result {
+    public final String name;
+    public final double operationsPerSecond;
+    /** The bytes allocated per operation, or -1 if the JVM does not report allocations. */
+    public final double bytesPerOperation;
+
+    Result(String name, double operationsPerSecond, double bytesPerOperation) {
+      this.name = name;
+      this.operationsPerSecond = operationsPerSecond;
+      this.bytesPerOperation = bytesPerOperation;
+    }
+
+    /** Returns the result in the format of the files that {@code run_tests.py} collects. */
+    public JSONObject toJson() throws JSONException {
+      final JSONObject json = new JSONObject();
+      json.put("name", name);
+      json.put("operations_per_second", operationsPerSecond);
+      json.put("bytes_per_operation", bytesPerOperation);
+      return json;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(
+          Locale.US,
+          "Benchmark %-56s %14.1f ops/s %12.1f B/op",
+          name,
+          operationsPerSecond,
+          bytesPerOperation);
+    }
+  }
+
+  private static final boolean FULL = "full".equals(System.getProperty("flutter.benchmark"));
+  private static final String RESULTS_DIR = System.getProperty("flutter.benchmark.results_dir");
+  private static final int WARMUP_ITERATIONS = FULL ? 5 : 1;
+  private static final int MEASUREMENT_ITERATIONS = FULL ? 10 : 2;
+  private static final long ITERATION_NANOS = FULL ? 1_000_000_000L : 20_000_000L;
+
+  // Consumes the results of the operations.
+  private static volatile int sink;
+
+  private MicroBenchmark() {}
+
+  /** Measures the operation, prints and records the result, and returns it. */
+  public static Result run(String name, Operation operation) throws Exception {
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      runIteration(operation);
+    }
+    final long startBytes = allocatedBytes();
+    long operations = 0;
+    long nanos = 0;
+    for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+      final long start = System.nanoTime();
+      operations += runIteration(operation);
+      nanos += System.nanoTime() - start;
+    }
+    final long endBytes = allocatedBytes();
+    final Result result =
+        new Result(
+            name,
+            operations * 1e9 / nanos,
+            startBytes < 0 ? -1 : (double) (endBytes - startBytes) / operations);
+    System.out.println(result);
+    if (FULL && RESULTS_DIR != null) {
+      writeResult(new File(RESULTS_DIR), result);
+    }
+    return result;
+  }
+
+  // Writes the result to its own file, since the test classes can run in separate processes.
+  private static void writeResult(File resultsDir, Result result)
+      throws IOException, JSONException {
+    if (!resultsDir.isDirectory() && !resultsDir.mkdirs()) {
+      throw new IOException("Failed to create " + resultsDir);
+    }
+    try (Writer writer =
+        new OutputStreamWriter(
+            new FileOutputStream(new File(resultsDir, result.name + ".json")),
+            StandardCharsets.UTF_8)) {
+      writer.write(result.toJson().toString());
+    }
+  }
+
+  private static long runIteration(Operation operation) throws Exception {
+    final long deadline = System.nanoTime() + ITERATION_NANOS;
+    long operations = 0;
+    int consumed = 0;
+    do {
+      // Check the clock every few operations, since reading it is not free.
+      for (int i = 0; i < 16; i++) {
+        consumed ^= System.identityHashCode(operation.run());
+      }
+      operations += 16;
+    } while (System.nanoTime() < deadline);
+    sink ^= consumed;
+    return operations;
+  }
+
+  /** Returns the bytes allocated by the current thread, or -1 if the JVM does not report them. */
+  private static long allocatedBytes() {
+    final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (bean instanceof com.sun.management.ThreadMXBean) {
+      final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+      if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1;
+  }
+}
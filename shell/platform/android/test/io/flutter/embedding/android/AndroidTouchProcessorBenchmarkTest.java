@@ -0,0 +1,84 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import static org.junit.Assert.assertTrue;
+
+import android.view.InputDevice;
+import android.view.MotionEvent;
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.benchmark.MicroBenchmark;
+import io.flutter.embedding.engine.FlutterJNI;
+import io.flutter.embedding.engine.renderer.FlutterRenderer;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+/** Cost of converting motion events to pointer data packets. */
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class AndroidTouchProcessorBenchmarkTest {
+  // Drops the packets instead of sending them to the engine.
+  private static class FakeFlutterJNI extends FlutterJNI {
+    @Override
+    public void dispatchPointerDataPacket(@NonNull ByteBuffer buffer, int position) {}
+  }
+
+  private static MotionEvent obtainMoveEvent(int pointerCount) {
+    final MotionEvent.PointerProperties[] properties =
+        new MotionEvent.PointerProperties[pointerCount];
+    final MotionEvent.PointerCoords[] coords = new MotionEvent.PointerCoords[pointerCount];
+    for (int i = 0; i < pointerCount; i++) {
+      properties[i] = new MotionEvent.PointerProperties();
+      properties[i].id = i;
+      properties[i].toolType = MotionEvent.TOOL_TYPE_FINGER;
+      coords[i] = new MotionEvent.PointerCoords();
+      coords[i].x = 10 * i;
+      coords[i].y = 20 * i;
+      coords[i].pressure = 1;
+      coords[i].size = 1;
+    }
+    return MotionEvent.obtain(
+        0,
+        16,
+        MotionEvent.ACTION_MOVE,
+        pointerCount,
+        properties,
+        coords,
+        0,
+        0,
+        1,
+        1,
+        0,
+        0,
+        InputDevice.SOURCE_TOUCHSCREEN,
+        0);
+  }
+
+  private static void benchmarkMoveEvents(String name, int pointerCount) throws Exception {
+    final AndroidTouchProcessor processor =
+        new AndroidTouchProcessor(new FlutterRenderer(new FakeFlutterJNI()), false);
+    final MotionEvent event = obtainMoveEvent(pointerCount);
+    try {
+      final MicroBenchmark.Result result =
+          MicroBenchmark.run(name, () -> processor.onTouchEvent(event));
+      assertTrue(result.operationsPerSecond > 0);
+    } finally {
+      event.recycle();
+    }
+  }
+
+  @Test
+  public void singlePointerMove() throws Exception {
+    benchmarkMoveEvents("AndroidTouchProcessor.singlePointerMove", 1);
+  }
+
+  @Test
+  public void multiplePointerMove() throws Exception {
+    benchmarkMoveEvents("AndroidTouchProcessor.multiplePointerMove", 5);
+  }
+}
@@ -861,6 +861,10 @@ public class FlutterActivityAndFragmentDelegateTest {
     delegate.onTrimMemory(TRIM_MEMORY_UI_HIDDEN);
     verify(mockFlutterEngine.getDartExecutor(), times(6)).notifyLowMemoryWarning();
     verify(mockFlutterEngine.getSystemChannel(), times(6)).sendMemoryPressureWarning();
+
+    // Platform views release their memory even before the first frame.
+    verify(mockFlutterEngine.getPlatformViewsController(), times(2))
+        .onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
   }
 
   @Test
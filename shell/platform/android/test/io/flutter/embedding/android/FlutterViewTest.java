@@ -2,12 +2,15 @@ package io.flutter.embedding.android;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotSame;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -54,6 +57,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
@@ -869,6 +873,57 @@ public class FlutterViewTest {
     verify(mockReader, times(6)).acquireLatestImage();
   }
 
+  @Test
+  @Config(sdk = 28)
+  @SuppressLint("WrongCall") /*View#onDraw*/
+  public void flutterImageView_copiesEachImageOnce() {
+    final ImageReader mockReader = mock(ImageReader.class);
+    when(mockReader.getMaxImages()).thenReturn(3);
+
+    final Image mockImage = mock(Image.class);
+    when(mockImage.getPlanes()).thenReturn(new Plane[0]);
+    when(mockReader.acquireLatestImage()).thenReturn(mockImage);
+
+    final FlutterImageView imageView =
+        spy(new FlutterImageView(ctx, mockReader, FlutterImageView.SurfaceKind.background));
+    imageView.attachToRenderer(new FlutterRenderer(mock(FlutterJNI.class)));
+    doNothing().when(imageView).invalidate();
+
+    assertTrue(imageView.acquireLatestImage());
+    imageView.onDraw(mock(Canvas.class));
+    imageView.onDraw(mock(Canvas.class));
+    verify(mockImage, times(1)).getPlanes();
+
+    assertTrue(imageView.acquireLatestImage());
+    imageView.onDraw(mock(Canvas.class));
+    verify(mockImage, times(2)).getPlanes();
+  }
+
+  @Test
+  @Config(sdk = 28)
+  public void flutterImageView_submitsImagesToBackgroundCopier() {
+    final ImageReader mockReader = mock(ImageReader.class);
+    when(mockReader.getMaxImages()).thenReturn(3);
+
+    final Image mockImage = mock(Image.class);
+    when(mockReader.acquireLatestImage()).thenReturn(mockImage);
+
+    final FlutterImageView imageView =
+        spy(new FlutterImageView(ctx, mockReader, FlutterImageView.SurfaceKind.background));
+    imageView.attachToRenderer(new FlutterRenderer(mock(FlutterJNI.class)));
+    final ImageBitmapCopier copier = mock(ImageBitmapCopier.class);
+    imageView.useBackgroundCopy(copier);
+
+    assertTrue(imageView.acquireLatestImage());
+    verify(copier, times(1)).submit(mockImage);
+    // The copier owns the image.
+    verify(mockImage, never()).close();
+
+    imageView.closeImageReader();
+    verify(copier, times(1)).clear();
+    verify(mockReader, times(1)).close();
+  }
+
   @Test
   public void flutterImageView_detachFromRendererClosesPreviousImage() {
     final ImageReader mockReader = mock(ImageReader.class);
@@ -915,6 +970,63 @@ public class FlutterViewTest {
     assertEquals(1, imageView.getImageReader().getHeight());
   }
 
+  @Test
+  @TargetApi(29)
+  @Config(sdk = 29)
+  public void flutterImageView_overlayReaderHoldsTwoImages() {
+    final ImageReader overlayReader =
+        FlutterImageView.createImageReader(10, 10, FlutterImageView.SurfaceKind.overlay);
+    final ImageReader backgroundReader =
+        FlutterImageView.createImageReader(10, 10, FlutterImageView.SurfaceKind.background);
+    assertEquals(2, overlayReader.getMaxImages());
+    assertEquals(3, backgroundReader.getMaxImages());
+  }
+
+  @Test
+  public void flutterImageView_overlayClosesCurrentImageBeforeSkippingImages() {
+    final ImageReader mockReader = mock(ImageReader.class);
+    when(mockReader.getMaxImages()).thenReturn(2);
+    final Image firstImage = mock(Image.class);
+    final Image secondImage = mock(Image.class);
+    final Image thirdImage = mock(Image.class);
+    when(mockReader.acquireNextImage())
+        .thenReturn(firstImage, (Image) null)
+        .thenReturn(secondImage, thirdImage, null);
+
+    final FlutterImageView imageView =
+        spy(new FlutterImageView(ctx, mockReader, FlutterImageView.SurfaceKind.overlay));
+    imageView.attachToRenderer(new FlutterRenderer(mock(FlutterJNI.class)));
+    doNothing().when(imageView).invalidate();
+
+    assertTrue(imageView.acquireLatestImage());
+    assertTrue(imageView.acquireLatestImage());
+    final InOrder inOrder = inOrder(firstImage, secondImage, mockReader);
+    inOrder.verify(firstImage).close();
+    inOrder.verify(mockReader).acquireNextImage();
+    inOrder.verify(secondImage).close();
+    verify(thirdImage, never()).close();
+
+    assertFalse(imageView.acquireLatestImage());
+    verify(thirdImage, never()).close();
+    verify(mockReader, never()).acquireLatestImage();
+  }
+
+  @Test
+  public void flutterImageView_resizeClosesPreviousReader() {
+    final ImageReader mockReader = mock(ImageReader.class);
+    when(mockReader.getWidth()).thenReturn(100);
+    when(mockReader.getHeight()).thenReturn(200);
+
+    final FlutterImageView imageView =
+        new FlutterImageView(ctx, mockReader, FlutterImageView.SurfaceKind.background);
+    imageView.attachToRenderer(new FlutterRenderer(mock(FlutterJNI.class)));
+
+    imageView.resizeIfNeeded(100, 120);
+    assertNotSame(mockReader, imageView.getImageReader());
+    assertEquals(120, imageView.getImageReader().getHeight());
+    verify(mockReader, times(1)).close();
+  }
+
   @Test
   public void flutterImageView_closesReader() {
     final ImageReader mockReader = mock(ImageReader.class);
@@ -0,0 +1,100 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.annotation.TargetApi;
+import android.graphics.Bitmap;
+import android.media.Image;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+@TargetApi(19)
+public class ImageBitmapCopierTest {
+  private static Image mockImage(int width, int height) {
+    final Image.Plane plane = mock(Image.Plane.class);
+    when(plane.getPixelStride()).thenReturn(4);
+    when(plane.getRowStride()).thenReturn(width * 4);
+    when(plane.getBuffer()).thenReturn(ByteBuffer.allocate(width * height * 4));
+    final Image image = mock(Image.class);
+    when(image.getHeight()).thenReturn(height);
+    when(image.getPlanes()).thenReturn(new Image.Plane[] {plane});
+    return image;
+  }
+
+  private static ImageBitmapCopier createCopier(ImageBitmapCopier.Listener listener) {
+    final Handler handler = new Handler(Looper.getMainLooper());
+    return new ImageBitmapCopier(handler, handler, listener);
+  }
+
+  @Test
+  public void copyToBitmapReusesBitmapOfTheSameSize() {
+    final Bitmap bitmap = ImageBitmapCopier.copyToBitmap(mockImage(4, 2), null);
+    assertNotNull(bitmap);
+    assertEquals(4, bitmap.getWidth());
+    assertEquals(2, bitmap.getHeight());
+
+    assertSame(bitmap, ImageBitmapCopier.copyToBitmap(mockImage(4, 2), bitmap));
+    assertEquals(8, ImageBitmapCopier.copyToBitmap(mockImage(8, 2), bitmap).getWidth());
+  }
+
+  @Test
+  public void copiesLatestImageAndDropsReplacedOnes() {
+    final ImageBitmapCopier.Listener listener = mock(ImageBitmapCopier.Listener.class);
+    final ImageBitmapCopier copier = createCopier(listener);
+    final Image staleImage = mockImage(4, 2);
+    final Image latestImage = mockImage(4, 2);
+
+    copier.submit(staleImage);
+    copier.submit(latestImage);
+    verify(staleImage, times(1)).close();
+    assertEquals(1, copier.droppedImageCount());
+    assertNull(copier.acquireLatestBitmap());
+
+    shadowOf(Looper.getMainLooper()).idle();
+
+    verify(staleImage, never()).getPlanes();
+    verify(latestImage, times(1)).close();
+    verify(listener, times(1)).onBitmapReady();
+    final Bitmap bitmap = copier.acquireLatestBitmap();
+    assertNotNull(bitmap);
+    // Without a new copy, the same bitmap is drawn again.
+    assertSame(bitmap, copier.acquireLatestBitmap());
+  }
+
+  @Test
+  public void clearDropsPendingImageAndBitmaps() {
+    final ImageBitmapCopier.Listener listener = mock(ImageBitmapCopier.Listener.class);
+    final ImageBitmapCopier copier = createCopier(listener);
+    copier.submit(mockImage(4, 2));
+    shadowOf(Looper.getMainLooper()).idle();
+    final Image pendingImage = mockImage(4, 2);
+    copier.submit(pendingImage);
+
+    copier.clear();
+    shadowOf(Looper.getMainLooper()).idle();
+
+    verify(pendingImage, times(1)).close();
+    verify(pendingImage, never()).getPlanes();
+    assertNull(copier.acquireLatestBitmap());
+  }
+}
@@ -19,8 +19,12 @@ import android.view.KeyEvent;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.engine.dart.DartExecutor;
+import io.flutter.embedding.engine.systemchannels.KeyboardChannel;
 import io.flutter.plugin.common.BinaryMessenger;
 import io.flutter.plugin.common.JSONMessageCodec;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.MethodChannel;
 import io.flutter.util.FakeKeyEvent;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
@@ -192,6 +196,8 @@ public class KeyboardManagerTest {
 
       mockView = mock(KeyboardManager.ViewDelegate.class);
       doAnswer(invocation -> mockMessenger).when(mockView).getBinaryMessenger();
+      keyboardChannel = new KeyboardChannel(mock(DartExecutor.class));
+      doAnswer(invocation -> keyboardChannel).when(mockView).getKeyboardChannel();
       doAnswer(invocation -> textInputResult)
           .when(mockView)
           .onTextInputKeyEvent(any(KeyEvent.class));
@@ -209,8 +215,15 @@ public class KeyboardManagerTest {
     }
 
     public @Mock KeyboardManager.ViewDelegate mockView;
+    public KeyboardChannel keyboardChannel;
     public KeyboardManager keyboardManager;
 
+    /** Sends {@code setLegacyKeyEventsEnabled} from the framework. */
+    public void setLegacyKeyEventsEnabled(boolean enabled) {
+      keyboardChannel.synthesizeMethodCall(
+          new MethodCall("setLegacyKeyEventsEnabled", enabled), mock(MethodChannel.Result.class));
+    }
+
     /** Set channel calls to respond immediately with the given response. */
     public void respondToChannelCallsWith(boolean handled) {
       channelHandler =
@@ -555,6 +568,65 @@ public class KeyboardManagerTest {
     verify(tester.mockView, times(0)).redispatch(any(KeyEvent.class));
   }
 
+  @Test
+  public void legacyChannelCanBeDisabled() {
+    final KeyboardTester tester = new KeyboardTester();
+    final KeyEvent keyEvent = new FakeKeyEvent(ACTION_DOWN, SCAN_KEY_A, KEYCODE_A, 0, 'a', 0);
+    final ArrayList<CallRecord> calls = new ArrayList<>();
+
+    tester.recordChannelCallsTo(calls);
+    tester.recordEmbedderCallsTo(calls);
+    tester.setLegacyKeyEventsEnabled(false);
+    assertEquals(false, tester.keyboardManager.isLegacyKeyEventsEnabled());
+
+    final boolean result = tester.keyboardManager.handleEvent(keyEvent);
+
+    assertEquals(true, result);
+    assertEquals(calls.size(), 1);
+    assertEquals(calls.get(0).kind, CallRecord.Kind.kEmbedder);
+
+    // The embedder responder alone decides the result.
+    calls.get(0).reply.accept(false);
+    verify(tester.mockView, times(1)).onTextInputKeyEvent(any(KeyEvent.class));
+  }
+
+  @Test
+  public void legacyChannelSettingAppliesToAllViewsOfTheEngine() {
+    final KeyboardTester tester = new KeyboardTester();
+    tester.setLegacyKeyEventsEnabled(false);
+
+    // A view that is attached later reads the current setting.
+    final KeyboardManager laterManager = new KeyboardManager(tester.mockView);
+    assertEquals(false, laterManager.isLegacyKeyEventsEnabled());
+
+    // Destroying one view does not affect the others.
+    laterManager.destroy();
+    assertEquals(false, tester.keyboardManager.isLegacyKeyEventsEnabled());
+
+    tester.setLegacyKeyEventsEnabled(true);
+    assertEquals(true, tester.keyboardManager.isLegacyKeyEventsEnabled());
+  }
+
+  @Test
+  public void keyDataSerializerReusesBuffer() {
+    final KeyData.Serializer serializer = new KeyData.Serializer();
+    final KeyData data = new KeyData();
+    data.type = Type.kDown;
+    data.physicalKey = PHYSICAL_KEY_A;
+    data.logicalKey = LOGICAL_KEY_A;
+    data.character = "a";
+
+    final ByteBuffer first = serializer.serialize(data);
+    data.type = Type.kUp;
+    data.character = null;
+    final ByteBuffer second = serializer.serialize(data);
+
+    assertTrue(first == second);
+    second.rewind();
+    final KeyData decoded = new KeyData(second);
+    assertEmbedderEventEquals(decoded, Type.kUp, PHYSICAL_KEY_A, LOGICAL_KEY_A, null, false);
+  }
+
   @Test
   public void embedderReponderHandlesEvents() {
     final KeyboardTester tester = new KeyboardTester();
@@ -0,0 +1,90 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class LongLongMapTest {
+  @Test
+  public void putGetAndRemove() {
+    final LongLongMap map = new LongLongMap();
+    assertTrue(map.isEmpty());
+
+    assertFalse(map.put(0x00070004L, 0x61L));
+    assertTrue(map.put(0x00070004L, 0x62L));
+    assertEquals(1, map.size());
+    assertEquals(0x62L, map.get(0x00070004L, -1L));
+    assertEquals(-1L, map.get(0x00070005L, -1L));
+
+    assertTrue(map.remove(0x00070004L));
+    assertFalse(map.remove(0x00070004L));
+    assertFalse(map.containsKey(0x00070004L));
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void supportsZeroKey() {
+    final LongLongMap map = new LongLongMap();
+    assertFalse(map.containsKey(0L));
+    assertFalse(map.put(0L, 5L));
+    assertTrue(map.containsKey(0L));
+    assertEquals(5L, map.get(0L, -1L));
+    assertEquals(1, map.size());
+    assertTrue(map.remove(0L));
+    assertFalse(map.containsKey(0L));
+  }
+
+  @Test
+  public void matchesHashMapUnderRandomOperations() {
+    final LongLongMap map = new LongLongMap();
+    final Map<Long, Long> expected = new HashMap<>();
+    final Random random = new Random(42);
+    for (int i = 0; i < 10000; i += 1) {
+      // A small key range forces collisions, removals within probe chains and growth.
+      final long key = KeyboardMap.kAndroidPlane | random.nextInt(200);
+      if (random.nextBoolean()) {
+        final long value = random.nextLong();
+        assertEquals(expected.put(key, value) != null, map.put(key, value));
+      } else {
+        assertEquals(expected.remove(key) != null, map.remove(key));
+      }
+      assertEquals(expected.size(), map.size());
+    }
+    for (long key = 0; key < 200; key += 1) {
+      final long planeKey = KeyboardMap.kAndroidPlane | key;
+      assertEquals(expected.containsKey(planeKey), map.containsKey(planeKey));
+      if (expected.containsKey(planeKey)) {
+        assertEquals((long) expected.get(planeKey), map.get(planeKey, 0L));
+      }
+    }
+  }
+
+  @Test
+  public void keyCodeTablesMatchKeyboardMap() {
+    for (final Map.Entry<Long, Long> entry : KeyboardMap.scanCodeToPhysical.entrySet()) {
+      assertEquals(
+          (long) entry.getValue(),
+          KeyCodeTable.scanCodeToPhysical.get(entry.getKey().intValue()));
+    }
+    for (final Map.Entry<Long, Long> entry : KeyboardMap.keyCodeToLogical.entrySet()) {
+      assertEquals(
+          (long) entry.getValue(), KeyCodeTable.keyCodeToLogical.get(entry.getKey().intValue()));
+    }
+    assertEquals(KeyCodeTable.NOT_FOUND, KeyCodeTable.keyCodeToLogical.get(-1));
+    assertEquals(KeyCodeTable.NOT_FOUND, KeyCodeTable.keyCodeToLogical.get(100000));
+  }
+}
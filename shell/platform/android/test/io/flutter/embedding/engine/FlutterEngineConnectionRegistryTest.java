@@ -1,8 +1,10 @@
 package io.flutter.embedding.engine;
 
+import static android.os.Looper.getMainLooper;
 import static org.junit.Assert.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.app.Activity;
 import android.content.Context;
@@ -10,22 +12,36 @@ import android.content.Intent;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.Lifecycle;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.FlutterInjector;
 import io.flutter.embedding.android.ExclusiveAppComponent;
 import io.flutter.embedding.engine.loader.FlutterLoader;
+import io.flutter.embedding.engine.plugins.DeferrableFlutterPlugin;
 import io.flutter.embedding.engine.plugins.FlutterPlugin;
 import io.flutter.embedding.engine.plugins.activity.ActivityAware;
 import io.flutter.embedding.engine.plugins.activity.ActivityPluginBinding;
+import io.flutter.embedding.engine.renderer.FlutterRenderer;
+import io.flutter.embedding.engine.renderer.FlutterUiDisplayListener;
 import io.flutter.plugin.common.PluginRegistry;
 import io.flutter.plugin.platform.PlatformViewsController;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.annotation.Config;
 
 // Run with Robolectric so that Log calls don't crash.
 @Config(manifest = Config.NONE)
 @RunWith(AndroidJUnit4.class)
 public class FlutterEngineConnectionRegistryTest {
+  @After
+  public void tearDown() {
+    FlutterInjector.reset();
+  }
+
   @Test
   public void itDoesNotRegisterTheSamePluginTwice() {
     Context context = mock(Context.class);
@@ -143,6 +159,193 @@ public class FlutterEngineConnectionRegistryTest {
     verify(platformViewsController).setSoftwareRendering(true);
   }
 
+  private FlutterEngine mockFlutterEngine() {
+    FlutterEngine flutterEngine = mock(FlutterEngine.class);
+    PlatformViewsController platformViewsController = mock(PlatformViewsController.class);
+    when(flutterEngine.getPlatformViewsController()).thenReturn(platformViewsController);
+    FlutterRenderer flutterRenderer = mock(FlutterRenderer.class);
+    when(flutterEngine.getRenderer()).thenReturn(flutterRenderer);
+    return flutterEngine;
+  }
+
+  private FlutterUiDisplayListener captureFirstFrameListener(FlutterEngine flutterEngine) {
+    ArgumentCaptor<FlutterUiDisplayListener> listenerCaptor =
+        ArgumentCaptor.forClass(FlutterUiDisplayListener.class);
+    verify(flutterEngine.getRenderer()).addIsDisplayingFlutterUiListener(listenerCaptor.capture());
+    return listenerCaptor.getValue();
+  }
+
+  @Test
+  public void itAttachesDeferrablePluginsAfterTheFirstFrame() {
+    FlutterEngine flutterEngine = mockFlutterEngine();
+    FlutterEngineConnectionRegistry registry =
+        new FlutterEngineConnectionRegistry(
+            mock(Context.class), flutterEngine, mock(FlutterLoader.class));
+    FakeFlutterPlugin plugin = new FakeFlutterPlugin();
+    FakeDeferrableFlutterPlugin deferrablePlugin = new FakeDeferrableFlutterPlugin(false);
+
+    registry.add(plugin);
+    registry.add(deferrablePlugin);
+    assertTrue(registry.has(plugin.getClass()));
+    assertEquals(1, plugin.attachmentCallCount);
+    assertFalse(registry.has(deferrablePlugin.getClass()));
+    assertEquals(0, deferrablePlugin.attachmentCallCount);
+
+    captureFirstFrameListener(flutterEngine).onFlutterUiDisplayed();
+    shadowOf(getMainLooper()).idle();
+    assertTrue(registry.has(deferrablePlugin.getClass()));
+    assertEquals(1, deferrablePlugin.attachmentCallCount);
+    assertTrue(deferrablePlugin.attachedOnMainThread);
+
+    // Once the first frame is displayed, deferrable plugins are attached right away.
+    FakeBackgroundDeferrableFlutterPlugin laterPlugin =
+        new FakeBackgroundDeferrableFlutterPlugin();
+    registry.add(laterPlugin);
+    assertTrue(registry.has(laterPlugin.getClass()));
+    assertEquals(1, laterPlugin.attachmentCallCount);
+  }
+
+  @Test
+  public void itAttachesDeferrablePluginsInTheBackgroundWhenTheyAllowIt() {
+    ExecutorService executorService = mock(ExecutorService.class);
+    doAnswer(
+            invocation -> {
+              // Run the task on another thread, and wait for it.
+              Thread thread = new Thread((Runnable) invocation.getArgument(0));
+              thread.start();
+              thread.join();
+              return null;
+            })
+        .when(executorService)
+        .execute(any(Runnable.class));
+    FlutterInjector.setInstance(
+        new FlutterInjector.Builder()
+            .setFlutterLoader(mock(FlutterLoader.class))
+            .setExecutorService(executorService)
+            .build());
+    FlutterEngine flutterEngine = mockFlutterEngine();
+    FlutterEngineConnectionRegistry registry =
+        new FlutterEngineConnectionRegistry(
+            mock(Context.class), flutterEngine, mock(FlutterLoader.class));
+    FakeDeferrableFlutterPlugin plugin = new FakeDeferrableFlutterPlugin(true);
+
+    registry.add(plugin);
+    captureFirstFrameListener(flutterEngine).onFlutterUiDisplayed();
+    assertEquals(1, plugin.attachmentCallCount);
+    assertFalse(plugin.attachedOnMainThread);
+    // The plugin is added to the registry on the main thread.
+    assertFalse(registry.has(plugin.getClass()));
+
+    shadowOf(getMainLooper()).idle();
+    assertTrue(registry.has(plugin.getClass()));
+    assertTrue(registry.getPluginAttachTimesNanos().containsKey(plugin.getClass()));
+  }
+
+  @Test
+  public void itForgetsBackgroundPluginsThatFailToAttach() {
+    ExecutorService executorService = mock(ExecutorService.class);
+    doAnswer(
+            invocation -> {
+              ((Runnable) invocation.getArgument(0)).run();
+              return null;
+            })
+        .when(executorService)
+        .execute(any(Runnable.class));
+    FlutterInjector.setInstance(
+        new FlutterInjector.Builder()
+            .setFlutterLoader(mock(FlutterLoader.class))
+            .setExecutorService(executorService)
+            .build());
+    FlutterEngine flutterEngine = mockFlutterEngine();
+    FlutterEngineConnectionRegistry registry =
+        new FlutterEngineConnectionRegistry(
+            mock(Context.class), flutterEngine, mock(FlutterLoader.class));
+    FakeDeferrableFlutterPlugin plugin = new FakeDeferrableFlutterPlugin(true);
+    plugin.failToAttach = true;
+
+    registry.add(plugin);
+    captureFirstFrameListener(flutterEngine).onFlutterUiDisplayed();
+    shadowOf(getMainLooper()).idle();
+    assertFalse(registry.has(plugin.getClass()));
+
+    // The failed plugin no longer blocks another attempt to add it.
+    plugin.failToAttach = false;
+    registry.add(plugin);
+    assertTrue(registry.has(plugin.getClass()));
+    assertEquals(2, plugin.attachmentCallCount);
+  }
+
+  @Test
+  public void itAttachesDeferrablePluginsIfTheFirstFrameTakesTooLong() {
+    FlutterEngineConnectionRegistry registry =
+        new FlutterEngineConnectionRegistry(
+            mock(Context.class), mockFlutterEngine(), mock(FlutterLoader.class));
+    FakeDeferrableFlutterPlugin plugin = new FakeDeferrableFlutterPlugin(false);
+
+    registry.add(plugin);
+    shadowOf(getMainLooper()).idleFor(1000, TimeUnit.MILLISECONDS);
+    assertFalse(registry.has(plugin.getClass()));
+
+    shadowOf(getMainLooper()).idleFor(5000, TimeUnit.MILLISECONDS);
+    assertTrue(registry.has(plugin.getClass()));
+    assertEquals(1, plugin.attachmentCallCount);
+  }
+
+  @Test
+  public void itDoesNotAttachDeferredPluginsThatWereRemoved() {
+    FlutterEngine flutterEngine = mockFlutterEngine();
+    FlutterEngineConnectionRegistry registry =
+        new FlutterEngineConnectionRegistry(
+            mock(Context.class), flutterEngine, mock(FlutterLoader.class));
+    FakeDeferrableFlutterPlugin plugin = new FakeDeferrableFlutterPlugin(false);
+
+    registry.add(plugin);
+    registry.remove(plugin.getClass());
+    captureFirstFrameListener(flutterEngine).onFlutterUiDisplayed();
+    shadowOf(getMainLooper()).idle();
+    assertFalse(registry.has(plugin.getClass()));
+    assertEquals(0, plugin.attachmentCallCount);
+    assertEquals(0, plugin.detachmentCallCount);
+  }
+
+  @Test
+  public void itRecordsTheAttachTimeOfEachPlugin() {
+    FlutterEngineConnectionRegistry registry =
+        new FlutterEngineConnectionRegistry(
+            mock(Context.class), mockFlutterEngine(), mock(FlutterLoader.class));
+    FakeFlutterPlugin plugin = new FakeFlutterPlugin();
+    FakeActivityAwareFlutterPlugin activityAwarePlugin = new FakeActivityAwareFlutterPlugin();
+
+    registry.add(plugin);
+    registry.add(activityAwarePlugin);
+
+    Map<Class<? extends FlutterPlugin>, Long> attachTimesNanos =
+        registry.getPluginAttachTimesNanos();
+    assertEquals(2, attachTimesNanos.size());
+    assertTrue(attachTimesNanos.get(plugin.getClass()) >= 0);
+    assertTrue(attachTimesNanos.get(activityAwarePlugin.getClass()) >= 0);
+  }
+
+  @Test
+  public void itDoesNotRecordTheAttachTimeOfConfigChangeReattachments() {
+    ExclusiveAppComponent appComponent = mock(ExclusiveAppComponent.class);
+    Activity activity = mock(Activity.class);
+    when(appComponent.getAppComponent()).thenReturn(activity);
+    when(activity.getIntent()).thenReturn(mock(Intent.class));
+    FlutterEngineConnectionRegistry registry =
+        new FlutterEngineConnectionRegistry(
+            mock(Context.class), mockFlutterEngine(), mock(FlutterLoader.class));
+    FakeActivityAwareFlutterPlugin plugin = new FakeActivityAwareFlutterPlugin();
+
+    registry.add(plugin);
+    registry.attachToActivity(appComponent, mock(Lifecycle.class));
+    Long attachTimeNanos = registry.getPluginAttachTimesNanos().get(plugin.getClass());
+
+    registry.detachFromActivityForConfigChanges();
+    registry.attachToActivity(appComponent, mock(Lifecycle.class));
+    assertEquals(attachTimeNanos, registry.getPluginAttachTimesNanos().get(plugin.getClass()));
+  }
+
   private static class FakeFlutterPlugin implements FlutterPlugin {
     public int attachmentCallCount = 0;
     public int detachmentCallCount = 0;
@@ -158,6 +361,43 @@ public class FlutterEngineConnectionRegistryTest {
     }
   }
 
+  private static class FakeDeferrableFlutterPlugin implements DeferrableFlutterPlugin {
+    private final boolean canAttachToEngineOnBackgroundThread;
+    public volatile int attachmentCallCount = 0;
+    public int detachmentCallCount = 0;
+    public volatile boolean attachedOnMainThread;
+    public volatile boolean failToAttach;
+
+    FakeDeferrableFlutterPlugin(boolean canAttachToEngineOnBackgroundThread) {
+      this.canAttachToEngineOnBackgroundThread = canAttachToEngineOnBackgroundThread;
+    }
+
+    @Override
+    public boolean canAttachToEngineOnBackgroundThread() {
+      return canAttachToEngineOnBackgroundThread;
+    }
+
+    @Override
+    public void onAttachedToEngine(@NonNull FlutterPluginBinding binding) {
+      attachmentCallCount += 1;
+      attachedOnMainThread = Thread.currentThread() == getMainLooper().getThread();
+      if (failToAttach) {
+        throw new IllegalStateException("Failed to attach.");
+      }
+    }
+
+    @Override
+    public void onDetachedFromEngine(@NonNull FlutterPluginBinding binding) {
+      detachmentCallCount += 1;
+    }
+  }
+
+  private static class FakeBackgroundDeferrableFlutterPlugin extends FakeDeferrableFlutterPlugin {
+    FakeBackgroundDeferrableFlutterPlugin() {
+      super(true);
+    }
+  }
+
   private static class FakeActivityAwareFlutterPlugin implements FlutterPlugin, ActivityAware {
     public ActivityPluginBinding binding;
 
@@ -0,0 +1,106 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.dart;
+
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.benchmark.MicroBenchmark;
+import io.flutter.embedding.engine.FlutterJNI;
+import io.flutter.plugin.common.BinaryMessenger;
+import java.nio.ByteBuffer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+/** Overhead of dispatching messages and replies through the {@link DartMessenger}. */
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class DartMessengerBenchmarkTest {
+  // Stands in for the engine without recording invocations, unlike a mock.
+  private static class FakeFlutterJNI extends FlutterJNI {
+    int lastResponseId;
+
+    @Override
+    public void dispatchPlatformMessage(
+        @NonNull String channel, @Nullable ByteBuffer message, int position, int responseId) {
+      lastResponseId = responseId;
+    }
+
+    @Override
+    public void invokePlatformMessageResponseCallback(
+        int responseId, @NonNull ByteBuffer message, int position) {}
+
+    @Override
+    public void invokePlatformMessageEmptyResponseCallback(int responseId) {}
+
+    @Override
+    public void cleanupMessageData(long messageData) {}
+  }
+
+  private static DartMessenger createMessenger(FakeFlutterJNI flutterJNI) {
+    // Run handlers synchronously, so that only the messenger is measured.
+    return new DartMessenger(flutterJNI, (options) -> Runnable::run);
+  }
+
+  private static void benchmarkMessagesFromDart(String name, DartMessenger messenger)
+      throws Exception {
+    final ByteBuffer reply = ByteBuffer.allocateDirect(16);
+    final BinaryMessenger.TaskQueue taskQueue = messenger.makeBackgroundTaskQueue();
+    messenger.setMessageHandler(
+        "benchmark",
+        (message, callback) -> {
+          reply.clear();
+          reply.putLong(message.getLong(0));
+          callback.reply(reply);
+        },
+        taskQueue);
+    final ByteBuffer message = ByteBuffer.allocateDirect(64);
+    final MicroBenchmark.Result result =
+        MicroBenchmark.run(
+            name,
+            () -> {
+              message.clear();
+              messenger.handleMessageFromDart("benchmark", message, 1, 0);
+              return message;
+            });
+    assertTrue(result.operationsPerSecond > 0);
+  }
+
+  @Test
+  public void messagesFromDart() throws Exception {
+    benchmarkMessagesFromDart(
+        "DartMessenger.messagesFromDart", createMessenger(new FakeFlutterJNI()));
+  }
+
+  @Test
+  public void messagesFromDartWithMetrics() throws Exception {
+    final DartMessenger messenger = createMessenger(new FakeFlutterJNI());
+    messenger.getMetrics().setEnabled(true);
+    benchmarkMessagesFromDart("DartMessenger.messagesFromDartWithMetrics", messenger);
+  }
+
+  @Test
+  public void messagesToDart() throws Exception {
+    final FakeFlutterJNI flutterJNI = new FakeFlutterJNI();
+    final DartMessenger messenger = createMessenger(flutterJNI);
+    final ByteBuffer message = ByteBuffer.allocateDirect(64);
+    final ByteBuffer reply = ByteBuffer.allocateDirect(64);
+    final BinaryMessenger.BinaryReply callback = (ByteBuffer ignored) -> {};
+    final MicroBenchmark.Result result =
+        MicroBenchmark.run(
+            "DartMessenger.messagesToDart",
+            () -> {
+              message.clear();
+              messenger.send("benchmark", message, callback);
+              reply.clear();
+              messenger.handlePlatformMessageResponse(flutterJNI.lastResponseId, reply);
+              return reply;
+            });
+    assertTrue(result.operationsPerSecond > 0);
+  }
+}
@@ -3,6 +3,7 @@ package io.flutter.embedding.engine.dart;
 import static android.os.Looper.getMainLooper;
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertNotNull;
+import static junit.framework.TestCase.assertNull;
 import static junit.framework.TestCase.assertTrue;
 import static org.junit.Assert.assertArrayEquals;
 import static org.mockito.ArgumentMatchers.any;
@@ -78,6 +79,46 @@ public class DartMessengerTest {
     currentThread.setUncaughtExceptionHandler(savedHandler);
   }
 
+  @Test
+  public void recordsMetricsOnlyWhenEnabled() {
+    final FlutterJNI fakeFlutterJni = mock(FlutterJNI.class);
+    final DartMessenger messenger =
+        new DartMessenger(fakeFlutterJni, (options) -> synchronousTaskQueue);
+    final BinaryMessenger.TaskQueue taskQueue = messenger.makeBackgroundTaskQueue();
+    messenger.setMessageHandler(
+        "test",
+        (message, reply) -> {
+          final ByteBuffer response = ByteBuffer.allocateDirect(3);
+          response.position(3);
+          reply.reply(response);
+        },
+        taskQueue);
+
+    messenger.handleMessageFromDart("test", ByteBuffer.allocateDirect(4), 1, 0);
+    assertNull(messenger.getMetrics().getChannelStats("test"));
+
+    messenger.getMetrics().setEnabled(true);
+    messenger.handleMessageFromDart("test", ByteBuffer.allocateDirect(4), 2, 0);
+    final BinaryMessenger.BinaryReply callback = mock(BinaryMessenger.BinaryReply.class);
+    final ByteBuffer message = ByteBuffer.allocateDirect(5);
+    message.position(5);
+    messenger.send("test", message, callback);
+    final ByteBuffer reply = ByteBuffer.allocateDirect(6);
+    messenger.handlePlatformMessageResponse(1, reply);
+
+    verify(callback, times(1)).reply(reply);
+    final MessengerMetrics.ChannelStats stats = messenger.getMetrics().getChannelStats("test");
+    assertEquals(1, stats.getMessagesFromDart());
+    assertEquals(1, stats.getMessagesToDart());
+    // The message and the reply from Dart.
+    assertEquals(4 + 6, stats.getBytesFromDart());
+    // The reply and the message to Dart.
+    assertEquals(3 + 5, stats.getBytesToDart());
+    assertEquals(1, stats.getQueueDelay().getCount());
+    assertEquals(1, stats.getHandlerTime().getCount());
+    assertEquals(1, stats.getReplyRoundTrip().getCount());
+  }
+
   @Test
   public void givesDirectByteBuffer() {
     // Setup test.
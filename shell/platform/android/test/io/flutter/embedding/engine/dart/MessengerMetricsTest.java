@@ -0,0 +1,56 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.dart;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class MessengerMetricsTest {
+  @Test
+  public void histogramRecordsDurationsInFixedBuckets() {
+    final MessengerMetrics.Histogram histogram = new MessengerMetrics.Histogram();
+    assertEquals(0, histogram.getPercentileMicros(50));
+
+    // 40us, 40us, 40us and 3ms.
+    histogram.record(40_000);
+    histogram.record(40_000);
+    histogram.record(40_000);
+    histogram.record(3_000_000);
+
+    assertEquals(4, histogram.getCount());
+    assertEquals((3 * 40 + 3_000) / 4, histogram.getMeanMicros());
+    assertEquals(3, histogram.getBucketValue(0));
+    assertEquals(50, histogram.getPercentileMicros(50));
+    assertEquals(5_000, histogram.getPercentileMicros(99));
+
+    histogram.record(5_000_000_000L);
+    assertEquals(1, histogram.getBucketValue(MessengerMetrics.Histogram.getBucketCount() - 1));
+    assertEquals(Long.MAX_VALUE, histogram.getPercentileMicros(100));
+  }
+
+  @Test
+  public void channelStatsAreCreatedOncePerChannel() {
+    final MessengerMetrics metrics = new MessengerMetrics();
+    assertNull(metrics.getChannelStats("a"));
+
+    final MessengerMetrics.ChannelStats stats = metrics.getOrCreateChannelStats("a");
+    assertSame(stats, metrics.getOrCreateChannelStats("a"));
+    assertSame(stats, metrics.getChannelStats("a"));
+
+    metrics.getOrCreateChannelStats("b").getHandlerTime().record(1_000_000);
+    assertEquals("b", metrics.getAllChannelStats().get(0).getChannel());
+
+    metrics.reset();
+    assertNull(metrics.getChannelStats("a"));
+  }
+}
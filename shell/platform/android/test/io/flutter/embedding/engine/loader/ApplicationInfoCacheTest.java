@@ -0,0 +1,131 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.loader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.os.Bundle;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.util.PathUtils;
+import java.io.File;
+import java.io.FileOutputStream;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class ApplicationInfoCacheTest {
+  private final Context ctx = ApplicationProvider.getApplicationContext();
+
+  private File cacheFile() {
+    return new File(PathUtils.getCacheDirectory(ctx), ApplicationInfoCache.CACHE_FILE_NAME);
+  }
+
+  @Test
+  public void itResolvesDefaultsFromTheManifest() {
+    ApplicationInfoCache info = ApplicationInfoCache.load(ctx);
+    assertEquals("libapp.so", info.flutterApplicationInfo.aotSharedLibraryName);
+    assertEquals("flutter_assets", info.flutterApplicationInfo.flutterAssetsDir);
+    assertEquals(0, info.oldGenHeapSizeMegaBytes);
+    assertTrue(info.enableSkParagraph);
+    assertFalse(info.enableImpeller);
+    assertTrue(info.leakVM);
+    assertTrue(cacheFile().exists());
+  }
+
+  @Test
+  public void itReadsTheCacheInsteadOfTheManifest() {
+    Bundle metaData = new Bundle();
+    metaData.putInt("io.flutter.embedding.android.OldGenHeapSize", 256);
+    metaData.putBoolean("io.flutter.embedding.android.EnableImpeller", true);
+    metaData.putString(ApplicationInfoLoader.PUBLIC_FLUTTER_ASSETS_DIR_KEY, "cached_assets");
+    ctx.getApplicationInfo().metaData = metaData;
+    ApplicationInfoCache.load(ctx);
+
+    ctx.getApplicationInfo().metaData = new Bundle();
+    ApplicationInfoCache info = ApplicationInfoCache.load(ctx);
+    assertEquals(256, info.oldGenHeapSizeMegaBytes);
+    assertTrue(info.enableImpeller);
+    assertEquals("cached_assets", info.flutterApplicationInfo.flutterAssetsDir);
+  }
+
+  @Test
+  public void itReadsTheNativeLibraryDirOnEveryLaunch() {
+    ctx.getApplicationInfo().nativeLibraryDir = "/data/app/first/lib";
+    ApplicationInfoCache.load(ctx);
+
+    // The app moved, without a new version or update time.
+    ctx.getApplicationInfo().nativeLibraryDir = "/data/app/second/lib";
+    ApplicationInfoCache info = ApplicationInfoCache.load(ctx);
+    assertEquals("/data/app/second/lib", info.flutterApplicationInfo.nativeLibraryDir);
+  }
+
+  @Test
+  public void itRoundTripsTheCachedInformation() {
+    FlutterApplicationInfo flutterApplicationInfo =
+        new FlutterApplicationInfo(
+            "testaot",
+            "testvmsnapshot",
+            "testisolatesnapshot",
+            "testassets",
+            "[[\"secure.example.com\",true,false]]",
+            null,
+            false);
+    ApplicationInfoCache.write(
+        cacheFile(),
+        "1-1000",
+        new ApplicationInfoCache(flutterApplicationInfo, 512, false, true, false));
+
+    ApplicationInfoCache info = ApplicationInfoCache.read(cacheFile(), "1-1000", "/lib");
+    assertNotNull(info);
+    assertEquals("testaot", info.flutterApplicationInfo.aotSharedLibraryName);
+    assertEquals("testvmsnapshot", info.flutterApplicationInfo.vmSnapshotData);
+    assertEquals("testisolatesnapshot", info.flutterApplicationInfo.isolateSnapshotData);
+    assertEquals("testassets", info.flutterApplicationInfo.flutterAssetsDir);
+    assertEquals(
+        "[[\"secure.example.com\",true,false]]", info.flutterApplicationInfo.domainNetworkPolicy);
+    assertEquals("/lib", info.flutterApplicationInfo.nativeLibraryDir);
+    assertFalse(info.flutterApplicationInfo.automaticallyRegisterPlugins);
+    assertEquals(512, info.oldGenHeapSizeMegaBytes);
+    assertFalse(info.enableSkParagraph);
+    assertTrue(info.enableImpeller);
+    assertFalse(info.leakVM);
+  }
+
+  @Test
+  public void itIgnoresTheCacheOfAnotherPackageVersion() {
+    ApplicationInfoCache.write(
+        cacheFile(),
+        "1-1000",
+        new ApplicationInfoCache(
+            new FlutterApplicationInfo(null, null, null, null, null, null, true),
+            0,
+            true,
+            false,
+            true));
+
+    assertNull(ApplicationInfoCache.read(cacheFile(), "2-2000", null));
+    assertNull(ApplicationInfoCache.read(cacheFile(), "1-1001", null));
+  }
+
+  @Test
+  public void itIgnoresACorruptCache() throws Exception {
+    try (FileOutputStream out = new FileOutputStream(cacheFile())) {
+      out.write(new byte[] {0, 0, 0, 1, 0});
+    }
+
+    assertNull(ApplicationInfoCache.read(cacheFile(), "1-1000", null));
+    // The manifest is resolved again instead.
+    ApplicationInfoCache info = ApplicationInfoCache.load(ctx);
+    assertEquals("flutter_assets", info.flutterApplicationInfo.flutterAssetsDir);
+  }
+}
@@ -5,6 +5,7 @@
 package io.flutter.embedding.engine.loader;
 
 import static android.os.Looper.getMainLooper;
+import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.Mockito.any;
@@ -157,6 +158,21 @@ public class FlutterLoaderTest {
     verify(mockExecutorService, times(1)).submit(any(Callable.class));
   }
 
+  @Test
+  public void itResolvesTheApplicationInfoBeforeTheInitTaskRuns() {
+    FlutterJNI mockFlutterJNI = mock(FlutterJNI.class);
+    ExecutorService mockExecutorService = mock(ExecutorService.class);
+    FlutterLoader flutterLoader = new FlutterLoader(mockFlutterJNI, mockExecutorService);
+    Bundle metaData = new Bundle();
+    metaData.putBoolean(
+        ApplicationInfoLoader.PUBLIC_AUTOMATICALLY_REGISTER_PLUGINS_METADATA_KEY, false);
+    ctx.getApplicationInfo().metaData = metaData;
+
+    flutterLoader.startInitialization(ctx);
+    assertEquals("flutter_assets", flutterLoader.findAppBundlePath());
+    assertFalse(flutterLoader.automaticallyRegisterPlugins());
+  }
+
   @Test
   public void itDoesNotSetEnableImpellerByDefault() {
     FlutterJNI mockFlutterJNI = mock(FlutterJNI.class);
@@ -5,9 +5,11 @@ import static junit.framework.TestCase.*;
 import static org.mockito.Mockito.*;
 
 import android.content.Context;
+import android.graphics.Canvas;
 import android.graphics.Matrix;
 import android.view.MotionEvent;
 import android.view.ViewTreeObserver;
+import android.widget.FrameLayout;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import io.flutter.embedding.android.AndroidTouchProcessor;
@@ -206,4 +208,60 @@ public class FlutterMutatorViewTest {
     view.unsetOnDescendantFocusChangeListener();
     verify(viewTreeObserver, times(1)).removeOnGlobalFocusChangeListener(activeFocusListener);
   }
+
+  @Test
+  public void readyToDisplay_skipsLayoutIfFrameIsUnchanged() {
+    final FlutterMutatorView view = new FlutterMutatorView(ctx);
+    final FlutterMutatorsStack firstStack = new FlutterMutatorsStack();
+    firstStack.pushClipRect(0, 0, 10, 10);
+    final FlutterMutatorsStack secondStack = new FlutterMutatorsStack();
+    secondStack.pushClipRect(0, 0, 10, 10);
+
+    view.readyToDisplay(firstStack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 3, /*height=*/ 4);
+    final FrameLayout.LayoutParams layoutParams = (FrameLayout.LayoutParams) view.getLayoutParams();
+    assertEquals(1, layoutParams.leftMargin);
+    assertEquals(2, layoutParams.topMargin);
+    assertEquals(3, layoutParams.width);
+    assertEquals(4, layoutParams.height);
+
+    view.readyToDisplay(secondStack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 3, /*height=*/ 4);
+    assertSame(layoutParams, view.getLayoutParams());
+
+    view.readyToDisplay(secondStack, /*left=*/ 5, /*top=*/ 2, /*width=*/ 3, /*height=*/ 4);
+    assertNotSame(layoutParams, view.getLayoutParams());
+    assertEquals(5, ((FrameLayout.LayoutParams) view.getLayoutParams()).leftMargin);
+  }
+
+  @Test
+  public void dispatchDraw_reusesMatrixUntilMutatorsChange() {
+    final FlutterMutatorView view = new FlutterMutatorView(ctx, 2.0f, null);
+    final FlutterMutatorsStack stack = new FlutterMutatorsStack();
+    stack.pushTransform(new float[] {1, 0, 10, 0, 1, 20, 0, 0, 1});
+    view.readyToDisplay(stack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 3, /*height=*/ 4);
+
+    final Canvas canvas = mock(Canvas.class);
+    final ArgumentCaptor<Matrix> matrixCaptor = ArgumentCaptor.forClass(Matrix.class);
+    view.dispatchDraw(canvas);
+    view.dispatchDraw(canvas);
+    verify(canvas, times(2)).concat(matrixCaptor.capture());
+    assertSame(matrixCaptor.getAllValues().get(0), matrixCaptor.getAllValues().get(1));
+
+    final Matrix expected = new Matrix();
+    expected.setTranslate(10, 20);
+    expected.preScale(0.5f, 0.5f);
+    expected.postTranslate(-1, -2);
+    assertEquals(expected, matrixCaptor.getValue());
+
+    final FlutterMutatorsStack newStack = new FlutterMutatorsStack();
+    newStack.pushTransform(new float[] {1, 0, 30, 0, 1, 40, 0, 0, 1});
+    view.readyToDisplay(newStack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 3, /*height=*/ 4);
+    reset(canvas);
+    view.dispatchDraw(canvas);
+    verify(canvas).concat(matrixCaptor.capture());
+
+    expected.setTranslate(30, 40);
+    expected.preScale(0.5f, 0.5f);
+    expected.postTranslate(-1, -2);
+    assertEquals(expected, matrixCaptor.getValue());
+  }
 }
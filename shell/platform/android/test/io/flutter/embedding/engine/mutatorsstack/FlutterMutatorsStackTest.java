@@ -0,0 +1,85 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.mutatorsstack;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.graphics.Matrix;
+import android.graphics.Rect;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class FlutterMutatorsStackTest {
+  private static final float[] TRANSLATE = {1, 0, 10, 0, 1, 20, 0, 0, 1};
+  private static final float[] RADII = {1, 2, 3, 4, 5, 6, 7, 8};
+
+  @Test
+  public void buildsMutatorsInPushOrder() {
+    final FlutterMutatorsStack stack = new FlutterMutatorsStack();
+    stack.pushTransform(TRANSLATE);
+    stack.pushClipRect(1, 2, 3, 4);
+    stack.pushClipRRect(5, 6, 7, 8, RADII);
+
+    final List<FlutterMutatorsStack.FlutterMutator> mutators = stack.getMutators();
+    assertEquals(3, mutators.size());
+    assertEquals(FlutterMutatorsStack.FlutterMutatorType.TRANSFORM, mutators.get(0).getType());
+    final Matrix expectedMatrix = new Matrix();
+    expectedMatrix.setValues(TRANSLATE);
+    assertEquals(expectedMatrix, mutators.get(0).getMatrix());
+    assertEquals(FlutterMutatorsStack.FlutterMutatorType.CLIP_RECT, mutators.get(1).getType());
+    assertEquals(new Rect(1, 2, 3, 4), mutators.get(1).getRect());
+    assertEquals(FlutterMutatorsStack.FlutterMutatorType.CLIP_RRECT, mutators.get(2).getType());
+    assertEquals(new Rect(5, 6, 7, 8), mutators.get(2).getRect());
+
+    assertEquals(expectedMatrix, stack.getFinalMatrix());
+    assertEquals(2, stack.getFinalClippingPaths().size());
+  }
+
+  @Test
+  public void appliesMutatorsPushedAfterBeingRead() {
+    final FlutterMutatorsStack stack = new FlutterMutatorsStack();
+    stack.pushTransform(TRANSLATE);
+    assertEquals(1, stack.getMutators().size());
+    assertEquals(0, stack.getFinalClippingPaths().size());
+
+    stack.pushTransform(TRANSLATE);
+    stack.pushClipRect(1, 2, 3, 4);
+    assertEquals(3, stack.getMutators().size());
+    assertEquals(1, stack.getFinalClippingPaths().size());
+    final float[] values = new float[9];
+    stack.getFinalMatrix().getValues(values);
+    assertArrayEquals(new float[] {1, 0, 20, 0, 1, 40, 0, 0, 1}, values, 0);
+  }
+
+  @Test
+  public void hasSameMutatorsComparesPushedValues() {
+    final FlutterMutatorsStack stack = new FlutterMutatorsStack();
+    stack.pushTransform(TRANSLATE);
+    stack.pushClipRRect(5, 6, 7, 8, RADII);
+
+    final FlutterMutatorsStack sameStack = new FlutterMutatorsStack();
+    sameStack.pushTransform(TRANSLATE);
+    sameStack.pushClipRRect(5, 6, 7, 8, RADII);
+    assertTrue(stack.hasSameMutators(sameStack));
+    assertTrue(sameStack.hasSameMutators(stack));
+
+    final FlutterMutatorsStack otherRadii = new FlutterMutatorsStack();
+    otherRadii.pushTransform(TRANSLATE);
+    otherRadii.pushClipRRect(5, 6, 7, 8, new float[] {1, 2, 3, 4, 5, 6, 7, 9});
+    assertFalse(stack.hasSameMutators(otherRadii));
+
+    final FlutterMutatorsStack otherLength = new FlutterMutatorsStack();
+    otherLength.pushTransform(TRANSLATE);
+    assertFalse(stack.hasSameMutators(otherLength));
+  }
+}
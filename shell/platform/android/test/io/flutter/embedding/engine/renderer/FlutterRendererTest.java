@@ -2,9 +2,16 @@ package io.flutter.embedding.engine.renderer;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyFloat;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -12,20 +19,22 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.robolectric.Shadows.shadowOf;
 
+import android.annotation.TargetApi;
 import android.graphics.Rect;
 import android.graphics.SurfaceTexture;
+import android.media.ImageReader;
 import android.os.Looper;
 import android.view.Surface;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import io.flutter.embedding.engine.FlutterJNI;
 import io.flutter.view.TextureRegistry;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.robolectric.annotation.Config;
 
 @Config(manifest = Config.NONE)
@@ -181,7 +190,7 @@ public class FlutterRendererTest {
   }
 
   @Test
-  public void itUnregistersTextureWhenSurfaceTextureFinalized() {
+  public void itUnregistersTextureWhenSurfaceTextureIsReclaimed() {
     // Setup the test.
     FlutterJNI fakeFlutterJNI = mock(FlutterJNI.class);
     when(fakeFlutterJNI.isAttached()).thenReturn(true);
@@ -196,14 +205,13 @@ public class FlutterRendererTest {
     flutterRenderer.startRenderingToSurface(fakeSurface, /*keepCurrentSurface=*/ false);
 
     // Execute the behavior under test.
-    runFinalization(entry);
-
-    shadowOf(Looper.getMainLooper()).idle();
+    runReclamation(flutterRenderer, entry);
 
     flutterRenderer.stopRenderingToSurface();
 
     // Verify behavior under test.
     verify(fakeFlutterJNI, times(1)).unregisterTexture(eq(id));
+    assertEquals(0, flutterRenderer.getLiveTextureCount());
   }
 
   @Test
@@ -224,33 +232,40 @@ public class FlutterRendererTest {
     flutterRenderer.stopRenderingToSurface();
 
     // Execute the behavior under test.
-    runFinalization(entry);
-
-    shadowOf(Looper.getMainLooper()).idle();
+    runReclamation(flutterRenderer, entry);
 
     // Verify behavior under test.
     verify(fakeFlutterJNI, times(0)).unregisterTexture(eq(id));
+    assertEquals(0, flutterRenderer.getLiveTextureCount());
+  }
+
+  @Test
+  public void itTracksLiveTexturesUntilReleased() {
+    // Setup the test.
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+    TextureRegistry.SurfaceTextureEntry first = flutterRenderer.createSurfaceTexture();
+    TextureRegistry.SurfaceTextureEntry second = flutterRenderer.createSurfaceTexture();
+    assertEquals(2, flutterRenderer.getLiveTextureCount());
+
+    // Execute the behavior under test.
+    first.release();
+    first.release();
+
+    // Verify behavior under test.
+    assertEquals(1, flutterRenderer.getLiveTextureCount());
+    verify(fakeFlutterJNI, times(1)).unregisterTexture(eq(first.id()));
+    verify(fakeFlutterJNI, never()).unregisterTexture(eq(second.id()));
   }
 
-  void runFinalization(FlutterRenderer.SurfaceTextureRegistryEntry entry) {
-    CountDownLatch latch = new CountDownLatch(1);
-    Thread fakeFinalizer =
-        new Thread(
-            new Runnable() {
-              public void run() {
-                try {
-                  entry.finalize();
-                  latch.countDown();
-                } catch (Throwable e) {
-                  // do nothing
-                }
-              }
-            });
-    fakeFinalizer.start();
-    try {
-      latch.await(5L, TimeUnit.SECONDS);
-    } catch (Throwable e) {
-      // do nothing
+  // Simulates the garbage collection of the entry, and waits for the reclamation of its texture on
+  // the main thread.
+  void runReclamation(
+      FlutterRenderer flutterRenderer, FlutterRenderer.SurfaceTextureRegistryEntry entry) {
+    entry.record().enqueue();
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+    while (flutterRenderer.getLiveTextureCount() > 0 && System.currentTimeMillis() < deadline) {
+      shadowOf(Looper.getMainLooper()).idle();
+      Thread.yield();
     }
   }
 
@@ -339,4 +354,41 @@ public class FlutterRendererTest {
     // Verify behavior under test.
     assertEquals(1, invocationCount.get());
   }
+
+  @Test
+  @Config(sdk = 28)
+  public void createImageTextureRequiresApi29() {
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+
+    assertFalse(flutterRenderer.supportsImageTextures());
+    assertNull(flutterRenderer.createImageTexture(100, 100, 3));
+    verify(fakeFlutterJNI, never()).registerImageTexture(anyLong(), any());
+  }
+
+  @Test
+  @Config(sdk = 29)
+  @TargetApi(29)
+  public void imageTextureIsUnregisteredBeforeItsImagesAreClosed() {
+    final ImageReader imageReader = mock(ImageReader.class);
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    final FlutterRenderer.ImageTextureResources resources =
+        new FlutterRenderer.ImageTextureResources(7, imageReader, fakeFlutterJNI);
+
+    resources.release(false);
+
+    final InOrder inOrder = inOrder(fakeFlutterJNI, imageReader);
+    inOrder.verify(fakeFlutterJNI).unregisterTexture(7);
+    inOrder.verify(imageReader).close();
+  }
+
+  @Test
+  @Config(sdk = 29)
+  public void createImageTextureRequiresAtLeastThreeImages() {
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+
+    assertTrue(flutterRenderer.supportsImageTextures());
+    assertThrows(
+        IllegalArgumentException.class, () -> flutterRenderer.createImageTexture(100, 100, 2));
+    verify(fakeFlutterJNI, never()).registerImageTexture(anyLong(), any());
+  }
 }
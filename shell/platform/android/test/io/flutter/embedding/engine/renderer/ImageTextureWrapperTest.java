@@ -0,0 +1,122 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.annotation.TargetApi;
+import android.hardware.HardwareBuffer;
+import android.media.Image;
+import android.media.ImageReader;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE, sdk = 29)
+@RunWith(AndroidJUnit4.class)
+@TargetApi(29)
+public class ImageTextureWrapperTest {
+  private static Image mockImage(HardwareBuffer buffer) {
+    final Image image = mock(Image.class);
+    when(image.getHardwareBuffer()).thenReturn(buffer);
+    return image;
+  }
+
+  @Test
+  public void acquireLatestHardwareBufferReturnsNullBeforeFirstImage() {
+    final ImageTextureWrapper wrapper = new ImageTextureWrapper(mock(ImageReader.class));
+    assertNull(wrapper.acquireLatestHardwareBuffer());
+    assertEquals(0, wrapper.presentedFrameCount());
+  }
+
+  @Test
+  public void presentsLatestImageAndKeepsItUntilReplaced() {
+    final ImageReader imageReader = mock(ImageReader.class);
+    final HardwareBuffer firstBuffer = mock(HardwareBuffer.class);
+    final Image firstImage = mockImage(firstBuffer);
+    final HardwareBuffer secondBuffer = mock(HardwareBuffer.class);
+    final Image secondImage = mockImage(secondBuffer);
+    final HardwareBuffer thirdBuffer = mock(HardwareBuffer.class);
+    final Image thirdImage = mockImage(thirdBuffer);
+    when(imageReader.acquireNextImage()).thenReturn(firstImage, secondImage, thirdImage);
+    final ImageTextureWrapper wrapper = new ImageTextureWrapper(imageReader);
+
+    assertTrue(wrapper.acquireNextImage());
+    assertSame(firstBuffer, wrapper.acquireLatestHardwareBuffer());
+    // Without a new image, the current buffer is returned again, e.g. after a context loss.
+    assertSame(firstBuffer, wrapper.acquireLatestHardwareBuffer());
+    verify(firstImage, times(1)).getHardwareBuffer();
+    verify(firstImage, never()).close();
+
+    assertTrue(wrapper.acquireNextImage());
+    assertSame(secondBuffer, wrapper.acquireLatestHardwareBuffer());
+    // The GPU may still sample the first image for a frame submitted before the switch.
+    verify(firstImage, never()).close();
+
+    assertTrue(wrapper.acquireNextImage());
+    assertSame(thirdBuffer, wrapper.acquireLatestHardwareBuffer());
+    verify(firstBuffer, times(1)).close();
+    verify(firstImage, times(1)).close();
+    verify(secondImage, never()).close();
+
+    assertEquals(3, wrapper.presentedFrameCount());
+    assertEquals(0, wrapper.droppedFrameCount());
+  }
+
+  @Test
+  public void replacesPendingImageAndCountsItAsDropped() {
+    final ImageReader imageReader = mock(ImageReader.class);
+    final Image staleImage = mockImage(mock(HardwareBuffer.class));
+    final HardwareBuffer latestBuffer = mock(HardwareBuffer.class);
+    final Image latestImage = mockImage(latestBuffer);
+    when(imageReader.acquireNextImage()).thenReturn(staleImage, latestImage);
+    final ImageTextureWrapper wrapper = new ImageTextureWrapper(imageReader);
+
+    assertTrue(wrapper.acquireNextImage());
+    // The engine was already notified of the pending frame.
+    assertFalse(wrapper.acquireNextImage());
+    verify(staleImage, times(1)).close();
+
+    assertSame(latestBuffer, wrapper.acquireLatestHardwareBuffer());
+    assertEquals(1, wrapper.presentedFrameCount());
+    assertEquals(1, wrapper.droppedFrameCount());
+  }
+
+  @Test
+  public void releaseClosesImagesAndReader() {
+    final ImageReader imageReader = mock(ImageReader.class);
+    final Image previousImage = mockImage(mock(HardwareBuffer.class));
+    final HardwareBuffer currentBuffer = mock(HardwareBuffer.class);
+    final Image currentImage = mockImage(currentBuffer);
+    final Image pendingImage = mockImage(mock(HardwareBuffer.class));
+    when(imageReader.acquireNextImage()).thenReturn(previousImage, currentImage, pendingImage);
+    final ImageTextureWrapper wrapper = new ImageTextureWrapper(imageReader);
+    wrapper.acquireNextImage();
+    wrapper.acquireLatestHardwareBuffer();
+    wrapper.acquireNextImage();
+    wrapper.acquireLatestHardwareBuffer();
+    wrapper.acquireNextImage();
+
+    wrapper.release();
+
+    verify(previousImage, times(1)).close();
+    verify(currentBuffer, times(1)).close();
+    verify(currentImage, times(1)).close();
+    verify(pendingImage, times(1)).close();
+    verify(imageReader, times(1)).close();
+    assertNull(wrapper.acquireLatestHardwareBuffer());
+    assertFalse(wrapper.acquireNextImage());
+  }
+}
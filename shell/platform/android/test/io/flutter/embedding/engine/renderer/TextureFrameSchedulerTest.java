@@ -0,0 +1,118 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.engine.FlutterJNI;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class TextureFrameSchedulerTest {
+  private FlutterJNI fakeFlutterJNI;
+  private TextureFrameScheduler scheduler;
+
+  @Before
+  public void setup() {
+    fakeFlutterJNI = mock(FlutterJNI.class);
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    scheduler = new TextureFrameScheduler(fakeFlutterJNI, new Handler(Looper.getMainLooper()));
+    scheduler.setOffscreen(false);
+  }
+
+  private static void advanceBy(long millis) {
+    shadowOf(Looper.getMainLooper()).idleFor(millis, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  public void forwardsEveryFrameWithoutPolicy() {
+    final TextureFrameScheduler.TextureState texture = scheduler.register(7);
+
+    scheduler.onFrameAvailable(texture);
+    scheduler.onFrameAvailable(texture);
+
+    verify(fakeFlutterJNI, times(2)).markTextureFrameAvailable(7);
+    assertEquals(0, texture.suppressedFrameCount());
+  }
+
+  @Test
+  public void limitsUpdateRateAndForwardsLatestFrameAtDeadline() {
+    final TextureFrameScheduler.TextureState texture = scheduler.register(7);
+    texture.setMaxFrameRate(10);
+
+    scheduler.onFrameAvailable(texture);
+    verify(fakeFlutterJNI, times(1)).markTextureFrameAvailable(7);
+
+    scheduler.onFrameAvailable(texture);
+    scheduler.onFrameAvailable(texture);
+    verify(fakeFlutterJNI, times(1)).markTextureFrameAvailable(7);
+    assertEquals(1, texture.suppressedFrameCount());
+
+    advanceBy(100);
+    verify(fakeFlutterJNI, times(2)).markTextureFrameAvailable(7);
+  }
+
+  @Test
+  public void coalescesFramesOfAllTexturesToVsync() {
+    final TextureFrameScheduler.TextureState first = scheduler.register(1);
+    final TextureFrameScheduler.TextureState second = scheduler.register(2);
+    first.setCoalesceToVsync(true);
+    second.setCoalesceToVsync(true);
+
+    for (int i = 0; i < 3; i++) {
+      scheduler.onFrameAvailable(first);
+      scheduler.onFrameAvailable(second);
+    }
+    verify(fakeFlutterJNI, never()).markTextureFrameAvailable(anyLong());
+
+    advanceBy(50);
+    verify(fakeFlutterJNI, times(1)).markTextureFrameAvailable(1);
+    verify(fakeFlutterJNI, times(1)).markTextureFrameAvailable(2);
+    assertEquals(2, first.suppressedFrameCount());
+    assertEquals(2, second.suppressedFrameCount());
+  }
+
+  @Test
+  public void holdsFramesWhileOffscreen() {
+    final TextureFrameScheduler.TextureState texture = scheduler.register(7);
+    texture.setPauseWhenOffscreen(true);
+    scheduler.setOffscreen(true);
+
+    scheduler.onFrameAvailable(texture);
+    scheduler.onFrameAvailable(texture);
+    verify(fakeFlutterJNI, never()).markTextureFrameAvailable(anyLong());
+
+    scheduler.setOffscreen(false);
+    verify(fakeFlutterJNI, times(1)).markTextureFrameAvailable(7);
+    assertEquals(1, texture.suppressedFrameCount());
+  }
+
+  @Test
+  public void unregisterDropsHeldBackFrames() {
+    final TextureFrameScheduler.TextureState texture = scheduler.register(7);
+    texture.setCoalesceToVsync(true);
+
+    scheduler.onFrameAvailable(texture);
+    scheduler.unregister(texture);
+    advanceBy(50);
+
+    verify(fakeFlutterJNI, never()).markTextureFrameAvailable(anyLong());
+  }
+}
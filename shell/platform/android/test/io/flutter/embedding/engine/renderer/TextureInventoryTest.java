@@ -0,0 +1,67 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class TextureInventoryTest {
+  @Test
+  public void tracksLiveTexturesAndBytes() {
+    final TextureInventory inventory = new TextureInventory(new Handler(Looper.getMainLooper()));
+    final TextureInventory.Resources firstResources = mock(TextureInventory.Resources.class);
+    final TextureInventory.Resources secondResources = mock(TextureInventory.Resources.class);
+
+    final TextureInventory.Record first = inventory.track(new Object(), 1, 100, firstResources);
+    final TextureInventory.Record second = inventory.track(new Object(), 2, 50, secondResources);
+    assertEquals(2, inventory.liveTextureCount());
+    assertEquals(150, inventory.liveTextureBytes());
+
+    assertTrue(inventory.release(first));
+    assertFalse(inventory.release(first));
+    assertTrue(inventory.isReleased(first));
+    assertFalse(inventory.isReleased(second));
+    assertEquals(1, inventory.liveTextureCount());
+    assertEquals(50, inventory.liveTextureBytes());
+    verify(firstResources, times(1)).release(false);
+    verify(secondResources, never()).release(false);
+  }
+
+  @Test
+  public void reclaimReleasesResourcesOfUnreleasedTexturesOnly() {
+    final TextureInventory inventory = new TextureInventory(new Handler(Looper.getMainLooper()));
+    inventory.setLeakTrackingEnabled(true);
+    final TextureInventory.Resources leakedResources = mock(TextureInventory.Resources.class);
+    final TextureInventory.Resources releasedResources = mock(TextureInventory.Resources.class);
+    final TextureInventory.Record leaked = inventory.track(new Object(), 1, 100, leakedResources);
+    final TextureInventory.Record released =
+        inventory.track(new Object(), 2, 100, releasedResources);
+    inventory.release(released);
+
+    inventory.reclaim(leaked);
+    inventory.reclaim(released);
+
+    verify(leakedResources, times(1)).release(true);
+    verify(releasedResources, times(1)).release(false);
+    verifyNoMoreInteractions(leakedResources, releasedResources);
+    assertEquals(0, inventory.liveTextureCount());
+    assertEquals(0, inventory.liveTextureBytes());
+  }
+}
@@ -1,6 +1,12 @@
 package io.flutter.embedding.engine.systemchannels;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 import android.annotation.TargetApi;
@@ -8,11 +14,18 @@ import androidx.test.ext.junit.runners.AndroidJUnit4;
 import io.flutter.embedding.engine.dart.DartExecutor;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
+import io.flutter.plugin.common.StandardMethodCodec;
+import io.flutter.plugin.editing.TextEditingDelta;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.annotation.Config;
 
 @Config(
@@ -34,4 +47,60 @@ public class TextInputChannelTest {
     textInputChannel.parsingMethodHandler.onMethodCall(call, result);
     verify(result).success(null);
   }
+
+  @Test
+  public void setBinaryEditingUpdatesRepliesTrue() {
+    TextInputChannel textInputChannel = new TextInputChannel(mock(DartExecutor.class));
+    assertFalse(textInputChannel.isUsingBinaryEditingUpdates());
+    MethodChannel.Result result = mock(MethodChannel.Result.class);
+    textInputChannel.parsingMethodHandler.onMethodCall(
+        new MethodCall("TextInput.setBinaryEditingUpdates", true), result);
+    verify(result).success(true);
+    assertTrue(textInputChannel.isUsingBinaryEditingUpdates());
+  }
+
+  @Test
+  public void updateEditingStateUsesBinaryChannelAfterNegotiation() {
+    DartExecutor dartExecutor = mock(DartExecutor.class);
+    TextInputChannel textInputChannel = new TextInputChannel(dartExecutor);
+    textInputChannel.parsingMethodHandler.onMethodCall(
+        new MethodCall("TextInput.setBinaryEditingUpdates", true),
+        mock(MethodChannel.Result.class));
+
+    textInputChannel.updateEditingState(1, "hello", 2, 3, -1, -1);
+
+    ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+    verify(dartExecutor).send(eq("flutter/textinput/binary"), captor.capture(), any());
+    verify(dartExecutor, never()).send(eq("flutter/textinput"), any(ByteBuffer.class), any());
+    ByteBuffer message = captor.getValue();
+    message.rewind();
+    MethodCall call = StandardMethodCodec.INSTANCE.decodeMethodCall(message);
+    assertEquals("TextInputClient.updateEditingState", call.method);
+    assertEquals(Arrays.asList(1, "hello", 2, 3, -1, -1), call.arguments);
+  }
+
+  @Test
+  public void updateEditingStateWithDeltasFlattensDeltas() {
+    DartExecutor dartExecutor = mock(DartExecutor.class);
+    TextInputChannel textInputChannel = new TextInputChannel(dartExecutor);
+    textInputChannel.parsingMethodHandler.onMethodCall(
+        new MethodCall("TextInput.setBinaryEditingUpdates", true),
+        mock(MethodChannel.Result.class));
+
+    ArrayList<TextEditingDelta> deltas = new ArrayList<>();
+    deltas.add(new TextEditingDelta("", 0, 0, "a", 1, 1, -1, -1));
+    textInputChannel.updateEditingStateWithDeltas(7, deltas);
+
+    ArgumentCaptor<ByteBuffer> captor = ArgumentCaptor.forClass(ByteBuffer.class);
+    verify(dartExecutor).send(eq("flutter/textinput/binary"), captor.capture(), any());
+    ByteBuffer message = captor.getValue();
+    message.rewind();
+    MethodCall call = StandardMethodCodec.INSTANCE.decodeMethodCall(message);
+    assertEquals("TextInputClient.updateEditingStateWithDeltas", call.method);
+    List<?> arguments = (List<?>) call.arguments;
+    assertEquals(1 + TextInputChannel.BINARY_DELTA_FIELD_COUNT, arguments.size());
+    assertEquals(7, arguments.get(0));
+    assertEquals("", arguments.get(1));
+    assertEquals("a", arguments.get(2));
+  }
 }
@@ -0,0 +1,144 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.common;
+
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.benchmark.MicroBenchmark;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+/** Encode and decode throughput of the message codecs across payload shapes. */
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class CodecBenchmarkTest {
+  // A typical method call argument, such as a text editing state.
+  private static Map<String, Object> smallMap() {
+    final Map<String, Object> map = new HashMap<>();
+    map.put("text", "Hello, World");
+    map.put("selectionBase", 5);
+    map.put("selectionExtent", 12);
+    map.put("composingBase", -1);
+    map.put("composingExtent", -1);
+    return map;
+  }
+
+  // A large result, such as a list of records read from a database.
+  private static List<Object> largeList() {
+    final List<Object> list = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      final Map<String, Object> record = new HashMap<>();
+      record.put("id", i);
+      record.put("name", "record " + i);
+      record.put("score", i * 0.5);
+      record.put("tags", Arrays.asList("a", "b", "c"));
+      list.add(record);
+    }
+    return list;
+  }
+
+  private static String longString(char c) {
+    final char[] chars = new char[10_000];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+
+  private static <T> void benchmark(String name, MessageCodec<T> codec, T message)
+      throws Exception {
+    final MicroBenchmark.Result encode =
+        MicroBenchmark.run(name + ".encode", () -> codec.encodeMessage(message));
+    final ByteBuffer encoded = codec.encodeMessage(message);
+    encoded.flip();
+    final MicroBenchmark.Result decode =
+        MicroBenchmark.run(
+            name + ".decode",
+            () -> {
+              encoded.position(0);
+              return codec.decodeMessage(encoded);
+            });
+    assertTrue(encode.operationsPerSecond > 0);
+    assertTrue(decode.operationsPerSecond > 0);
+  }
+
+  @Test
+  public void standardMessageCodec() throws Exception {
+    final StandardMessageCodec codec = StandardMessageCodec.INSTANCE;
+    benchmark("StandardMessageCodec.smallMap", codec, smallMap());
+    benchmark("StandardMessageCodec.largeList", codec, largeList());
+    benchmark("StandardMessageCodec.byteArray", codec, new byte[64 * 1024]);
+    benchmark("StandardMessageCodec.asciiString", codec, longString('a'));
+    benchmark("StandardMessageCodec.nonAsciiString", codec, longString('€'));
+  }
+
+  @Test
+  public void standardMethodCodec() throws Exception {
+    final StandardMethodCodec codec = StandardMethodCodec.INSTANCE;
+    final MethodCall call = new MethodCall("TextInput.setEditingState", smallMap());
+    final ByteBuffer encodedCall = codec.encodeMethodCall(call);
+    encodedCall.flip();
+    MicroBenchmark.run("StandardMethodCodec.encodeMethodCall", () -> codec.encodeMethodCall(call));
+    MicroBenchmark.run(
+        "StandardMethodCodec.decodeMethodCall",
+        () -> {
+          encodedCall.position(0);
+          return codec.decodeMethodCall(encodedCall);
+        });
+
+    final List<Object> result = largeList();
+    final ByteBuffer envelope = codec.encodeSuccessEnvelope(result);
+    envelope.flip();
+    MicroBenchmark.run(
+        "StandardMethodCodec.encodeSuccessEnvelope", () -> codec.encodeSuccessEnvelope(result));
+    final MicroBenchmark.Result decode =
+        MicroBenchmark.run(
+            "StandardMethodCodec.decodeEnvelope",
+            () -> {
+              envelope.position(0);
+              return codec.decodeEnvelope(envelope);
+            });
+    assertTrue(decode.operationsPerSecond > 0);
+  }
+
+  @Test
+  public void jsonMessageCodec() throws Exception {
+    final JSONMessageCodec codec = JSONMessageCodec.INSTANCE;
+    benchmark("JSONMessageCodec.smallMap", codec, smallMap());
+    benchmark("JSONMessageCodec.largeList", codec, largeList());
+    benchmark("JSONMessageCodec.asciiString", codec, longString('a'));
+  }
+
+  @Test
+  public void jsonMethodCodec() throws Exception {
+    final JSONMethodCodec codec = JSONMethodCodec.INSTANCE;
+    final MethodCall call = new MethodCall("TextInput.setEditingState", smallMap());
+    final ByteBuffer encodedCall = codec.encodeMethodCall(call);
+    encodedCall.flip();
+    MicroBenchmark.run("JSONMethodCodec.encodeMethodCall", () -> codec.encodeMethodCall(call));
+    final MicroBenchmark.Result decode =
+        MicroBenchmark.run(
+            "JSONMethodCodec.decodeMethodCall",
+            () -> {
+              encodedCall.position(0);
+              return codec.decodeMethodCall(encodedCall);
+            });
+    assertTrue(decode.operationsPerSecond > 0);
+  }
+
+  @Test
+  public void stringCodec() throws Exception {
+    final StringCodec codec = StringCodec.INSTANCE;
+    benchmark("StringCodec.shortString", codec, "AppLifecycleState.resumed");
+    benchmark("StringCodec.asciiString", codec, longString('a'));
+    benchmark("StringCodec.nonAsciiString", codec, longString('€'));
+  }
+}
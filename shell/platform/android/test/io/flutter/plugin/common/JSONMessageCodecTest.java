@@ -0,0 +1,133 @@
+package io.flutter.plugin.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class JSONMessageCodecTest {
+  private static final Charset UTF8 = Charset.forName("UTF8");
+
+  // The encoding of the codec before it was streamed.
+  private static ByteBuffer encodeWithOrgJson(Object message) {
+    final Object wrapped = JSONUtil.wrap(message);
+    if (wrapped instanceof String) {
+      return utf8(JSONObject.quote((String) wrapped));
+    }
+    return utf8(wrapped.toString());
+  }
+
+  private static void assertEncodesLikeOrgJson(Object message) {
+    final ByteBuffer expected = encodeWithOrgJson(message);
+    final ByteBuffer actual = JSONMessageCodec.INSTANCE.encodeMessage(message);
+    actual.flip();
+    assertEquals(UTF8.decode(expected.duplicate()).toString(), expected, actual);
+  }
+
+  private static ByteBuffer utf8(String json) {
+    final byte[] bytes = json.getBytes(UTF8);
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+    buffer.put(bytes);
+    buffer.flip();
+    return buffer;
+  }
+
+  private static void assertDecodesLikeOrgJson(String json) throws Exception {
+    final Object expected = new JSONTokener(json).nextValue();
+    final Object actual = JSONMessageCodec.INSTANCE.decodeMessage(utf8(json));
+    assertEquals(json, expected.getClass(), actual.getClass());
+    assertEquals(json, expected.toString(), actual.toString());
+  }
+
+  @Test
+  public void encodesLikeOrgJson() {
+    final Map<String, Object> map = new LinkedHashMap<>();
+    map.put(
+        "string",
+        "quote \" slash / backslash \\ tab \t nul \u0000 \u00e9 \u20ac \uD83D\uDE00 \uD800");
+    map.put("numbers", Arrays.asList(1, -2L, (short) 3, (byte) 4, 0.5, -0.0, 1e20, 0.1f, 7.0));
+    map.put("bools", new boolean[] {true, false});
+    map.put("null", null);
+    map.put("char", 'c');
+    map.put("nested", Collections.singletonMap("list", Collections.emptyList()));
+    map.put("json", new JSONArray().put(JSONObject.NULL).put(2.5).put(new JSONObject()));
+
+    assertEncodesLikeOrgJson(map);
+    assertEncodesLikeOrgJson("top level string");
+    assertEncodesLikeOrgJson(1.0);
+    assertEncodesLikeOrgJson(Double.NaN);
+    assertEncodesLikeOrgJson(true);
+    assertEncodesLikeOrgJson('c');
+    assertEncodesLikeOrgJson(new int[] {1, 2, 3});
+  }
+
+  @Test
+  public void encodingFallsBackToOrgJsonForUnsupportedValues() {
+    assertEncodesLikeOrgJson(Arrays.asList(Collections.singletonMap(1, "non String key")));
+    assertEncodesLikeOrgJson(Arrays.asList(new Object(), new StringBuilder("builder")));
+  }
+
+  @Test
+  public void methodCodecEncodesLikeOrgJson() {
+    final MethodCall call = new MethodCall("method", Arrays.asList("a", 1, null));
+    final ByteBuffer expected = utf8("{\"method\":\"method\",\"args\":[\"a\",1,null]}");
+    final ByteBuffer actual = JSONMethodCodec.INSTANCE.encodeMethodCall(call);
+    actual.flip();
+    assertEquals(expected, actual);
+
+    final ByteBuffer envelope =
+        JSONMethodCodec.INSTANCE.encodeErrorEnvelopeWithStacktrace("code", null, 1, "trace");
+    envelope.flip();
+    assertEquals("[\"code\",null,1,\"trace\"]", UTF8.decode(envelope).toString());
+  }
+
+  @Test
+  public void decodesLikeOrgJson() throws Exception {
+    assertDecodesLikeOrgJson(
+        "{\"a\": [1, -2, 3000000000, 1.5, -0.0, 1e3, 1E-2, 99999999999999999999],"
+            + " \"b\": {\"c\": null, \"d\": true, \"e\": false},"
+            + " \"s\": \"esc \\\" \\\\ \\/ \\b \\f \\n \\r \\t \\u00e9\\ud83d\\ude00"
+            + " \u00e9 \u20ac \uD83D\uDE00\","
+            + " \"a\": \"duplicate\"}");
+    assertDecodesLikeOrgJson("[]");
+    assertDecodesLikeOrgJson("\"string\"");
+    assertDecodesLikeOrgJson("42");
+    assertDecodesLikeOrgJson("null");
+  }
+
+  @Test
+  public void decodingFallsBackToOrgJsonForLenientSyntax() throws Exception {
+    assertDecodesLikeOrgJson("{a: 'b'; c = 1}");
+    assertDecodesLikeOrgJson("[1,,2,]");
+    assertDecodesLikeOrgJson("010");
+    // Trailing content, including whitespace, is rejected like the codec always did.
+    assertThrows(
+        IllegalArgumentException.class, () -> JSONMessageCodec.INSTANCE.decodeMessage(utf8("1\n")));
+    assertThrows(
+        IllegalArgumentException.class, () -> JSONMessageCodec.INSTANCE.decodeMessage(utf8("1 2")));
+    assertThrows(
+        IllegalArgumentException.class, () -> JSONMessageCodec.INSTANCE.decodeMessage(utf8("")));
+  }
+
+  @Test
+  public void decodingMovesThePositionToTheLimit() {
+    final ByteBuffer message = utf8("[1]");
+    assertTrue(JSONMessageCodec.INSTANCE.decodeMessage(message) instanceof JSONArray);
+    assertEquals(message.limit(), message.position());
+  }
+}
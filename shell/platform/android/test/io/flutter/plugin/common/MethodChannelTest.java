@@ -0,0 +1,216 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.common;
+
+import static android.os.Looper.getMainLooper;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.res.AssetManager;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.engine.FlutterJNI;
+import io.flutter.embedding.engine.dart.DartExecutor;
+import io.flutter.embedding.engine.dart.PlatformMessageHandler;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class MethodChannelTest {
+  private FlutterJNI fakeFlutterJni;
+  private DartExecutor dartExecutor;
+  private PlatformMessageHandler platformMessageHandler;
+  private MethodChannel channel;
+
+  @Before
+  public void setUp() {
+    fakeFlutterJni = mock(FlutterJNI.class);
+    dartExecutor = new DartExecutor(fakeFlutterJni, mock(AssetManager.class));
+    dartExecutor.onAttachedToJNI();
+    final ArgumentCaptor<PlatformMessageHandler> handlerCaptor =
+        ArgumentCaptor.forClass(PlatformMessageHandler.class);
+    verify(fakeFlutterJni).setPlatformMessageHandler(handlerCaptor.capture());
+    platformMessageHandler = handlerCaptor.getValue();
+    channel = new MethodChannel(dartExecutor, "test");
+  }
+
+  private int lastReplyId() {
+    final ArgumentCaptor<Integer> replyIdCaptor = ArgumentCaptor.forClass(Integer.class);
+    verify(fakeFlutterJni)
+        .dispatchPlatformMessage(
+            eq("test"), any(ByteBuffer.class), anyInt(), replyIdCaptor.capture());
+    return replyIdCaptor.getValue();
+  }
+
+  private static ByteBuffer successEnvelope(Object result) {
+    final ByteBuffer envelope = StandardMethodCodec.INSTANCE.encodeSuccessEnvelope(result);
+    envelope.flip();
+    return envelope;
+  }
+
+  @Test
+  public void invokeMethodAsyncCompletesWithTheResult() throws Exception {
+    final MethodCallFuture future = channel.invokeMethodAsync("method", null);
+    final List<String> events = new ArrayList<>();
+    future.addListener(() -> events.add("done"), Runnable::run);
+    assertFalse(future.isDone());
+
+    platformMessageHandler.handlePlatformMessageResponse(lastReplyId(), successEnvelope("result"));
+
+    assertTrue(future.isDone());
+    assertEquals("result", future.get());
+    assertEquals(1, events.size());
+  }
+
+  @Test
+  public void invokeMethodAsyncFailsWhenTheMethodIsNotImplemented() throws Exception {
+    final MethodCallFuture future = channel.invokeMethodAsync("method", null);
+    platformMessageHandler.handlePlatformMessageResponse(lastReplyId(), null);
+
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof UnsupportedOperationException);
+    }
+  }
+
+  @Test
+  public void invokeMethodAsyncTimeoutDiscardsThePendingReply() throws Exception {
+    final MethodCallFuture future = channel.invokeMethodAsync("method", null, 1000, null);
+    assertEquals(1, dartExecutor.getPendingChannelResponseCount());
+
+    shadowOf(getMainLooper()).idleFor(1000, TimeUnit.MILLISECONDS);
+
+    assertTrue(future.isDone());
+    assertEquals(0, dartExecutor.getPendingChannelResponseCount());
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+  }
+
+  @Test
+  public void cancelDiscardsThePendingReplyAndIgnoresLateReplies() {
+    final MethodCallFuture future = channel.invokeMethodAsync("method", null, 1000, null);
+    final int replyId = lastReplyId();
+
+    assertTrue(future.cancel(false));
+
+    assertTrue(future.isCancelled());
+    assertEquals(0, dartExecutor.getPendingChannelResponseCount());
+    platformMessageHandler.handlePlatformMessageResponse(replyId, successEnvelope("late"));
+    assertTrue(future.isCancelled());
+  }
+
+  @Test
+  public void invokeMethodAsyncDecodesOnTheDecodeExecutor() throws Exception {
+    final List<Runnable> decodeTasks = new ArrayList<>();
+    final MethodCallFuture future = channel.invokeMethodAsync("method", null, 0, decodeTasks::add);
+    final ByteBuffer reply = ByteBuffer.allocateDirect(64);
+    reply.put(successEnvelope("result"));
+    reply.flip();
+
+    platformMessageHandler.handlePlatformMessageResponse(lastReplyId(), reply);
+
+    // The messenger invalidates the direct reply, which must have been copied.
+    assertEquals(0, reply.limit());
+    assertFalse(future.isDone());
+    assertEquals(1, decodeTasks.size());
+    decodeTasks.get(0).run();
+    assertEquals("result", future.get());
+  }
+
+  @Test
+  public void codecExecutorDecodesAndEncodesOffThePlatformThread() {
+    final BinaryMessenger messenger = mock(BinaryMessenger.class);
+    final List<Runnable> codecTasks = new ArrayList<>();
+    final MethodChannel offThreadChannel =
+        new MethodChannel(messenger, "test", StandardMethodCodec.INSTANCE, null, codecTasks::add);
+    final List<MethodCall> calls = new ArrayList<>();
+    offThreadChannel.setMethodCallHandler(
+        (call, result) -> {
+          calls.add(call);
+          result.success("result");
+        });
+    final ArgumentCaptor<BinaryMessenger.BinaryMessageHandler> handlerCaptor =
+        ArgumentCaptor.forClass(BinaryMessenger.BinaryMessageHandler.class);
+    verify(messenger).setMessageHandler(eq("test"), handlerCaptor.capture());
+    final ByteBuffer message =
+        StandardMethodCodec.INSTANCE.encodeMethodCall(new MethodCall("method", "arguments"));
+    message.flip();
+    final BinaryMessenger.BinaryReply reply = mock(BinaryMessenger.BinaryReply.class);
+
+    handlerCaptor.getValue().onMessage(message, reply);
+    message.limit(0);
+
+    assertEquals(1, codecTasks.size());
+    codecTasks.remove(0).run();
+    assertTrue(calls.isEmpty());
+    shadowOf(getMainLooper()).idle();
+    assertEquals(1, calls.size());
+    assertEquals("method", calls.get(0).method);
+    assertEquals("arguments", calls.get(0).arguments);
+    verify(reply, never()).reply(any());
+
+    assertEquals(1, codecTasks.size());
+    codecTasks.remove(0).run();
+    final ArgumentCaptor<ByteBuffer> envelopeCaptor = ArgumentCaptor.forClass(ByteBuffer.class);
+    verify(reply).reply(envelopeCaptor.capture());
+    final ByteBuffer envelope = envelopeCaptor.getValue();
+    envelope.flip();
+    assertEquals("result", StandardMethodCodec.INSTANCE.decodeEnvelope(envelope));
+  }
+
+  @Test
+  public void codecExecutorDoesNotDispatchCallsDecodedAfterTheHandlerWasRemoved() {
+    final BinaryMessenger messenger = mock(BinaryMessenger.class);
+    final List<Runnable> codecTasks = new ArrayList<>();
+    final MethodChannel offThreadChannel =
+        new MethodChannel(messenger, "test", StandardMethodCodec.INSTANCE, null, codecTasks::add);
+    final List<MethodCall> calls = new ArrayList<>();
+    offThreadChannel.setMethodCallHandler(
+        (call, result) -> {
+          calls.add(call);
+          result.success("result");
+        });
+    final ArgumentCaptor<BinaryMessenger.BinaryMessageHandler> handlerCaptor =
+        ArgumentCaptor.forClass(BinaryMessenger.BinaryMessageHandler.class);
+    verify(messenger).setMessageHandler(eq("test"), handlerCaptor.capture());
+    final ByteBuffer message =
+        StandardMethodCodec.INSTANCE.encodeMethodCall(new MethodCall("method", "arguments"));
+    message.flip();
+    final BinaryMessenger.BinaryReply reply = mock(BinaryMessenger.BinaryReply.class);
+
+    handlerCaptor.getValue().onMessage(message, reply);
+    offThreadChannel.setMethodCallHandler(null);
+    codecTasks.remove(0).run();
+    shadowOf(getMainLooper()).idle();
+
+    assertTrue(calls.isEmpty());
+    verify(reply).reply(null);
+    assertTrue(codecTasks.isEmpty());
+  }
+}
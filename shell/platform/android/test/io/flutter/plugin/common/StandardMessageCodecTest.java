@@ -2,13 +2,18 @@ package io.flutter.plugin.common;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import android.text.SpannableString;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.annotation.Config;
@@ -144,4 +149,56 @@ public class StandardMessageCodecTest {
             });
     assertTrue(exception.getMessage().contains("NotEncodable"));
   }
+
+  @Test
+  public void itEncodesStringsAsUtf8() {
+    StandardMessageCodec codec = new StandardMessageCodec();
+    // ASCII, two, three and four byte sequences, and an unpaired surrogate that encodes as '?'.
+    String value = "key \u00e9 \u20ac \uD83D\uDE00 \uD800";
+    byte[] utf8 = value.getBytes(Charset.forName("UTF8"));
+
+    ByteBuffer message = codec.encodeMessage(value);
+    message.flip();
+    ByteBuffer expected = ByteBuffer.allocateDirect(2 + utf8.length);
+    expected.put(new byte[] {STRING, (byte) utf8.length});
+    expected.put(utf8);
+    expected.flip();
+    assertEquals(expected, message);
+
+    assertEquals(new String(utf8, Charset.forName("UTF8")), codec.decodeMessage(message));
+  }
+
+  @Test
+  public void itDecodesRepeatedMapKeys() {
+    StandardMessageCodec codec = new StandardMessageCodec();
+    Map<String, Object> map = new HashMap<>();
+    map.put("short key", "value");
+    map.put("a key that is longer than the cached strings", 1);
+
+    for (int i = 0; i < 2; i++) {
+      ByteBuffer message = codec.encodeMessage(map);
+      message.flip();
+      assertEquals(map, codec.decodeMessage(message));
+    }
+  }
+
+  @Test
+  public void itInternsRepeatedStringsOnlyWhenEnabled() {
+    StandardMessageCodec codec = new StandardMessageCodec(true);
+    ByteBuffer message = codec.encodeMessage("interned key");
+
+    // Strings are only cached once they were decoded twice, so unique strings aren't cached.
+    Object[] decoded = new Object[3];
+    for (int i = 0; i < decoded.length; i++) {
+      message.flip();
+      decoded[i] = codec.decodeMessage(message);
+    }
+    assertEquals("interned key", decoded[0]);
+    assertSame(decoded[1], decoded[2]);
+
+    message.flip();
+    Object notInterned = StandardMessageCodec.INSTANCE.decodeMessage(message);
+    assertEquals("interned key", notInterned);
+    assertNotSame(decoded[2], notInterned);
+  }
 }
@@ -0,0 +1,31 @@
+package io.flutter.plugin.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class StringCodecTest {
+  @Test
+  public void itEncodesLikeGetBytes() {
+    // ASCII, two, three and four byte sequences, and an unpaired surrogate that encodes as '?'.
+    String value = "key \u00e9 \u20ac \uD83D\uDE00 \uD800";
+    byte[] utf8 = value.getBytes(Charset.forName("UTF8"));
+
+    ByteBuffer message = StringCodec.INSTANCE.encodeMessage(value);
+    assertTrue(message.isDirect());
+    assertEquals(utf8.length, message.position());
+    message.flip();
+    assertEquals(ByteBuffer.wrap(utf8), message);
+
+    assertEquals(
+        new String(utf8, Charset.forName("UTF8")), StringCodec.INSTANCE.decodeMessage(message));
+  }
+}
@@ -5,7 +5,6 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.eq;
@@ -34,8 +33,6 @@ import android.view.inputmethod.InputConnection;
 import android.view.inputmethod.InputMethodManager;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
-import com.ibm.icu.lang.UCharacter;
-import com.ibm.icu.lang.UProperty;
 import io.flutter.embedding.android.KeyboardManager;
 import io.flutter.embedding.engine.FlutterJNI;
 import io.flutter.embedding.engine.dart.DartExecutor;
@@ -181,13 +178,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
     adaptor.performPrivateCommand("actionCommand", null);
 
     ArgumentCaptor<String> channelCaptor = ArgumentCaptor.forClass(String.class);
@@ -210,13 +201,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
 
     Bundle bundle = new Bundle();
     byte[] buffer = new byte[] {'a', 'b', 'c', 'd'};
@@ -245,13 +230,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
 
     Bundle bundle = new Bundle();
     byte b = 3;
@@ -278,13 +257,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
 
     Bundle bundle = new Bundle();
     char[] buffer = new char[] {'a', 'b', 'c', 'd'};
@@ -314,13 +287,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
 
     Bundle bundle = new Bundle();
     char b = 'a';
@@ -347,13 +314,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
 
     Bundle bundle = new Bundle();
     CharSequence charSequence1 = new StringBuffer("abc");
@@ -384,13 +345,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
 
     Bundle bundle = new Bundle();
     CharSequence charSequence = new StringBuffer("abc");
@@ -419,13 +374,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
 
     Bundle bundle = new Bundle();
     float value = 0.5f;
@@ -452,13 +401,7 @@ public class InputConnectionAdaptorTest {
     ListenableEditingState editable = sampleEditable(0, 0);
     InputConnectionAdaptor adaptor =
         new InputConnectionAdaptor(
-            testView,
-            client,
-            textInputChannel,
-            mockKeyboardManager,
-            editable,
-            null,
-            mockFlutterJNI);
+            testView, client, textInputChannel, mockKeyboardManager, editable, null);
 
     Bundle bundle = new Bundle();
     float[] value = {0.5f, 0.6f};
@@ -1185,42 +1128,8 @@ public class InputConnectionAdaptorTest {
     View testView = new View(ApplicationProvider.getApplicationContext());
     int client = 0;
     TextInputChannel textInputChannel = mock(TextInputChannel.class);
-    FlutterJNI mockFlutterJNI = mock(FlutterJNI.class);
-    when(mockFlutterJNI.isCodePointEmoji(anyInt()))
-        .thenAnswer((invocation) -> Emoji.isEmoji((int) invocation.getArguments()[0]));
-    when(mockFlutterJNI.isCodePointEmojiModifier(anyInt()))
-        .thenAnswer((invocation) -> Emoji.isEmojiModifier((int) invocation.getArguments()[0]));
-    when(mockFlutterJNI.isCodePointEmojiModifierBase(anyInt()))
-        .thenAnswer((invocation) -> Emoji.isEmojiModifierBase((int) invocation.getArguments()[0]));
-    when(mockFlutterJNI.isCodePointVariantSelector(anyInt()))
-        .thenAnswer((invocation) -> Emoji.isVariationSelector((int) invocation.getArguments()[0]));
-    when(mockFlutterJNI.isCodePointRegionalIndicator(anyInt()))
-        .thenAnswer(
-            (invocation) -> Emoji.isRegionalIndicatorSymbol((int) invocation.getArguments()[0]));
     return new InputConnectionAdaptor(
-        testView, client, textInputChannel, mockKeyboardManager, editable, null, mockFlutterJNI);
-  }
-
-  private static class Emoji {
-    public static boolean isEmoji(int codePoint) {
-      return UCharacter.hasBinaryProperty(codePoint, UProperty.EMOJI);
-    }
-
-    public static boolean isEmojiModifier(int codePoint) {
-      return UCharacter.hasBinaryProperty(codePoint, UProperty.EMOJI_MODIFIER);
-    }
-
-    public static boolean isEmojiModifierBase(int codePoint) {
-      return UCharacter.hasBinaryProperty(codePoint, UProperty.EMOJI_MODIFIER_BASE);
-    }
-
-    public static boolean isRegionalIndicatorSymbol(int codePoint) {
-      return UCharacter.hasBinaryProperty(codePoint, UProperty.REGIONAL_INDICATOR);
-    }
-
-    public static boolean isVariationSelector(int codePoint) {
-      return UCharacter.hasBinaryProperty(codePoint, UProperty.VARIATION_SELECTOR);
-    }
+        testView, client, textInputChannel, mockKeyboardManager, editable, null);
   }
 
   private class TestTextInputChannel extends TextInputChannel {
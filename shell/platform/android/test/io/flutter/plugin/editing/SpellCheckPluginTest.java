@@ -2,6 +2,7 @@ package io.flutter.plugin.editing;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.mock;
@@ -88,19 +89,208 @@ public class SpellCheckPluginTest {
   }
 
   @Test
-  public void initiateSpellCheckThrowsErrorWhenResultPending() {
+  public void initiateSpellCheckQueuesRequestWhenResultPending() {
     SpellCheckChannel fakeSpellCheckChannel = mock(SpellCheckChannel.class);
     TextServicesManager fakeTextServicesManager = mock(TextServicesManager.class);
     SpellCheckPlugin spellCheckPlugin =
         spy(new SpellCheckPlugin(fakeTextServicesManager, fakeSpellCheckChannel));
     MethodChannel.Result mockPendingResult = mock(MethodChannel.Result.class);
     MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    SpellCheckerSession fakeSpellCheckerSession = mock(SpellCheckerSession.class);
+    when(fakeTextServicesManager.newSpellCheckerSession(
+            null, new Locale("en", "US"), spellCheckPlugin, true))
+        .thenReturn(fakeSpellCheckerSession);
     spellCheckPlugin.pendingResult = mockPendingResult;
+    spellCheckPlugin.pendingResultText = "Hello, world!";
 
     spellCheckPlugin.initiateSpellCheck("en-US", "Hello, wrold!", mockResult);
 
-    verify(mockResult).error("error", "Previous spell check request still pending.", null);
+    verify(mockResult, never()).error(any(), any(), any());
     verify(spellCheckPlugin, never()).performSpellCheck("en-US", "Hello, wrold!");
+
+    // The queued request starts once the pending one completes.
+    spellCheckPlugin.onGetSentenceSuggestions(new SentenceSuggestionsInfo[] {});
+
+    verify(mockPendingResult).success(new ArrayList<String>(Arrays.asList("Hello, world!", "")));
+    verify(spellCheckPlugin).performSpellCheck("en-US", "Hello, wrold!");
+    assertEquals(mockResult, spellCheckPlugin.pendingResult);
+  }
+
+  @Test
+  public void initiateSpellCheckSupersedesQueuedRequest() {
+    SpellCheckChannel fakeSpellCheckChannel = mock(SpellCheckChannel.class);
+    TextServicesManager fakeTextServicesManager = mock(TextServicesManager.class);
+    SpellCheckPlugin spellCheckPlugin =
+        spy(new SpellCheckPlugin(fakeTextServicesManager, fakeSpellCheckChannel));
+    MethodChannel.Result mockSupersededResult = mock(MethodChannel.Result.class);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    spellCheckPlugin.pendingResult = mock(MethodChannel.Result.class);
+    spellCheckPlugin.pendingResultText = "Hello, world!";
+
+    spellCheckPlugin.initiateSpellCheck("en-US", "Hello, wor!", mockSupersededResult);
+    spellCheckPlugin.initiateSpellCheck("en-US", "Hello, wrold!", mockResult);
+
+    verify(mockSupersededResult).success(null);
+    verify(mockSupersededResult, never()).error(any(), any(), any());
+    verify(mockResult, never()).success(any());
+  }
+
+  @Test
+  public void performSpellCheckOnlySubmitsUncachedSentences() {
+    SpellCheckChannel fakeSpellCheckChannel = mock(SpellCheckChannel.class);
+    TextServicesManager fakeTextServicesManager = mock(TextServicesManager.class);
+    SpellCheckPlugin spellCheckPlugin =
+        spy(new SpellCheckPlugin(fakeTextServicesManager, fakeSpellCheckChannel));
+    SpellCheckerSession fakeSpellCheckerSession = mock(SpellCheckerSession.class);
+    when(fakeTextServicesManager.newSpellCheckerSession(
+            null, new Locale("en", "US"), spellCheckPlugin, true))
+        .thenReturn(fakeSpellCheckerSession);
+    MethodChannel.Result mockFirstResult = mock(MethodChannel.Result.class);
+    MethodChannel.Result mockSecondResult = mock(MethodChannel.Result.class);
+    ArgumentCaptor<TextInfo[]> textInfosCaptor = ArgumentCaptor.forClass(TextInfo[].class);
+
+    spellCheckPlugin.initiateSpellCheck("en-US", "Hello, wrold! Nice day.", mockFirstResult);
+    verify(fakeSpellCheckerSession).getSentenceSuggestions(textInfosCaptor.capture(), eq(5));
+    assertEquals(2, textInfosCaptor.getValue().length);
+    assertEquals("Hello, wrold! ", textInfosCaptor.getValue()[0].getText());
+    assertEquals("Nice day.", textInfosCaptor.getValue()[1].getText());
+    spellCheckPlugin.onGetSentenceSuggestions(
+        new SentenceSuggestionsInfo[] {
+          new SentenceSuggestionsInfo(
+              (new SuggestionsInfo[] {
+                new SuggestionsInfo(
+                    SuggestionsInfo.RESULT_ATTR_LOOKS_LIKE_TYPO, new String[] {"world", "word"})
+              }),
+              new int[] {7},
+              new int[] {5}),
+          new SentenceSuggestionsInfo(new SuggestionsInfo[] {}, new int[] {}, new int[] {})
+        });
+    verify(mockFirstResult)
+        .success(
+            new ArrayList<String>(Arrays.asList("Hello, wrold! Nice day.", "7.11.world\nword")));
+
+    // Only the edited sentence is sent to the spell checker, and the cached span is kept.
+    spellCheckPlugin.initiateSpellCheck("en-US", "Hello, wrold! Nice dya.", mockSecondResult);
+    verify(fakeSpellCheckerSession, times(2))
+        .getSentenceSuggestions(textInfosCaptor.capture(), eq(5));
+    assertEquals(1, textInfosCaptor.getValue().length);
+    assertEquals("Nice dya.", textInfosCaptor.getValue()[0].getText());
+    spellCheckPlugin.onGetSentenceSuggestions(
+        new SentenceSuggestionsInfo[] {
+          new SentenceSuggestionsInfo(
+              (new SuggestionsInfo[] {
+                new SuggestionsInfo(
+                    SuggestionsInfo.RESULT_ATTR_LOOKS_LIKE_TYPO, new String[] {"day"})
+              }),
+              new int[] {5},
+              new int[] {3})
+        });
+    verify(mockSecondResult)
+        .success(
+            new ArrayList<String>(
+                Arrays.asList(
+                    "Hello, wrold! Nice dya.", "7.11.world\nword", "19.21.day")));
+  }
+
+  @Test
+  public void initiateSpellCheckRespondsFromCacheWithoutSpellChecker() {
+    SpellCheckChannel fakeSpellCheckChannel = mock(SpellCheckChannel.class);
+    TextServicesManager fakeTextServicesManager = mock(TextServicesManager.class);
+    SpellCheckPlugin spellCheckPlugin =
+        spy(new SpellCheckPlugin(fakeTextServicesManager, fakeSpellCheckChannel));
+    SpellCheckerSession fakeSpellCheckerSession = mock(SpellCheckerSession.class);
+    when(fakeTextServicesManager.newSpellCheckerSession(
+            null, new Locale("en", "US"), spellCheckPlugin, true))
+        .thenReturn(fakeSpellCheckerSession);
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+
+    spellCheckPlugin.initiateSpellCheck("en-US", "Hello!", mock(MethodChannel.Result.class));
+    spellCheckPlugin.onGetSentenceSuggestions(
+        new SentenceSuggestionsInfo[] {
+          new SentenceSuggestionsInfo(new SuggestionsInfo[] {}, new int[] {}, new int[] {})
+        });
+    spellCheckPlugin.initiateSpellCheck("en-US", "Hello!", mockResult);
+
+    verify(fakeSpellCheckerSession, times(1))
+        .getSentenceSuggestions(any(TextInfo[].class), anyInt());
+    verify(mockResult).success(new ArrayList<String>(Arrays.asList("Hello!")));
+  }
+
+  @Test
+  public void performSpellCheckRespondsWithAllSentencesOfALongText() {
+    SpellCheckChannel fakeSpellCheckChannel = mock(SpellCheckChannel.class);
+    TextServicesManager fakeTextServicesManager = mock(TextServicesManager.class);
+    SpellCheckPlugin spellCheckPlugin =
+        spy(new SpellCheckPlugin(fakeTextServicesManager, fakeSpellCheckChannel));
+    SpellCheckerSession fakeSpellCheckerSession = mock(SpellCheckerSession.class);
+    when(fakeTextServicesManager.newSpellCheckerSession(
+            null, new Locale("en", "US"), spellCheckPlugin, true))
+        .thenReturn(fakeSpellCheckerSession);
+    MethodChannel.Result mockFirstResult = mock(MethodChannel.Result.class);
+    MethodChannel.Result mockSecondResult = mock(MethodChannel.Result.class);
+    ArgumentCaptor<TextInfo[]> textInfosCaptor = ArgumentCaptor.forClass(TextInfo[].class);
+
+    // Each sentence is 6 characters long, and has a misspelled word.
+    int sentenceCount = SpellCheckPlugin.MAX_CACHED_SEGMENTS + 10;
+    StringBuilder text = new StringBuilder();
+    for (int i = 0; i < sentenceCount; i++) {
+      text.append("Wrod. ");
+    }
+    SentenceSuggestionsInfo[] results = new SentenceSuggestionsInfo[sentenceCount];
+    ArrayList<String> expected = new ArrayList<>();
+    expected.add(text.toString());
+    for (int i = 0; i < sentenceCount; i++) {
+      results[i] =
+          new SentenceSuggestionsInfo(
+              (new SuggestionsInfo[] {
+                new SuggestionsInfo(
+                    SuggestionsInfo.RESULT_ATTR_LOOKS_LIKE_TYPO, new String[] {"Word"})
+              }),
+              new int[] {0},
+              new int[] {4});
+      expected.add((i * 6) + "." + (i * 6 + 3) + ".Word");
+    }
+
+    spellCheckPlugin.initiateSpellCheck("en-US", text.toString(), mockFirstResult);
+    verify(fakeSpellCheckerSession).getSentenceSuggestions(textInfosCaptor.capture(), eq(5));
+    assertEquals(sentenceCount, textInfosCaptor.getValue().length);
+    spellCheckPlugin.onGetSentenceSuggestions(results);
+    verify(mockFirstResult).success(expected);
+
+    // The results of every sentence are still cached.
+    spellCheckPlugin.initiateSpellCheck("en-US", text.toString(), mockSecondResult);
+    verify(fakeSpellCheckerSession, times(1))
+        .getSentenceSuggestions(any(TextInfo[].class), anyInt());
+    verify(mockSecondResult).success(expected);
+  }
+
+  @Test
+  public void resultCacheIsBounded() {
+    SpellCheckChannel fakeSpellCheckChannel = mock(SpellCheckChannel.class);
+    TextServicesManager fakeTextServicesManager = mock(TextServicesManager.class);
+    SpellCheckPlugin spellCheckPlugin =
+        spy(new SpellCheckPlugin(fakeTextServicesManager, fakeSpellCheckChannel));
+    SpellCheckerSession fakeSpellCheckerSession = mock(SpellCheckerSession.class);
+    when(fakeTextServicesManager.newSpellCheckerSession(
+            null, new Locale("en", "US"), spellCheckPlugin, true))
+        .thenReturn(fakeSpellCheckerSession);
+
+    int sentenceCount = SpellCheckPlugin.MAX_CACHE_CAPACITY + 10;
+    StringBuilder text = new StringBuilder();
+    SentenceSuggestionsInfo[] results = new SentenceSuggestionsInfo[sentenceCount];
+    for (int i = 0; i < sentenceCount; i++) {
+      text.append("Word").append(i).append(". ");
+      results[i] =
+          new SentenceSuggestionsInfo(new SuggestionsInfo[] {}, new int[] {}, new int[] {});
+    }
+
+    spellCheckPlugin.initiateSpellCheck("en-US", text.toString(), mock(MethodChannel.Result.class));
+    spellCheckPlugin.onGetSentenceSuggestions(results);
+    assertEquals(SpellCheckPlugin.MAX_CACHE_CAPACITY, spellCheckPlugin.resultCache.size());
+
+    // A shorter text shrinks the cache again.
+    spellCheckPlugin.initiateSpellCheck("en-US", "Hello.", mock(MethodChannel.Result.class));
+    assertEquals(SpellCheckPlugin.MAX_CACHED_SEGMENTS, spellCheckPlugin.resultCache.size());
   }
 
   @Test
@@ -0,0 +1,68 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.editing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import com.ibm.icu.lang.UCharacter;
+import com.ibm.icu.lang.UProperty;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class UnicodePropertyTableTest {
+  // The engine answered these queries with u_hasBinaryProperty, so the table must agree with ICU
+  // for every code point.
+  //
+  // This compares against icu4j, the testImplementation dependency in test_runner/build.gradle,
+  // not against the engine's own ICU, which the table is generated from. The two only agree when
+  // they implement the same Unicode version, so when the engine's ICU is rolled, regenerate
+  // UnicodePropertyRanges.java with tools/gen_unicode_properties_java.py and update icu4j to the
+  // matching release.
+  private static void verifyParity(int tableProperty, int icuProperty) {
+    for (int codePoint = 0; codePoint <= Character.MAX_CODE_POINT; codePoint += 1) {
+      assertEquals(
+          "Mismatch for U+" + Integer.toHexString(codePoint),
+          UCharacter.hasBinaryProperty(codePoint, icuProperty),
+          UnicodePropertyTable.hasProperty(codePoint, tableProperty));
+    }
+  }
+
+  @Test
+  public void emojiMatchesIcu() {
+    verifyParity(UnicodePropertyTable.EMOJI, UProperty.EMOJI);
+  }
+
+  @Test
+  public void emojiModifierMatchesIcu() {
+    verifyParity(UnicodePropertyTable.EMOJI_MODIFIER, UProperty.EMOJI_MODIFIER);
+  }
+
+  @Test
+  public void emojiModifierBaseMatchesIcu() {
+    verifyParity(UnicodePropertyTable.EMOJI_MODIFIER_BASE, UProperty.EMOJI_MODIFIER_BASE);
+  }
+
+  @Test
+  public void variationSelectorMatchesIcu() {
+    verifyParity(UnicodePropertyTable.VARIATION_SELECTOR, UProperty.VARIATION_SELECTOR);
+  }
+
+  @Test
+  public void regionalIndicatorMatchesIcu() {
+    verifyParity(UnicodePropertyTable.REGIONAL_INDICATOR, UProperty.REGIONAL_INDICATOR);
+  }
+
+  @Test
+  public void outOfRangeCodePointsHaveNoProperties() {
+    assertFalse(UnicodePropertyTable.hasProperty(-1, UnicodePropertyTable.EMOJI));
+    assertFalse(
+        UnicodePropertyTable.hasProperty(Character.MAX_CODE_POINT + 1, UnicodePropertyTable.EMOJI));
+  }
+}
@@ -0,0 +1,140 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.annotation.TargetApi;
+import android.media.Image;
+import android.media.ImageReader;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.embedding.android.FlutterImageView;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+@TargetApi(19)
+public class FlutterImageViewPoolTest {
+  // The size of a 10x10 reader with 3 RGBA_8888 images.
+  private static final long READER_BYTES = 10 * 10 * 4 * 3;
+
+  private static FlutterImageView mockImageView(int width, int height) {
+    final ImageReader reader = mock(ImageReader.class);
+    when(reader.getWidth()).thenReturn(width);
+    when(reader.getHeight()).thenReturn(height);
+    when(reader.getMaxImages()).thenReturn(3);
+    final FlutterImageView view = mock(FlutterImageView.class);
+    when(view.getImageReader()).thenReturn(reader);
+    return view;
+  }
+
+  private static final FlutterImageViewPool.Factory factory =
+      new FlutterImageViewPool.Factory() {
+        @Override
+        public FlutterImageView create(int width, int height) {
+          return mockImageView(width, height);
+        }
+      };
+
+  @Test
+  public void reusesReleasedViewOfTheSameSize() {
+    final FlutterImageViewPool pool = new FlutterImageViewPool(factory, 10 * READER_BYTES);
+    final FlutterImageView view = pool.acquire(10, 10);
+    pool.release(view);
+    assertEquals(1, pool.idleCount());
+    assertEquals(READER_BYTES, pool.idleBytes());
+
+    assertNotSame(view, pool.acquire(20, 10));
+    assertSame(view, pool.acquire(10, 10));
+    assertEquals(0, pool.idleCount());
+    assertEquals(0, pool.idleBytes());
+    assertEquals(1, pool.hitCount());
+    assertEquals(2, pool.missCount());
+    verify(view, never()).closeImageReader();
+  }
+
+  @Test
+  public void drainsQueuedImagesOnRelease() {
+    final FlutterImageViewPool pool = new FlutterImageViewPool(factory, 10 * READER_BYTES);
+    final FlutterImageView view = pool.acquire(10, 10);
+    final Image image = mock(Image.class);
+    when(view.getImageReader().acquireNextImage()).thenReturn(image, (Image) null);
+
+    pool.release(view);
+
+    verify(image, times(1)).close();
+    verify(view, never()).closeImageReader();
+    assertEquals(1, pool.idleCount());
+  }
+
+  @Test
+  public void closesViewThatCannotBeDrained() {
+    final FlutterImageViewPool pool = new FlutterImageViewPool(factory, 10 * READER_BYTES);
+    final FlutterImageView view = pool.acquire(10, 10);
+    when(view.getImageReader().acquireNextImage()).thenThrow(new IllegalStateException());
+
+    pool.release(view);
+
+    verify(view, times(1)).closeImageReader();
+    assertEquals(0, pool.idleCount());
+    assertEquals(1, pool.evictionCount());
+  }
+
+  @Test
+  public void evictsLeastRecentlyReleasedViewsAboveBudget() {
+    final FlutterImageViewPool pool = new FlutterImageViewPool(factory, 2 * READER_BYTES);
+    final FlutterImageView first = pool.acquire(10, 10);
+    final FlutterImageView second = pool.acquire(10, 10);
+    final FlutterImageView third = pool.acquire(10, 10);
+
+    pool.release(first);
+    pool.release(second);
+    pool.release(third);
+
+    verify(first, times(1)).closeImageReader();
+    verify(second, never()).closeImageReader();
+    verify(third, never()).closeImageReader();
+    assertEquals(2, pool.idleCount());
+    assertEquals(2 * READER_BYTES, pool.idleBytes());
+    assertEquals(1, pool.evictionCount());
+
+    // The most recently released view is reused first.
+    assertSame(third, pool.acquire(10, 10));
+
+    pool.setBudgetBytes(0);
+    verify(second, times(1)).closeImageReader();
+    assertEquals(0, pool.idleCount());
+  }
+
+  @Test
+  public void clearClosesIdleViews() {
+    final FlutterImageViewPool pool = new FlutterImageViewPool(factory, 10 * READER_BYTES);
+    final FlutterImageView view = pool.acquire(10, 10);
+    pool.release(view);
+
+    pool.clear();
+
+    verify(view, times(1)).closeImageReader();
+    assertEquals(0, pool.idleCount());
+    assertEquals(0, pool.idleBytes());
+  }
+
+  @Test
+  public void acquireClampsEmptySizes() {
+    final FlutterImageViewPool pool = new FlutterImageViewPool(factory, 10 * READER_BYTES);
+    final FlutterImageView view = pool.acquire(0, -1);
+    assertEquals(1, view.getImageReader().getWidth());
+    assertEquals(1, view.getImageReader().getHeight());
+  }
+}
@@ -10,6 +10,8 @@ import android.content.Context;
 import android.graphics.BlendMode;
 import android.graphics.Canvas;
 import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
 import android.graphics.SurfaceTexture;
 import android.view.Surface;
 import android.view.View;
@@ -17,6 +19,8 @@ import android.view.ViewTreeObserver;
 import androidx.annotation.NonNull;
 import androidx.test.core.app.ApplicationProvider;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.ArgumentCaptor;
@@ -168,6 +172,134 @@ public class PlatformViewWrapperTest {
     verifyNoMoreInteractions(tx);
   }
 
+  @Test
+  public void draw_tracksDamagedArea() {
+    final Surface surface = mock(Surface.class);
+    final PlatformViewWrapper wrapper =
+        new PlatformViewWrapper(ctx) {
+          @Override
+          protected Surface createSurface(@NonNull SurfaceTexture tx) {
+            return surface;
+          }
+        };
+    wrapper.addView(new View(ctx));
+    wrapper.measure(100, 100);
+    wrapper.layout(0, 0, 100, 100);
+
+    final SurfaceTexture tx = mock(SurfaceTexture.class);
+    when(tx.isReleased()).thenReturn(false);
+    when(surface.lockHardwareCanvas()).thenReturn(mock(Canvas.class));
+    when(surface.isValid()).thenReturn(true);
+    wrapper.setTexture(tx);
+    // The first draw after the texture is set redraws the whole view.
+    wrapper.draw(new Canvas());
+
+    // Test.
+    wrapper.invalidateChildInParent(new int[] {5, 0}, new Rect(10, 10, 20, 20));
+    wrapper.draw(new Canvas());
+
+    // Verify.
+    verify(surface, times(3)).lockHardwareCanvas();
+    verify(surface, never()).lockCanvas(any());
+    assertEquals(2, wrapper.getDrawCount());
+    assertEquals(0, wrapper.getPartialDrawCount());
+    assertEquals((1 + 0.01f) / 2, wrapper.getDamagedAreaFraction(), 0.0001f);
+    assertEquals(1f, wrapper.getRedrawnAreaFraction(), 0.0001f);
+  }
+
+  @Test
+  public void draw_withPartialRedraw_locksDamagedArea() {
+    final Surface surface = mock(Surface.class);
+    final PlatformViewWrapper wrapper =
+        new PlatformViewWrapper(ctx, true) {
+          @Override
+          protected Surface createSurface(@NonNull SurfaceTexture tx) {
+            return surface;
+          }
+        };
+    wrapper.addView(new View(ctx));
+    wrapper.measure(100, 100);
+    wrapper.layout(0, 0, 100, 100);
+
+    final SurfaceTexture tx = mock(SurfaceTexture.class);
+    when(tx.isReleased()).thenReturn(false);
+    final Canvas canvas = mock(Canvas.class);
+    final List<Rect> lockedRects = new ArrayList<>();
+    when(surface.lockCanvas(any()))
+        .thenAnswer(
+            invocation -> {
+              final Rect dirty = invocation.getArgument(0);
+              lockedRects.add(dirty == null ? null : new Rect(dirty));
+              return canvas;
+            });
+    when(surface.isValid()).thenReturn(true);
+    wrapper.setTexture(tx);
+    wrapper.draw(new Canvas());
+
+    // Test.
+    wrapper.invalidateChildInParent(new int[2], new Rect(10, 10, 20, 20));
+    wrapper.invalidateChildInParent(new int[2], new Rect(30, 10, 40, 20));
+    wrapper.draw(new Canvas());
+
+    // Verify.
+    verify(surface, never()).lockHardwareCanvas();
+    verify(surface, times(3)).unlockCanvasAndPost(canvas);
+    verify(canvas, times(3)).drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+    assertEquals(3, lockedRects.size());
+    // The whole surface is cleared when the texture is set, and then fully drawn.
+    assertNull(lockedRects.get(0));
+    assertEquals(new Rect(0, 0, 100, 100), lockedRects.get(1));
+    assertEquals(new Rect(10, 10, 40, 20), lockedRects.get(2));
+    assertEquals(2, wrapper.getDrawCount());
+    assertEquals(1, wrapper.getPartialDrawCount());
+    assertEquals((1 + 0.03f) / 2, wrapper.getRedrawnAreaFraction(), 0.0001f);
+  }
+
+  @Test
+  public void onDescendantInvalidated_damagesWholeViewForTransformedDescendants() {
+    final Surface surface = mock(Surface.class);
+    final PlatformViewWrapper wrapper =
+        new PlatformViewWrapper(ctx, true) {
+          @Override
+          protected Surface createSurface(@NonNull SurfaceTexture tx) {
+            return surface;
+          }
+        };
+    final View child = new View(ctx);
+    wrapper.addView(child);
+    wrapper.measure(100, 100);
+    wrapper.layout(0, 0, 100, 100);
+    child.layout(10, 10, 20, 20);
+
+    final SurfaceTexture tx = mock(SurfaceTexture.class);
+    when(tx.isReleased()).thenReturn(false);
+    final List<Rect> lockedRects = new ArrayList<>();
+    when(surface.lockCanvas(any()))
+        .thenAnswer(
+            invocation -> {
+              final Rect dirty = invocation.getArgument(0);
+              lockedRects.add(dirty == null ? null : new Rect(dirty));
+              return mock(Canvas.class);
+            });
+    when(surface.isValid()).thenReturn(true);
+    wrapper.setTexture(tx);
+    wrapper.draw(new Canvas());
+
+    // Test.
+    wrapper.onDescendantInvalidated(child, child);
+    wrapper.draw(new Canvas());
+    child.setTranslationX(50);
+    child.setScaleY(2);
+    wrapper.onDescendantInvalidated(child, child);
+    wrapper.draw(new Canvas());
+
+    // Verify.
+    assertEquals(4, lockedRects.size());
+    assertEquals(new Rect(10, 10, 20, 20), lockedRects.get(2));
+    // The translated and scaled child is drawn outside of its layout bounds.
+    assertEquals(new Rect(0, 0, 100, 100), lockedRects.get(3));
+  }
+
   @Test
   public void focusChangeListener_hasFocus() {
     final ViewTreeObserver viewTreeObserver = mock(ViewTreeObserver.class);
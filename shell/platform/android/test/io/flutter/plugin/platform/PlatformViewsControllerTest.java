@@ -1,5 +1,7 @@
 package io.flutter.plugin.platform;
 
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE;
 import static android.os.Looper.getMainLooper;
 import static io.flutter.embedding.engine.systemchannels.PlatformViewsChannel.PlatformViewTouch;
 import static org.junit.Assert.*;
@@ -10,6 +12,7 @@ import static org.robolectric.Shadows.shadowOf;
 import android.content.Context;
 import android.content.res.AssetManager;
 import android.graphics.SurfaceTexture;
+import android.media.ImageReader;
 import android.util.SparseArray;
 import android.view.MotionEvent;
 import android.view.Surface;
@@ -35,6 +38,7 @@ import io.flutter.embedding.engine.systemchannels.AccessibilityChannel;
 import io.flutter.embedding.engine.systemchannels.MouseCursorChannel;
 import io.flutter.embedding.engine.systemchannels.SettingsChannel;
 import io.flutter.embedding.engine.systemchannels.TextInputChannel;
+import io.flutter.plugin.common.FlutterException;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.StandardMethodCodec;
 import io.flutter.plugin.localization.LocalizationPlugin;
@@ -178,6 +182,134 @@ public class PlatformViewsControllerTest {
     verify(androidView, times(1)).setLayoutDirection(0);
   }
 
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void createPlatformViewMessage__createsViewAsynchronouslyWhenFactoryOptsIn() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    platformViewsController.setSoftwareRendering(true);
+
+    int platformViewId = 0;
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    when(viewFactory.createsViewsAsynchronously()).thenReturn(true);
+    PlatformView platformView = mock(PlatformView.class);
+    View androidView = mock(View.class);
+    when(platformView.getView()).thenReturn(androidView);
+    when(viewFactory.create(any(), eq(platformViewId), any())).thenReturn(platformView);
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    attach(jni, platformViewsController);
+
+    // Simulate create call from the framework.
+    createPlatformView(
+        jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ false);
+    verify(viewFactory, never()).create(any(), anyInt(), any());
+    assertNull(platformViewsController.getPlatformViewById(platformViewId));
+
+    shadowOf(getMainLooper()).idle();
+    verify(viewFactory, times(1)).create(any(), eq(platformViewId), any());
+    assertEquals(androidView, platformViewsController.getPlatformViewById(platformViewId));
+    verify(androidView, times(1)).setLayoutDirection(0);
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void createPlatformViewMessage__repliesWithErrorWhenAsynchronousCreationFails() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    platformViewsController.setSoftwareRendering(true);
+
+    int platformViewId = 0;
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    when(viewFactory.createsViewsAsynchronously()).thenReturn(true);
+    when(viewFactory.create(any(), eq(platformViewId), any()))
+        .thenThrow(new IllegalArgumentException("Invalid params"));
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    FlutterView flutterView = attach(jni, platformViewsController);
+    final int childCount = flutterView.getChildCount();
+    ShadowFlutterJNI.getResponses().clear();
+
+    // Simulate create call from the framework.
+    createPlatformView(
+        jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ false);
+    // The framework gets the texture once the view was created.
+    assertEquals(0, ShadowFlutterJNI.getResponses().size());
+    assertEquals(childCount + 1, flutterView.getChildCount());
+
+    shadowOf(getMainLooper()).idle();
+    assertEquals(1, ShadowFlutterJNI.getResponses().size());
+    final ByteBuffer reply = ShadowFlutterJNI.getResponses().get(0);
+    reply.rewind();
+    assertThrows(FlutterException.class, () -> StandardMethodCodec.INSTANCE.decodeEnvelope(reply));
+
+    // The wrapper is disposed.
+    assertEquals(childCount, flutterView.getChildCount());
+    assertNull(platformViewsController.getPlatformViewById(platformViewId));
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void createPlatformViewMessage__skipsAsynchronousCreationOfDisposedView() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    platformViewsController.setSoftwareRendering(true);
+
+    int platformViewId = 0;
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    when(viewFactory.createsViewsAsynchronously()).thenReturn(true);
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    attach(jni, platformViewsController);
+
+    createPlatformView(
+        jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ false);
+    disposePlatformView(jni, platformViewsController, platformViewId);
+
+    shadowOf(getMainLooper()).idle();
+    verify(viewFactory, never()).create(any(), anyInt(), any());
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void registerViewFactory__prewarmsFactoryWhenIdle() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    PlatformViewFactory firstFactory = mock(PlatformViewFactory.class);
+    platformViewsController.getRegistry().registerViewFactory("firstType", firstFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    attach(jni, platformViewsController);
+    verify(firstFactory, never()).prewarm(any());
+
+    shadowOf(getMainLooper()).idle();
+    verify(firstFactory, times(1)).prewarm(any());
+
+    PlatformViewFactory secondFactory = mock(PlatformViewFactory.class);
+    platformViewsController.getRegistry().registerViewFactory("secondType", secondFactory);
+    shadowOf(getMainLooper()).idle();
+    verify(secondFactory, times(1)).prewarm(any());
+    verify(firstFactory, times(1)).prewarm(any());
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
+  public void registerViewFactory__keepsPrewarmingAfterAFactoryThrows() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+    PlatformViewFactory firstFactory = mock(PlatformViewFactory.class);
+    doThrow(new IllegalStateException("Prewarm failed")).when(firstFactory).prewarm(any());
+    platformViewsController.getRegistry().registerViewFactory("firstType", firstFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    attach(jni, platformViewsController);
+    shadowOf(getMainLooper()).idle();
+    verify(firstFactory, times(1)).prewarm(any());
+
+    PlatformViewFactory secondFactory = mock(PlatformViewFactory.class);
+    platformViewsController.getRegistry().registerViewFactory("secondType", secondFactory);
+    shadowOf(getMainLooper()).idle();
+    verify(secondFactory, times(1)).prewarm(any());
+  }
+
   @Test
   @Config(shadows = {ShadowFlutterJNI.class, ShadowPlatformTaskQueue.class})
   public void createPlatformViewMessage__setsAndroidViewSize() {
@@ -537,6 +669,115 @@ public class PlatformViewsControllerTest {
     verify(overlayImageView, times(1)).detachFromRenderer();
   }
 
+  @Test
+  @Config(shadows = {ShadowFlutterSurfaceView.class, ShadowFlutterJNI.class})
+  public void onDisplayOverlaySurface__setsLayoutParamsOnlyWhenChanged() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    attach(jni, platformViewsController);
+
+    final FlutterImageView overlayImageView =
+        spy(
+            new FlutterImageView(
+                ApplicationProvider.getApplicationContext(),
+                1,
+                1,
+                FlutterImageView.SurfaceKind.overlay));
+    final FlutterOverlaySurface overlaySurface =
+        platformViewsController.createOverlaySurface(overlayImageView);
+
+    for (int frame = 0; frame < 2; frame++) {
+      platformViewsController.onBeginFrame();
+      platformViewsController.onDisplayOverlaySurface(
+          overlaySurface.getId(), /* x=*/ 5, /* y=*/ 10, /* width=*/ 20, /* height=*/ 30);
+    }
+    verify(overlayImageView, times(1)).setLayoutParams(any());
+    final FrameLayout.LayoutParams layoutParams =
+        (FrameLayout.LayoutParams) overlayImageView.getLayoutParams();
+    assertEquals(5, layoutParams.leftMargin);
+    assertEquals(10, layoutParams.topMargin);
+    assertEquals(20, layoutParams.width);
+    assertEquals(30, layoutParams.height);
+
+    // Moving the overlay updates its layout params.
+    platformViewsController.onBeginFrame();
+    platformViewsController.onDisplayOverlaySurface(
+        overlaySurface.getId(), /* x=*/ 6, /* y=*/ 10, /* width=*/ 20, /* height=*/ 30);
+    verify(overlayImageView, times(2)).setLayoutParams(any());
+    assertEquals(6, ((FrameLayout.LayoutParams) overlayImageView.getLayoutParams()).leftMargin);
+  }
+
+  @Test
+  @Config(
+      shadows = {
+        ShadowFlutterSurfaceView.class,
+        ShadowFlutterJNI.class,
+        ShadowPlatformTaskQueue.class
+      })
+  public void onEndFrame__restacksViewsOnlyWhenTheDisplayOrderChanges() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final int platformViewId = 0;
+    final PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    final PlatformView platformView = mock(PlatformView.class);
+    when(platformView.getView()).thenReturn(mock(View.class));
+    when(viewFactory.create(any(), eq(platformViewId), any())).thenReturn(platformView);
+
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    attach(jni, platformViewsController);
+
+    jni.onFirstFrame();
+
+    // Simulate create call from the framework.
+    createPlatformView(jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ true);
+
+    final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    when(overlayImageView.acquireLatestImage()).thenReturn(true);
+    final FlutterOverlaySurface overlaySurface =
+        platformViewsController.createOverlaySurface(overlayImageView);
+
+    // Produce frames that display the overlay surface above the platform view.
+    for (int frame = 0; frame < 3; frame++) {
+      platformViewsController.onBeginFrame();
+      platformViewsController.onDisplayPlatformView(
+          platformViewId,
+          /* x=*/ 0,
+          /* y=*/ 0,
+          /* width=*/ 10,
+          /* height=*/ 10,
+          /* viewWidth=*/ 10,
+          /* viewHeight=*/ 10,
+          /* mutatorsStack=*/ new FlutterMutatorsStack());
+      platformViewsController.onDisplayOverlaySurface(
+          overlaySurface.getId(), /* x=*/ 0, /* y=*/ 0, /* width=*/ 10, /* height=*/ 10);
+      platformViewsController.onEndFrame();
+    }
+    // Only the first frame restacks the views.
+    verify(overlayImageView, times(1)).bringToFront();
+
+    // Produce a frame that displays the overlay surface below the platform view.
+    platformViewsController.onBeginFrame();
+    platformViewsController.onDisplayOverlaySurface(
+        overlaySurface.getId(), /* x=*/ 0, /* y=*/ 0, /* width=*/ 10, /* height=*/ 10);
+    platformViewsController.onDisplayPlatformView(
+        platformViewId,
+        /* x=*/ 0,
+        /* y=*/ 0,
+        /* width=*/ 10,
+        /* height=*/ 10,
+        /* viewWidth=*/ 10,
+        /* viewHeight=*/ 10,
+        /* mutatorsStack=*/ new FlutterMutatorsStack());
+    platformViewsController.onEndFrame();
+
+    verify(overlayImageView, times(2)).bringToFront();
+  }
+
   @Test
   @Config(shadows = {ShadowFlutterSurfaceView.class, ShadowFlutterJNI.class})
   public void onEndFrame__removesPlatformView() {
@@ -658,6 +899,8 @@ public class PlatformViewsControllerTest {
         /* mutatorsStack=*/ new FlutterMutatorsStack());
 
     final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    final ImageReader overlayImageReader = mock(ImageReader.class);
+    when(overlayImageView.getImageReader()).thenReturn(overlayImageReader);
     when(overlayImageView.acquireLatestImage()).thenReturn(true);
 
     final FlutterOverlaySurface overlaySurface =
@@ -695,6 +938,8 @@ public class PlatformViewsControllerTest {
     platformViewsController.attachToView(flutterView);
 
     final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    final ImageReader overlayImageReader = mock(ImageReader.class);
+    when(overlayImageView.getImageReader()).thenReturn(overlayImageReader);
     when(overlayImageView.acquireLatestImage()).thenReturn(true);
 
     final FlutterOverlaySurface overlaySurface =
@@ -733,6 +978,8 @@ public class PlatformViewsControllerTest {
     platformViewsController.attachToView(flutterView);
 
     final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    final ImageReader overlayImageReader = mock(ImageReader.class);
+    when(overlayImageView.getImageReader()).thenReturn(overlayImageReader);
     when(overlayImageView.acquireLatestImage()).thenReturn(true);
 
     final FlutterOverlaySurface overlaySurface =
@@ -771,6 +1018,8 @@ public class PlatformViewsControllerTest {
     platformViewsController.attachToView(flutterView);
 
     final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    final ImageReader overlayImageReader = mock(ImageReader.class);
+    when(overlayImageView.getImageReader()).thenReturn(overlayImageReader);
     when(overlayImageView.acquireLatestImage()).thenReturn(true);
 
     final FlutterOverlaySurface overlaySurface =
@@ -781,6 +1030,133 @@ public class PlatformViewsControllerTest {
 
     platformViewsController.destroyOverlaySurfaces();
     verify(flutterView, never()).removeView(overlayImageView);
+    // The image reader is kept for the overlay surfaces of later frames.
+    verify(overlayImageView, never()).closeImageReader();
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterSurfaceView.class, ShadowFlutterJNI.class})
+  public void onTrimMemory__closesTheImageReadersOfDestroyedOverlaySurfaces() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    attach(jni, platformViewsController);
+
+    final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    final ImageReader overlayImageReader = mock(ImageReader.class);
+    when(overlayImageView.getImageReader()).thenReturn(overlayImageReader);
+    platformViewsController.createOverlaySurface(overlayImageView);
+
+    platformViewsController.destroyOverlaySurfaces();
+    verify(overlayImageView, never()).closeImageReader();
+
+    // Moderate pressure while the app is running keeps the readers.
+    platformViewsController.onTrimMemory(TRIM_MEMORY_RUNNING_MODERATE);
+    verify(overlayImageView, never()).closeImageReader();
+
+    platformViewsController.onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+    verify(overlayImageView, times(1)).closeImageReader();
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterSurfaceView.class, ShadowFlutterJNI.class})
+  public void resizingTheFlutterView__closesTheImageReadersOfDestroyedOverlaySurfaces() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    final FlutterView flutterView = attach(jni, platformViewsController);
+
+    final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    final ImageReader overlayImageReader = mock(ImageReader.class);
+    when(overlayImageView.getImageReader()).thenReturn(overlayImageReader);
+    platformViewsController.createOverlaySurface(overlayImageView);
+
+    platformViewsController.destroyOverlaySurfaces();
+    verify(overlayImageView, never()).closeImageReader();
+
+    // The overlay surfaces of later frames are larger, so they can't reuse the reader.
+    flutterView.layout(0, 0, 100, 200);
+    verify(overlayImageView, times(1)).closeImageReader();
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterSurfaceView.class, ShadowFlutterJNI.class})
+  public void destroyOverlaySurfaces__closesTheImageReadersOfResizedOverlaySurfaces() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    final FlutterView flutterView = attach(jni, platformViewsController);
+
+    final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    final ImageReader overlayImageReader = mock(ImageReader.class);
+    when(overlayImageView.getImageReader()).thenReturn(overlayImageReader);
+    platformViewsController.createOverlaySurface(overlayImageView);
+
+    // The reader of the overlay surface is still in use when the Flutter view is resized.
+    flutterView.layout(0, 0, 100, 200);
+    verify(overlayImageView, never()).closeImageReader();
+
+    platformViewsController.destroyOverlaySurfaces();
+    verify(overlayImageView, times(1)).closeImageReader();
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterSurfaceView.class, ShadowFlutterJNI.class})
+  public void createOverlaySurface__reusesTheViewsOfDestroyedOverlaySurfaces() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    final FlutterView flutterView = attach(jni, platformViewsController);
+    flutterView.layout(0, 0, 100, 200);
+
+    final FlutterOverlaySurface firstOverlaySurface =
+        platformViewsController.createOverlaySurface();
+    platformViewsController.destroyOverlaySurfaces();
+
+    final FlutterOverlaySurface secondOverlaySurface =
+        platformViewsController.createOverlaySurface();
+    assertNotEquals(firstOverlaySurface.getId(), secondOverlaySurface.getId());
+    assertSame(firstOverlaySurface.getSurface(), secondOverlaySurface.getSurface());
+  }
+
+  @Test
+  @Config(shadows = {ShadowFlutterSurfaceView.class, ShadowFlutterJNI.class})
+  public void destroyOverlaySurfaces__removesOverlayViewAtNextFrame() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative();
+    attach(jni, platformViewsController);
+
+    final FlutterView flutterView = mock(FlutterView.class);
+    platformViewsController.attachToView(flutterView);
+
+    final FlutterImageView overlayImageView = mock(FlutterImageView.class);
+    final ImageReader overlayImageReader = mock(ImageReader.class);
+    when(overlayImageView.getImageReader()).thenReturn(overlayImageReader);
+
+    final FlutterOverlaySurface overlaySurface =
+        platformViewsController.createOverlaySurface(overlayImageView);
+    platformViewsController.onDisplayOverlaySurface(
+        overlaySurface.getId(), /* x=*/ 0, /* y=*/ 0, /* width=*/ 10, /* height=*/ 10);
+
+    platformViewsController.destroyOverlaySurfaces();
+    verify(flutterView, never()).removeView(overlayImageView);
+    assertThrows(
+        IllegalStateException.class,
+        () -> {
+          platformViewsController.onDisplayOverlaySurface(
+              overlaySurface.getId(), /* x=*/ 0, /* y=*/ 0, /* width=*/ 10, /* height=*/ 10);
+        });
+
+    platformViewsController.onBeginFrame();
+    verify(flutterView, times(1)).removeView(overlayImageView);
+    verify(overlayImageView, times(1)).detachFromRenderer();
+    verify(overlayImageView, never()).closeImageReader();
   }
 
   @Test
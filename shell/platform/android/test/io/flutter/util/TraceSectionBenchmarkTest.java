@@ -0,0 +1,55 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.util;
+
+import static org.junit.Assert.assertTrue;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.tracing.Trace;
+import io.flutter.benchmark.MicroBenchmark;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+/**
+ * Overhead of the sections that the embedding begins on every message, before API 29, where {@link
+ * Trace#isEnabled()} uses reflection.
+ */
+@Config(manifest = Config.NONE, sdk = 28)
+@RunWith(AndroidJUnit4.class)
+public class TraceSectionBenchmarkTest {
+  // Not constants, so that the names are concatenated at runtime like in the embedding.
+  private final String prefix = "DartMessenger#handleMessageFromDart on ";
+  private final String suffix = "benchmark";
+
+  @Test
+  public void sectionsWithIsEnabledCheck() throws Exception {
+    // What TraceSection.begin did before it skipped the check below API 29.
+    final MicroBenchmark.Result result =
+        MicroBenchmark.run(
+            "TraceSection.sectionsWithIsEnabledCheck",
+            () -> {
+              if (Trace.isEnabled()) {
+                Trace.beginSection(prefix + suffix);
+              }
+              Trace.endSection();
+              return null;
+            });
+    assertTrue(result.operationsPerSecond > 0);
+  }
+
+  @Test
+  public void sections() throws Exception {
+    final MicroBenchmark.Result result =
+        MicroBenchmark.run(
+            "TraceSection.sections",
+            () -> {
+              TraceSection.begin(prefix, suffix);
+              TraceSection.end();
+              return null;
+            });
+    assertTrue(result.operationsPerSecond > 0);
+  }
+}
@@ -0,0 +1,114 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.view.View;
+import android.view.accessibility.AccessibilityManager;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.flutter.benchmark.MicroBenchmark;
+import io.flutter.embedding.engine.systemchannels.AccessibilityChannel;
+import io.flutter.plugin.platform.PlatformViewsAccessibilityDelegate;
+import io.flutter.view.AccessibilityBridgeTest.TestSemanticsNode;
+import io.flutter.view.AccessibilityBridgeTest.TestSemanticsUpdate;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+/** Cost of applying semantics updates of synthetic trees to the {@link AccessibilityBridge}. */
+@Config(manifest = Config.NONE)
+@RunWith(AndroidJUnit4.class)
+public class AccessibilityBridgeBenchmarkTest {
+  // Reuses the semantics encoding of the unit tests.
+  private final AccessibilityBridgeTest helper = new AccessibilityBridgeTest();
+
+  // Mocks that do not record invocations, so that memory does not grow with the iterations.
+  private static <T> T stub(Class<T> type) {
+    return mock(type, withSettings().stubOnly());
+  }
+
+  private AccessibilityBridge setUpBridge() {
+    final View rootAccessibilityView = stub(View.class);
+    final Context context = stub(Context.class);
+    when(rootAccessibilityView.getContext()).thenReturn(context);
+    when(context.getPackageName()).thenReturn("test");
+    return helper.setUpBridge(
+        rootAccessibilityView,
+        stub(AccessibilityChannel.class),
+        stub(AccessibilityManager.class),
+        stub(ContentResolver.class),
+        stub(AccessibilityViewEmbedder.class),
+        stub(PlatformViewsAccessibilityDelegate.class));
+  }
+
+  private TestSemanticsNode createNode(int id, String label) {
+    final TestSemanticsNode node = helper.new TestSemanticsNode();
+    node.id = id;
+    node.label = label;
+    node.left = 0;
+    node.top = id;
+    node.right = 100;
+    node.bottom = id + 10;
+    return node;
+  }
+
+  // Unlike TestSemanticsNode#toUpdate, which is limited to a few nodes.
+  private TestSemanticsUpdate toUpdate(TestSemanticsNode root) {
+    final ArrayList<String> strings = new ArrayList<>();
+    final ArrayList<ByteBuffer> stringAttributeArgs = new ArrayList<>();
+    final ByteBuffer bytes = ByteBuffer.allocate(256 * 1024);
+    root.addToBuffer(bytes, strings, stringAttributeArgs);
+    bytes.flip();
+    final String[] stringArray = strings.toArray(new String[0]);
+    final ByteBuffer[] argsArray = stringAttributeArgs.toArray(new ByteBuffer[0]);
+    return helper.new TestSemanticsUpdate(bytes, stringArray, argsArray);
+  }
+
+  private void benchmarkUpdates(String name, TestSemanticsNode root) throws Exception {
+    final AccessibilityBridge bridge = setUpBridge();
+    final TestSemanticsUpdate update = toUpdate(root);
+    final MicroBenchmark.Result result =
+        MicroBenchmark.run(
+            name,
+            () -> {
+              update.buffer.position(0);
+              update.sendUpdateToBridge(bridge);
+              return bridge;
+            });
+    assertTrue(result.operationsPerSecond > 0);
+  }
+
+  @Test
+  public void nestedTreeUpdate() throws Exception {
+    // Three levels of ten children, 111 nodes in total.
+    final TestSemanticsNode root = createNode(0, "root");
+    int nextId = 1;
+    for (int i = 0; i < 10; i++) {
+      final TestSemanticsNode child = createNode(nextId++, "group " + i);
+      for (int j = 0; j < 10; j++) {
+        child.addChild(createNode(nextId++, "item " + i + "." + j));
+      }
+      root.addChild(child);
+    }
+    benchmarkUpdates("AccessibilityBridge.nestedTreeUpdate", root);
+  }
+
+  @Test
+  public void longListUpdate() throws Exception {
+    final TestSemanticsNode root = createNode(0, "list");
+    for (int i = 1; i <= 200; i++) {
+      root.addChild(createNode(i, "item " + i));
+    }
+    benchmarkUpdates("AccessibilityBridge.longListUpdate", root);
+  }
+}
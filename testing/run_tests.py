@@ -10,9 +10,11 @@ A top level harness to run all unit-tests in a specific engine build.
 
 import argparse
 import glob
+import json
 import multiprocessing
 import os
 import re
+import shutil
 import subprocess
 import sys
 import time
@@ -539,7 +541,9 @@ def JavaBin():
   return os.path.join(JavaHome(), 'bin', 'java.exe' if IsWindows() else 'java')
 
 
-def RunJavaTests(filter, android_variant='android_debug_unopt'):
+def RunJavaTests(
+    filter, android_variant='android_debug_unopt', full_benchmarks=False
+):
   """Runs the Java JUnit unit tests for the Android embedding"""
   test_runner_dir = os.path.join(
       buildroot_dir, 'flutter', 'shell', 'platform', 'android', 'test_runner'
@@ -571,10 +575,33 @@ def RunJavaTests(filter, android_variant='android_debug_unopt'):
       '--project-cache-dir=%s' % gradle_cache_dir,
       '--gradle-user-home=%s' % gradle_cache_dir,
   ]
+  benchmark_results_dir = os.path.join(build_dir, 'benchmark_results')
+  if full_benchmarks:
+    # Run the microbenchmarks long enough for their results to be compared.
+    command.append('-Pflutter_benchmark=full')
+    # Don't collect the results of benchmarks that no longer exist.
+    shutil.rmtree(benchmark_results_dir, ignore_errors=True)
 
   env = dict(os.environ, ANDROID_HOME=android_home, JAVA_HOME=JavaHome())
   RunCmd(command, cwd=test_runner_dir, env=env)
 
+  if full_benchmarks:
+    CollectJavaBenchmarkResults(
+        benchmark_results_dir,
+        os.path.join(out_dir, android_variant, 'java_benchmarks.json')
+    )
+
+
+def CollectJavaBenchmarkResults(results_dir, output_file):
+  """Merges the results that the Java microbenchmarks wrote into one file"""
+  results = []
+  for result_file in sorted(glob.glob(os.path.join(results_dir, '*.json'))):
+    with open(result_file) as f:
+      results.append(json.load(f))
+  with open(output_file, 'w') as f:
+    json.dump({'benchmarks': results}, f, indent=2, sort_keys=True)
+  print('Wrote %d Java benchmark results to %s' % (len(results), output_file))
+
 
 def RunAndroidTests(android_variant='android_debug_unopt', adb_path=None):
   test_runner_name = 'flutter_shell_native_unittests'
@@ -897,6 +924,15 @@ def main():
       default='',
       help='A single Java test class to run (example: "io.flutter.SmokeTest")'
   )
+  parser.add_argument(
+      '--full-java-benchmarks',
+      dest='full_java_benchmarks',
+      action='store_true',
+      default=False,
+      help='Run the Java microbenchmarks for long enough to compare their '
+      'results, instead of a few quick iterations, and collect the results '
+      'in java_benchmarks.json in the variant out directory.'
+  )
   parser.add_argument(
       '--android-variant',
       dest='android_variant',
@@ -1011,7 +1047,9 @@ def main():
           + java_filter
       )
       java_filter = None
-    RunJavaTests(java_filter, args.android_variant)
+    RunJavaTests(
+        java_filter, args.android_variant, args.full_java_benchmarks
+    )
 
   if 'android' in types:
     assert not IsWindows(), "Android engine files can't be compiled on Windows."
@@ -0,0 +1,101 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package dev.flutter.benchmarks;
+
+import android.os.Bundle;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.test.InstrumentationRegistry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Collects the samples of the metrics of a benchmark, and reports them as JSON.
+ *
+ * <p>The report is sent as an instrumentation status under the {@link #STATUS_KEY} key, which
+ * {@code am instrument -r} prints, and logged with the {@link #TAG} tag. It looks like:
+ *
+ * <pre>{@code
+ * {"benchmark": "StartupBenchmarks#coldStart",
+ *  "metrics": {"startMillis": {"unit": "ms", "samples": [...], "min": ..., "median": ...,
+ *                              "p90": ..., "max": ...}}}
+ * }</pre>
+ */
+public final class BenchmarkReport {
+  public static final String TAG = "FlutterBenchmark";
+  public static final String STATUS_KEY = "flutter_benchmark";
+
+  // An in progress status, which the test runner does not interpret.
+  private static final int STATUS_IN_PROGRESS = 2;
+
+  private static final class Metric {
+    final String unit;
+    final List<Double> samples = new ArrayList<>();
+
+    Metric(String unit) {
+      this.unit = unit;
+    }
+  }
+
+  private final String name;
+  private final Map<String, Metric> metrics = new LinkedHashMap<>();
+
+  public BenchmarkReport(@NonNull String name) {
+    this.name = name;
+  }
+
+  /** Adds a sample of the metric, which is measured in the unit, such as {@code "ms"}. */
+  public void addSample(@NonNull String metric, @NonNull String unit, double value) {
+    Metric samples = metrics.get(metric);
+    if (samples == null) {
+      samples = new Metric(unit);
+      metrics.put(metric, samples);
+    }
+    samples.samples.add(value);
+  }
+
+  /** Sends the report to the instrumentation and the log. */
+  public void report() throws JSONException {
+    final JSONObject json = new JSONObject();
+    json.put("benchmark", name);
+    final JSONObject metricsJson = new JSONObject();
+    for (Map.Entry<String, Metric> entry : metrics.entrySet()) {
+      metricsJson.put(entry.getKey(), toJson(entry.getValue()));
+    }
+    json.put("metrics", metricsJson);
+
+    final String report = json.toString();
+    Log.i(TAG, report);
+    final Bundle status = new Bundle();
+    status.putString(STATUS_KEY, report);
+    InstrumentationRegistry.getInstrumentation().sendStatus(STATUS_IN_PROGRESS, status);
+  }
+
+  @NonNull
+  private static JSONObject toJson(@NonNull Metric metric) throws JSONException {
+    final List<Double> sorted = new ArrayList<>(metric.samples);
+    Collections.sort(sorted);
+    final JSONObject json = new JSONObject();
+    json.put("unit", metric.unit);
+    json.put("samples", new JSONArray(metric.samples));
+    json.put("min", sorted.get(0));
+    json.put("median", percentile(sorted, 50));
+    json.put("p90", percentile(sorted, 90));
+    json.put("max", sorted.get(sorted.size() - 1));
+    return json;
+  }
+
+  // Nearest rank percentile of the sorted samples.
+  private static double percentile(@NonNull List<Double> sorted, int percentile) {
+    final int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+    return sorted.get(Math.max(rank - 1, 0));
+  }
+}
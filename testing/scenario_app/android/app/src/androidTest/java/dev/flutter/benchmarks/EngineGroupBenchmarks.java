@@ -0,0 +1,124 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package dev.flutter.benchmarks;
+
+import android.content.Context;
+import android.os.Debug;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.test.InstrumentationRegistry;
+import androidx.test.filters.LargeTest;
+import androidx.test.internal.runner.junit4.statement.UiThreadStatement;
+import androidx.test.runner.AndroidJUnit4;
+import com.google.common.util.concurrent.SettableFuture;
+import io.flutter.embedding.engine.FlutterEngine;
+import io.flutter.embedding.engine.FlutterEngineGroup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Measures the creation time and the memory of engines spawned by a {@link FlutterEngineGroup}. */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class EngineGroupBenchmarks {
+  private static final int SPAWNED_ENGINES = 5;
+
+  private final List<FlutterEngine> engines = new ArrayList<>();
+
+  // The result of creating an engine that runs the default entrypoint.
+  private static final class CreatedEngine {
+    final FlutterEngine engine;
+    // Milliseconds spent creating the engine on the platform thread.
+    final long createMillis;
+    // Completed with the uptime at which the isolate sent its first message.
+    final SettableFuture<Long> isolateReadyUptimeMillis = SettableFuture.create();
+
+    CreatedEngine(@NonNull FlutterEngine engine, long createMillis) {
+      this.engine = engine;
+      this.createMillis = createMillis;
+    }
+  }
+
+  // Creates an engine from the group on the platform thread, and waits for its isolate to send
+  // the message main.dart sends once it runs.
+  private void createAndWaitUntilReady(
+      @NonNull FlutterEngineGroup engineGroup,
+      @NonNull Context context,
+      @NonNull BenchmarkReport report,
+      @NonNull String metricPrefix)
+      throws Throwable {
+    final AtomicReference<CreatedEngine> created = new AtomicReference<>();
+    final long startUptimeMillis = SystemClock.uptimeMillis();
+    UiThreadStatement.runOnUiThread(
+        () -> {
+          final FlutterEngine engine = engineGroup.createAndRunDefaultEngine(context);
+          final CreatedEngine createdEngine =
+              new CreatedEngine(engine, SystemClock.uptimeMillis() - startUptimeMillis);
+          // The message cannot arrive before the handler is set, since it is delivered on this
+          // thread.
+          engine
+              .getDartExecutor()
+              .setMessageHandler(
+                  "waiting_for_status",
+                  (message, reply) ->
+                      createdEngine.isolateReadyUptimeMillis.set(SystemClock.uptimeMillis()));
+          created.set(createdEngine);
+        });
+    final CreatedEngine createdEngine = created.get();
+    engines.add(createdEngine.engine);
+    final long readyMillis =
+        createdEngine.isolateReadyUptimeMillis.get(10, TimeUnit.SECONDS) - startUptimeMillis;
+    report.addSample(metricPrefix + "CreateMillis", "ms", createdEngine.createMillis);
+    report.addSample(metricPrefix + "ReadyMillis", "ms", readyMillis);
+  }
+
+  // The total PSS of the process, which runs both the app and the tests.
+  private static long totalPssKb() {
+    Runtime.getRuntime().gc();
+    final Debug.MemoryInfo memoryInfo = new Debug.MemoryInfo();
+    Debug.getMemoryInfo(memoryInfo);
+    return memoryInfo.getTotalPss();
+  }
+
+  @After
+  public void tearDown() throws Throwable {
+    UiThreadStatement.runOnUiThread(
+        () -> {
+          for (FlutterEngine engine : engines) {
+            engine.destroy();
+          }
+        });
+    engines.clear();
+  }
+
+  /**
+   * Creates the first engine of a group, which starts its own isolate group, and then spawns
+   * engines from it, which share the isolate group.
+   */
+  @Test
+  public void spawnEngines() throws Throwable {
+    final Context context = InstrumentationRegistry.getTargetContext();
+    final FlutterEngineGroup engineGroup = new FlutterEngineGroup(context);
+    final BenchmarkReport report = new BenchmarkReport("EngineGroupBenchmarks#spawnEngines");
+
+    final long pssBeforeKb = totalPssKb();
+    createAndWaitUntilReady(engineGroup, context, report, "firstEngine");
+    final long pssFirstEngineKb = totalPssKb();
+    report.addSample("firstEnginePssKb", "kB", pssFirstEngineKb - pssBeforeKb);
+
+    long pssKb = pssFirstEngineKb;
+    for (int i = 0; i < SPAWNED_ENGINES; i++) {
+      createAndWaitUntilReady(engineGroup, context, report, "spawnedEngine");
+      final long pssSpawnedKb = totalPssKb();
+      report.addSample("spawnedEnginePssKb", "kB", pssSpawnedKb - pssKb);
+      pssKb = pssSpawnedKb;
+    }
+    report.report();
+  }
+}
@@ -0,0 +1,143 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package dev.flutter.benchmarks;
+
+import android.content.Intent;
+import android.os.Build;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.FrameMetrics;
+import android.view.Window;
+import androidx.annotation.NonNull;
+import androidx.annotation.RequiresApi;
+import androidx.test.filters.LargeTest;
+import androidx.test.internal.runner.junit4.statement.UiThreadStatement;
+import androidx.test.rule.ActivityTestRule;
+import androidx.test.runner.AndroidJUnit4;
+import dev.flutter.scenarios.TextPlatformViewActivity;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the frames of a scrolling list of platform views, composited with hybrid composition
+ * or with texture layers.
+ *
+ * <p>The intervals between the vsyncs the platform thread handles show the frames it misses while
+ * it positions the platform views. On API 24 and above, the durations of the frames of the Android
+ * view hierarchy, which draws the platform views, are reported as well.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class PlatformViewFrameBenchmarks {
+  private static final long MEASUREMENT_MILLIS = 5000;
+
+  Intent intent;
+
+  @Rule @NonNull
+  public ActivityTestRule<TextPlatformViewActivity> activityRule =
+      new ActivityTestRule<>(
+          TextPlatformViewActivity.class, /*initialTouchMode=*/ false, /*launchActivity=*/ false);
+
+  @Before
+  public void setUp() {
+    intent = new Intent(Intent.ACTION_MAIN);
+    intent.putExtra("scenario_name", "platform_view_scrolling_under_widget");
+  }
+
+  // Records the intervals between the vsyncs handled by the platform thread.
+  private static final class VsyncIntervalRecorder implements Choreographer.FrameCallback {
+    final List<Long> intervalsNanos = new ArrayList<>();
+    private long lastFrameTimeNanos;
+    private boolean recording;
+
+    void start() {
+      recording = true;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    void stop() {
+      recording = false;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+      if (!recording) {
+        return;
+      }
+      if (lastFrameTimeNanos != 0) {
+        intervalsNanos.add(frameTimeNanos - lastFrameTimeNanos);
+      }
+      lastFrameTimeNanos = frameTimeNanos;
+      Choreographer.getInstance().postFrameCallback(this);
+    }
+  }
+
+  @RequiresApi(Build.VERSION_CODES.N)
+  private static Window.OnFrameMetricsAvailableListener recordFrameDurations(
+      @NonNull BenchmarkReport report) {
+    return (window, frameMetrics, dropCountSinceLastInvocation) -> {
+      // The listener only runs on its thread, which is joined before the report is read.
+      final long totalNanos = frameMetrics.getMetric(FrameMetrics.TOTAL_DURATION);
+      report.addSample("androidFrameMillis", "ms", totalNanos / 1e6);
+    };
+  }
+
+  private void measureFrames(@NonNull String name) throws Throwable {
+    final TextPlatformViewActivity activity = activityRule.launchActivity(intent);
+    // Wait for the platform views to be created and the scenario to scroll.
+    activity.waitUntilFlutterRendered();
+
+    final BenchmarkReport report = new BenchmarkReport(name);
+    final VsyncIntervalRecorder vsyncRecorder = new VsyncIntervalRecorder();
+    HandlerThread frameMetricsThread = null;
+    Window.OnFrameMetricsAvailableListener frameMetricsListener = null;
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+      frameMetricsThread = new HandlerThread("FrameMetrics");
+      frameMetricsThread.start();
+      frameMetricsListener = recordFrameDurations(report);
+      activity
+          .getWindow()
+          .addOnFrameMetricsAvailableListener(
+              frameMetricsListener, new Handler(frameMetricsThread.getLooper()));
+    }
+    UiThreadStatement.runOnUiThread(vsyncRecorder::start);
+    SystemClock.sleep(MEASUREMENT_MILLIS);
+    UiThreadStatement.runOnUiThread(vsyncRecorder::stop);
+    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+      activity.getWindow().removeOnFrameMetricsAvailableListener(frameMetricsListener);
+      frameMetricsThread.quitSafely();
+      frameMetricsThread.join();
+    }
+
+    final float refreshRate = activity.getWindowManager().getDefaultDisplay().getRefreshRate();
+    final double refreshPeriodMillis = 1000 / refreshRate;
+    int missedVsyncs = 0;
+    for (long intervalNanos : vsyncRecorder.intervalsNanos) {
+      final double intervalMillis = intervalNanos / 1e6;
+      report.addSample("vsyncIntervalMillis", "ms", intervalMillis);
+      missedVsyncs += Math.max(Math.round(intervalMillis / refreshPeriodMillis) - 1, 0);
+    }
+    report.addSample("missedVsyncs", "count", missedVsyncs);
+    report.report();
+  }
+
+  @Test
+  public void hybridComposition() throws Throwable {
+    intent.putExtra("use_android_view", true);
+    measureFrames("PlatformViewFrameBenchmarks#hybridComposition");
+  }
+
+  @Test
+  public void textureLayer() throws Throwable {
+    intent.putExtra("use_android_view", false);
+    measureFrames("PlatformViewFrameBenchmarks#textureLayer");
+  }
+}
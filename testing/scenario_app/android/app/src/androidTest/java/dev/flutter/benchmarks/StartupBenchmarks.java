@@ -0,0 +1,109 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package dev.flutter.benchmarks;
+
+import android.content.Context;
+import android.content.Intent;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.test.InstrumentationRegistry;
+import androidx.test.filters.LargeTest;
+import androidx.test.internal.runner.junit4.statement.UiThreadStatement;
+import androidx.test.rule.ActivityTestRule;
+import androidx.test.runner.AndroidJUnit4;
+import dev.flutter.scenarios.TextPlatformViewActivity;
+import io.flutter.embedding.engine.FlutterEngine;
+import io.flutter.embedding.engine.FlutterEngineCache;
+import io.flutter.embedding.engine.dart.DartExecutor;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the time from launching a {@code FlutterActivity} to its first Flutter frame.
+ *
+ * <p>The tests run in the process of the app, so process creation is not included.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class StartupBenchmarks {
+  private static final int LAUNCHES = 10;
+  private static final String CACHED_ENGINE_ID = "startup_benchmark_engine";
+
+  Intent intent;
+
+  @Rule @NonNull
+  public ActivityTestRule<TextPlatformViewActivity> activityRule =
+      new ActivityTestRule<>(
+          TextPlatformViewActivity.class, /*initialTouchMode=*/ false, /*launchActivity=*/ false);
+
+  @Before
+  public void setUp() {
+    intent = new Intent(Intent.ACTION_MAIN);
+    intent.putExtra("scenario_name", "animated_color_square");
+  }
+
+  // Returns the milliseconds from the launch of the activity to its first frame.
+  private long launchUntilFlutterUiDisplayed() {
+    final long launchUptimeMillis = SystemClock.uptimeMillis();
+    final TextPlatformViewActivity activity = activityRule.launchActivity(intent);
+    final long startMillis = activity.waitUntilFlutterUiDisplayed() - launchUptimeMillis;
+    activityRule.finishActivity();
+    InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+    return startMillis;
+  }
+
+  /**
+   * Launches activities that each create a new engine, which loads the Dart isolate before the
+   * first frame.
+   *
+   * <p>The first launch of the process also loads the engine library and starts the Dart VM, so it
+   * is reported separately.
+   */
+  @Test
+  public void coldStart() throws Exception {
+    final BenchmarkReport report = new BenchmarkReport("StartupBenchmarks#coldStart");
+    report.addSample("firstStartMillis", "ms", launchUntilFlutterUiDisplayed());
+    for (int i = 0; i < LAUNCHES; i++) {
+      report.addSample("startMillis", "ms", launchUntilFlutterUiDisplayed());
+    }
+    report.report();
+  }
+
+  /** Launches activities that attach to an engine that is already running. */
+  @Test
+  public void warmStart() throws Throwable {
+    final Context applicationContext = InstrumentationRegistry.getTargetContext();
+    final AtomicReference<FlutterEngine> engine = new AtomicReference<>();
+    UiThreadStatement.runOnUiThread(
+        () -> {
+          engine.set(new FlutterEngine(applicationContext));
+          engine
+              .get()
+              .getDartExecutor()
+              .executeDartEntrypoint(DartExecutor.DartEntrypoint.createDefault());
+          FlutterEngineCache.getInstance().put(CACHED_ENGINE_ID, engine.get());
+        });
+    intent.putExtra("cached_engine_id", CACHED_ENGINE_ID);
+
+    try {
+      final BenchmarkReport report = new BenchmarkReport("StartupBenchmarks#warmStart");
+      // Let the first launch wait for the isolate to be ready.
+      launchUntilFlutterUiDisplayed();
+      for (int i = 0; i < LAUNCHES; i++) {
+        report.addSample("startMillis", "ms", launchUntilFlutterUiDisplayed());
+      }
+      report.report();
+    } finally {
+      UiThreadStatement.runOnUiThread(
+          () -> {
+            FlutterEngineCache.getInstance().remove(CACHED_ENGINE_ID);
+            engine.get().destroy();
+          });
+    }
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package dev.flutter.benchmarks;
+
+import android.app.Instrumentation;
+import android.content.Intent;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import androidx.annotation.NonNull;
+import androidx.test.InstrumentationRegistry;
+import androidx.test.filters.LargeTest;
+import androidx.test.internal.runner.junit4.statement.UiThreadStatement;
+import androidx.test.rule.ActivityTestRule;
+import androidx.test.runner.AndroidJUnit4;
+import dev.flutter.scenarios.TextPlatformViewActivity;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Measures the latency from injecting a touch to the Flutter frame that responds to it.
+ *
+ * <p>The {@code touch_to_frame} scenario renders a frame for each pointer down, and sends a
+ * message once it has submitted the frame for rasterization.
+ */
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class TouchToFrameBenchmarks {
+  private static final int TOUCHES = 50;
+
+  Intent intent;
+
+  @Rule @NonNull
+  public ActivityTestRule<TextPlatformViewActivity> activityRule =
+      new ActivityTestRule<>(
+          TextPlatformViewActivity.class, /*initialTouchMode=*/ false, /*launchActivity=*/ false);
+
+  @Before
+  public void setUp() {
+    intent = new Intent(Intent.ACTION_MAIN);
+    intent.putExtra("scenario_name", "touch_to_frame");
+  }
+
+  @Test
+  public void touchToFrame() throws Throwable {
+    final TextPlatformViewActivity activity = activityRule.launchActivity(intent);
+    activity.waitUntilFlutterRendered();
+
+    final LinkedBlockingQueue<Long> frameUptimesMillis = new LinkedBlockingQueue<>();
+    UiThreadStatement.runOnUiThread(
+        () ->
+            activity
+                .getFlutterEngine()
+                .getDartExecutor()
+                .setMessageHandler(
+                    "touch_frame_rendered",
+                    (message, reply) -> frameUptimesMillis.add(SystemClock.uptimeMillis())));
+
+    final View decorView = activity.getWindow().getDecorView();
+    final float x = decorView.getWidth() / 2f;
+    final float y = decorView.getHeight() / 2f;
+    final Instrumentation instrumentation = InstrumentationRegistry.getInstrumentation();
+    final BenchmarkReport report = new BenchmarkReport("TouchToFrameBenchmarks#touchToFrame");
+    for (int i = 0; i < TOUCHES; i++) {
+      final long downTime = SystemClock.uptimeMillis();
+      final MotionEvent down =
+          MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, x, y, 0);
+      instrumentation.sendPointerSync(down);
+      down.recycle();
+      final Long frameUptimeMillis = frameUptimesMillis.poll(5, TimeUnit.SECONDS);
+      if (frameUptimeMillis == null) {
+        throw new AssertionError("No frame was rendered for touch " + i);
+      }
+      report.addSample("touchToFrameMillis", "ms", frameUptimeMillis - downTime);
+
+      final MotionEvent up =
+          MotionEvent.obtain(
+              downTime, SystemClock.uptimeMillis(), MotionEvent.ACTION_UP, x, y, 0);
+      instrumentation.sendPointerSync(up);
+      up.recycle();
+    }
+    report.report();
+  }
+}
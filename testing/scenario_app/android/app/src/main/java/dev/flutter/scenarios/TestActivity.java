@@ -68,6 +68,7 @@ public abstract class TestActivity extends TestableFlutterActivity {
 
   @Override
   public void onFlutterUiDisplayed() {
+    super.onFlutterUiDisplayed();
     final Intent launchIntent = getIntent();
     MethodChannel channel =
         new MethodChannel(getFlutterEngine().getDartExecutor(), "driver", JSONMethodCodec.INSTANCE);
@@ -4,14 +4,19 @@
 
 package dev.flutter.scenarios;
 
+import android.os.SystemClock;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.embedding.android.FlutterActivity;
 import io.flutter.embedding.engine.FlutterEngine;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public abstract class TestableFlutterActivity extends FlutterActivity {
   private Object flutterUiRenderedLock = new Object();
   private AtomicBoolean isScenarioReady = new AtomicBoolean(false);
+  private final CountDownLatch flutterUiDisplayed = new CountDownLatch(1);
+  private long flutterUiDisplayedUptimeMillis;
 
   @Override
   public void configureFlutterEngine(@NonNull FlutterEngine flutterEngine) {
@@ -22,6 +27,35 @@ public abstract class TestableFlutterActivity extends FlutterActivity {
         .setMessageHandler("take_screenshot", (byteBuffer, binaryReply) -> notifyFlutterRendered());
   }
 
+  @Override
+  @Nullable
+  public FlutterEngine getFlutterEngine() {
+    return super.getFlutterEngine();
+  }
+
+  @Override
+  public void onFlutterUiDisplayed() {
+    super.onFlutterUiDisplayed();
+    if (flutterUiDisplayed.getCount() > 0) {
+      flutterUiDisplayedUptimeMillis = SystemClock.uptimeMillis();
+      flutterUiDisplayed.countDown();
+    }
+  }
+
+  /**
+   * Waits until the first Flutter frame is displayed.
+   *
+   * @return The {@link SystemClock#uptimeMillis()} at which the first frame was displayed.
+   */
+  public long waitUntilFlutterUiDisplayed() {
+    try {
+      flutterUiDisplayed.await();
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+    return flutterUiDisplayedUptimeMillis;
+  }
+
   protected void notifyFlutterRendered() {
     synchronized (flutterUiRenderedLock) {
       isScenarioReady.set(true);
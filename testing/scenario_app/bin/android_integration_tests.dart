@@ -20,11 +20,15 @@ void main(List<String> args) async {
   const ProcessManager pm = LocalProcessManager();
   final ArgParser parser = ArgParser()
     ..addOption('adb', help: 'absolute path to the adb tool', mandatory: true)
-    ..addOption('out-dir', help: 'out directory', mandatory: true);
+    ..addOption('out-dir', help: 'out directory', mandatory: true)
+    ..addFlag('benchmarks',
+        help: 'run the benchmarks in dev.flutter.benchmarks instead of the tests, '
+            'and write their results to <out-dir>/scenario_app/benchmarks.json');
 
   final ArgResults results = parser.parse(args);
   final Directory outDir = Directory(results['out-dir']);
   final File adb = File(results['adb']);
+  final bool runBenchmarks = results['benchmarks'] as bool;
 
   if (!outDir.existsSync()) {
     panic(<String>['out-dir does not exist: $outDir', 'make sure to build the selected engine variant']);
@@ -95,18 +99,43 @@ void main(List<String> args) async {
       }
     });
 
-    await step('Running instrumented tests...', () async {
-      final int exitCode = await pm.runAndForward(<String>[
-        adb.path,
-        'shell',
-        'am',
-        'instrument',
-        '-w', 'dev.flutter.scenarios.test/dev.flutter.TestRunner',
-      ]);
-      if (exitCode != 0) {
-        panic(<String>['could not install test apk']);
-      }
-    });
+    if (runBenchmarks) {
+      await step('Running benchmarks...', () async {
+        final ProcessResult result = await pm.run(<String>[
+          adb.path,
+          'shell',
+          'am',
+          'instrument',
+          '-w', '-r',
+          '-e', 'package', 'dev.flutter.benchmarks',
+          'dev.flutter.scenarios.test/dev.flutter.TestRunner',
+        ]);
+        stdout.write(result.stdout);
+        stderr.write(result.stderr);
+        if (result.exitCode != 0) {
+          panic(<String>['could not run benchmarks']);
+        }
+        final List<Object?> benchmarkResults = parseBenchmarkResults(result.stdout as String);
+        final File resultsFile = File(join(outDir.path, 'scenario_app', 'benchmarks.json'));
+        resultsFile.writeAsStringSync(const JsonEncoder.withIndent('  ').convert(benchmarkResults));
+        log('wrote benchmark results to ${resultsFile.path}');
+      });
+    } else {
+      await step('Running instrumented tests...', () async {
+        final int exitCode = await pm.runAndForward(<String>[
+          adb.path,
+          'shell',
+          'am',
+          'instrument',
+          '-w',
+          '-e', 'notPackage', 'dev.flutter.benchmarks',
+          'dev.flutter.scenarios.test/dev.flutter.TestRunner',
+        ]);
+        if (exitCode != 0) {
+          panic(<String>['could not install test apk']);
+        }
+      });
+    }
   } finally {
     await server.close();
 
@@ -144,3 +173,12 @@ void main(List<String> args) async {
     });
   }
 }
+
+/// Extracts the reports of `BenchmarkReport` from the output of `am instrument -r`.
+List<Object?> parseBenchmarkResults(String output) {
+  const String prefix = 'INSTRUMENTATION_STATUS: flutter_benchmark=';
+  return <Object?>[
+    for (final String line in const LineSplitter().convert(output))
+      if (line.startsWith(prefix)) json.decode(line.substring(prefix.length)),
+  ];
+}
@@ -13,6 +13,7 @@ import 'locale_initialization.dart';
 import 'platform_view.dart';
 import 'poppable_screen.dart';
 import 'scenario.dart';
+import 'touch_to_frame.dart';
 import 'touches_scenario.dart';
 
 typedef ScenarioFactory = Scenario Function(); // ignore: public_member_api_docs
@@ -51,6 +52,7 @@ Map<String, ScenarioFactory> _scenarios = <String, ScenarioFactory>{
   'bogus_font_text': () => BogusFontText(PlatformDispatcher.instance),
   'spawn_engine_works' : () => BogusFontText(PlatformDispatcher.instance),
   'pointer_events': () => TouchesScenario(PlatformDispatcher.instance),
+  'touch_to_frame': () => TouchToFrameScenario(PlatformDispatcher.instance),
   'display_texture': () => DisplayTexture(PlatformDispatcher.instance),
 };
 
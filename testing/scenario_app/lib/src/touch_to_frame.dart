@@ -0,0 +1,62 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+import 'dart:ui';
+
+import 'channel_util.dart';
+import 'scenario.dart';
+
+/// A scenario that renders a new frame for each pointer down, and notifies the
+/// platform once the frame has been submitted.
+///
+/// Used to measure the latency from a touch to the frame that responds to it.
+class TouchToFrameScenario extends Scenario {
+  /// Creates the TouchToFrame scenario.
+  ///
+  /// The [dispatcher] parameter must not be null.
+  TouchToFrameScenario(PlatformDispatcher dispatcher)
+      : assert(dispatcher != null),
+        super(dispatcher);
+
+  int _touches = 0;
+  bool _respondingToTouch = false;
+
+  @override
+  void onBeginFrame(Duration duration) {
+    final PictureRecorder recorder = PictureRecorder();
+    final Canvas canvas = Canvas(recorder);
+    canvas.drawRect(
+      const Rect.fromLTWH(0, 0, 200, 200),
+      Paint()
+        ..color = _touches.isEven
+            ? const Color(0xFF0000FF)
+            : const Color(0xFFFF0000),
+    );
+    final SceneBuilder builder = SceneBuilder();
+    builder.addPicture(Offset.zero, recorder.endRecording());
+    final Scene scene = builder.build();
+    window.render(scene);
+    scene.dispose();
+
+    if (_respondingToTouch) {
+      _respondingToTouch = false;
+      sendJsonMessage(
+        dispatcher: dispatcher,
+        channel: 'touch_frame_rendered',
+        json: <String, dynamic>{'touches': _touches},
+      );
+    }
+  }
+
+  @override
+  void onPointerDataPacket(PointerDataPacket packet) {
+    for (final PointerData datum in packet.data) {
+      if (datum.change == PointerChange.down) {
+        _touches++;
+        _respondingToTouch = true;
+        window.scheduleFrame();
+      }
+    }
+  }
+}
@@ -6,6 +6,7 @@
 # Runs the Android scenario tests on a connected device.
 #   To run the test on a x64 emulator, build `android_debug_unopt_x64`, and then run
 #   `./run_android_tests.sh android_debug_unopt_x64`.
+#   To run the benchmarks instead, pass `--benchmarks` after the variant.
 
 set -e
 
@@ -41,4 +42,5 @@ cd $SCRIPT_DIR
 "$SRC_DIR/third_party/dart/tools/sdks/dart-sdk/bin/dart" run \
   "$SCRIPT_DIR/bin/android_integration_tests.dart" \
   --adb="$SRC_DIR"/third_party/android_tools/sdk/platform-tools/adb \
-  --out-dir="$OUT_DIR"
+  --out-dir="$OUT_DIR" \
+  "${@:2}"
@@ -0,0 +1,126 @@
+#!/usr/bin/env python3
+#
+# Copyright 2013 The Flutter Authors. All rights reserved.
+# Use of this source code is governed by a BSD-style license that can be
+# found in the LICENSE file.
+
+# Generates UnicodePropertyRanges.java for the Android embedding from the
+# Unicode character database shipped with ICU, so that FlutterTextUtils can
+# answer emoji related property queries without calling into ICU over JNI.
+#
+# Usage:
+#   tools/gen_unicode_properties_java.py \
+#       --unidata ../third_party/icu/source/data/unidata \
+#       --out shell/platform/android/io/flutter/plugin/editing/UnicodePropertyRanges.java
+
+import argparse
+import os
+import sys
+
+# Maps the Java constant name to the data file and property name it is read
+# from.
+PROPERTIES = [
+    ('EMOJI', 'emoji-data.txt', 'Emoji'),
+    ('EMOJI_MODIFIER', 'emoji-data.txt', 'Emoji_Modifier'),
+    ('EMOJI_MODIFIER_BASE', 'emoji-data.txt', 'Emoji_Modifier_Base'),
+    ('VARIATION_SELECTOR', 'PropList.txt', 'Variation_Selector'),
+    ('REGIONAL_INDICATOR', 'PropList.txt', 'Regional_Indicator'),
+]
+
+JAVA_TEMPLATE = """// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.editing;
+
+// DO NOT EDIT -- DO NOT EDIT -- DO NOT EDIT
+// This file is generated by flutter/engine/tools/gen_unicode_properties_java.py from the ICU
+// Unicode character database and should not be edited directly.
+
+/**
+ * Code point ranges of the Unicode properties used by {{@link FlutterTextUtils}}.
+ *
+ * <p>Each array holds sorted, non-overlapping, non-adjacent inclusive ranges as consecutive
+ * {{@code start, end}} pairs. See {{@link UnicodePropertyTable}} for the lookup structure built from
+ * them.
+ */
+final class UnicodePropertyRanges {{
+  private UnicodePropertyRanges() {{}}
+{arrays}}}
+"""
+
+
+def parse_ranges(path, property_name):
+  ranges = []
+  with open(path, encoding='utf-8') as data_file:
+    for line in data_file:
+      line = line.split('#', 1)[0].strip()
+      if not line:
+        continue
+      code_points, name = [field.strip() for field in line.split(';')[:2]]
+      if name != property_name:
+        continue
+      if '..' in code_points:
+        start, end = code_points.split('..')
+      else:
+        start = end = code_points
+      ranges.append((int(start, 16), int(end, 16)))
+  return merge_ranges(ranges)
+
+
+def merge_ranges(ranges):
+  merged = []
+  for start, end in sorted(ranges):
+    if merged and start <= merged[-1][1] + 1:
+      merged[-1] = (merged[-1][0], max(merged[-1][1], end))
+    else:
+      merged.append((start, end))
+  return merged
+
+
+def format_array(name, ranges):
+  # Keep each start, end pair on the same line.
+  values = ['0x%04X, 0x%04X' % (start, end) for start, end in ranges]
+  lines = []
+  line = '       '
+  for value in values:
+    item = ' %s,' % value
+    if len(line) + len(item) > 100:
+      lines.append(line)
+      line = '       '
+    line += item
+  lines.append(line)
+  return '\n  static final int[] %s =\n      new int[] {\n%s\n      };\n' % (
+      name, '\n'.join(lines)
+  )
+
+
+def main():
+  parser = argparse.ArgumentParser(
+      description='Generates UnicodePropertyRanges.java for the Android embedding'
+  )
+  parser.add_argument(
+      '--unidata',
+      type=str,
+      required=True,
+      help='The directory containing emoji-data.txt and PropList.txt'
+  )
+  parser.add_argument('--out', type=str, required=True)
+  args = parser.parse_args()
+
+  arrays = ''
+  for java_name, file_name, property_name in PROPERTIES:
+    path = os.path.join(args.unidata, file_name)
+    ranges = parse_ranges(path, property_name)
+    if not ranges:
+      print('No ranges found for %s in %s' % (property_name, path))
+      return 1
+    arrays += format_array(java_name, ranges)
+
+  with open(args.out, 'w', encoding='utf-8') as out_file:
+    out_file.write(JAVA_TEMPLATE.format(arrays=arrays))
+  return 0
+
+
+if __name__ == '__main__':
+  sys.exit(main())